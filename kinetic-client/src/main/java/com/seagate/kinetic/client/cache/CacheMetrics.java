@@ -0,0 +1,142 @@
+/**
+ * Copyright 2013-2015 Seagate Technology LLC.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla
+ * Public License, v. 2.0. If a copy of the MPL was not
+ * distributed with this file, You can obtain one at
+ * https://mozilla.org/MP:/2.0/.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but is provided AS-IS, WITHOUT ANY WARRANTY; including without 
+ * the implied warranty of MERCHANTABILITY, NON-INFRINGEMENT or 
+ * FITNESS FOR A PARTICULAR PURPOSE. See the Mozilla Public 
+ * License for more details.
+ *
+ * See www.openkinetic.org for more project information
+ */
+package com.seagate.kinetic.client.cache;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read cache metrics of a client instance.
+ * <p>
+ * A hit is a read served from the cache, either within the time to live of
+ * the cached entry, or after its version was revalidated with the service. A
+ * revalidated hit still costs a round trip, but no value is transferred.
+ *
+ * @see ValueCache
+ */
+public class CacheMetrics {
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong revalidations = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private final AtomicLong evictions = new AtomicLong();
+
+    private final AtomicLong invalidations = new AtomicLong();
+
+    // the cache the entry count and size are taken from
+    private final ValueCache cache;
+
+    CacheMetrics(ValueCache cache) {
+        this.cache = cache;
+    }
+
+    void hit(boolean revalidated) {
+
+        this.hits.incrementAndGet();
+
+        if (revalidated) {
+            this.revalidations.incrementAndGet();
+        }
+    }
+
+    void miss() {
+        this.misses.incrementAndGet();
+    }
+
+    void evicted(int count) {
+        this.evictions.addAndGet(count);
+    }
+
+    void invalidated() {
+        this.invalidations.incrementAndGet();
+    }
+
+    /**
+     * Get number of reads served from the cache.
+     *
+     * @return number of cache hits.
+     */
+    public long getHitCount() {
+        return this.hits.get();
+    }
+
+    /**
+     * Get number of cache hits that were revalidated with the service.
+     *
+     * @return number of revalidated hits.
+     */
+    public long getRevalidatedCount() {
+        return this.revalidations.get();
+    }
+
+    /**
+     * Get number of reads not served from the cache, including reads of
+     * stale entries.
+     *
+     * @return number of cache misses.
+     */
+    public long getMissCount() {
+        return this.misses.get();
+    }
+
+    /**
+     * Get number of entries evicted to stay within the cache capacity.
+     *
+     * @return number of evicted entries.
+     */
+    public long getEvictionCount() {
+        return this.evictions.get();
+    }
+
+    /**
+     * Get number of entries invalidated by writes of this client instance.
+     *
+     * @return number of invalidated entries.
+     */
+    public long getInvalidationCount() {
+        return this.invalidations.get();
+    }
+
+    /**
+     * Get number of cached entries.
+     *
+     * @return number of cached entries.
+     */
+    public int getEntryCount() {
+        return this.cache.getEntryCount();
+    }
+
+    /**
+     * Get the accounted size of the cached entries in bytes.
+     *
+     * @return size of the cached entries in bytes.
+     */
+    public long getSizeBytes() {
+        return this.cache.getSizeBytes();
+    }
+
+    @Override
+    public String toString() {
+        return "hits=" + getHitCount() + ", revalidated="
+                + getRevalidatedCount() + ", misses=" + getMissCount()
+                + ", evictions=" + getEvictionCount() + ", invalidations="
+                + getInvalidationCount() + ", entries=" + getEntryCount()
+                + ", sizeBytes=" + getSizeBytes();
+    }
+}
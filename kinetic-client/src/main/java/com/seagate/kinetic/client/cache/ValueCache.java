@@ -0,0 +1,668 @@
+/**
+ * Copyright 2013-2015 Seagate Technology LLC.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla
+ * Public License, v. 2.0. If a copy of the MPL was not
+ * distributed with this file, You can obtain one at
+ * https://mozilla.org/MP:/2.0/.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but is provided AS-IS, WITHOUT ANY WARRANTY; including without 
+ * the implied warranty of MERCHANTABILITY, NON-INFRINGEMENT or 
+ * FITNESS FOR A PARTICULAR PURPOSE. See the Mozilla Public 
+ * License for more details.
+ *
+ * See www.openkinetic.org for more project information
+ */
+package com.seagate.kinetic.client.cache;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+import kinetic.client.Entry;
+import kinetic.client.EntryMetadata;
+import kinetic.client.EntryNotFoundException;
+import kinetic.client.KineticException;
+
+import com.seagate.kinetic.common.lib.KineticMessage;
+import com.seagate.kinetic.proto.Kinetic.Command;
+import com.seagate.kinetic.proto.Kinetic.Command.KeyValue;
+import com.seagate.kinetic.proto.Kinetic.Command.MessageType;
+
+/**
+ * Bounded read-through cache of entry values for a client instance.
+ * <p>
+ * Entries are cached with their db version. A cached entry is returned
+ * without a round trip within its time to live. After that, its version is
+ * revalidated with a GETVERSION request, and the value is read again only if
+ * the version has changed. Entries without a version cannot be revalidated,
+ * they are read again once their time to live has passed.
+ * <p>
+ * The cache is split into segments by key hash, each with its own lock. A
+ * segment is a segmented LRU: new entries are admitted to the probation
+ * list, and are promoted to the protected list when read again. Entries
+ * demoted from the protected list go back to probation, and entries are
+ * evicted from the probation list first, so a scan of keys read only once
+ * does not flush the frequently read entries. Capacity is accounted in bytes
+ * (key, value, version and tag, plus a fixed per entry overhead).
+ * <p>
+ * Every write request sent by the client invalidates the entry of its key
+ * before it is sent, and again once it is queued on the connection (or has
+ * completed, if synchronous). Each segment counts invalidations, and an entry
+ * read from the service is only cached if no entry of its segment was
+ * invalidated while it was read. A read queued before a write may return the
+ * overwritten value, but that value is never cached, and reads queued after
+ * the write observe it.
+ *
+ * @see CacheMetrics
+ */
+public class ValueCache {
+
+    /**
+     * Reads entries and versions from the service.
+     */
+    public interface Loader {
+
+        /**
+         * Read the entry of the specified key from the service.
+         *
+         * @param key
+         *            entry key.
+         * @return the entry, or null if not found.
+         * @throws KineticException
+         *             if the entry cannot be read.
+         */
+        Entry get(byte[] key) throws KineticException;
+
+        /**
+         * Read the version of the specified key from the service.
+         *
+         * @param key
+         *            entry key.
+         * @return the entry version.
+         * @throws KineticException
+         *             if the version cannot be read, or the entry is not
+         *             found.
+         */
+        byte[] getVersion(byte[] key) throws KineticException;
+    }
+
+    // accounted size of an entry in addition to its bytes
+    private static final int ENTRY_OVERHEAD = 96;
+
+    // share of a segment reserved for protected entries, in percent
+    private static final int PROTECTED_PERCENT = 80;
+
+    // min segment size when the cache is split into segments
+    private static final long MIN_SEGMENT_BYTES = 1L << 20;
+
+    // max number of segments
+    private static final int MAX_SEGMENTS = 16;
+
+    // min value size stored off heap, if enabled
+    private static final int OFF_HEAP_MIN_BYTES = 4096;
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private final Segment[] segments;
+
+    // entries are served without revalidation within the ttl
+    private final long ttlNanos;
+
+    // store large values in direct buffers
+    private final boolean offHeap;
+
+    private final CacheMetrics metrics = new CacheMetrics(this);
+
+    /**
+     * Construct a cache with the specified capacity.
+     *
+     * @param capacityBytes
+     *            max accounted size of all cached entries in bytes.
+     * @param ttlMillis
+     *            time to live of cached entries in milli seconds, 0 to
+     *            revalidate on every read.
+     * @param offHeap
+     *            true to store large values in direct (off heap) buffers.
+     */
+    public ValueCache(long capacityBytes, long ttlMillis, boolean offHeap) {
+
+        int n = 1;
+        while (n < MAX_SEGMENTS && capacityBytes / (n * 2) >= MIN_SEGMENT_BYTES) {
+            n *= 2;
+        }
+
+        this.segments = new Segment[n];
+
+        for (int i = 0; i < n; i++) {
+            this.segments[i] = new Segment(capacityBytes / n);
+        }
+
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.offHeap = offHeap;
+    }
+
+    /**
+     * Read the entry of the specified key, from the cache if it is fresh,
+     * otherwise from the service.
+     *
+     * @param key
+     *            entry key.
+     * @param loader
+     *            reads entries and versions from the service.
+     * @return the entry, or null if not found.
+     * @throws KineticException
+     *             if the entry cannot be read.
+     */
+    public Entry get(byte[] key, Loader loader) throws KineticException {
+
+        CacheKey ck = new CacheKey(key);
+
+        Segment segment = this.segment(ck);
+
+        Node node = segment.get(ck);
+
+        if (node != null) {
+
+            long now = System.nanoTime();
+
+            if (now - node.validated < this.ttlNanos) {
+                this.metrics.hit(false);
+                return node.toEntry();
+            }
+
+            if (node.version.length > 0) {
+
+                long stamp = segment.stamp();
+
+                byte[] version = null;
+
+                try {
+                    version = loader.getVersion(key);
+                } catch (KineticException e) {
+
+                    if (!isNotFound(e)) {
+                        throw e;
+                    }
+
+                    // deleted by another client
+                    segment.remove(ck, node);
+                    this.metrics.miss();
+                    return null;
+                }
+
+                if (Arrays.equals(version, node.version)
+                        && segment.revalidate(node, now, stamp)) {
+                    this.metrics.hit(true);
+                    return node.toEntry();
+                }
+            }
+
+            segment.remove(ck, node);
+        }
+
+        this.metrics.miss();
+
+        long stamp = segment.stamp();
+
+        Entry entry = loader.get(key);
+
+        if (entry != null) {
+            this.fill(segment, ck, entry, stamp);
+        }
+
+        return entry;
+    }
+
+    /**
+     * Invalidate the entries affected by the specified request before it is
+     * sent.
+     *
+     * @param request
+     *            request message.
+     * @return the invalidation stamp to pass to
+     *         {@link #written(KineticMessage, long, boolean)}.
+     */
+    public long invalidate(KineticMessage request) {
+
+        Command.Builder command = (Command.Builder) request.getCommand();
+
+        MessageType type = command.getHeaderBuilder().getMessageType();
+
+        switch (type) {
+        case PUT:
+        case DELETE:
+            CacheKey ck = new CacheKey(command.getBodyBuilder()
+                    .getKeyValueBuilder().getKey().toByteArray());
+
+            Segment segment = this.segment(ck);
+
+            if (segment.invalidate(ck)) {
+                this.metrics.invalidated();
+            }
+
+            return segment.stamp();
+
+        case END_BATCH:
+        case SETUP:
+        case PINOP:
+            // keys written by a batch or an erase are not known here
+            this.clear();
+            return 0;
+
+        default:
+            return 0;
+        }
+    }
+
+    /**
+     * Update the cache after a synchronous request has completed. The entry
+     * written by a successful put is cached, unless another entry of its
+     * segment was invalidated in the meantime. Otherwise, the entries
+     * affected by the request are invalidated again.
+     *
+     * @param request
+     *            request message.
+     * @param stamp
+     *            stamp returned by {@link #invalidate(KineticMessage)} before
+     *            the request was sent.
+     * @param succeeded
+     *            true if the request succeeded.
+     */
+    public void written(KineticMessage request, long stamp, boolean succeeded) {
+
+        Command.Builder command = (Command.Builder) request.getCommand();
+
+        if (!succeeded
+                || command.getHeaderBuilder().getMessageType() != MessageType.PUT
+                || command.getHeaderBuilder().hasBatchID()) {
+            this.invalidate(request);
+            return;
+        }
+
+        KeyValue.Builder kv = command.getBodyBuilder().getKeyValueBuilder();
+
+        byte[] key = kv.getKey().toByteArray();
+
+        Entry entry = new Entry(key, null, new EntryMetadata(kv
+                .getNewVersion().toByteArray(), kv.getTag().toByteArray(), kv
+                .getAlgorithm().toString()));
+
+        entry.setValueBuffer(request.getValueBuffer());
+
+        CacheKey ck = new CacheKey(key);
+
+        if (!this.fill(this.segment(ck), ck, entry, stamp)) {
+            // a concurrent read may have cached the overwritten value
+            this.invalidate(request);
+        }
+    }
+
+    /**
+     * Remove all entries.
+     */
+    public void clear() {
+        for (Segment segment : this.segments) {
+            segment.clear();
+        }
+    }
+
+    /**
+     * Get cache metrics.
+     *
+     * @return cache metrics.
+     */
+    public CacheMetrics getMetrics() {
+        return this.metrics;
+    }
+
+    int getEntryCount() {
+
+        int count = 0;
+
+        for (Segment segment : this.segments) {
+            count += segment.count();
+        }
+
+        return count;
+    }
+
+    long getSizeBytes() {
+
+        long size = 0;
+
+        for (Segment segment : this.segments) {
+            size += segment.size();
+        }
+
+        return size;
+    }
+
+    private Segment segment(CacheKey ck) {
+        // spread the hash, the segment count is a power of two
+        int h = ck.hash ^ (ck.hash >>> 16);
+        return this.segments[h & (this.segments.length - 1)];
+    }
+
+    /**
+     * Cache the entry unless its segment was invalidated since the stamp was
+     * taken.
+     *
+     * @return true if cached, or if too large to be cached.
+     */
+    private boolean fill(Segment segment, CacheKey ck, Entry entry,
+            long stamp) {
+
+        ByteBuffer value = entry.getValueBuffer();
+
+        if (value == null) {
+            value = ByteBuffer.wrap(EMPTY);
+        }
+
+        EntryMetadata md = entry.getEntryMetadata();
+
+        byte[] version = (md == null || md.getVersion() == null) ? EMPTY : md
+                .getVersion().clone();
+
+        byte[] tag = (md == null || md.getTag() == null) ? null : md.getTag()
+                .clone();
+
+        String algorithm = (md == null) ? null : md.getAlgorithm();
+
+        long size = ENTRY_OVERHEAD + ck.key.length + value.remaining()
+                + version.length + (tag == null ? 0 : tag.length);
+
+        if (size > segment.maxEntrySize) {
+            return true;
+        }
+
+        // copy, the application owns the bytes of the entry
+        ByteBuffer copy = (this.offHeap && value.remaining() >= OFF_HEAP_MIN_BYTES) ? ByteBuffer
+                .allocateDirect(value.remaining()) : ByteBuffer
+                .allocate(value.remaining());
+
+        copy.put(value.duplicate());
+        copy.flip();
+
+        Node node = new Node(ck, copy.asReadOnlyBuffer(), version, tag,
+                algorithm, size, System.nanoTime());
+
+        int evicted = segment.put(node, stamp);
+
+        if (evicted > 0) {
+            this.metrics.evicted(evicted);
+        }
+
+        return evicted >= 0;
+    }
+
+    private static boolean isNotFound(KineticException e) {
+        return e instanceof EntryNotFoundException
+                || e.getCause() instanceof EntryNotFoundException;
+    }
+
+    /**
+     * Cache key, compares key bytes.
+     */
+    private static final class CacheKey {
+
+        private final byte[] key;
+
+        private final int hash;
+
+        CacheKey(byte[] key) {
+            this.key = key;
+            this.hash = Arrays.hashCode(key);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return (o instanceof CacheKey)
+                    && Arrays.equals(this.key, ((CacheKey) o).key);
+        }
+    }
+
+    /**
+     * Cached entry, linked in the probation or protected list of its segment.
+     */
+    private static final class Node {
+
+        private final CacheKey key;
+
+        // read only buffer
+        private final ByteBuffer value;
+
+        private final byte[] version;
+
+        private final byte[] tag;
+
+        private final String algorithm;
+
+        private final long size;
+
+        // time the entry was read or revalidated
+        private volatile long validated;
+
+        // guarded by the segment lock
+        private boolean isProtected = false;
+
+        private Node prev = this;
+
+        private Node next = this;
+
+        Node(CacheKey key, ByteBuffer value, byte[] version, byte[] tag,
+                String algorithm, long size, long validated) {
+            this.key = key;
+            this.value = value;
+            this.version = version;
+            this.tag = tag;
+            this.algorithm = algorithm;
+            this.size = size;
+            this.validated = validated;
+        }
+
+        /**
+         * Create a new entry instance that shares the cached value read
+         * only.
+         */
+        Entry toEntry() {
+
+            EntryMetadata md = new EntryMetadata(this.version.clone(),
+                    (this.tag == null) ? null : this.tag.clone(),
+                    this.algorithm);
+
+            Entry entry = new Entry(this.key.key.clone(), null, md);
+
+            entry.setValueBuffer(this.value.duplicate());
+
+            return entry;
+        }
+
+        void unlink() {
+            this.prev.next = this.next;
+            this.next.prev = this.prev;
+            this.prev = this;
+            this.next = this;
+        }
+
+        void append(Node head) {
+            this.prev = head.prev;
+            this.next = head;
+            head.prev.next = this;
+            head.prev = this;
+        }
+    }
+
+    /**
+     * Segmented LRU of a range of key hashes.
+     */
+    private static final class Segment {
+
+        private final HashMap<CacheKey, Node> map = new HashMap<CacheKey, Node>();
+
+        // list heads, least recently used first
+        private final Node probation = new Node(null, null, null, null, null,
+                0, 0);
+
+        private final Node protectedList = new Node(null, null, null, null,
+                null, 0, 0);
+
+        private final long capacity;
+
+        private final long protectedCapacity;
+
+        private final long maxEntrySize;
+
+        private long size = 0;
+
+        private long protectedSize = 0;
+
+        // number of invalidations
+        private long stamp = 0;
+
+        Segment(long capacity) {
+            this.capacity = capacity;
+            this.protectedCapacity = capacity * PROTECTED_PERCENT / 100;
+            this.maxEntrySize = capacity / 4;
+        }
+
+        synchronized Node get(CacheKey ck) {
+
+            Node node = this.map.get(ck);
+
+            if (node == null) {
+                return null;
+            }
+
+            node.unlink();
+
+            if (!node.isProtected) {
+                node.isProtected = true;
+                this.protectedSize += node.size;
+            }
+
+            node.append(this.protectedList);
+
+            // demote least recently used protected entries
+            while (this.protectedSize > this.protectedCapacity) {
+                Node lru = this.protectedList.next;
+                lru.unlink();
+                lru.isProtected = false;
+                this.protectedSize -= lru.size;
+                lru.append(this.probation);
+            }
+
+            return node;
+        }
+
+        /**
+         * Cache the node unless the segment was invalidated since the stamp
+         * was taken.
+         *
+         * @return number of evicted entries, or -1 if not cached.
+         */
+        synchronized int put(Node node, long stamp) {
+
+            if (this.stamp != stamp) {
+                return -1;
+            }
+
+            Node old = this.map.put(node.key, node);
+
+            if (old != null) {
+                this.unlink(old);
+            }
+
+            this.size += node.size;
+            node.append(this.probation);
+
+            int evicted = 0;
+
+            while (this.size > this.capacity) {
+
+                Node lru = (this.probation.next != this.probation) ? this.probation.next
+                        : this.protectedList.next;
+
+                this.map.remove(lru.key);
+                this.unlink(lru);
+
+                evicted++;
+            }
+
+            return evicted;
+        }
+
+        synchronized boolean revalidate(Node node, long now, long stamp) {
+
+            if (this.stamp != stamp || this.map.get(node.key) != node) {
+                return false;
+            }
+
+            node.validated = now;
+
+            return true;
+        }
+
+        synchronized boolean invalidate(CacheKey ck) {
+
+            this.stamp++;
+
+            Node node = this.map.remove(ck);
+
+            if (node != null) {
+                this.unlink(node);
+            }
+
+            return node != null;
+        }
+
+        synchronized void remove(CacheKey ck, Node node) {
+
+            if (this.map.get(ck) == node) {
+                this.map.remove(ck);
+                this.unlink(node);
+            }
+        }
+
+        synchronized void clear() {
+
+            this.stamp++;
+
+            this.map.clear();
+            this.probation.unlink();
+            this.protectedList.unlink();
+            this.size = 0;
+            this.protectedSize = 0;
+        }
+
+        synchronized long stamp() {
+            return this.stamp;
+        }
+
+        synchronized int count() {
+            return this.map.size();
+        }
+
+        synchronized long size() {
+            return this.size;
+        }
+
+        private void unlink(Node node) {
+
+            node.unlink();
+
+            this.size -= node.size;
+
+            if (node.isProtected) {
+                this.protectedSize -= node.size;
+            }
+        }
+    }
+}
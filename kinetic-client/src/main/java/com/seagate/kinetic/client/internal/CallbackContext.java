@@ -19,6 +19,7 @@ package com.seagate.kinetic.client.internal;
 import kinetic.client.CallbackHandler;
 import kinetic.client.CallbackResult;
 
+import com.seagate.kinetic.client.io.InflightRequest;
 import com.seagate.kinetic.common.lib.KineticMessage;
 
 /**
@@ -33,7 +34,7 @@ import com.seagate.kinetic.common.lib.KineticMessage;
  * @see CallbackResult
  * @see KineticMessage
  */
-public class CallbackContext<T> {
+public class CallbackContext<T> implements InflightRequest {
 
 	// callback handler
 	private CallbackHandler<T> handler = null;
@@ -47,6 +48,12 @@ public class CallbackContext<T> {
 	// response message
 	private KineticMessage response = null;
 
+	// time (System.nanoTime()) the request was submitted
+	private long submitTime = 0;
+
+	// time (System.nanoTime()) the request expires
+	private volatile long deadline = 0;
+
 	/**
 	 * Construct a callback context with the specified callback handler.
 	 *
@@ -125,4 +132,49 @@ public class CallbackContext<T> {
 		return this.result;
 	}
 
+	/**
+	 * Set the time the request was submitted.
+	 *
+	 * @param nanoTime
+	 *            submit time as returned by <code>System.nanoTime()</code>.
+	 */
+	public void setSubmitTime(long nanoTime) {
+		this.submitTime = nanoTime;
+	}
+
+	/**
+	 * Get the time the request was submitted.
+	 *
+	 * @return submit time as returned by <code>System.nanoTime()</code>.
+	 */
+	public long getSubmitTime() {
+		return this.submitTime;
+	}
+
+	/**
+	 * Set the time the request expires.
+	 *
+	 * @param nanoTime
+	 *            deadline as returned by <code>System.nanoTime()</code>.
+	 */
+	public void setDeadline(long nanoTime) {
+		this.deadline = nanoTime;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getDeadline() {
+		return this.deadline;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean isAsync() {
+		return true;
+	}
+
 }
@@ -63,8 +63,8 @@ public class CallbackResultMessageFactory {
 				.toByteArray());
 
 		// set value if any
-		if (request.getValue() != null) {
-			entry.setValue(request.getValue());
+		if (request.getValueBuffer() != null) {
+			entry.setValueBuffer(request.getValueBuffer());
 		}
 
 		// set metadata
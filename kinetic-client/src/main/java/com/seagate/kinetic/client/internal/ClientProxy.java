@@ -28,12 +28,17 @@ import java.util.logging.Logger;
 
 import javax.crypto.spec.SecretKeySpec;
 
+import kinetic.client.AsyncKineticException;
+import kinetic.client.AsyncQueueFullException;
+import kinetic.client.AsyncQueuePolicy;
 import kinetic.client.CallbackHandler;
 import kinetic.client.ClientConfiguration;
 import kinetic.client.KineticClient;
 import kinetic.client.KineticException;
 
 import com.google.protobuf.ByteString;
+import com.seagate.kinetic.client.cache.ValueCache;
+import com.seagate.kinetic.client.io.CallbackMetrics;
 import com.seagate.kinetic.client.io.IoHandler;
 import com.seagate.kinetic.common.lib.Hmac;
 import com.seagate.kinetic.common.lib.Hmac.HmacException;
@@ -71,11 +76,8 @@ public class ClientProxy {
     // user id
     private long user = 1;
 
-    // connection id
-    private long connectionID = 1234;
-
-    // sequence
-    private long sequence = 1;
+    // connection id, set by the handshake on the io thread
+    private volatile long connectionID = 1234;
 
     // cluster version
     private long clusterVersion = 43;
@@ -88,9 +90,13 @@ public class ClientProxy {
     
     private volatile boolean isConnectionIdSetByServer = false;
     
-    private CountDownLatch cidLatch = new CountDownLatch (1);
+    private volatile CountDownLatch cidLatch = new CountDownLatch (1);
+
+    // set by close(), read without locking
+    private volatile boolean isClosed = false;
 
-    private boolean isClosed = false;
+    // read cache, null if disabled
+    private final ValueCache cache;
 
     /**
      * Construct a new instance of client proxy
@@ -102,6 +108,23 @@ public class ClientProxy {
      */
     public ClientProxy(ClientConfiguration config)
             throws KineticException {
+        this(config, createCache(config));
+    }
+
+    /**
+     * Construct a new instance of client proxy that uses the specified read
+     * cache. The cache may be shared by client proxies connected to the same
+     * device.
+     *
+     * @param config
+     *            client configuration for the current instance
+     * @param cache
+     *            read cache, or null if disabled.
+     * @throws KineticException
+     *             if any internal error occurred.
+     */
+    public ClientProxy(ClientConfiguration config, ValueCache cache)
+            throws KineticException {
 
         // client config
         this.config = config;
@@ -118,6 +141,9 @@ public class ClientProxy {
         // connection id
         this.connectionID = config.getConnectionId();
 
+        // read cache
+        this.cache = cache;
+
         // io handler
         this.iohandler = new IoHandler(this);
         
@@ -128,9 +154,24 @@ public class ClientProxy {
     }
     
     private void waitForStatusMessage() throws KineticException {
+        this.waitForStatusMessage(30000);
+    }
+
+    /**
+     * Wait for the connection id to be set by the service on the current
+     * connection.
+     * 
+     * @param timeoutMillis
+     *            max time to wait in milli seconds.
+     * 
+     * @throws KineticException
+     *             if the connection id is not received within the timeout.
+     */
+    public void waitForStatusMessage(long timeoutMillis)
+            throws KineticException {
         
         try {
-            this.cidLatch.await(30, TimeUnit.SECONDS);
+            this.cidLatch.await(timeoutMillis, TimeUnit.MILLISECONDS);
         } catch (InterruptedException e) {
             logger.log(Level.WARNING, e.getMessage(), e);
         }
@@ -140,6 +181,24 @@ public class ClientProxy {
         }
     }
     
+    /**
+     * Check if the connection id of the current connection is set by the
+     * service.
+     * 
+     * @return true if the connection id hand shake has completed.
+     */
+    public boolean isConnectionIdSetByServer() {
+        return this.isConnectionIdSetByServer;
+    }
+
+    /**
+     * Prepare for the connection id hand shake on a new connection.
+     */
+    public void resetConnectionId() {
+        this.cidLatch = new CountDownLatch(1);
+        this.isConnectionIdSetByServer = false;
+    }
+
     /**
      * Set client connection ID by server. his is set by  from the server. The 
      * client library uses this connectionID after this is set by the server.
@@ -429,17 +488,29 @@ public class ClientProxy {
         
         KineticMessage kresponse = null;
         
+        // invalidate cached entries written by the request
+        long stamp = (this.cache != null) ? this.cache.invalidate(krequest)
+                : 0;
+
+        boolean succeeded = false;
+
         try {
             kresponse = this.doRequest(krequest);
             
             //check status code
             MessageFactory.checkReply(krequest, kresponse);
+
+            succeeded = true;
         } catch (KineticException ke) {
             ke.setRequestMessage(krequest);
             ke.setResponseMessage(kresponse);
             throw ke;
         } catch (Exception e) {
             throwKineticException (e, krequest, kresponse);
+        } finally {
+            if (this.cache != null) {
+                this.cache.written(krequest, stamp, succeeded);
+            }
         }
         
         return kresponse;
@@ -480,11 +551,9 @@ public class ClientProxy {
         
         try {
 
-            // require to obtain lock to prevent possible dead-lock
-        	// such as if connection close is triggered from remote.
-        	synchronized (this) {
-        		kmresp = this.iohandler.getMessageHandler().write(kmreq);
-        	}
+            // requests are pipelined by the message handler, no lock is
+            // required here.
+            kmresp = this.iohandler.getMessageHandler().write(kmreq);
 
             // check if we do received a response
             if (kmresp == null) {
@@ -506,7 +575,7 @@ public class ClientProxy {
         } catch (java.net.SocketTimeoutException e) {
             throwLcException("Socket Timeout");
         } catch (IOException e1) {
-            throwLcException("IO error");
+            throwLcException("IO error: " + e1.getMessage());
         } catch (InterruptedException ite) {
             throwLcException(ite.getMessage());
         }
@@ -533,6 +602,22 @@ public class ClientProxy {
      */
     <T> void requestAsync(KineticMessage kineticMessage, CallbackHandler<T> handler)
             throws KineticException {
+        this.requestAsync(kineticMessage, handler, config.getAsyncQueuePolicy());
+    }
+
+    /**
+     * Send the request asynchronously, applying the specified policy if the
+     * async in-flight window is full.
+     *
+     * @see #requestAsync(KineticMessage, CallbackHandler)
+     */
+    <T> void requestAsync(KineticMessage kineticMessage,
+            CallbackHandler<T> handler, AsyncQueuePolicy policy)
+            throws KineticException {
+
+        if (this.cache != null) {
+            this.cache.invalidate(kineticMessage);
+        }
 
         try {
 
@@ -544,7 +629,26 @@ public class ClientProxy {
             context.setRequestMessage(kineticMessage);
 
             // send the async request message
-            this.iohandler.getMessageHandler().writeAsync(kineticMessage, context);
+            this.iohandler.getMessageHandler().writeAsync(kineticMessage,
+                    context, policy);
+
+            if (this.cache != null) {
+                // reads sent from now on are queued after the request
+                this.cache.invalidate(kineticMessage);
+            }
+
+        } catch (AsyncQueueFullException e) {
+
+            if (policy != AsyncQueuePolicy.REJECT) {
+                throw e;
+            }
+
+            // reject the operation through its callback handler
+            AsyncKineticException ake = new AsyncKineticException(
+                    e.getMessage(), e);
+            ake.setRequestMessage(kineticMessage);
+
+            handler.onError(ake);
 
         } catch (Exception e) {
             logger.log(Level.WARNING, e.getMessage(), e);
@@ -554,9 +658,17 @@ public class ClientProxy {
 
     void requestNoAck(KineticMessage kmreq) throws KineticException {
 
+        if (this.cache != null) {
+            this.cache.invalidate(kmreq);
+        }
+
         try {
             // finalizeHeader(kmreq);
             this.iohandler.getMessageHandler().writeNoAck(kmreq);
+
+            if (this.cache != null) {
+                this.cache.invalidate(kmreq);
+            }
         } catch (Exception e) {
 
             KineticException ke = new KineticException(e.getMessage());
@@ -580,8 +692,8 @@ public class ClientProxy {
 
         try {
             //Hmac.check(message, this.myKey);
-            byte[] bytes = message.getMessage().getCommandBytes().toByteArray();
-            Hmac.check(bytes, this.myKey, message.getMessage().getHmacAuth().getHmac());
+            Hmac.check(message.getMessage().getCommandBytes(), this.myKey,
+                    message.getMessage().getHmacAuth().getHmac());
             
             flag = true;
         } catch (Exception e) {
@@ -596,8 +708,10 @@ public class ClientProxy {
      *
      * @param message
      *            the request protocol buffer message.
+     * @param sequence
+     *            the sequence number claimed for this request.
      */
-    public void finalizeHeader(KineticMessage kineticMessage) {
+    public void finalizeHeader(KineticMessage kineticMessage, long sequence) {
 
         Message.Builder messageBuilder = (Builder) kineticMessage.getMessage();
         
@@ -613,7 +727,7 @@ public class ClientProxy {
         header.setConnectionID(connectionID);
 
         // set sequence number.
-        header.setSequence(getNextSequence());
+        header.setSequence(sequence);
 
         /**
          * calculate and set tag value for the message
@@ -636,11 +750,10 @@ public class ClientProxy {
          * calculate and set hmac value for this message
          */
         
-        // get command byte string
-        ByteString commandByteString = commandBuilder.build().toByteString();
-        
-        // get command bytes for hmac calculation
-        byte[] commandBytes = commandByteString.toByteArray();
+        // serialize the command, this is the only serialization of the
+        // command. hmac is calculated over and the message carries the same
+        // byte string.
+        ByteString commandBytes = commandBuilder.build().toByteString();
         
         // calculate HMAC
         try {
@@ -655,7 +768,7 @@ public class ClientProxy {
             }
 
             // set command bytes to message
-            messageBuilder.setCommandBytes(ByteString.copyFrom(commandBytes));
+            messageBuilder.setCommandBytes(commandBytes);
 
         } catch (HmacException e) {
             logger.log(Level.WARNING, e.getMessage(), e);
@@ -663,12 +776,91 @@ public class ClientProxy {
     }
 
     /**
-     * Get next sequence number for this connection (client instance).
+     * Get async callback dispatch metrics for this client instance.
+     *
+     * @return async callback dispatch metrics.
+     */
+    public CallbackMetrics getCallbackMetrics() {
+        return this.iohandler.getMessageHandler().getCallbackMetrics();
+    }
+
+    /**
+     * Get the current async in-flight window size for this client instance.
+     *
+     * @return current async in-flight window size.
+     */
+    public int getAsyncWindowSize() {
+        return this.iohandler.getMessageHandler().getAsyncWindowSize();
+    }
+
+    /**
+     * Get number of requests timed out on the connection of this client
+     * instance.
+     *
+     * @return number of timed out requests.
+     */
+    public long getTimedOutCount() {
+        return this.iohandler.getMessageHandler().getTimedOutCount();
+    }
+
+    /**
+     * Get number of times the connection of this client instance was
+     * re-established.
+     *
+     * @return number of reconnects.
+     */
+    public long getReconnectCount() {
+        return this.iohandler.getReconnectCount();
+    }
+
+    /**
+     * Create the read cache specified by the client configuration.
+     *
+     * @param config
+     *            client configuration.
+     * @return the read cache, or null if the cache is disabled.
+     */
+    static ValueCache createCache(ClientConfiguration config) {
+
+        if (config.getCacheCapacityBytes() <= 0) {
+            return null;
+        }
+
+        return new ValueCache(config.getCacheCapacityBytes(),
+                config.getCacheTtlMillis(), config.getCacheOffHeap());
+    }
+
+    /**
+     * Get the read cache of this client instance.
+     *
+     * @return the read cache, or null if the cache is disabled.
+     */
+    public ValueCache getCache() {
+        return this.cache;
+    }
+
+    /**
+     * Check if the client proxy is closed or its connection was lost. The
+     * check does not lock, it is performed for every operation of a pooled
+     * client.
+     *
+     * @return true if closed.
+     */
+    public boolean isClosed() {
+
+        IoHandler handler = this.iohandler;
+
+        return this.isClosed || handler == null
+                || handler.getMessageHandler().isClosed();
+    }
+
+    /**
+     * Get number of requests waiting for a response.
      *
-     * @return next unique number for this client instance.
+     * @return number of in-flight requests.
      */
-    private synchronized long getNextSequence() {
-        return sequence++;
+    public int getInflightCount() {
+        return this.iohandler.getMessageHandler().getInflightCount();
     }
 
     /**
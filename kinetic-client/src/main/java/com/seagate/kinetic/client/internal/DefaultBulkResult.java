@@ -0,0 +1,207 @@
+/**
+ * Copyright 2013-2015 Seagate Technology LLC.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla
+ * Public License, v. 2.0. If a copy of the MPL was not
+ * distributed with this file, You can obtain one at
+ * https://mozilla.org/MP:/2.0/.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but is provided AS-IS, WITHOUT ANY WARRANTY; including without
+ * the implied warranty of MERCHANTABILITY, NON-INFRINGEMENT or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the Mozilla Public
+ * License for more details.
+ *
+ * See www.openkinetic.org for more project information
+ */
+package com.seagate.kinetic.client.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import kinetic.client.AsyncKineticException;
+import kinetic.client.BulkResult;
+import kinetic.client.CallbackHandler;
+import kinetic.client.CallbackResult;
+import kinetic.client.KineticException;
+
+/**
+ * Collects the results of a multi-key operation whose requests are pipelined
+ * as asynchronous requests.
+ * <p>
+ * Each request is sent with the callback handler returned by
+ * {@link #handler(int)} for its index.
+ *
+ * @param <T>
+ *            the result type of each key.
+ */
+public class DefaultBulkResult<T> implements BulkResult<T> {
+
+    // results in request order, guarded by this
+    private final Object[] results;
+
+    // exceptions in request order, guarded by this
+    private final KineticException[] exceptions;
+
+    // set for each completed index, guarded by this
+    private final boolean[] completed;
+
+    // number of pending requests, guarded by this
+    private int pending;
+
+    // number of failed requests, guarded by this
+    private int errorCount = 0;
+
+    /**
+     * Construct a result collector for the specified number of keys.
+     *
+     * @param size
+     *            number of keys in the request.
+     */
+    public DefaultBulkResult(int size) {
+        this.results = new Object[size];
+        this.exceptions = new KineticException[size];
+        this.completed = new boolean[size];
+        this.pending = size;
+    }
+
+    /**
+     * Get the callback handler for the request at the specified index.
+     *
+     * @param index
+     *            index of the key in the request.
+     * @return the callback handler for the request.
+     */
+    public CallbackHandler<T> handler(final int index) {
+
+        return new CallbackHandler<T>() {
+
+            @Override
+            public void onSuccess(CallbackResult<T> result) {
+                setResult(index, result.getResult());
+            }
+
+            @Override
+            public void onError(AsyncKineticException exception) {
+                setException(index, exception);
+            }
+        };
+    }
+
+    /**
+     * Set the result at the specified index. Ignored if the index is already
+     * completed.
+     */
+    public synchronized void setResult(int index, T result) {
+
+        if (this.complete(index)) {
+            this.results[index] = result;
+        }
+    }
+
+    /**
+     * Set the exception at the specified index. Ignored if the index is
+     * already completed.
+     */
+    public synchronized void setException(int index, KineticException e) {
+
+        if (this.complete(index)) {
+            this.exceptions[index] = e;
+            this.errorCount++;
+        }
+    }
+
+    private boolean complete(int index) {
+
+        if (this.completed[index]) {
+            return false;
+        }
+
+        this.completed[index] = true;
+
+        if (--this.pending == 0) {
+            this.notifyAll();
+        }
+
+        return true;
+    }
+
+    /**
+     * Wait until all requests complete. Requests not completed within the
+     * timeout are failed with a timeout exception.
+     *
+     * @param timeoutMillis
+     *            max time to wait in milli seconds.
+     *
+     * @throws KineticException
+     *             if interrupted while waiting.
+     */
+    public synchronized void await(long timeoutMillis) throws KineticException {
+
+        long deadline = System.nanoTime()
+                + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+
+        try {
+            while (this.pending > 0) {
+
+                long remaining = deadline - System.nanoTime();
+
+                if (remaining <= 0) {
+                    break;
+                }
+
+                TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            }
+        } catch (InterruptedException e) {
+            throw new KineticException(e.getMessage(), e);
+        }
+
+        for (int i = 0; i < this.completed.length && this.pending > 0; i++) {
+            if (this.completed[i] == false) {
+                this.setException(i, new KineticException(
+                        "Timeout - unable to receive response message within "
+                                + timeoutMillis + " ms"));
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return this.results.length;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public synchronized T getResult(int index) {
+        return (T) this.results[index];
+    }
+
+    @Override
+    public synchronized KineticException getException(int index) {
+        return this.exceptions[index];
+    }
+
+    @Override
+    public synchronized boolean isSuccess(int index) {
+        return this.completed[index] && this.exceptions[index] == null;
+    }
+
+    @Override
+    public synchronized int getErrorCount() {
+        return this.errorCount;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public synchronized List<T> getResults() {
+
+        List<T> list = new ArrayList<T>(this.results.length);
+
+        for (Object result : this.results) {
+            list.add((T) result);
+        }
+
+        return list;
+    }
+}
@@ -20,20 +20,30 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.logging.Logger;
 
+import kinetic.client.AsyncKineticException;
+import kinetic.client.AsyncQueuePolicy;
 import kinetic.client.BatchOperation;
+import kinetic.client.BulkResult;
 import kinetic.client.CallbackHandler;
+import kinetic.client.CallbackResult;
 import kinetic.client.ClientConfiguration;
 import kinetic.client.Entry;
 import kinetic.client.EntryMetadata;
 import kinetic.client.EntryNotFoundException;
 import kinetic.client.BatchAbortedException;
 import kinetic.client.KineticException;
+import kinetic.client.KineticFuture;
+import kinetic.client.ScanCheckpoint;
+import kinetic.client.ScanHandler;
 import kinetic.client.advanced.AdvancedKineticClient;
 import kinetic.client.advanced.PersistOption;
 
 import com.google.protobuf.ByteString;
+import com.seagate.kinetic.client.cache.CacheMetrics;
+import com.seagate.kinetic.client.cache.ValueCache;
 import com.seagate.kinetic.client.internal.ClientProxy.KeyRange;
 import com.seagate.kinetic.client.internal.ClientProxy.LCException;
+import com.seagate.kinetic.client.io.CallbackMetrics;
 import com.seagate.kinetic.client.lib.ClientLogger;
 import com.seagate.kinetic.common.lib.KineticMessage;
 import com.seagate.kinetic.proto.Kinetic.Command;
@@ -60,6 +70,20 @@ public class DefaultKineticClient implements AdvancedKineticClient {
     // client proxy -- perform ops for apps.
     private ClientProxy client = null;
 
+    // reads entries and versions for the read cache
+    private final ValueCache.Loader loader = new ValueCache.Loader() {
+
+        @Override
+        public Entry get(byte[] key) throws KineticException {
+            return doGet(key);
+        }
+
+        @Override
+        public byte[] getVersion(byte[] key) throws KineticException {
+            return DefaultKineticClient.this.getVersion(key);
+        }
+    };
+
     /**
      * Constructor to instantiate a new instance of kinetic client.
      *
@@ -70,9 +94,26 @@ public class DefaultKineticClient implements AdvancedKineticClient {
      */
     public DefaultKineticClient(ClientConfiguration config)
             throws KineticException {
+        this(config, ClientProxy.createCache(config));
+    }
+
+    /**
+     * Constructor to instantiate a new instance of kinetic client that uses
+     * the specified read cache.
+     *
+     * @param config
+     *            configuration for the new instance
+     * @param cache
+     *            read cache shared with other clients of the same device, or
+     *            null if disabled.
+     * @throws KineticException
+     *             if any internal errors occur to instantiate a new instance.
+     */
+    DefaultKineticClient(ClientConfiguration config, ValueCache cache)
+            throws KineticException {
         this.config = config;
         // initialize the instance
-        init();
+        init(cache);
     }
 
     /**
@@ -81,10 +122,10 @@ public class DefaultKineticClient implements AdvancedKineticClient {
      * @throws KineticException
      *             if any internal errors occur to instantiate a new instance.
      */
-    private void init() throws KineticException {
+    private void init(ValueCache cache) throws KineticException {
 
         // create client proxy to talk to the drive
-        client = new ClientProxy(config);
+        client = new ClientProxy(config, cache);
         
         //send a no-op and set connection ID.
         //this.connectionSetUp();
@@ -132,9 +173,12 @@ public class DefaultKineticClient implements AdvancedKineticClient {
             //MessageFactory.checkPutReply(reply, MessageType.PUT_RESPONSE);
 
             // construct return instance
-            returnEntry = new Entry(entry.getKey(), entry.getValue(),
+            returnEntry = new Entry(entry.getKey(), null,
                     entry.getEntryMetadata());
 
+            // share the value (byte[] or buffer) without copying
+            returnEntry.setValueBuffer(entry.getValueBuffer());
+
             // set db version in entry
             returnEntry.getEntryMetadata().setVersion(newVersion);
 
@@ -160,6 +204,20 @@ public class DefaultKineticClient implements AdvancedKineticClient {
     @Override
     public Entry get(byte[] key) throws KineticException {
 
+        ValueCache cache = this.client.getCache();
+
+        if (cache != null) {
+            return cache.get(key, this.loader);
+        }
+
+        return this.doGet(key);
+    }
+
+    /**
+     * Read the entry from the service.
+     */
+    private Entry doGet(byte[] key) throws KineticException {
+
         Entry entry = null;
         KineticMessage request = null;
         KineticMessage response = null;
@@ -499,6 +557,63 @@ public class DefaultKineticClient implements AdvancedKineticClient {
                 endKeyInclusive);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Iterable<Entry> getRange(byte[] startKey, boolean startKeyInclusive,
+            byte[] endKey, boolean endKeyInclusive, int pageSize)
+            throws KineticException {
+
+        return new VersionedRange(this, startKey, startKeyInclusive, endKey,
+                endKeyInclusive, pageSize, false);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Iterable<Entry> getMetadataRange(byte[] startKey,
+            boolean startKeyInclusive, byte[] endKey, boolean endKeyInclusive,
+            int pageSize) throws KineticException {
+
+        return new VersionedRange(this, startKey, startKeyInclusive, endKey,
+                endKeyInclusive, pageSize, true);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ScanCheckpoint parallelScan(byte[] startKey, byte[] endKey,
+            int parallelism, ScanHandler handler) throws KineticException {
+        return ParallelScan.scan(this, startKey, endKey, parallelism, handler);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ScanCheckpoint parallelScan(ScanCheckpoint checkpoint,
+            int parallelism, ScanHandler handler) throws KineticException {
+        return ParallelScan.resume(this, checkpoint, parallelism, handler);
+    }
+
+    /**
+     * Create a range scan iterator. Up to one page of get requests, bounded
+     * by the async queue size, are kept in flight.
+     */
+    RangeScanIterator createRangeScan(byte[] startKey,
+            boolean startKeyInclusive, byte[] endKey, boolean endKeyInclusive,
+            int pageSize, boolean metadataOnly) throws KineticException {
+
+        int window = Math.min(pageSize, this.config.getAsyncQueueSize());
+
+        return new RangeScanIterator(this, startKey, startKeyInclusive,
+                endKey, endKeyInclusive, pageSize, window,
+                this.config.getRequestTimeoutMillis(), metadataOnly);
+    }
+
     @Override
     public byte[] getVersion(byte[] key) throws KineticException {
 
@@ -852,6 +967,13 @@ public class DefaultKineticClient implements AdvancedKineticClient {
     public void putForcedAsync(Entry entry, PersistOption option,
             CallbackHandler<Entry> handler) throws KineticException {
 
+        this.client.requestAsync(createPutForcedMessage(entry, option),
+                handler);
+    }
+
+    private static KineticMessage createPutForcedMessage(Entry entry,
+            PersistOption option) throws KineticException {
+
         byte[] newVersion = null;
 
         if (entry.getEntryMetadata() != null) {
@@ -861,7 +983,7 @@ public class DefaultKineticClient implements AdvancedKineticClient {
         // construct put request message
         KineticMessage km = MessageFactory.createPutRequestMessage(entry,
                 newVersion);
-        
+
         Command.Builder commandBuilder = (Command.Builder) km.getCommand();
 
         // set force bit
@@ -870,8 +992,7 @@ public class DefaultKineticClient implements AdvancedKineticClient {
         // set persist option
         setPersistOption(commandBuilder, option);
 
-        this.client.requestAsync(km, handler);
-
+        return km;
     }
 
     public void batchPutForcedAsync(Entry entry,
@@ -1202,6 +1323,455 @@ public class DefaultKineticClient implements AdvancedKineticClient {
         MessageFactory.checkReply(request, response);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public KineticFuture<Entry> putAsync(Entry entry, byte[] newVersion) {
+
+        DefaultKineticFuture<Entry> future = new DefaultKineticFuture<Entry>();
+
+        try {
+            this.putAsync(entry, newVersion, future);
+        } catch (KineticException e) {
+            fail(future, e);
+        }
+
+        return future;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public KineticFuture<Entry> putForcedAsync(Entry entry) {
+
+        DefaultKineticFuture<Entry> future = new DefaultKineticFuture<Entry>();
+
+        try {
+            this.putForcedAsync(entry, future);
+        } catch (KineticException e) {
+            fail(future, e);
+        }
+
+        return future;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public KineticFuture<Entry> getAsync(byte[] key) {
+
+        DefaultKineticFuture<Entry> future = new DefaultKineticFuture<Entry>();
+
+        try {
+            this.getAsync(key, future);
+        } catch (KineticException e) {
+            fail(future, e);
+        }
+
+        return future;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public KineticFuture<Boolean> deleteAsync(Entry entry) {
+
+        DefaultKineticFuture<Boolean> future = new DefaultKineticFuture<Boolean>();
+
+        try {
+            this.deleteAsync(entry, future);
+        } catch (KineticException e) {
+            fail(future, e);
+        }
+
+        return future;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public KineticFuture<Boolean> deleteForcedAsync(byte[] key) {
+
+        DefaultKineticFuture<Boolean> future = new DefaultKineticFuture<Boolean>();
+
+        try {
+            this.deleteForcedAsync(key, future);
+        } catch (KineticException e) {
+            fail(future, e);
+        }
+
+        return future;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public KineticFuture<Entry> getNextAsync(byte[] key) {
+
+        DefaultKineticFuture<Entry> future = new DefaultKineticFuture<Entry>();
+
+        try {
+            this.getNextAsync(key, future);
+        } catch (KineticException e) {
+            fail(future, e);
+        }
+
+        return future;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public KineticFuture<Entry> getPreviousAsync(byte[] key) {
+
+        DefaultKineticFuture<Entry> future = new DefaultKineticFuture<Entry>();
+
+        try {
+            this.getPreviousAsync(key, future);
+        } catch (KineticException e) {
+            fail(future, e);
+        }
+
+        return future;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public KineticFuture<List<byte[]>> getKeyRangeAsync(byte[] startKey,
+            boolean startKeyInclusive, byte[] endKey, boolean endKeyInclusive,
+            int maxKeys) {
+
+        DefaultKineticFuture<List<byte[]>> future = new DefaultKineticFuture<List<byte[]>>();
+
+        try {
+            this.getKeyRangeAsync(startKey, startKeyInclusive, endKey,
+                    endKeyInclusive, maxKeys, future);
+        } catch (KineticException e) {
+            fail(future, e);
+        }
+
+        return future;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public KineticFuture<EntryMetadata> getMetadataAsync(byte[] key) {
+
+        DefaultKineticFuture<EntryMetadata> future = new DefaultKineticFuture<EntryMetadata>();
+
+        try {
+            this.getMetadataAsync(key, future);
+        } catch (KineticException e) {
+            fail(future, e);
+        }
+
+        return future;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public BulkResult<Entry> getAll(List<byte[]> keys) throws KineticException {
+
+        DefaultBulkResult<Entry> result = new DefaultBulkResult<Entry>(
+                keys.size());
+
+        for (int i = 0; i < keys.size(); i++) {
+            this.submitGet(keys.get(i), result, i);
+        }
+
+        result.await(this.config.getRequestTimeoutMillis());
+
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public BulkResult<Entry> putAll(List<Entry> entries)
+            throws KineticException {
+
+        DefaultBulkResult<Entry> result = new DefaultBulkResult<Entry>(
+                entries.size());
+
+        for (int i = 0; i < entries.size(); i++) {
+            this.submitPut(entries.get(i), result, i);
+        }
+
+        result.await(this.config.getRequestTimeoutMillis());
+
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public BulkResult<Boolean> deleteAll(List<byte[]> keys)
+            throws KineticException {
+
+        DefaultBulkResult<Boolean> result = new DefaultBulkResult<Boolean>(
+                keys.size());
+
+        for (int i = 0; i < keys.size(); i++) {
+            this.submitDelete(keys.get(i), result, i);
+        }
+
+        result.await(this.config.getRequestTimeoutMillis());
+
+        return result;
+    }
+
+    /**
+     * Send the get request of a multi-key operation. The caller is blocked
+     * while the async in-flight window is full, regardless of the configured
+     * async queue policy.
+     */
+    void submitGet(byte[] key, DefaultBulkResult<Entry> result, int index) {
+
+        try {
+            KineticMessage km = MessageFactory.createGetRequestMessage(key,
+                    MessageType.GET);
+
+            this.client.requestAsync(km, result.handler(index),
+                    AsyncQueuePolicy.BLOCK);
+        } catch (KineticException e) {
+            result.setException(index, e);
+        }
+    }
+
+    /**
+     * Send the get request of a range scan. The caller is blocked while the
+     * async in-flight window is full.
+     */
+    KineticFuture<Entry> submitGet(byte[] key) {
+
+        DefaultKineticFuture<Entry> future = new DefaultKineticFuture<Entry>();
+
+        try {
+            KineticMessage km = MessageFactory.createGetRequestMessage(key,
+                    MessageType.GET);
+
+            this.client.requestAsync(km, future, AsyncQueuePolicy.BLOCK);
+        } catch (KineticException e) {
+            fail(future, e);
+        }
+
+        return future;
+    }
+
+    /**
+     * Send the metadata only get request of a range scan. The entry of the
+     * result has the key and metadata, and no value.
+     *
+     * @see #submitGet(byte[])
+     */
+    KineticFuture<Entry> submitGetMetadata(final byte[] key) {
+
+        final DefaultKineticFuture<Entry> future = new DefaultKineticFuture<Entry>();
+
+        CallbackHandler<EntryMetadata> handler = new CallbackHandler<EntryMetadata>() {
+
+            @Override
+            public void onSuccess(CallbackResult<EntryMetadata> result) {
+
+                Entry entry = (result.getResult() == null) ? null : new Entry(
+                        key, null, result.getResult());
+
+                future.onSuccess(new AsyncCallbackResult<Entry>(result
+                        .getRequestMessage(), result.getResponseMessage(),
+                        entry));
+            }
+
+            @Override
+            public void onError(AsyncKineticException exception) {
+                future.onError(exception);
+            }
+        };
+
+        try {
+            KineticMessage km = MessageFactory.createGetMetadataMessage(key,
+                    MessageType.GET);
+
+            this.client.requestAsync(km, handler, AsyncQueuePolicy.BLOCK);
+        } catch (KineticException e) {
+            fail(future, e);
+        }
+
+        return future;
+    }
+
+    /**
+     * Send the key range request of a range scan.
+     *
+     * @see #submitGet(byte[])
+     */
+    KineticFuture<List<byte[]>> submitGetKeyRange(byte[] startKey,
+            boolean startKeyInclusive, byte[] endKey, boolean endKeyInclusive,
+            int maxKeys) {
+
+        DefaultKineticFuture<List<byte[]>> future = new DefaultKineticFuture<List<byte[]>>();
+
+        try {
+            KineticMessage km = MessageFactory.createGetKeyRangeMessage(
+                    startKey, startKeyInclusive, endKey, endKeyInclusive,
+                    maxKeys, false);
+
+            this.client.requestAsync(km, future, AsyncQueuePolicy.BLOCK);
+        } catch (KineticException e) {
+            fail(future, e);
+        }
+
+        return future;
+    }
+
+    /**
+     * Send the forced put request of a multi-key operation.
+     *
+     * @see #submitGet(byte[], DefaultBulkResult, int)
+     */
+    void submitPut(Entry entry, DefaultBulkResult<Entry> result, int index) {
+
+        try {
+            KineticMessage km = createPutForcedMessage(entry,
+                    PersistOption.SYNC);
+
+            this.client.requestAsync(km, result.handler(index),
+                    AsyncQueuePolicy.BLOCK);
+        } catch (KineticException e) {
+            result.setException(index, e);
+        }
+    }
+
+    /**
+     * Send the forced delete request of a multi-key operation.
+     *
+     * @see #submitGet(byte[], DefaultBulkResult, int)
+     */
+    void submitDelete(byte[] key, DefaultBulkResult<Boolean> result,
+            int index) {
+
+        try {
+            KineticMessage km = MessageFactory
+                    .createForceDeleteRequestMessage(key);
+
+            this.client.requestAsync(km, result.handler(index),
+                    AsyncQueuePolicy.BLOCK);
+        } catch (KineticException e) {
+            result.setException(index, e);
+        }
+    }
+
+    /**
+     * Check if the connection of this client instance is closed, either by
+     * the application or because the connection was lost.
+     *
+     * @return true if the connection is closed.
+     */
+    boolean isConnectionClosed() {
+        return this.client.isClosed();
+    }
+
+    /**
+     * Get number of requests waiting for a response on the connection of this
+     * client instance.
+     *
+     * @return number of in-flight requests.
+     */
+    int getInflightCount() {
+        return this.client.getInflightCount();
+    }
+
+    /**
+     * Fail the future with the exception raised when the request was
+     * submitted.
+     */
+    static <T> void fail(DefaultKineticFuture<T> future,
+            KineticException e) {
+
+        if (e instanceof AsyncKineticException) {
+            future.onError((AsyncKineticException) e);
+        } else {
+            future.onError(new AsyncKineticException(e.getMessage(), e));
+        }
+    }
+
+    /**
+     * Get read cache metrics, such as hit and miss counts, for this client
+     * instance.
+     *
+     * @return read cache metrics, or null if the cache is disabled.
+     *
+     * @see ClientConfiguration#setCacheCapacityBytes(long)
+     */
+    public CacheMetrics getCacheMetrics() {
+
+        ValueCache cache = this.client.getCache();
+
+        return (cache == null) ? null : cache.getMetrics();
+    }
+
+    /**
+     * Get asynchronous callback dispatch metrics, such as callback queue depth
+     * and callback latency, for this client instance.
+     *
+     * @return asynchronous callback dispatch metrics.
+     */
+    public CallbackMetrics getCallbackMetrics() {
+        return this.client.getCallbackMetrics();
+    }
+
+    /**
+     * Get the current asynchronous in-flight window size for this client
+     * instance. The size grows and shrinks over time if an asynchronous
+     * latency target is configured.
+     *
+     * @return current asynchronous in-flight window size.
+     *
+     * @see ClientConfiguration#setAsyncLatencyTargetMillis(long)
+     */
+    public int getAsyncWindowSize() {
+        return this.client.getAsyncWindowSize();
+    }
+
+    /**
+     * Get number of requests for which no response was received within the
+     * request timeout. Timed out asynchronous requests are delivered to their
+     * callback handler as an {@link kinetic.client.AsyncTimeoutException}.
+     *
+     * @return number of timed out requests.
+     *
+     * @see ClientConfiguration#setRequestTimeoutMillis(long)
+     */
+    public long getTimedOutCount() {
+        return this.client.getTimedOutCount();
+    }
+
+    /**
+     * Get number of times the connection of this client instance was
+     * re-established after a connection loss.
+     *
+     * @return number of reconnects.
+     *
+     * @see ClientConfiguration#setAutoReconnect(boolean)
+     */
+    public long getReconnectCount() {
+        return this.client.getReconnectCount();
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -0,0 +1,436 @@
+/**
+ * Copyright 2013-2015 Seagate Technology LLC.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla
+ * Public License, v. 2.0. If a copy of the MPL was not
+ * distributed with this file, You can obtain one at
+ * https://mozilla.org/MP:/2.0/.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but is provided AS-IS, WITHOUT ANY WARRANTY; including without 
+ * the implied warranty of MERCHANTABILITY, NON-INFRINGEMENT or 
+ * FITNESS FOR A PARTICULAR PURPOSE. See the Mozilla Public 
+ * License for more details.
+ *
+ * See www.openkinetic.org for more project information
+ */
+package com.seagate.kinetic.client.internal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import kinetic.client.BulkResult;
+import kinetic.client.ClientConfiguration;
+import kinetic.client.Entry;
+import kinetic.client.EntryMetadata;
+import kinetic.client.KineticClient;
+import kinetic.client.KineticException;
+import kinetic.client.KineticFuture;
+import kinetic.client.cluster.KineticClusterClient;
+import kinetic.client.cluster.Partitioner;
+
+import com.seagate.kinetic.client.lib.ClientLogger;
+
+/**
+ * Kinetic cluster client implementation.
+ * <p>
+ * Each shard is a {@link DefaultKineticClient} with its own connection and
+ * I/O resources. Multi-key operations submit every request to the pipeline
+ * of its shard before waiting, so all shards work at the same time.
+ * <p>
+ * A key range request is sent to all shards, each shard returns at most
+ * <code>maxKeys</code> sorted keys, and the lists are k-way merged with a
+ * priority queue. Because the keys of each shard list are a prefix of the
+ * shard's keys in the range, the first <code>maxKeys</code> merged keys are
+ * the first <code>maxKeys</code> keys of the cluster.
+ *
+ * @see kinetic.client.cluster.KineticClusterClientFactory
+ */
+public class DefaultKineticClusterClient implements KineticClusterClient {
+
+    private final static Logger LOG = ClientLogger.get();
+
+    /**
+     * Unsigned lexicographic byte array order, the key order of a drive.
+     */
+    public static final Comparator<byte[]> KEY_ORDER = new Comparator<byte[]>() {
+        @Override
+        public int compare(byte[] a, byte[] b) {
+
+            int n = Math.min(a.length, b.length);
+
+            for (int i = 0; i < n; i++) {
+                int d = (a[i] & 0xff) - (b[i] & 0xff);
+                if (d != 0) {
+                    return d;
+                }
+            }
+
+            return a.length - b.length;
+        }
+    };
+
+    // shard clients
+    private final DefaultKineticClient[] shards;
+
+    // maps keys to shards
+    private final Partitioner partitioner;
+
+    // max request timeout of all shards
+    private final long timeoutMillis;
+
+    /**
+     * Construct a cluster client connected to the specified shards.
+     *
+     * @param configs
+     *            client configuration of each shard.
+     * @param partitioner
+     *            maps keys to shards.
+     * @throws KineticException
+     *             if any shard cannot be connected.
+     */
+    public DefaultKineticClusterClient(List<ClientConfiguration> configs,
+            Partitioner partitioner) throws KineticException {
+
+        if (configs == null || configs.isEmpty()) {
+            throw new KineticException("no shard is configured");
+        }
+
+        if (partitioner == null) {
+            throw new KineticException("partitioner is not set");
+        }
+
+        this.partitioner = partitioner;
+        this.shards = new DefaultKineticClient[configs.size()];
+
+        long timeout = 0;
+
+        try {
+            for (int i = 0; i < this.shards.length; i++) {
+                ClientConfiguration config = configs.get(i);
+
+                this.shards[i] = new DefaultKineticClient(config);
+
+                timeout = Math.max(timeout, config.getRequestTimeoutMillis());
+            }
+        } catch (KineticException e) {
+            this.close();
+            throw e;
+        }
+
+        this.timeoutMillis = timeout;
+
+        LOG.fine("cluster client initialized, shards=" + this.shards.length
+                + ", partitioner=" + partitioner.getClass().getName());
+    }
+
+    private DefaultKineticClient shard(byte[] key) {
+        return this.shards[this.getShard(key)];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getShardCount() {
+        return this.shards.length;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getShard(byte[] key) {
+        return this.partitioner.partition(key, this.shards.length);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public KineticClient getShardClient(int shard) {
+        return this.shards[shard];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Entry put(Entry entry, byte[] newVersion) throws KineticException {
+        return this.shard(entry.getKey()).put(entry, newVersion);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Entry putForced(Entry entry) throws KineticException {
+        return this.shard(entry.getKey()).putForced(entry);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Entry get(byte[] key) throws KineticException {
+        return this.shard(key).get(key);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public EntryMetadata getMetadata(byte[] key) throws KineticException {
+        return this.shard(key).getMetadata(key);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean delete(Entry entry) throws KineticException {
+        return this.shard(entry.getKey()).delete(entry);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean deleteForced(byte[] key) throws KineticException {
+        return this.shard(key).deleteForced(key);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public KineticFuture<Entry> putForcedAsync(Entry entry) {
+        return this.shard(entry.getKey()).putForcedAsync(entry);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public KineticFuture<Entry> getAsync(byte[] key) {
+        return this.shard(key).getAsync(key);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public KineticFuture<Boolean> deleteForcedAsync(byte[] key) {
+        return this.shard(key).deleteForcedAsync(key);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<byte[]> getKeyRange(byte[] startKey,
+            boolean startKeyInclusive, byte[] endKey,
+            boolean endKeyInclusive, int maxKeys) throws KineticException {
+
+        List<KineticFuture<List<byte[]>>> futures = new ArrayList<KineticFuture<List<byte[]>>>(
+                this.shards.length);
+
+        // send to all shards before waiting for any of them
+        for (DefaultKineticClient shard : this.shards) {
+            futures.add(shard.getKeyRangeAsync(startKey, startKeyInclusive,
+                    endKey, endKeyInclusive, maxKeys));
+        }
+
+        List<List<byte[]>> lists = new ArrayList<List<byte[]>>(
+                this.shards.length);
+
+        for (KineticFuture<List<byte[]>> future : futures) {
+            lists.add(await(future, this.timeoutMillis));
+        }
+
+        return merge(lists, maxKeys);
+    }
+
+    /**
+     * Merge sorted key lists in key order.
+     *
+     * @param lists
+     *            key lists, each sorted in key order.
+     * @param maxKeys
+     *            max number of keys to merge.
+     * @return merged keys.
+     */
+    public static List<byte[]> merge(List<List<byte[]>> lists, int maxKeys) {
+
+        if (lists.size() == 1) {
+            List<byte[]> keys = lists.get(0);
+            return keys.size() <= maxKeys ? keys : new ArrayList<byte[]>(
+                    keys.subList(0, maxKeys));
+        }
+
+        PriorityQueue<Cursor> heap = new PriorityQueue<Cursor>(Math.max(1,
+                lists.size()));
+
+        int total = 0;
+
+        for (List<byte[]> keys : lists) {
+            if (keys != null && keys.isEmpty() == false) {
+                heap.add(new Cursor(keys));
+                total += keys.size();
+            }
+        }
+
+        if (heap.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<byte[]> merged = new ArrayList<byte[]>(Math.min(total, maxKeys));
+
+        while (merged.size() < maxKeys && heap.isEmpty() == false) {
+
+            Cursor cursor = heap.poll();
+
+            merged.add(cursor.key);
+
+            if (cursor.advance()) {
+                heap.add(cursor);
+            }
+        }
+
+        return merged;
+    }
+
+    /**
+     * Position in one sorted key list of a k-way merge.
+     */
+    private static final class Cursor implements Comparable<Cursor> {
+
+        private final List<byte[]> keys;
+
+        private int index = 0;
+
+        private byte[] key;
+
+        Cursor(List<byte[]> keys) {
+            this.keys = keys;
+            this.key = keys.get(0);
+        }
+
+        boolean advance() {
+
+            if (++this.index < this.keys.size()) {
+                this.key = this.keys.get(this.index);
+                return true;
+            }
+
+            return false;
+        }
+
+        @Override
+        public int compareTo(Cursor other) {
+            return KEY_ORDER.compare(this.key, other.key);
+        }
+    }
+
+    private static <T> T await(KineticFuture<T> future, long timeoutMillis)
+            throws KineticException {
+
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof KineticException) {
+                throw (KineticException) e.getCause();
+            }
+            throw new KineticException(e.getMessage(), e.getCause());
+        } catch (TimeoutException e) {
+            future.cancel(false);
+            throw new KineticException("Timeout waiting for shard response",
+                    e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new KineticException(e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public BulkResult<Entry> getAll(List<byte[]> keys) throws KineticException {
+
+        DefaultBulkResult<Entry> result = new DefaultBulkResult<Entry>(
+                keys.size());
+
+        for (int i = 0; i < keys.size(); i++) {
+            this.shard(keys.get(i)).submitGet(keys.get(i), result, i);
+        }
+
+        result.await(this.timeoutMillis);
+
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public BulkResult<Entry> putAll(List<Entry> entries)
+            throws KineticException {
+
+        DefaultBulkResult<Entry> result = new DefaultBulkResult<Entry>(
+                entries.size());
+
+        for (int i = 0; i < entries.size(); i++) {
+            Entry entry = entries.get(i);
+            this.shard(entry.getKey()).submitPut(entry, result, i);
+        }
+
+        result.await(this.timeoutMillis);
+
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public BulkResult<Boolean> deleteAll(List<byte[]> keys)
+            throws KineticException {
+
+        DefaultBulkResult<Boolean> result = new DefaultBulkResult<Boolean>(
+                keys.size());
+
+        for (int i = 0; i < keys.size(); i++) {
+            this.shard(keys.get(i)).submitDelete(keys.get(i), result, i);
+        }
+
+        result.await(this.timeoutMillis);
+
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() throws KineticException {
+
+        for (DefaultKineticClient shard : this.shards) {
+            if (shard != null) {
+                try {
+                    shard.close();
+                } catch (Exception e) {
+                    LOG.log(Level.WARNING, e.getMessage(), e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,240 @@
+/**
+ * Copyright 2013-2015 Seagate Technology LLC.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla
+ * Public License, v. 2.0. If a copy of the MPL was not
+ * distributed with this file, You can obtain one at
+ * https://mozilla.org/MP:/2.0/.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but is provided AS-IS, WITHOUT ANY WARRANTY; including without
+ * the implied warranty of MERCHANTABILITY, NON-INFRINGEMENT or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the Mozilla Public
+ * License for more details.
+ *
+ * See www.openkinetic.org for more project information
+ */
+package com.seagate.kinetic.client.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import kinetic.client.AsyncKineticException;
+import kinetic.client.CallbackHandler;
+import kinetic.client.CallbackResult;
+import kinetic.client.KineticFuture;
+
+/**
+ * Default Kinetic future implementation.
+ * <p>
+ * The future is itself the callback handler of the asynchronous operation, so
+ * it is completed directly by the async callback handlers on the callback
+ * dispatch thread. No additional thread is involved.
+ *
+ * @param <T>
+ *            the result type.
+ *
+ * @see KineticFuture
+ */
+public class DefaultKineticFuture<T> implements KineticFuture<T>,
+        CallbackHandler<T> {
+
+    private final static Logger logger = Logger
+            .getLogger(DefaultKineticFuture.class.getName());
+
+    private static final int PENDING = 0;
+
+    private static final int SUCCEEDED = 1;
+
+    private static final int FAILED = 2;
+
+    private static final int CANCELLED = 3;
+
+    // completion state, guarded by this
+    private int state = PENDING;
+
+    // callback result if succeeded
+    private CallbackResult<T> result = null;
+
+    // exception if failed or cancelled
+    private AsyncKineticException exception = null;
+
+    // registered callback handlers, guarded by this
+    private List<CallbackHandler<T>> handlers = null;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onSuccess(CallbackResult<T> result) {
+        this.complete(SUCCEEDED, result, null);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onError(AsyncKineticException exception) {
+        this.complete(FAILED, null, exception);
+    }
+
+    /**
+     * Complete the future with the specified result.
+     *
+     * @param value
+     *            the result.
+     */
+    public void setResult(T value) {
+        this.complete(SUCCEEDED,
+                new AsyncCallbackResult<T>(null, null, value), null);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+
+        AsyncKineticException ake = new AsyncKineticException(
+                "operation cancelled", new CancellationException());
+
+        return this.complete(CANCELLED, null, ake);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized boolean isCancelled() {
+        return this.state == CANCELLED;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized boolean isDone() {
+        return this.state != PENDING;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized T get() throws InterruptedException,
+            ExecutionException {
+
+        while (this.state == PENDING) {
+            this.wait();
+        }
+
+        return this.report();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized T get(long timeout, TimeUnit unit)
+            throws InterruptedException, ExecutionException, TimeoutException {
+
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+
+        while (this.state == PENDING) {
+
+            long remaining = deadline - System.nanoTime();
+
+            if (remaining <= 0) {
+                throw new TimeoutException();
+            }
+
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+        }
+
+        return this.report();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void addCallback(CallbackHandler<T> handler) {
+
+        synchronized (this) {
+            if (this.state == PENDING) {
+
+                if (this.handlers == null) {
+                    this.handlers = new ArrayList<CallbackHandler<T>>(2);
+                }
+
+                this.handlers.add(handler);
+
+                return;
+            }
+        }
+
+        this.invoke(handler);
+    }
+
+    private T report() throws ExecutionException {
+
+        switch (this.state) {
+        case SUCCEEDED:
+            return this.result.getResult();
+        case CANCELLED:
+            throw new CancellationException();
+        default:
+            throw new ExecutionException(this.exception.getMessage(),
+                    this.exception);
+        }
+    }
+
+    private boolean complete(int newState, CallbackResult<T> result,
+            AsyncKineticException exception) {
+
+        List<CallbackHandler<T>> toInvoke = null;
+
+        synchronized (this) {
+
+            if (this.state != PENDING) {
+                return false;
+            }
+
+            this.state = newState;
+            this.result = result;
+            this.exception = exception;
+
+            toInvoke = this.handlers;
+            this.handlers = null;
+
+            this.notifyAll();
+        }
+
+        if (toInvoke != null) {
+            for (CallbackHandler<T> handler : toInvoke) {
+                this.invoke(handler);
+            }
+        }
+
+        return true;
+    }
+
+    private void invoke(CallbackHandler<T> handler) {
+
+        try {
+            if (this.state == SUCCEEDED) {
+                handler.onSuccess(this.result);
+            } else {
+                handler.onError(this.exception);
+            }
+        } catch (Throwable t) {
+            logger.log(Level.WARNING, t.getMessage(), t);
+        }
+    }
+}
@@ -0,0 +1,308 @@
+/**
+ * Copyright 2013-2015 Seagate Technology LLC.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla
+ * Public License, v. 2.0. If a copy of the MPL was not
+ * distributed with this file, You can obtain one at
+ * https://mozilla.org/MP:/2.0/.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but is provided AS-IS, WITHOUT ANY WARRANTY; including without 
+ * the implied warranty of MERCHANTABILITY, NON-INFRINGEMENT or 
+ * FITNESS FOR A PARTICULAR PURPOSE. See the Mozilla Public 
+ * License for more details.
+ *
+ * See www.openkinetic.org for more project information
+ */
+package com.seagate.kinetic.client.internal;
+
+import java.io.Serializable;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import kinetic.client.KineticException;
+import kinetic.client.ScanCheckpoint;
+
+/**
+ * Parallel scan checkpoint implementation.
+ * <p>
+ * The key space [startKey, endKey] is split into contiguous sub-ranges. Each
+ * sub-range is scanned by one worker at a time, which advances the sub-range
+ * start past each delivered key.
+ *
+ * @see ParallelScan
+ */
+public class DefaultScanCheckpoint implements ScanCheckpoint {
+
+    private static final long serialVersionUID = 2180562139408745721L;
+
+    // number of key bytes after the common prefix used to split the range
+    private static final int SPLIT_BYTES = 8;
+
+    private final byte[] startKey;
+
+    private final byte[] endKey;
+
+    private final List<SubRange> ranges;
+
+    private final AtomicLong scanned = new AtomicLong();
+
+    // last failure of the current run
+    private transient volatile KineticException exception = null;
+
+    /**
+     * Construct a checkpoint for a new scan of the specified key range, split
+     * into up to the specified number of sub-ranges.
+     *
+     * @param startKey
+     *            start key (inclusive).
+     * @param endKey
+     *            end key (inclusive).
+     * @param parts
+     *            max number of sub-ranges.
+     */
+    public DefaultScanCheckpoint(byte[] startKey, byte[] endKey, int parts) {
+
+        this.startKey = startKey.clone();
+        this.endKey = endKey.clone();
+
+        List<byte[]> bounds = split(startKey, endKey, parts);
+
+        this.ranges = new ArrayList<SubRange>(bounds.size() + 1);
+
+        byte[] from = startKey;
+        boolean fromInclusive = true;
+
+        for (byte[] bound : bounds) {
+            this.ranges.add(new SubRange(from, fromInclusive, bound, false));
+            from = bound;
+            fromInclusive = true;
+        }
+
+        this.ranges.add(new SubRange(from, fromInclusive, endKey, true));
+    }
+
+    /**
+     * Split the key space between the specified keys into approximately equal
+     * parts.
+     * <p>
+     * Up to eight key bytes following the common prefix of the keys are read
+     * as an unsigned number, and the interval between the two numbers is
+     * divided evenly. This is exact for uniformly distributed keys and a
+     * reasonable approximation otherwise; skew is absorbed by scanning more
+     * sub-ranges than workers.
+     *
+     * @return the split keys, in key order and strictly between the keys.
+     */
+    static List<byte[]> split(byte[] startKey, byte[] endKey, int parts) {
+
+        List<byte[]> bounds = new ArrayList<byte[]>();
+
+        int prefix = 0;
+        while (prefix < startKey.length && prefix < endKey.length
+                && startKey[prefix] == endKey[prefix]) {
+            prefix++;
+        }
+
+        BigInteger low = readUnsigned(startKey, prefix);
+        BigInteger high = readUnsigned(endKey, prefix);
+
+        if (parts <= 1 || low.compareTo(high) >= 0) {
+            return bounds;
+        }
+
+        BigInteger step = high.subtract(low).divide(BigInteger.valueOf(parts));
+
+        byte[] previous = startKey;
+
+        for (int i = 1; i < parts && step.signum() > 0; i++) {
+
+            BigInteger value = low.add(step.multiply(BigInteger.valueOf(i)));
+
+            byte[] bound = Arrays.copyOf(startKey, prefix + SPLIT_BYTES);
+            writeUnsigned(value, bound, prefix);
+
+            bound = trim(bound, prefix);
+
+            if (DefaultKineticClusterClient.KEY_ORDER.compare(previous, bound) < 0
+                    && DefaultKineticClusterClient.KEY_ORDER.compare(bound,
+                            endKey) < 0) {
+                bounds.add(bound);
+                previous = bound;
+            }
+        }
+
+        return bounds;
+    }
+
+    private static BigInteger readUnsigned(byte[] key, int offset) {
+
+        byte[] bytes = new byte[SPLIT_BYTES + 1];
+
+        for (int i = 0; i < SPLIT_BYTES && offset + i < key.length; i++) {
+            bytes[i + 1] = key[offset + i];
+        }
+
+        return new BigInteger(bytes);
+    }
+
+    private static void writeUnsigned(BigInteger value, byte[] key, int offset) {
+
+        long v = value.longValue();
+
+        for (int i = SPLIT_BYTES - 1; i >= 0; i--) {
+            key[offset + i] = (byte) v;
+            v >>>= 8;
+        }
+    }
+
+    // remove trailing zero bytes after the prefix
+    private static byte[] trim(byte[] key, int prefix) {
+
+        int length = key.length;
+        while (length > prefix + 1 && key[length - 1] == 0) {
+            length--;
+        }
+
+        return length == key.length ? key : Arrays.copyOf(key, length);
+    }
+
+    /**
+     * Get sub-ranges not yet completely scanned.
+     */
+    List<SubRange> getPendingRanges() {
+
+        List<SubRange> pending = new ArrayList<SubRange>();
+
+        for (SubRange range : this.ranges) {
+            if (range.isDone() == false) {
+                pending.add(range);
+            }
+        }
+
+        return pending;
+    }
+
+    void entryScanned(SubRange range, byte[] key) {
+        range.advance(key);
+        this.scanned.incrementAndGet();
+    }
+
+    void setException(KineticException e) {
+        this.exception = e;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public byte[] getStartKey() {
+        return this.startKey.clone();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public byte[] getEndKey() {
+        return this.endKey.clone();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getRangeCount() {
+        return this.ranges.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getCompletedRangeCount() {
+        return this.ranges.size() - this.getPendingRanges().size();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getScannedCount() {
+        return this.scanned.get();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isComplete() {
+        return this.getPendingRanges().isEmpty();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public KineticException getException() {
+        return this.exception;
+    }
+
+    /**
+     * A sub-range of the scan. The start moves past each scanned key.
+     */
+    static final class SubRange implements Serializable {
+
+        private static final long serialVersionUID = -3675394826613390417L;
+
+        private byte[] start;
+
+        private boolean startInclusive;
+
+        private final byte[] end;
+
+        private final boolean endInclusive;
+
+        private boolean done = false;
+
+        SubRange(byte[] start, boolean startInclusive, byte[] end,
+                boolean endInclusive) {
+            this.start = start;
+            this.startInclusive = startInclusive;
+            this.end = end;
+            this.endInclusive = endInclusive;
+        }
+
+        synchronized byte[] getStart() {
+            return this.start;
+        }
+
+        synchronized boolean isStartInclusive() {
+            return this.startInclusive;
+        }
+
+        byte[] getEnd() {
+            return this.end;
+        }
+
+        boolean isEndInclusive() {
+            return this.endInclusive;
+        }
+
+        synchronized void advance(byte[] key) {
+            this.start = key;
+            this.startInclusive = false;
+        }
+
+        synchronized boolean isDone() {
+            return this.done;
+        }
+
+        synchronized void setDone() {
+            this.done = true;
+        }
+    }
+}
@@ -0,0 +1,488 @@
+/**
+ * Copyright 2013-2015 Seagate Technology LLC.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla
+ * Public License, v. 2.0. If a copy of the MPL was not
+ * distributed with this file, You can obtain one at
+ * https://mozilla.org/MP:/2.0/.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but is provided AS-IS, WITHOUT ANY WARRANTY; including without 
+ * the implied warranty of MERCHANTABILITY, NON-INFRINGEMENT or 
+ * FITNESS FOR A PARTICULAR PURPOSE. See the Mozilla Public 
+ * License for more details.
+ *
+ * See www.openkinetic.org for more project information
+ */
+package com.seagate.kinetic.client.internal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import kinetic.client.AsyncKineticException;
+import kinetic.client.CallbackHandler;
+import kinetic.client.CallbackResult;
+import kinetic.client.ClientConfiguration;
+import kinetic.client.Entry;
+import kinetic.client.KineticClient;
+import kinetic.client.KineticException;
+import kinetic.client.KineticFuture;
+import kinetic.client.cluster.HedgePolicy;
+import kinetic.client.cluster.KineticReplicaClient;
+
+import com.seagate.kinetic.client.io.provider.nio.NioClientThreadFactory;
+import com.seagate.kinetic.client.lib.ClientLogger;
+
+/**
+ * Kinetic replica client implementation.
+ * <p>
+ * Each replica is a {@link DefaultKineticClient} with its own connection. A
+ * read is sent with {@link KineticClient#getAsync(byte[])} to the primary,
+ * and a hedge is scheduled on a shared daemon timer thread. When the hedge
+ * fires before the read is completed, the read is also sent to the next
+ * replica. The first successful response completes the read, which cancels
+ * the pending hedge and the futures of all other requests.
+ * <p>
+ * The hedge delay is recomputed from a window of recent read latencies every
+ * few reads, so computing a percentile (a sort of the window) is amortized
+ * over many reads.
+ *
+ * @see kinetic.client.cluster.KineticClusterClientFactory
+ */
+public class HedgedReplicaClient implements KineticReplicaClient {
+
+    private final static Logger LOG = ClientLogger.get();
+
+    // min number of latency samples before the percentile is used
+    private static final int MIN_SAMPLES = 16;
+
+    // sends hedged requests of all replica clients
+    private static final ScheduledExecutorService timer = Executors
+            .newSingleThreadScheduledExecutor(new NioClientThreadFactory(
+                    "kinetic.client.hedge"));
+
+    // replica clients, the first is the primary
+    private final DefaultKineticClient[] replicas;
+
+    // hedging policy
+    private final HedgePolicy policy;
+
+    // max request timeout of all replicas
+    private final long timeoutMillis;
+
+    // recent read latencies in nano seconds
+    private final AtomicLongArray samples;
+
+    // total number of latency samples
+    private final AtomicLong sampleCount = new AtomicLong();
+
+    // number of samples between hedge delay updates
+    private final int updateInterval;
+
+    private final long minDelayNanos;
+
+    private final long maxDelayNanos;
+
+    // current hedge delay
+    private volatile long delayNanos;
+
+    // number of hedged requests sent
+    private final AtomicLong hedges = new AtomicLong();
+
+    /**
+     * Construct a replica client connected to the specified replicas.
+     *
+     * @param configs
+     *            client configuration of each replica, the first is the
+     *            primary.
+     * @param policy
+     *            hedging policy.
+     * @throws KineticException
+     *             if any replica cannot be connected.
+     */
+    public HedgedReplicaClient(List<ClientConfiguration> configs,
+            HedgePolicy policy) throws KineticException {
+
+        if (configs == null || configs.isEmpty()) {
+            throw new KineticException("no replica is configured");
+        }
+
+        if (policy == null) {
+            throw new KineticException("hedge policy is not set");
+        }
+
+        if (policy.getPercentile() <= 0 || policy.getPercentile() > 100) {
+            throw new KineticException("invalid hedge percentile: "
+                    + policy.getPercentile());
+        }
+
+        if (policy.getSampleWindow() <= 0) {
+            throw new KineticException("invalid hedge sample window: "
+                    + policy.getSampleWindow());
+        }
+
+        if (policy.getMinDelayMillis() > policy.getMaxDelayMillis()) {
+            throw new KineticException("min hedge delay "
+                    + policy.getMinDelayMillis()
+                    + " is greater than max hedge delay "
+                    + policy.getMaxDelayMillis());
+        }
+
+        this.policy = policy;
+        this.samples = new AtomicLongArray(policy.getSampleWindow());
+        this.updateInterval = Math.max(1, policy.getSampleWindow() / 16);
+        this.minDelayNanos = TimeUnit.MILLISECONDS.toNanos(policy
+                .getMinDelayMillis());
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(policy
+                .getMaxDelayMillis());
+        this.delayNanos = this.maxDelayNanos;
+
+        this.replicas = new DefaultKineticClient[configs.size()];
+
+        long timeout = 0;
+
+        try {
+            for (int i = 0; i < this.replicas.length; i++) {
+                ClientConfiguration config = configs.get(i);
+
+                this.replicas[i] = new DefaultKineticClient(config);
+
+                timeout = Math.max(timeout, config.getRequestTimeoutMillis());
+            }
+        } catch (KineticException e) {
+            this.close();
+            throw e;
+        }
+
+        this.timeoutMillis = timeout;
+
+        LOG.fine("replica client initialized, replicas="
+                + this.replicas.length + ", percentile="
+                + policy.getPercentile() + ", maxHedges="
+                + policy.getMaxHedges());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getReplicaCount() {
+        return this.replicas.length;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public KineticClient getReplicaClient(int replica) {
+        return this.replicas[replica];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Entry get(byte[] key) throws KineticException {
+
+        KineticFuture<Entry> future = this.getAsync(key);
+
+        // replicas may be tried one after the other
+        long timeout = this.timeoutMillis * this.replicas.length;
+
+        try {
+            return future.get(timeout, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof KineticException) {
+                throw (KineticException) e.getCause();
+            }
+            throw new KineticException(e.getMessage(), e.getCause());
+        } catch (TimeoutException e) {
+            future.cancel(false);
+            throw new KineticException("Timeout waiting for replica response",
+                    e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new KineticException(e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public KineticFuture<Entry> getAsync(byte[] key) {
+
+        HedgedRead read = new HedgedRead(key);
+
+        read.start();
+
+        return read.result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getHedgeDelayMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(this.delayNanos);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getHedgeCount() {
+        return this.hedges.get();
+    }
+
+    /**
+     * Record the latency of a successful read, and update the hedge delay
+     * every update interval.
+     */
+    private void record(long latencyNanos) {
+
+        long n = this.sampleCount.getAndIncrement();
+
+        int window = this.samples.length();
+
+        this.samples.set((int) (n % window), latencyNanos);
+
+        n++;
+
+        if (n < Math.min(MIN_SAMPLES, window) || n % this.updateInterval != 0) {
+            return;
+        }
+
+        int size = (int) Math.min(n, window);
+
+        long[] sorted = new long[size];
+
+        for (int i = 0; i < size; i++) {
+            sorted[i] = this.samples.get(i);
+        }
+
+        Arrays.sort(sorted);
+
+        int rank = (int) Math.ceil(this.policy.getPercentile() / 100 * size) - 1;
+
+        long delay = sorted[Math.max(0, rank)];
+
+        this.delayNanos = Math.min(this.maxDelayNanos,
+                Math.max(this.minDelayNanos, delay));
+    }
+
+    /**
+     * State of a read that may be sent to several replicas.
+     */
+    private final class HedgedRead {
+
+        private final byte[] key;
+
+        private final DefaultKineticFuture<Entry> result = new DefaultKineticFuture<Entry>();
+
+        // futures of requests sent, guarded by this
+        private final List<KineticFuture<Entry>> requests = new ArrayList<KineticFuture<Entry>>(
+                2);
+
+        // index of the next replica to send to, guarded by this
+        private int next = 0;
+
+        // number of failed requests, guarded by this
+        private int failed = 0;
+
+        // number of hedged requests sent, guarded by this
+        private int hedged = 0;
+
+        // pending hedge, guarded by this
+        private ScheduledFuture<?> hedge = null;
+
+        HedgedRead(byte[] key) {
+            this.key = key;
+        }
+
+        /**
+         * Send to the primary, and schedule the hedge.
+         */
+        void start() {
+
+            this.result.addCallback(new CallbackHandler<Entry>() {
+
+                @Override
+                public void onSuccess(CallbackResult<Entry> r) {
+                    done();
+                }
+
+                @Override
+                public void onError(AsyncKineticException exception) {
+                    done();
+                }
+            });
+
+            this.send();
+
+            this.schedule();
+        }
+
+        /**
+         * Schedule the next hedge, if allowed by the policy.
+         */
+        private synchronized void schedule() {
+
+            if (this.hedged >= policy.getMaxHedges()
+                    || this.next >= replicas.length || this.result.isDone()) {
+                return;
+            }
+
+            this.hedge = timer.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    hedge();
+                }
+            }, delayNanos, TimeUnit.NANOSECONDS);
+        }
+
+        /**
+         * Invoked by the timer when the hedge delay has passed.
+         */
+        private void hedge() {
+
+            synchronized (this) {
+                if (this.result.isDone() || this.next >= replicas.length) {
+                    return;
+                }
+
+                this.hedged++;
+            }
+
+            hedges.incrementAndGet();
+
+            this.send();
+
+            this.schedule();
+        }
+
+        /**
+         * Send the read to the next replica.
+         *
+         * @return false if there is no replica left.
+         */
+        private boolean send() {
+
+            final int replica;
+
+            synchronized (this) {
+                if (this.next >= replicas.length) {
+                    return false;
+                }
+
+                replica = this.next++;
+            }
+
+            final long start = System.nanoTime();
+
+            KineticFuture<Entry> request = replicas[replica].getAsync(this.key);
+
+            synchronized (this) {
+                this.requests.add(request);
+            }
+
+            request.addCallback(new CallbackHandler<Entry>() {
+
+                @Override
+                public void onSuccess(CallbackResult<Entry> r) {
+                    record(System.nanoTime() - start);
+                    result.onSuccess(r);
+                }
+
+                @Override
+                public void onError(AsyncKineticException exception) {
+                    failed(replica, exception);
+                }
+            });
+
+            if (this.result.isDone()) {
+                // completed before the request was added
+                request.cancel(false);
+            }
+
+            return true;
+        }
+
+        /**
+         * Fail over to the next replica, or fail the read if all replicas
+         * have failed.
+         */
+        private void failed(int replica, AsyncKineticException exception) {
+
+            if (this.result.isDone()
+                    || exception.getCause() instanceof CancellationException) {
+                return;
+            }
+
+            LOG.fine("replica " + replica + " failed to read: "
+                    + exception.getMessage());
+
+            boolean allFailed;
+
+            synchronized (this) {
+                this.failed++;
+                allFailed = (this.failed == replicas.length);
+            }
+
+            if (allFailed) {
+                this.result.onError(exception);
+            } else {
+                this.send();
+            }
+        }
+
+        /**
+         * Cancel the pending hedge and all other requests.
+         */
+        private void done() {
+
+            List<KineticFuture<Entry>> toCancel;
+
+            synchronized (this) {
+                if (this.hedge != null) {
+                    this.hedge.cancel(false);
+                }
+
+                toCancel = new ArrayList<KineticFuture<Entry>>(this.requests);
+            }
+
+            for (KineticFuture<Entry> request : toCancel) {
+                request.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() throws KineticException {
+
+        for (DefaultKineticClient replica : this.replicas) {
+            if (replica != null) {
+                try {
+                    replica.close();
+                } catch (Exception e) {
+                    LOG.log(Level.WARNING, e.getMessage(), e);
+                }
+            }
+        }
+    }
+}
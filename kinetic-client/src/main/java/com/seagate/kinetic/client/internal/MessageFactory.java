@@ -16,6 +16,8 @@
  */
 package com.seagate.kinetic.client.internal;
 
+import java.nio.ByteBuffer;
+
 import kinetic.client.ClusterVersionFailureException;
 import kinetic.client.Entry;
 import kinetic.client.EntryMetadata;
@@ -96,10 +98,11 @@ public class MessageFactory {
                 kv.setNewVersion(ByteString.copyFrom(newVersion));
             }
 
-            // set value
-            if (entry.getValue() != null) {
+            // set value, without copying a buffer value to the heap
+            ByteBuffer value = entry.getValueBuffer();
+            if (value != null) {
                 // message.setValue(ByteString.copyFrom(entry.getValue()));
-                kineticMessage.setValue(entry.getValue());
+                kineticMessage.setValueBuffer(value);
             }
 
             // set tag
@@ -0,0 +1,197 @@
+/**
+ * Copyright 2013-2015 Seagate Technology LLC.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla
+ * Public License, v. 2.0. If a copy of the MPL was not
+ * distributed with this file, You can obtain one at
+ * https://mozilla.org/MP:/2.0/.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but is provided AS-IS, WITHOUT ANY WARRANTY; including without 
+ * the implied warranty of MERCHANTABILITY, NON-INFRINGEMENT or 
+ * FITNESS FOR A PARTICULAR PURPOSE. See the Mozilla Public 
+ * License for more details.
+ *
+ * See www.openkinetic.org for more project information
+ */
+package com.seagate.kinetic.client.internal;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import kinetic.client.Entry;
+import kinetic.client.KineticClient;
+import kinetic.client.KineticException;
+import kinetic.client.ScanCheckpoint;
+import kinetic.client.ScanHandler;
+
+import com.seagate.kinetic.client.internal.DefaultScanCheckpoint.SubRange;
+import com.seagate.kinetic.client.lib.ClientLogger;
+
+/**
+ * Scans the pending sub-ranges of a checkpoint with a number of worker
+ * threads.
+ * <p>
+ * The key space is split into several sub-ranges per worker. Workers take
+ * the next pending sub-range from a shared queue, so a worker that finishes
+ * a sparse sub-range early moves on to the remaining ones. Each sub-range is
+ * read with a prefetching range scan of the client; with a pooled client,
+ * each scan is placed on the least loaded connection.
+ * <p>
+ * A failed sub-range does not stop the other workers. It is left pending in
+ * the checkpoint, starting after the last delivered key.
+ *
+ * @see KineticClient#parallelScan(byte[], byte[], int, ScanHandler)
+ */
+class ParallelScan {
+
+    private final static Logger LOG = ClientLogger.get();
+
+    // sub-ranges per worker
+    static final int RANGES_PER_WORKER = 4;
+
+    // keys per key range request of a sub-range scan
+    static final int PAGE_SIZE = 200;
+
+    private final KineticClient client;
+
+    private final DefaultScanCheckpoint checkpoint;
+
+    private final int parallelism;
+
+    private final ScanHandler handler;
+
+    private final ConcurrentLinkedQueue<SubRange> queue = new ConcurrentLinkedQueue<SubRange>();
+
+    /**
+     * Start a new scan of the specified key range.
+     */
+    static ScanCheckpoint scan(KineticClient client, byte[] startKey,
+            byte[] endKey, int parallelism, ScanHandler handler)
+            throws KineticException {
+
+        checkParallelism(parallelism);
+
+        DefaultScanCheckpoint checkpoint = new DefaultScanCheckpoint(startKey,
+                endKey, parallelism * RANGES_PER_WORKER);
+
+        return new ParallelScan(client, checkpoint, parallelism, handler)
+                .run();
+    }
+
+    /**
+     * Resume the scan recorded in the specified checkpoint.
+     */
+    static ScanCheckpoint resume(KineticClient client,
+            ScanCheckpoint checkpoint, int parallelism, ScanHandler handler)
+            throws KineticException {
+
+        checkParallelism(parallelism);
+
+        if ((checkpoint instanceof DefaultScanCheckpoint) == false) {
+            throw new KineticException("unsupported checkpoint: " + checkpoint);
+        }
+
+        return new ParallelScan(client, (DefaultScanCheckpoint) checkpoint,
+                parallelism, handler).run();
+    }
+
+    private static void checkParallelism(int parallelism)
+            throws KineticException {
+        if (parallelism <= 0) {
+            throw new KineticException("invalid parallelism: " + parallelism);
+        }
+    }
+
+    private ParallelScan(KineticClient client,
+            DefaultScanCheckpoint checkpoint, int parallelism,
+            ScanHandler handler) {
+        this.client = client;
+        this.checkpoint = checkpoint;
+        this.parallelism = parallelism;
+        this.handler = handler;
+    }
+
+    private ScanCheckpoint run() throws KineticException {
+
+        List<SubRange> pending = this.checkpoint.getPendingRanges();
+
+        this.checkpoint.setException(null);
+        this.queue.addAll(pending);
+
+        int workers = Math.min(this.parallelism, pending.size());
+
+        final CountDownLatch done = new CountDownLatch(workers);
+
+        for (int i = 0; i < workers; i++) {
+
+            Thread worker = new Thread("ParallelScan-" + i) {
+                @Override
+                public void run() {
+                    try {
+                        SubRange range = null;
+                        while ((range = queue.poll()) != null) {
+                            scan(range);
+                        }
+                    } finally {
+                        done.countDown();
+                    }
+                }
+            };
+
+            worker.setDaemon(true);
+            worker.start();
+        }
+
+        try {
+            done.await();
+        } catch (InterruptedException e) {
+            // workers stop after their current sub-range
+            this.queue.clear();
+            Thread.currentThread().interrupt();
+            throw new KineticException(e);
+        }
+
+        return this.checkpoint;
+    }
+
+    private void scan(SubRange range) {
+
+        try {
+            Iterator<Entry> it = this.client.getRange(range.getStart(),
+                    range.isStartInclusive(), range.getEnd(),
+                    range.isEndInclusive(), PAGE_SIZE).iterator();
+
+            while (it.hasNext()) {
+
+                Entry entry = it.next();
+
+                this.handler.onEntry(entry);
+
+                this.checkpoint.entryScanned(range, entry.getKey());
+            }
+
+            range.setDone();
+
+        } catch (NoSuchElementException e) {
+            this.failed(e.getCause() instanceof KineticException ? (KineticException) e
+                    .getCause() : new KineticException(e));
+        } catch (KineticException e) {
+            this.failed(e);
+        } catch (RuntimeException e) {
+            this.failed(new KineticException(e));
+        }
+    }
+
+    private void failed(KineticException e) {
+
+        LOG.log(Level.WARNING, "sub-range scan failed: " + e.getMessage(), e);
+
+        this.checkpoint.setException(e);
+    }
+}
@@ -0,0 +1,760 @@
+/**
+ * Copyright 2013-2015 Seagate Technology LLC.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla
+ * Public License, v. 2.0. If a copy of the MPL was not
+ * distributed with this file, You can obtain one at
+ * https://mozilla.org/MP:/2.0/.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but is provided AS-IS, WITHOUT ANY WARRANTY; including without
+ * the implied warranty of MERCHANTABILITY, NON-INFRINGEMENT or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the Mozilla Public
+ * License for more details.
+ *
+ * See www.openkinetic.org for more project information
+ */
+package com.seagate.kinetic.client.internal;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import kinetic.client.BatchOperation;
+import kinetic.client.BulkResult;
+import kinetic.client.CallbackHandler;
+import kinetic.client.ClientConfiguration;
+import kinetic.client.Entry;
+import kinetic.client.EntryMetadata;
+import kinetic.client.KineticClient;
+import kinetic.client.KineticException;
+import kinetic.client.KineticFuture;
+import kinetic.client.ScanCheckpoint;
+import kinetic.client.ScanHandler;
+
+import com.seagate.kinetic.client.cache.CacheMetrics;
+import com.seagate.kinetic.client.cache.ValueCache;
+import com.seagate.kinetic.client.io.provider.nio.NioClientThreadFactory;
+import com.seagate.kinetic.client.lib.ClientLogger;
+import com.seagate.kinetic.common.lib.KineticMessage;
+
+/**
+ * Kinetic client that owns a pool of connections to the same device.
+ * <p>
+ * Each member connection is a {@link DefaultKineticClient} with its own
+ * connection ID handshake. Operations on an entry (put, get, delete and their
+ * async forms) are performed on the member connection selected by the hash
+ * of the entry key, so operations on the same key are sent, and their
+ * callbacks delivered, in the order they are submitted. Other operations are
+ * performed on the member connection with the fewest in-flight requests.
+ * <p>
+ * A member whose connection is lost is replaced by a new connection in the
+ * background, and is skipped until then. Operations that were in flight on
+ * the lost connection fail; other operations proceed on the remaining
+ * members. While a member is replaced, operations on its keys are performed
+ * on the next member connection, and may be reordered with operations
+ * submitted after it is replaced. Reconnection to an unreachable device is
+ * attempted at most once per second per member.
+ * <p>
+ * Operations that span requests (batch operations) are performed on a single
+ * member connection.
+ * <p>
+ * If the read cache is enabled, one cache is shared by all member
+ * connections, so a write performed on any member invalidates the entry read
+ * by the others.
+ *
+ * @see kinetic.client.KineticClientFactory#createPooledInstance(ClientConfiguration,
+ *      int)
+ */
+public class PooledKineticClient implements KineticClient {
+
+    private final static Logger LOG = ClientLogger.get();
+
+    // min interval between reconnect attempts of a member
+    private static final long RECONNECT_INTERVAL_NANOS = TimeUnit.SECONDS
+            .toNanos(1);
+
+    // replaces lost members of all pooled clients, off the caller threads
+    private static final ExecutorService reconnector = Executors
+            .newCachedThreadPool(new NioClientThreadFactory(
+                    "kinetic.client.pool"));
+
+    // client configuration
+    private final ClientConfiguration config;
+
+    // read cache shared by all members, null if disabled
+    private final ValueCache cache;
+
+    // member connections
+    private final AtomicReferenceArray<DefaultKineticClient> members;
+
+    // next reconnect time of each member, guarded by this
+    private final long[] nextReconnect;
+
+    // members being replaced in the background, guarded by this
+    private final boolean[] reconnecting;
+
+    // rotating start index of member selection
+    private final AtomicInteger next = new AtomicInteger();
+
+    private volatile boolean isClosed = false;
+
+    /**
+     * Construct a pooled client with the specified number of connections.
+     *
+     * @param config
+     *            configuration for each member connection.
+     * @param connections
+     *            number of connections.
+     * @throws KineticException
+     *             if any connection cannot be established.
+     */
+    public PooledKineticClient(ClientConfiguration config, int connections)
+            throws KineticException {
+
+        if (connections <= 0) {
+            throw new KineticException("invalid number of connections: "
+                    + connections);
+        }
+
+        this.config = config;
+        this.cache = ClientProxy.createCache(config);
+        this.members = new AtomicReferenceArray<DefaultKineticClient>(
+                connections);
+        this.nextReconnect = new long[connections];
+        this.reconnecting = new boolean[connections];
+
+        Arrays.fill(this.nextReconnect, System.nanoTime());
+
+        try {
+            for (int i = 0; i < connections; i++) {
+                this.members.set(i, new DefaultKineticClient(config,
+                        this.cache));
+            }
+        } catch (KineticException e) {
+            this.close();
+            throw e;
+        }
+
+        LOG.fine("pooled kinetic client initialized, server="
+                + config.getHost() + ", port=" + config.getPort()
+                + ", connections=" + connections);
+    }
+
+    /**
+     * Select the member connection with the fewest in-flight requests.
+     *
+     * @return the selected member.
+     * @throws KineticException
+     *             if the client is closed or no connection is available.
+     */
+    private DefaultKineticClient select() throws KineticException {
+
+        this.checkClosed();
+
+        int n = this.members.length();
+
+        int start = (this.next.getAndIncrement() & Integer.MAX_VALUE) % n;
+
+        DefaultKineticClient best = null;
+        int bestLoad = Integer.MAX_VALUE;
+
+        for (int k = 0; k < n; k++) {
+
+            DefaultKineticClient member = this.getMember((start + k) % n);
+
+            if (member == null) {
+                continue;
+            }
+
+            int load = member.getInflightCount();
+
+            if (load < bestLoad) {
+                best = member;
+                bestLoad = load;
+
+                if (load == 0) {
+                    break;
+                }
+            }
+        }
+
+        if (best == null) {
+            throw this.noConnection();
+        }
+
+        return best;
+    }
+
+    /**
+     * Select the member connection of an entry key. The next connected
+     * member is selected while the member of the key is replaced.
+     *
+     * @param key
+     *            the entry key.
+     * @return the selected member.
+     * @throws KineticException
+     *             if the client is closed or no connection is available.
+     */
+    private DefaultKineticClient select(byte[] key) throws KineticException {
+
+        this.checkClosed();
+
+        int n = this.members.length();
+
+        int hash = (key == null) ? 0 : Arrays.hashCode(key);
+
+        // spread the hash bits, the low bits of short keys are similar
+        hash ^= (hash >>> 16);
+
+        int start = (hash & Integer.MAX_VALUE) % n;
+
+        for (int k = 0; k < n; k++) {
+
+            DefaultKineticClient member = this.getMember((start + k) % n);
+
+            if (member != null) {
+                return member;
+            }
+        }
+
+        throw this.noConnection();
+    }
+
+    private void checkClosed() throws KineticException {
+        if (this.isClosed) {
+            throw new KineticException("client is closed");
+        }
+    }
+
+    private KineticException noConnection() {
+        return new KineticException("no connection available, server="
+                + this.config.getHost() + ", port=" + this.config.getPort());
+    }
+
+    /**
+     * Get a connected member. A lost member is scheduled to be replaced.
+     *
+     * @return the member, or null if its connection is lost.
+     */
+    private DefaultKineticClient getMember(int index) {
+
+        DefaultKineticClient member = this.members.get(index);
+
+        if (member == null || member.isConnectionClosed()) {
+            this.reconnect(index, member);
+            return null;
+        }
+
+        return member;
+    }
+
+    /**
+     * Schedule a lost member connection to be replaced in the background.
+     * The caller does not wait for the new connection.
+     */
+    private void reconnect(final int index, final DefaultKineticClient lost) {
+
+        synchronized (this) {
+
+            if (this.isClosed || this.reconnecting[index]
+                    || this.members.get(index) != lost
+                    || System.nanoTime() - this.nextReconnect[index] < 0) {
+                // closed, being replaced, or attempted recently
+                return;
+            }
+
+            this.reconnecting[index] = true;
+        }
+
+        try {
+            reconnector.execute(new Runnable() {
+                @Override
+                public void run() {
+                    replace(index, lost);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            synchronized (this) {
+                this.reconnecting[index] = false;
+            }
+            LOG.log(Level.WARNING, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Replace a lost member connection, invoked on the reconnect thread.
+     */
+    private void replace(int index, DefaultKineticClient lost) {
+
+        close(lost);
+
+        DefaultKineticClient member = null;
+
+        try {
+            member = new DefaultKineticClient(this.config, this.cache);
+        } catch (KineticException e) {
+            LOG.log(Level.WARNING, "unable to reconnect pool member "
+                    + index + ": " + e.getMessage());
+        }
+
+        synchronized (this) {
+
+            this.reconnecting[index] = false;
+            this.nextReconnect[index] = System.nanoTime()
+                    + RECONNECT_INTERVAL_NANOS;
+
+            if (member != null && this.isClosed == false
+                    && this.members.compareAndSet(index, lost, member)) {
+                LOG.info("replaced lost pool member " + index);
+                return;
+            }
+        }
+
+        // not connected, or closed concurrently
+        close(member);
+    }
+
+    private static void close(DefaultKineticClient member) {
+
+        if (member == null) {
+            return;
+        }
+
+        try {
+            member.close();
+        } catch (Exception e) {
+            LOG.log(Level.WARNING, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Get number of member connections.
+     *
+     * @return number of member connections.
+     */
+    public int getConnectionCount() {
+        return this.members.length();
+    }
+
+    /**
+     * Get read cache metrics of the cache shared by all member connections.
+     *
+     * @return read cache metrics, or null if the cache is disabled.
+     *
+     * @see ClientConfiguration#setCacheCapacityBytes(long)
+     */
+    public CacheMetrics getCacheMetrics() {
+        return (this.cache == null) ? null : this.cache.getMetrics();
+    }
+
+    @Override
+    public KineticMessage request(KineticMessage requestMessage)
+            throws KineticException {
+        return this.select().request(requestMessage);
+    }
+
+    @Override
+    public <T> void requestAsync(KineticMessage requestMessage,
+            CallbackHandler<T> callback) throws KineticException {
+        this.select().requestAsync(requestMessage, callback);
+    }
+
+    @Override
+    public long noop() throws KineticException {
+        return this.select().noop();
+    }
+
+    @Override
+    public void flush() throws KineticException {
+        this.select().flush();
+    }
+
+    @Override
+    public Entry put(Entry entry, byte[] newVersion) throws KineticException {
+        return this.select(entry.getKey()).put(entry, newVersion);
+    }
+
+    @Override
+    public Entry putForced(Entry entry) throws KineticException {
+        return this.select(entry.getKey()).putForced(entry);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Operations on the same key are performed on one member connection, in
+     * the order they are submitted.
+     */
+    @Override
+    public void putAsync(Entry entry, byte[] newVersion,
+            CallbackHandler<Entry> handler) throws KineticException {
+        this.select(entry.getKey()).putAsync(entry, newVersion, handler);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Operations on the same key are performed on one member connection, in
+     * the order they are submitted.
+     */
+    @Override
+    public void putForcedAsync(Entry entry, CallbackHandler<Entry> handler)
+            throws KineticException {
+        this.select(entry.getKey()).putForcedAsync(entry, handler);
+    }
+
+    @Override
+    public Entry get(byte[] key) throws KineticException {
+        return this.select(key).get(key);
+    }
+
+    @Override
+    public byte[] getVersion(byte[] key) throws KineticException {
+        return this.select(key).getVersion(key);
+    }
+
+    @Override
+    public void getAsync(byte[] key, CallbackHandler<Entry> handler)
+            throws KineticException {
+        this.select(key).getAsync(key, handler);
+    }
+
+    @Override
+    public boolean delete(Entry entry) throws KineticException {
+        return this.select(entry.getKey()).delete(entry);
+    }
+
+    @Override
+    public boolean deleteForced(byte[] key) throws KineticException {
+        return this.select(key).deleteForced(key);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Operations on the same key are performed on one member connection, in
+     * the order they are submitted.
+     */
+    @Override
+    public void deleteAsync(Entry entry, CallbackHandler<Boolean> handler)
+            throws KineticException {
+        this.select(entry.getKey()).deleteAsync(entry, handler);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Operations on the same key are performed on one member connection, in
+     * the order they are submitted.
+     */
+    @Override
+    public void deleteForcedAsync(byte[] key, CallbackHandler<Boolean> handler)
+            throws KineticException {
+        this.select(key).deleteForcedAsync(key, handler);
+    }
+
+    @Override
+    public Entry getNext(byte[] key) throws KineticException {
+        return this.select().getNext(key);
+    }
+
+    @Override
+    public void getNextAsync(byte[] key, CallbackHandler<Entry> handler)
+            throws KineticException {
+        this.select().getNextAsync(key, handler);
+    }
+
+    @Override
+    public Entry getPrevious(byte[] key) throws KineticException {
+        return this.select().getPrevious(key);
+    }
+
+    @Override
+    public void getPreviousAsync(byte[] key, CallbackHandler<Entry> handler)
+            throws KineticException {
+        this.select().getPreviousAsync(key, handler);
+    }
+
+    @Override
+    public List<byte[]> getKeyRange(byte[] startKey,
+            boolean startKeyInclusive, byte[] endKey, boolean endKeyInclusive,
+            int maxKeys) throws KineticException {
+        return this.select().getKeyRange(startKey, startKeyInclusive, endKey,
+                endKeyInclusive, maxKeys);
+    }
+
+    @Override
+    public void getKeyRangeAsync(byte[] startKey, boolean startKeyInclusive,
+            byte[] endKey, boolean endKeyInclusive, int maxKeys,
+            CallbackHandler<List<byte[]>> handler) throws KineticException {
+        this.select().getKeyRangeAsync(startKey, startKeyInclusive, endKey,
+                endKeyInclusive, maxKeys, handler);
+    }
+
+    @Override
+    public Iterable<Entry> getRange(byte[] startKey,
+            boolean startKeyInclusive, byte[] endKey,
+            boolean endKeyInclusive, int pageSize) throws KineticException {
+        // the scan stays on one member connection
+        return this.select().getRange(startKey, startKeyInclusive, endKey,
+                endKeyInclusive, pageSize);
+    }
+
+    @Override
+    public Iterable<Entry> getMetadataRange(byte[] startKey,
+            boolean startKeyInclusive, byte[] endKey,
+            boolean endKeyInclusive, int pageSize) throws KineticException {
+        // the scan stays on one member connection
+        return this.select().getMetadataRange(startKey, startKeyInclusive,
+                endKey, endKeyInclusive, pageSize);
+    }
+
+    // sub-ranges are spread over the member connections
+    @Override
+    public ScanCheckpoint parallelScan(byte[] startKey, byte[] endKey,
+            int parallelism, ScanHandler handler) throws KineticException {
+        return ParallelScan.scan(this, startKey, endKey, parallelism, handler);
+    }
+
+    @Override
+    public ScanCheckpoint parallelScan(ScanCheckpoint checkpoint,
+            int parallelism, ScanHandler handler) throws KineticException {
+        return ParallelScan.resume(this, checkpoint, parallelism, handler);
+    }
+
+    @Override
+    public EntryMetadata getMetadata(byte[] key) throws KineticException {
+        return this.select(key).getMetadata(key);
+    }
+
+    @Override
+    public void getMetadataAsync(byte[] key,
+            CallbackHandler<EntryMetadata> handler) throws KineticException {
+        this.select(key).getMetadataAsync(key, handler);
+    }
+
+    @Override
+    public KineticFuture<Entry> putAsync(Entry entry, byte[] newVersion) {
+
+        DefaultKineticFuture<Entry> future = new DefaultKineticFuture<Entry>();
+
+        try {
+            this.putAsync(entry, newVersion, future);
+        } catch (KineticException e) {
+            DefaultKineticClient.fail(future, e);
+        }
+
+        return future;
+    }
+
+    @Override
+    public KineticFuture<Entry> putForcedAsync(Entry entry) {
+
+        DefaultKineticFuture<Entry> future = new DefaultKineticFuture<Entry>();
+
+        try {
+            this.putForcedAsync(entry, future);
+        } catch (KineticException e) {
+            DefaultKineticClient.fail(future, e);
+        }
+
+        return future;
+    }
+
+    @Override
+    public KineticFuture<Entry> getAsync(byte[] key) {
+
+        DefaultKineticFuture<Entry> future = new DefaultKineticFuture<Entry>();
+
+        try {
+            this.getAsync(key, future);
+        } catch (KineticException e) {
+            DefaultKineticClient.fail(future, e);
+        }
+
+        return future;
+    }
+
+    @Override
+    public KineticFuture<Boolean> deleteAsync(Entry entry) {
+
+        DefaultKineticFuture<Boolean> future = new DefaultKineticFuture<Boolean>();
+
+        try {
+            this.deleteAsync(entry, future);
+        } catch (KineticException e) {
+            DefaultKineticClient.fail(future, e);
+        }
+
+        return future;
+    }
+
+    @Override
+    public KineticFuture<Boolean> deleteForcedAsync(byte[] key) {
+
+        DefaultKineticFuture<Boolean> future = new DefaultKineticFuture<Boolean>();
+
+        try {
+            this.deleteForcedAsync(key, future);
+        } catch (KineticException e) {
+            DefaultKineticClient.fail(future, e);
+        }
+
+        return future;
+    }
+
+    @Override
+    public KineticFuture<Entry> getNextAsync(byte[] key) {
+
+        DefaultKineticFuture<Entry> future = new DefaultKineticFuture<Entry>();
+
+        try {
+            this.getNextAsync(key, future);
+        } catch (KineticException e) {
+            DefaultKineticClient.fail(future, e);
+        }
+
+        return future;
+    }
+
+    @Override
+    public KineticFuture<Entry> getPreviousAsync(byte[] key) {
+
+        DefaultKineticFuture<Entry> future = new DefaultKineticFuture<Entry>();
+
+        try {
+            this.getPreviousAsync(key, future);
+        } catch (KineticException e) {
+            DefaultKineticClient.fail(future, e);
+        }
+
+        return future;
+    }
+
+    @Override
+    public KineticFuture<List<byte[]>> getKeyRangeAsync(byte[] startKey,
+            boolean startKeyInclusive, byte[] endKey, boolean endKeyInclusive,
+            int maxKeys) {
+
+        DefaultKineticFuture<List<byte[]>> future = new DefaultKineticFuture<List<byte[]>>();
+
+        try {
+            this.getKeyRangeAsync(startKey, startKeyInclusive, endKey,
+                    endKeyInclusive, maxKeys, future);
+        } catch (KineticException e) {
+            DefaultKineticClient.fail(future, e);
+        }
+
+        return future;
+    }
+
+    @Override
+    public KineticFuture<EntryMetadata> getMetadataAsync(byte[] key) {
+
+        DefaultKineticFuture<EntryMetadata> future = new DefaultKineticFuture<EntryMetadata>();
+
+        try {
+            this.getMetadataAsync(key, future);
+        } catch (KineticException e) {
+            DefaultKineticClient.fail(future, e);
+        }
+
+        return future;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Each request is sent on the member connection of its key.
+     */
+    @Override
+    public BulkResult<Entry> getAll(List<byte[]> keys) throws KineticException {
+
+        DefaultBulkResult<Entry> result = new DefaultBulkResult<Entry>(
+                keys.size());
+
+        for (int i = 0; i < keys.size(); i++) {
+            this.select(keys.get(i)).submitGet(keys.get(i), result, i);
+        }
+
+        result.await(this.config.getRequestTimeoutMillis());
+
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Each request is sent on the member connection of its key.
+     */
+    @Override
+    public BulkResult<Entry> putAll(List<Entry> entries)
+            throws KineticException {
+
+        DefaultBulkResult<Entry> result = new DefaultBulkResult<Entry>(
+                entries.size());
+
+        for (int i = 0; i < entries.size(); i++) {
+            this.select(entries.get(i).getKey()).submitPut(entries.get(i),
+                    result, i);
+        }
+
+        result.await(this.config.getRequestTimeoutMillis());
+
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Each request is sent on the member connection of its key.
+     */
+    @Override
+    public BulkResult<Boolean> deleteAll(List<byte[]> keys)
+            throws KineticException {
+
+        DefaultBulkResult<Boolean> result = new DefaultBulkResult<Boolean>(
+                keys.size());
+
+        for (int i = 0; i < keys.size(); i++) {
+            this.select(keys.get(i)).submitDelete(keys.get(i), result, i);
+        }
+
+        result.await(this.config.getRequestTimeoutMillis());
+
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * All operations of the batch are performed on one member connection.
+     */
+    @Override
+    public BatchOperation createBatchOperation() throws KineticException {
+        return this.select().createBatchOperation();
+    }
+
+    /**
+     * Close all member connections.
+     */
+    @Override
+    public void close() throws KineticException {
+
+        synchronized (this) {
+            this.isClosed = true;
+        }
+
+        for (int i = 0; i < this.members.length(); i++) {
+            close(this.members.getAndSet(i, null));
+        }
+    }
+}
@@ -0,0 +1,262 @@
+/**
+ * Copyright 2013-2015 Seagate Technology LLC.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla
+ * Public License, v. 2.0. If a copy of the MPL was not
+ * distributed with this file, You can obtain one at
+ * https://mozilla.org/MP:/2.0/.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but is provided AS-IS, WITHOUT ANY WARRANTY; including without 
+ * the implied warranty of MERCHANTABILITY, NON-INFRINGEMENT or 
+ * FITNESS FOR A PARTICULAR PURPOSE. See the Mozilla Public 
+ * License for more details.
+ *
+ * See www.openkinetic.org for more project information
+ */
+package com.seagate.kinetic.client.internal;
+
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import kinetic.client.Entry;
+import kinetic.client.KineticException;
+import kinetic.client.KineticFuture;
+
+/**
+ * Prefetching key range iterator.
+ * <p>
+ * Keys are read in pages of up to <code>pageSize</code> keys. As soon as a
+ * full page is received, the request for the next page is sent, so the next
+ * page is in flight while the current one is consumed. Entry values are
+ * pipelined: up to <code>window</code> get requests are kept in flight ahead
+ * of the caller, and entries are returned in key order. A metadata only scan
+ * sends metadata only get requests instead, and returns entries without
+ * values.
+ * <p>
+ * An entry deleted after its key was read is skipped. A failure is reported
+ * by {@link #next()} as a <code>NoSuchElementException</code> with the
+ * <code>KineticException</code> as the cause.
+ */
+public class RangeScanIterator implements Iterator<Entry> {
+
+    // my client handle
+    private final DefaultKineticClient kinetic;
+
+    private final byte[] endKey;
+
+    private final boolean endKeyInclusive;
+
+    // max keys per key range request
+    private final int pageSize;
+
+    // max get requests in flight
+    private final int window;
+
+    private final long timeoutMillis;
+
+    // read metadata only
+    private final boolean metadataOnly;
+
+    // current page of keys
+    private List<byte[]> page = null;
+
+    // read position in the current page
+    private int position = 0;
+
+    // next page in flight, null if the current page is the last one
+    private KineticFuture<List<byte[]>> nextPage = null;
+
+    // get requests in flight, in key order
+    private final LinkedList<KineticFuture<Entry>> inflight = new LinkedList<KineticFuture<Entry>>();
+
+    // entry to be returned by next()
+    private Entry nextEntry = null;
+
+    // failure to be reported by next()
+    private KineticException failure = null;
+
+    /**
+     * Constructs a new range scan iterator and reads the first page of keys.
+     *
+     * @param kinetic
+     *            my client handle
+     * @param startKey
+     *            the start key in the specified key range.
+     * @param startKeyInclusive
+     *            true if the start key is inclusive.
+     * @param endKey
+     *            the end key in the specified key range.
+     * @param endKeyInclusive
+     *            true if the end key is inclusive.
+     * @param pageSize
+     *            max number of keys per key range request.
+     * @param window
+     *            max number of get requests in flight.
+     * @param timeoutMillis
+     *            max time to wait for each response.
+     * @param metadataOnly
+     *            true to read the metadata of the entries only.
+     * @throws KineticException
+     *             if the first page cannot be read.
+     */
+    public RangeScanIterator(DefaultKineticClient kinetic, byte[] startKey,
+            boolean startKeyInclusive, byte[] endKey, boolean endKeyInclusive,
+            int pageSize, int window, long timeoutMillis, boolean metadataOnly)
+            throws KineticException {
+
+        if (pageSize <= 0) {
+            throw new KineticException("invalid page size: " + pageSize);
+        }
+
+        this.kinetic = kinetic;
+        this.endKey = endKey;
+        this.endKeyInclusive = endKeyInclusive;
+        this.pageSize = pageSize;
+        this.window = Math.max(1, window);
+        this.timeoutMillis = timeoutMillis;
+        this.metadataOnly = metadataOnly;
+
+        this.setPage(await(kinetic.submitGetKeyRange(startKey,
+                startKeyInclusive, endKey, endKeyInclusive, pageSize)));
+
+        this.fill();
+    }
+
+    /**
+     * Set the current page and send the request for the next one if the page
+     * is full.
+     */
+    private void setPage(List<byte[]> keys) {
+
+        this.page = keys;
+        this.position = 0;
+
+        if (keys.size() >= this.pageSize) {
+            this.nextPage = this.kinetic.submitGetKeyRange(
+                    keys.get(keys.size() - 1), false, this.endKey,
+                    this.endKeyInclusive, this.pageSize);
+        } else {
+            this.nextPage = null;
+        }
+    }
+
+    private byte[] nextKey() throws KineticException {
+
+        while (this.position >= this.page.size()) {
+
+            if (this.nextPage == null) {
+                return null;
+            }
+
+            this.setPage(await(this.nextPage));
+        }
+
+        return this.page.get(this.position++);
+    }
+
+    /**
+     * Send get requests until the window is full or no key is left.
+     */
+    private void fill() throws KineticException {
+
+        while (this.inflight.size() < this.window) {
+
+            byte[] key = this.nextKey();
+
+            if (key == null) {
+                return;
+            }
+
+            this.inflight.add(this.metadataOnly ? this.kinetic
+                    .submitGetMetadata(key) : this.kinetic.submitGet(key));
+        }
+    }
+
+    private void advance() {
+
+        try {
+            while (this.nextEntry == null && this.inflight.isEmpty() == false) {
+
+                KineticFuture<Entry> head = this.inflight.removeFirst();
+
+                // keep the window full while waiting for the head
+                this.fill();
+
+                this.nextEntry = await(head);
+            }
+        } catch (KineticException e) {
+            this.failure = e;
+            this.inflight.clear();
+            this.nextPage = null;
+        }
+    }
+
+    private <T> T await(KineticFuture<T> future) throws KineticException {
+
+        try {
+            return future.get(this.timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof KineticException) {
+                throw (KineticException) e.getCause();
+            }
+            throw new KineticException(e.getMessage(), e.getCause());
+        } catch (TimeoutException e) {
+            future.cancel(false);
+            throw new KineticException("Timeout waiting for range scan response", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new KineticException(e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized boolean hasNext() {
+
+        if (this.nextEntry == null && this.failure == null) {
+            this.advance();
+        }
+
+        return this.nextEntry != null || this.failure != null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized Entry next() {
+
+        if (this.hasNext() == false) {
+            throw new NoSuchElementException();
+        }
+
+        if (this.failure != null) {
+            NoSuchElementException e = new NoSuchElementException(
+                    this.failure.getMessage());
+            e.initCause(this.failure);
+            this.failure = null;
+            throw e;
+        }
+
+        Entry entry = this.nextEntry;
+        this.nextEntry = null;
+
+        return entry;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -32,10 +32,11 @@ import kinetic.client.KineticException;
 
 public class VersionedRange implements Iterable<Entry> {
 
-    private KineticIterator lcIterator = null;
+    private Iterator<Entry> lcIterator = null;
 
     /**
-     * Constructs a new instance of kinetic entry range.
+     * Constructs a new instance of kinetic entry range. Each entry is read
+     * when the iterator reaches its key.
      *
      * @param kinetic
      *            my client handle
@@ -50,6 +51,7 @@ public class VersionedRange implements Iterable<Entry> {
      * @throws KineticException
      *             if any internal error occurred.
      */
+    @SuppressWarnings("unchecked")
     public VersionedRange(DefaultKineticClient kinetic, byte[] startKey,
             boolean startKeyInclusive, byte[] endKey, boolean endKeyInclusive)
                     throws KineticException {
@@ -58,7 +60,37 @@ public class VersionedRange implements Iterable<Entry> {
                 startKeyInclusive, endKey, endKeyInclusive);
     }
 
-    @SuppressWarnings("unchecked")
+    /**
+     * Constructs a new instance of kinetic entry range that prefetches keys
+     * and entries with the specified page size.
+     *
+     * @param kinetic
+     *            my client handle
+     * @param startKey
+     *            the start key in the specified key range.
+     * @param startKeyInclusive
+     *            true if the start key is inclusive.
+     * @param endKey
+     *            the end key in the specified key range.
+     * @param endKeyInclusive
+     *            true if the start key is inclusive.
+     * @param pageSize
+     *            max number of keys read per key range request.
+     * @param metadataOnly
+     *            true to read the metadata of the entries only.
+     * @throws KineticException
+     *             if any internal error occurred.
+     *
+     * @see RangeScanIterator
+     */
+    public VersionedRange(DefaultKineticClient kinetic, byte[] startKey,
+            boolean startKeyInclusive, byte[] endKey, boolean endKeyInclusive,
+            int pageSize, boolean metadataOnly) throws KineticException {
+
+        this.lcIterator = kinetic.createRangeScan(startKey, startKeyInclusive,
+                endKey, endKeyInclusive, pageSize, metadataOnly);
+    }
+
     @Override
     public Iterator<Entry> iterator() {
         return this.lcIterator;
@@ -32,6 +32,11 @@ import kinetic.client.advanced.AdvancedKineticClient;
 import kinetic.client.advanced.AdvancedKineticClientFactory;
 import kinetic.client.advanced.PersistOption;
 
+import com.google.protobuf.ByteString;
+import com.seagate.kinetic.common.lib.MessageDigestUtil;
+import com.seagate.kinetic.common.lib.TagInputStream;
+import com.seagate.kinetic.proto.Kinetic.Command.Algorithm;
+
 /**
  * 
  * An example to use Kinetic API to put/get/delete arbitrary large objects on
@@ -79,7 +84,8 @@ public class BigObject {
 	 * unique key space on the specified configuration storage (drive).
 	 * <p>
 	 * A big object is divided into 1M Key/Value chunks. Each key for a chunk is
-	 * in sequence based on the specified base key.
+	 * in sequence based on the specified base key. Each chunk is tagged with
+	 * its CRC32C checksum, calculated while the chunk is read from the stream.
 	 * <p>
 	 * 
 	 * 
@@ -96,7 +102,11 @@ public class BigObject {
 	 */
 	public long putx(byte[] key, InputStream is) throws KineticException {
 
-		DataInputStream dis = new DataInputStream(is);
+		// tag chunks while reading
+		TagInputStream tis = new TagInputStream(is,
+				MessageDigestUtil.getInstance(Algorithm.CRC32C));
+
+		DataInputStream dis = new DataInputStream(tis);
 
 		int kseq = 0;
 
@@ -127,7 +137,7 @@ public class BigObject {
 					// write entry in sequence
 					this.writeEntryInSequence(client, kseq, key,
 							value,
-							vlen);
+							vlen, tis.finishTag());
 
 					// increase key sequence for next key
 					kseq++;
@@ -197,11 +207,14 @@ public class BigObject {
 	 *            value in chunk
 	 * @param vlen
 	 *            value length
+	 * @param tag
+	 *            CRC32C tag of the value
 	 * @throws KineticException
 	 *             if any internal error occurred
 	 */
 	private void writeEntryInSequence(AdvancedKineticClient client, int kseq,
-			byte[] key, byte[] value, int vlen) throws KineticException {
+			byte[] key, byte[] value, int vlen, ByteString tag)
+			throws KineticException {
 
 		// generate key and do put with 1M
 		ByteBuffer kByteBuffer = ByteBuffer.allocate(key.length + ISIZE);
@@ -225,7 +238,8 @@ public class BigObject {
 		}
 
 		// set tag in sequence
-		entry.getEntryMetadata().setTag(new byte[1]);
+		entry.getEntryMetadata().setTag(tag.toByteArray());
+		entry.getEntryMetadata().setAlgorithm(Algorithm.CRC32C.name());
 
 		// add callback counter
 		this.putCallback.increaseCounter();
@@ -0,0 +1,265 @@
+/**
+ * Copyright 2013-2015 Seagate Technology LLC.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla
+ * Public License, v. 2.0. If a copy of the MPL was not
+ * distributed with this file, You can obtain one at
+ * https://mozilla.org/MP:/2.0/.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but is provided AS-IS, WITHOUT ANY WARRANTY; including without
+ * the implied warranty of MERCHANTABILITY, NON-INFRINGEMENT or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the Mozilla Public
+ * License for more details.
+ *
+ * See www.openkinetic.org for more project information
+ */
+package com.seagate.kinetic.client.io;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import kinetic.client.ClientConfiguration;
+
+/**
+ * Credit based in-flight window for asynchronous requests.
+ * <p>
+ * A credit is taken with a single CAS when the window is not full. Callers are
+ * only parked when the window is full, and each completed request wakes up at
+ * most one parked caller.
+ * <p>
+ * If a latency target is configured, the window grows by one credit for each
+ * full window of requests completed within the target while callers were
+ * held back by the window, and shrinks by a quarter (at most once per target
+ * interval, not below the initial size) when requests complete later than the
+ * target.
+ *
+ */
+class AsyncWindow {
+
+    // credits in use
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    // current window size
+    private final AtomicInteger limit;
+
+    // initial (and min) window size
+    private final int minLimit;
+
+    // max window size
+    private final int maxLimit;
+
+    // latency target in nano seconds, 0 if window size is fixed
+    private final long targetNanos;
+
+    // requests completed within target since last increase
+    private final AtomicInteger credits = new AtomicInteger();
+
+    // time of last decrease
+    private final AtomicLong lastDecrease = new AtomicLong(System.nanoTime());
+
+    // set when a caller found the window full
+    private volatile boolean saturated = false;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition notFull = lock.newCondition();
+
+    // number of parked callers
+    private volatile int waiters = 0;
+
+    private volatile boolean isClosed = false;
+
+    /**
+     * Construct a window based on the client configuration.
+     *
+     * @param config
+     *            client configuration
+     */
+    AsyncWindow(ClientConfiguration config) {
+
+        this.minLimit = Math.max(1, config.getAsyncQueueSize());
+
+        this.limit = new AtomicInteger(this.minLimit);
+
+        this.targetNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0,
+                config.getAsyncLatencyTargetMillis()));
+
+        this.maxLimit = (this.targetNanos > 0) ? Math.max(this.minLimit,
+                config.getAsyncMaxQueueSize()) : this.minLimit;
+    }
+
+    /**
+     * Take a credit if one is available.
+     *
+     * @return true if a credit is taken, false if the window is full.
+     */
+    boolean tryAcquire() {
+
+        for (;;) {
+
+            int n = this.inFlight.get();
+
+            if (n >= this.limit.get()) {
+                this.saturated = true;
+                return false;
+            }
+
+            if (this.inFlight.compareAndSet(n, n + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Take a credit, wait until one is available if the window is full.
+     *
+     * @throws IOException
+     *             if the window is closed.
+     * @throws InterruptedException
+     *             if interrupted while waiting.
+     */
+    void acquire() throws IOException, InterruptedException {
+
+        if (this.isClosed) {
+            throw new IOException("Connection is closed.");
+        }
+
+        if (this.tryAcquire()) {
+            return;
+        }
+
+        boolean acquired = false;
+
+        this.lock.lockInterruptibly();
+
+        try {
+            this.waiters++;
+
+            while (!(acquired = this.tryAcquire())) {
+
+                if (this.isClosed) {
+                    throw new IOException("Connection is closed.");
+                }
+
+                this.notFull.await();
+            }
+        } finally {
+            this.waiters--;
+
+            if (!acquired) {
+                // pass on a wake up this caller may have consumed
+                this.notFull.signal();
+            }
+
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Return a credit.
+     *
+     * @param latencyNanos
+     *            time taken by the completed request.
+     */
+    void release(long latencyNanos) {
+
+        this.inFlight.decrementAndGet();
+
+        boolean grown = false;
+
+        if (this.targetNanos > 0) {
+            grown = this.adjust(latencyNanos);
+        }
+
+        if (this.waiters > 0) {
+
+            this.lock.lock();
+
+            try {
+                if (grown) {
+                    this.notFull.signalAll();
+                } else {
+                    this.notFull.signal();
+                }
+            } finally {
+                this.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Adjust window size toward the latency target.
+     *
+     * @return true if the window has grown.
+     */
+    private boolean adjust(long latencyNanos) {
+
+        int current = this.limit.get();
+
+        if (latencyNanos <= this.targetNanos) {
+
+            if (this.saturated && current < this.maxLimit
+                    && this.credits.incrementAndGet() >= current) {
+
+                this.credits.set(0);
+                this.saturated = false;
+
+                return this.limit.compareAndSet(current, current + 1);
+            }
+
+            return false;
+        }
+
+        long now = System.nanoTime();
+        long last = this.lastDecrease.get();
+
+        if (current > this.minLimit && now - last >= this.targetNanos
+                && this.lastDecrease.compareAndSet(last, now)) {
+
+            this.credits.set(0);
+            this.limit.compareAndSet(current,
+                    Math.max(this.minLimit, current - (current >> 2) - 1));
+        }
+
+        return false;
+    }
+
+    /**
+     * Get number of credits in use.
+     *
+     * @return number of credits in use.
+     */
+    int getInFlight() {
+        return this.inFlight.get();
+    }
+
+    /**
+     * Get current window size.
+     *
+     * @return current window size.
+     */
+    int getLimit() {
+        return this.limit.get();
+    }
+
+    /**
+     * Close the window and wake up all waiting callers.
+     */
+    void close() {
+
+        this.isClosed = true;
+
+        this.lock.lock();
+
+        try {
+            this.notFull.signalAll();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+}
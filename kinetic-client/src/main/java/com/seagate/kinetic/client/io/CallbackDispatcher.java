@@ -0,0 +1,305 @@
+/**
+ * Copyright 2013-2015 Seagate Technology LLC.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla
+ * Public License, v. 2.0. If a copy of the MPL was not
+ * distributed with this file, You can obtain one at
+ * https://mozilla.org/MP:/2.0/.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but is provided AS-IS, WITHOUT ANY WARRANTY; including without
+ * the implied warranty of MERCHANTABILITY, NON-INFRINGEMENT or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the Mozilla Public
+ * License for more details.
+ *
+ * See www.openkinetic.org for more project information
+ */
+package com.seagate.kinetic.client.io;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import kinetic.client.ClientConfiguration;
+
+import com.seagate.kinetic.client.io.provider.nio.NioClientThreadFactory;
+
+/**
+ * Dispatches asynchronous responses to callback handlers.
+ * <p>
+ * The dispatcher runs in one of the following modes based on the client
+ * configuration:
+ * <ul>
+ * <li>inline - callbacks are invoked on the I/O thread that received the
+ * response (callback threads set to 0).</li>
+ * <li>pooled - callbacks are spread over a number of serial lanes. Callbacks
+ * with the same ordering key (the entry key of the request) always run on the
+ * same lane and in the order their responses were received. Lanes are served
+ * by an elastic thread pool whose idle threads exit after a few seconds.</li>
+ * <li>application executor - same as pooled, but lanes are served by the
+ * <code>Executor</code> set in the client configuration.</li>
+ * </ul>
+ * <p>
+ * Callbacks raised by a thread shared by all connections, such as request
+ * timeouts, are never invoked on that thread. In inline mode, they are run on
+ * a serial lane of the connection, served by a pool shared by all clients.
+ *
+ * @see ClientConfiguration#setAsyncCallbackThreads(int)
+ * @see ClientConfiguration#setAsyncCallbackExecutor(Executor)
+ */
+class CallbackDispatcher {
+
+    private final static Logger logger = Logger
+            .getLogger(CallbackDispatcher.class.getName());
+
+    // idle pool thread exit time
+    private static final long IDLE_TIMEOUT_MILLIS = 7000;
+
+    // max callbacks run by a lane before yielding its thread
+    private static final int LANE_BATCH_SIZE = 64;
+
+    // runs detached lanes of all inline dispatchers
+    private static final ExecutorService detachedPool = Executors
+            .newCachedThreadPool(new NioClientThreadFactory(
+                    "kinetic.client.callback"));
+
+    // serial lanes. null if callbacks are invoked inline.
+    private final Lane[] lanes;
+
+    // serial lane for detached callbacks, null if not inline
+    private final Lane detached;
+
+    // pool created by this dispatcher, null if application supplied
+    private final ThreadPoolExecutor pool;
+
+    // dispatch metrics
+    private final CallbackMetrics metrics = new CallbackMetrics();
+
+    // set when the pool created by this dispatcher is shut down. callbacks
+    // dispatched after that (such as failures of in-flight requests when the
+    // connection is closed) are run on the dispatching thread.
+    private volatile boolean isClosed = false;
+
+    /**
+     * Construct a dispatcher based on the client configuration.
+     *
+     * @param config
+     *            client configuration
+     */
+    CallbackDispatcher(ClientConfiguration config) {
+
+        int nlanes = config.getAsyncCallbackThreads();
+
+        Executor appExecutor = config.getAsyncCallbackExecutor();
+
+        if (appExecutor == null && nlanes <= 0) {
+            // inline mode
+            this.lanes = null;
+            this.pool = null;
+            this.detached = new Lane(detachedPool);
+            return;
+        }
+
+        if (nlanes <= 0) {
+            nlanes = Runtime.getRuntime().availableProcessors();
+        }
+
+        this.detached = null;
+
+        // executor that runs lanes
+        Executor executor = appExecutor;
+
+        if (appExecutor != null) {
+            this.pool = null;
+        } else {
+            this.pool = new ThreadPoolExecutor(nlanes, nlanes,
+                    IDLE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<Runnable>(),
+                    new NioClientThreadFactory("ClientMessageHandler-"
+                            + config.getHost() + "-" + config.getPort(), false));
+
+            this.pool.allowCoreThreadTimeOut(true);
+
+            executor = this.pool;
+        }
+
+        this.lanes = new Lane[nlanes];
+        for (int i = 0; i < nlanes; i++) {
+            this.lanes[i] = new Lane(executor);
+        }
+    }
+
+    /**
+     * Dispatch a callback task.
+     *
+     * @param orderKey
+     *            tasks with the same ordering key are run serially in the
+     *            order dispatched.
+     * @param task
+     *            the callback task
+     */
+    void dispatch(int orderKey, Runnable task) {
+
+        Timed timed = new Timed(task);
+
+        this.metrics.queued();
+
+        if (this.lanes == null) {
+            timed.run();
+            return;
+        }
+
+        // spread hash bits before selecting lane
+        int h = orderKey ^ (orderKey >>> 16);
+
+        this.lanes[(h & 0x7fffffff) % this.lanes.length].submit(timed);
+    }
+
+    /**
+     * Dispatch a callback task that must not run on the dispatching thread,
+     * such as a request timeout raised by the shared timer thread. In inline
+     * mode, detached tasks are run serially in the order dispatched.
+     *
+     * @param orderKey
+     *            tasks with the same ordering key are run serially in the
+     *            order dispatched.
+     * @param task
+     *            the callback task
+     */
+    void dispatchDetached(int orderKey, Runnable task) {
+
+        if (this.detached == null) {
+            this.dispatch(orderKey, task);
+            return;
+        }
+
+        this.metrics.queued();
+
+        this.detached.submit(new Timed(task));
+    }
+
+    /**
+     * Get the dispatch metrics.
+     *
+     * @return the dispatch metrics.
+     */
+    CallbackMetrics getMetrics() {
+        return this.metrics;
+    }
+
+    /**
+     * Release the thread pool created by this dispatcher. Queued callbacks
+     * are still delivered, callbacks dispatched after close are invoked on
+     * the dispatching thread. Application supplied executors are not shut
+     * down.
+     */
+    void close() {
+        if (this.pool != null) {
+            this.isClosed = true;
+            this.pool.shutdown();
+        }
+    }
+
+    /**
+     * Callback task that records dispatch latency.
+     */
+    private final class Timed implements Runnable {
+
+        private final Runnable task;
+
+        private final long queuedAt = System.nanoTime();
+
+        Timed(Runnable task) {
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+
+            long start = System.nanoTime();
+
+            try {
+                this.task.run();
+            } catch (Throwable t) {
+                logger.log(Level.WARNING, "async callback failed", t);
+            } finally {
+                long end = System.nanoTime();
+                metrics.completed(end - this.queuedAt, end - start);
+            }
+        }
+    }
+
+    /**
+     * Serial execution lane. At most one thread runs a lane at any time.
+     */
+    private final class Lane implements Runnable {
+
+        private final ConcurrentLinkedQueue<Runnable> queue = new ConcurrentLinkedQueue<Runnable>();
+
+        private final AtomicInteger pending = new AtomicInteger();
+
+        // runs this lane
+        private final Executor laneExecutor;
+
+        Lane(Executor laneExecutor) {
+            this.laneExecutor = laneExecutor;
+        }
+
+        void submit(Runnable task) {
+
+            this.queue.offer(task);
+
+            if (this.pending.getAndIncrement() == 0) {
+                this.schedule();
+            }
+        }
+
+        private void schedule() {
+
+            if (isClosed) {
+                this.run();
+                return;
+            }
+
+            try {
+                this.laneExecutor.execute(this);
+            } catch (RuntimeException e) {
+
+                if (!isClosed) {
+                    // executor is saturated, run on current thread
+                    logger.log(Level.WARNING,
+                            "callback executor rejected lane: "
+                                    + e.getMessage());
+                }
+
+                this.run();
+            }
+        }
+
+        @Override
+        public void run() {
+
+            // once closed, the lane is drained by the current thread
+            for (int i = 0; isClosed || i < LANE_BATCH_SIZE; i++) {
+
+                Runnable task = this.queue.poll();
+
+                task.run();
+
+                if (this.pending.decrementAndGet() == 0) {
+                    return;
+                }
+            }
+
+            // more work pending, yield the thread to other lanes
+            this.schedule();
+        }
+    }
+}
@@ -0,0 +1,139 @@
+/**
+ * Copyright 2013-2015 Seagate Technology LLC.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla
+ * Public License, v. 2.0. If a copy of the MPL was not
+ * distributed with this file, You can obtain one at
+ * https://mozilla.org/MP:/2.0/.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but is provided AS-IS, WITHOUT ANY WARRANTY; including without
+ * the implied warranty of MERCHANTABILITY, NON-INFRINGEMENT or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the Mozilla Public
+ * License for more details.
+ *
+ * See www.openkinetic.org for more project information
+ */
+package com.seagate.kinetic.client.io;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Asynchronous callback dispatch metrics for a client connection.
+ * <p>
+ * The queue depth is the number of responses received from the service whose
+ * callbacks have not completed yet. The callback latency is measured from the
+ * time a response is received to the time its callback returns, and the
+ * callback run time is the time spent in the application callback only. A
+ * growing difference between the two indicates that callbacks are the
+ * bottleneck.
+ *
+ */
+public class CallbackMetrics {
+
+    private final AtomicInteger queueDepth = new AtomicInteger();
+
+    private final AtomicInteger maxQueueDepth = new AtomicInteger();
+
+    private final AtomicLong completed = new AtomicLong();
+
+    private final AtomicLong totalLatencyNanos = new AtomicLong();
+
+    private final AtomicLong totalRunNanos = new AtomicLong();
+
+    private final AtomicLong maxRunNanos = new AtomicLong();
+
+    void queued() {
+
+        int depth = this.queueDepth.incrementAndGet();
+
+        for (;;) {
+            int max = this.maxQueueDepth.get();
+            if (depth <= max || this.maxQueueDepth.compareAndSet(max, depth)) {
+                break;
+            }
+        }
+    }
+
+    void completed(long latencyNanos, long runNanos) {
+
+        this.queueDepth.decrementAndGet();
+        this.completed.incrementAndGet();
+        this.totalLatencyNanos.addAndGet(latencyNanos);
+        this.totalRunNanos.addAndGet(runNanos);
+
+        for (;;) {
+            long max = this.maxRunNanos.get();
+            if (runNanos <= max || this.maxRunNanos.compareAndSet(max, runNanos)) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Get number of callbacks queued or running.
+     *
+     * @return number of callbacks queued or running.
+     */
+    public int getQueueDepth() {
+        return this.queueDepth.get();
+    }
+
+    /**
+     * Get the max observed queue depth.
+     *
+     * @return the max observed queue depth.
+     */
+    public int getMaxQueueDepth() {
+        return this.maxQueueDepth.get();
+    }
+
+    /**
+     * Get number of completed callbacks.
+     *
+     * @return number of completed callbacks.
+     */
+    public long getCompletedCount() {
+        return this.completed.get();
+    }
+
+    /**
+     * Get average time in nano seconds from response received to callback
+     * returned.
+     *
+     * @return average callback latency in nano seconds.
+     */
+    public long getAverageLatencyNanos() {
+        long count = this.completed.get();
+        return (count == 0) ? 0 : this.totalLatencyNanos.get() / count;
+    }
+
+    /**
+     * Get average time in nano seconds spent in application callbacks.
+     *
+     * @return average callback run time in nano seconds.
+     */
+    public long getAverageRunNanos() {
+        long count = this.completed.get();
+        return (count == 0) ? 0 : this.totalRunNanos.get() / count;
+    }
+
+    /**
+     * Get max time in nano seconds spent in one application callback.
+     *
+     * @return max callback run time in nano seconds.
+     */
+    public long getMaxRunNanos() {
+        return this.maxRunNanos.get();
+    }
+
+    @Override
+    public String toString() {
+        return "queueDepth=" + getQueueDepth() + ", maxQueueDepth="
+                + getMaxQueueDepth() + ", completed=" + getCompletedCount()
+                + ", avgLatencyNanos=" + getAverageLatencyNanos()
+                + ", avgRunNanos=" + getAverageRunNanos() + ", maxRunNanos="
+                + getMaxRunNanos();
+    }
+}
@@ -0,0 +1,44 @@
+/**
+ * Copyright 2013-2015 Seagate Technology LLC.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla
+ * Public License, v. 2.0. If a copy of the MPL was not
+ * distributed with this file, You can obtain one at
+ * https://mozilla.org/MP:/2.0/.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but is provided AS-IS, WITHOUT ANY WARRANTY; including without
+ * the implied warranty of MERCHANTABILITY, NON-INFRINGEMENT or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the Mozilla Public
+ * License for more details.
+ *
+ * See www.openkinetic.org for more project information
+ */
+package com.seagate.kinetic.client.io;
+
+/**
+ * A request registered with the message handler and waiting for its response.
+ * <p>
+ * Synchronous requests are represented by a {@link ResponseSlot}.
+ * Asynchronous requests are represented by a
+ * {@link com.seagate.kinetic.client.internal.CallbackContext}.
+ *
+ */
+public interface InflightRequest {
+
+    /**
+     * Check if the request is an asynchronous request.
+     *
+     * @return true if the response is delivered to a callback handler, false
+     *         if a caller thread is waiting for the response.
+     */
+    public boolean isAsync();
+
+    /**
+     * Get the time the request expires.
+     *
+     * @return the deadline of the request, as a {@link System#nanoTime()}
+     *         value.
+     */
+    public long getDeadline();
+}
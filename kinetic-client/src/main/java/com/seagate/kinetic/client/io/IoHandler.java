@@ -17,6 +17,7 @@
 package com.seagate.kinetic.client.io;
 
 import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -24,6 +25,8 @@ import kinetic.client.ClientConfiguration;
 import kinetic.client.KineticException;
 
 import com.seagate.kinetic.client.internal.ClientProxy;
+import com.seagate.kinetic.client.io.provider.nio.NioClientThreadFactory;
+import com.seagate.kinetic.client.io.provider.spi.ClientMessageService;
 import com.seagate.kinetic.client.io.provider.spi.ClientTransportProvider;
 import com.seagate.kinetic.common.lib.KineticMessage;
 import com.seagate.kinetic.proto.Kinetic;
@@ -52,6 +55,25 @@ public class IoHandler {
 
 	private ClientProxy client = null;
 
+	// connection generation. callbacks from replaced transports are ignored.
+	private volatile int generation = 0;
+
+	// set while a reconnect thread is running
+	private boolean isReconnecting = false;
+
+	// close flag
+	private volatile boolean isClosed = false;
+
+	// number of times the connection was re-established
+	private final AtomicLong reconnects = new AtomicLong();
+
+	// max time to wait for the connection id on a new connection
+	private static final int HANDSHAKE_TIMEOUT_MILLIS = 30000;
+
+	// creates reconnect threads
+	private static final NioClientThreadFactory reconnectThreadFactory = new NioClientThreadFactory(
+			"kinetic.client.reconnect");
+
 	private final boolean useHttp = Boolean.getBoolean("kinetic.io.http");
 
 	private final boolean useHttps = Boolean.getBoolean("kinetic.io.https");
@@ -115,7 +137,7 @@ public class IoHandler {
             this.messageHandler = new MessageHandler(this);
 
             // init transport
-            this.transport.init(messageHandler);
+            this.transport.init(new Connection(this.generation));
             
             logger.info("connected to device., protocol version: " + Kinetic.Local.getDefaultInstance().getProtocolVersion());
         } catch (KineticException ke) {
@@ -150,7 +172,17 @@ public class IoHandler {
 			logger.finest("writing message: " + message.getMessage());
 		}
 
-		this.transport.write(message);
+		if (this.transport == null) {
+			throw new IOException("Connection is not established.");
+		}
+
+		try {
+			this.transport.write(message);
+		} catch (IOException e) {
+			// connection is not usable any more
+			this.connectionClosed(this.generation);
+			throw e;
+		}
 	}
 
 	/**
@@ -158,14 +190,199 @@ public class IoHandler {
 	 */
 	public void close() {
 
+		this.isClosed = true;
+
 		try {
 			this.messageHandler.close();
-			this.transport.close();
+
+			ClientTransportProvider t = this.getCurrentTransport();
+
+			if (t != null) {
+				t.close();
+			}
 		} catch (Exception e) {
 			logger.log(Level.WARNING, e.getMessage(), e);
 		}
 	}
 
+	/**
+	 * Get number of times the connection was re-established after a
+	 * connection loss.
+	 *
+	 * @return number of reconnects.
+	 *
+	 * @see ClientConfiguration#setAutoReconnect(boolean)
+	 */
+	public long getReconnectCount() {
+		return this.reconnects.get();
+	}
+
+	private synchronized ClientTransportProvider getCurrentTransport() {
+		return this.transport;
+	}
+
+	/**
+	 * Invoked when the connection of the specified generation is closed or
+	 * lost. Starts a reconnect thread if automatic reconnect is enabled.
+	 * Otherwise, the message handler is closed.
+	 */
+	private void connectionClosed(int gen) {
+
+		synchronized (this) {
+
+			if (gen != this.generation || this.isClosed) {
+				// replaced transport or closed by application
+				return;
+			}
+
+			if (this.isReconnecting) {
+				// reconnect thread handles failed attempts
+				return;
+			}
+
+			if (this.canReconnect()) {
+
+				this.isReconnecting = true;
+
+				reconnectThreadFactory.newThread(new Runnable() {
+					@Override
+					public void run() {
+						reconnect();
+					}
+				}).start();
+
+				return;
+			}
+		}
+
+		this.messageHandler.close();
+	}
+
+	/**
+	 * Reconnect is only performed for transports that perform the connection
+	 * id hand shake, and only after the initial hand shake succeeded.
+	 */
+	private boolean canReconnect() {
+		return this.config.getAutoReconnect()
+				&& this.shouldWaitForStatusMessage()
+				&& this.client.isConnectionIdSetByServer();
+	}
+
+	/**
+	 * Re-establish the connection with exponential backoff. In-flight requests
+	 * are replayed or failed by the message handler once connected. The client
+	 * is closed if all attempts failed.
+	 */
+	private void reconnect() {
+
+		logger.warning("connection lost, reconnecting to "
+				+ this.config.getHost() + ":" + this.config.getPort());
+
+		// stop writing and wait for pending writes to drain
+		this.messageHandler.connectionLost();
+
+		long backoff = Math.max(1, this.config.getReconnectBackoffMillis());
+
+		for (int attempt = 1; attempt <= this.config
+				.getMaxReconnectAttempts() && this.isClosed == false; attempt++) {
+
+			try {
+				Thread.sleep(backoff);
+			} catch (InterruptedException e) {
+				break;
+			}
+
+			backoff = Math.min(backoff * 2,
+					Math.max(backoff, this.config.getMaxReconnectBackoffMillis()));
+
+			try {
+				this.connect();
+			} catch (Exception e) {
+				logger.warning("reconnect attempt " + attempt + " failed: "
+						+ e.getMessage());
+				continue;
+			}
+
+			synchronized (this) {
+				this.isReconnecting = false;
+			}
+
+			if (this.isClosed) {
+				// closed by application while connecting
+				this.close();
+				return;
+			}
+
+			this.reconnects.incrementAndGet();
+
+			logger.info("reconnected after " + attempt + " attempt(s)");
+
+			// replay in-flight requests and resume
+			this.messageHandler.reconnected();
+
+			return;
+		}
+
+		if (this.isClosed) {
+			return;
+		}
+
+		logger.warning("unable to reconnect, closing client");
+
+		this.messageHandler.reconnectFailed();
+
+		this.client.close();
+	}
+
+	/**
+	 * Replace the transport with a new connection and perform the connection
+	 * id hand shake.
+	 *
+	 * @throws KineticException
+	 *             if unable to connect or the hand shake failed.
+	 */
+	private void connect() throws KineticException {
+
+		ClientTransportProvider old = null;
+
+		int gen = 0;
+
+		synchronized (this) {
+			old = this.transport;
+			this.transport = null;
+			gen = ++this.generation;
+		}
+
+		if (old != null) {
+			try {
+				old.close();
+			} catch (Exception e) {
+				logger.log(Level.FINE, e.getMessage(), e);
+			}
+		}
+
+		this.client.resetConnectionId();
+
+		ClientTransportProvider t = this.getTransport();
+
+		try {
+			t.init(new Connection(gen));
+
+			// the connect timeout also bounds the hand shake when set
+			int timeout = this.config.getConnectTimeoutMillis();
+
+			this.client.waitForStatusMessage(timeout > 0 ? timeout
+					: HANDSHAKE_TIMEOUT_MILLIS);
+		} catch (KineticException e) {
+			try {
+				t.close();
+			} catch (Exception ce) {
+				logger.log(Level.FINE, ce.getMessage(), ce);
+			}
+			throw e;
+		}
+	}
+
 	public synchronized ClientTransportProvider getTransport()
 			throws KineticException {
 
@@ -232,6 +449,39 @@ public class IoHandler {
 		return provider;
 	}
 	
+	/**
+	 * Message service bound to the transport of one connection generation.
+	 * Messages and close events from a transport that has been replaced are
+	 * ignored.
+	 */
+	private final class Connection implements ClientMessageService {
+
+		private final int gen;
+
+		Connection(int gen) {
+			this.gen = gen;
+		}
+
+		@Override
+		public void routeMessage(KineticMessage message)
+				throws InterruptedException {
+
+			if (this.gen == generation) {
+				messageHandler.routeMessage(message);
+			}
+		}
+
+		@Override
+		public ClientConfiguration getConfiguration() {
+			return config;
+		}
+
+		@Override
+		public void close() {
+			connectionClosed(this.gen);
+		}
+	}
+
 	public boolean shouldWaitForStatusMessage() {
 	    
 	    if (this.useHttp || this.useHttps || this.useUdt) {
@@ -17,15 +17,21 @@
 package com.seagate.kinetic.client.io;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import kinetic.client.AsyncKineticException;
+import kinetic.client.AsyncQueueFullException;
+import kinetic.client.AsyncQueuePolicy;
+import kinetic.client.AsyncTimeoutException;
 import kinetic.client.ClientConfiguration;
 import kinetic.client.Entry;
 import kinetic.client.EntryMetadata;
@@ -43,6 +49,8 @@ import com.seagate.kinetic.client.internal.async.PutAsyncCallbackHandler;
 import com.seagate.kinetic.client.io.provider.spi.ClientMessageService;
 import com.seagate.kinetic.common.lib.KineticMessage;
 import com.seagate.kinetic.common.lib.ProtocolMessageUtil;
+import com.seagate.kinetic.proto.Kinetic.Command.BodyOrBuilder;
+import com.seagate.kinetic.proto.Kinetic.Command.HeaderOrBuilder;
 import com.seagate.kinetic.proto.Kinetic.Command.MessageType;
 import com.seagate.kinetic.proto.Kinetic.Message.AuthType;
 
@@ -55,22 +63,25 @@ import com.seagate.kinetic.proto.Kinetic.Message.AuthType;
  * @param <AsyncCallbackHandler>
  *
  */
-public class MessageHandler implements ClientMessageService, Runnable {
+public class MessageHandler implements ClientMessageService {
 
 	// my logger
 	private final static Logger logger = Logger.getLogger(MessageHandler.class
 			.getName());
 
-	// XXX 07172013 chiaming: make it elastic.
-	private Thread myThread = null;
+	// async callback dispatcher
+	private final CallbackDispatcher dispatcher;
 
-	// my message queue
-	private final LinkedBlockingQueue<KineticMessage> asyncQueue = new LinkedBlockingQueue<KineticMessage>();
+	// in-flight requests keyed by sequence number
+	private final Map<Long, InflightRequest> ackmap = new ConcurrentHashMap<Long, InflightRequest>();
 
-	private final Map<Long, Object> ackmap = new ConcurrentHashMap<Long, Object>();
-
-	// flag running flag
-	private volatile boolean isRunning = false;
+	// per caller thread recycled completion slot for sync requests
+	private final ThreadLocal<ResponseSlot> responseSlot = new ThreadLocal<ResponseSlot>() {
+		@Override
+		protected ResponseSlot initialValue() {
+			return new ResponseSlot();
+		}
+	};
 
 	// close flag
 	private volatile boolean isClosed = false;
@@ -79,15 +90,47 @@ public class MessageHandler implements ClientMessageService, Runnable {
 	// io handler
 	private IoHandler iohandler = null;
 
-	private int asyncQueuedSize = 10;
+	// async in-flight window
+	private final AsyncWindow asyncWindow;
 
 	// request timeout
 	private long requestTimeout = 30000;
 
-	private final Object syncObj = new Object();
-	
+	// request timeout in nano seconds
+	private final long requestTimeoutNanos;
+
+	// expires sync and async in-flight requests
+	private final RequestTimer timer;
+
+	// number of requests expired by the timer
+	private final AtomicLong timedOut = new AtomicLong();
+
+	// reconnect if the connection is lost
+	private final boolean autoReconnect;
+
+	// false while reconnecting, new requests wait until connected
+	private volatile boolean isConnected = true;
+
+	// false while reconnecting, written messages are dropped
+	private volatile boolean isWritable = true;
+
+	// requests between the connection gate and the outbound ring
+	private final AtomicInteger entered = new AtomicInteger();
+
+	// requests waiting for the connection to be re-established
+	private final Object connectionGate = new Object();
+
+	// park interval while waiting for pending writes to drain
+	private static final long DRAIN_PARK_NANOS = 100000L;
+
 	private boolean isStatusMessageReceived = false;
 
+	// max number of claimed but not yet written requests
+	private static final int OUTBOUND_RING_SIZE = 1024;
+
+	// outbound request ring
+	private final OutboundRing outbound;
+
 	/**
 	 * Constructor.
 	 *
@@ -100,10 +143,31 @@ public class MessageHandler implements ClientMessageService, Runnable {
 
 		this.client = iohandler.getClient();
 
-		this.asyncQueuedSize = this.client.getConfiguration()
-				.getAsyncQueueSize();
+		this.asyncWindow = new AsyncWindow(this.client.getConfiguration());
 
 		this.requestTimeout = this.client.getConfiguration().getRequestTimeoutMillis();
+
+		this.requestTimeoutNanos = TimeUnit.MILLISECONDS
+				.toNanos(this.requestTimeout);
+
+		this.timer = new RequestTimer(this.requestTimeout,
+				new RequestTimer.Target() {
+					@Override
+					public InflightRequest getRequest(long seq) {
+						return ackmap.get(seq);
+					}
+
+					@Override
+					public void expire(long seq, InflightRequest request) {
+						expired(seq, request);
+					}
+				});
+
+		this.outbound = new OutboundRing(this, OUTBOUND_RING_SIZE);
+
+		this.dispatcher = new CallbackDispatcher(this.client.getConfiguration());
+
+		this.autoReconnect = this.client.getConfiguration().getAutoReconnect();
 	}
 	
 
@@ -117,7 +181,6 @@ public class MessageHandler implements ClientMessageService, Runnable {
 	 *             if interrupted.
 	 */
 	@Override
-	@SuppressWarnings("unchecked")
 	public void routeMessage(KineticMessage message)
 			throws InterruptedException {
 
@@ -146,62 +209,21 @@ public class MessageHandler implements ClientMessageService, Runnable {
 		    }
 		}
 
-		Long seq = Long.valueOf(message.getCommand().getHeader()
-				.getAckSequence());
+		long seq = message.getCommand().getHeader().getAckSequence();
 
-		Object obj = this.ackmap.get(seq);
+		InflightRequest request = this.ackmap.get(seq);
 
 		// check if sync request
-		if (obj != null && (obj instanceof LinkedBlockingQueue)) {
+		if (request != null && request.isAsync() == false) {
 			// sync request
-			((LinkedBlockingQueue<KineticMessage>) obj).put(message);
+			((ResponseSlot) request).complete(seq, message);
 		} else {
 			// async request
-			// this.asyncQueue.put(message);
-			this.putAndCheckRunning(message);
+			this.dispatch(request, message);
 		}
 
 	}
 
-	@Override
-    public void run() {
-
-        try {
-            if (logger.isLoggable(Level.FINEST)) {
-                logger.finest("thread started, name=" + this.myThread.getName());
-            }
-
-            while (isRunning && !isClosed) {
-                // poll message from queue
-                KineticMessage msg;
-                try {
-                    msg = this.asyncQueue.poll(7000, TimeUnit.MILLISECONDS);
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    logger.info("Interrupted");
-                    isClosed = true;
-                    exitRunning();
-                    break;
-                }
-
-                if (msg != null) {
-                    // process message
-                    doProcessMessage(msg);
-                } else {
-                    // exit thread
-                    exitRunning();
-                }
-            }
-        } catch (Throwable t) {
-            logger.log(Level.WARNING, "Main run loop failed", t);
-            isClosed = true;
-        } finally {
-            if (logger.isLoggable(Level.FINEST)) {
-                logger.finest("thread exited ." + this.myThread.getName());
-            }
-        }
-    }
-
 	/**
 	 * process message.
 	 *
@@ -209,26 +231,24 @@ public class MessageHandler implements ClientMessageService, Runnable {
 	 *            message from IoHandler.
 	 * @throws InterruptedException
 	 */
-	private void doProcessMessage(KineticMessage message)
-			throws InterruptedException {
+	private void doProcessMessage(KineticMessage message) {
 
 		// get ack seq
-		Long seq = Long.valueOf(message.getCommand().getHeader()
-				.getAckSequence());
-		// get callback instance
-		Object context = this.ackmap.get(seq);
+		long seq = message.getCommand().getHeader().getAckSequence();
+		// get callback instance. removed first so that the callback is not
+		// also invoked by the request timer.
+		InflightRequest context = this.ackmap.remove(seq);
 
 		if (context != null) {
 			try {
-				if (context instanceof CallbackContext) {
+				if (context.isAsync()) {
 					// invoke callback handler
 					invokeCallbackHandler(context, message);
 				} else {
 					logger.warning("received unknown message: " + message);
 				}
 			} finally {
-				// this.ackmap.remove(seq);
-				this.asyncDelivered(seq);
+				this.asyncDelivered(context);
 			}
 		} else {
 
@@ -277,66 +297,207 @@ public class MessageHandler implements ClientMessageService, Runnable {
 	public KineticMessage write(KineticMessage message) throws IOException,
 	InterruptedException {
 
-		LinkedBlockingQueue<KineticMessage> lbq = new LinkedBlockingQueue<KineticMessage>(
-				1);
+		for (;;) {
+
+			KineticMessage respond = this.writeOnce(message);
+
+			if (respond != ResponseSlot.RECONNECTED) {
+				return respond;
+			}
+
+			if (isReplayable(message) == false) {
+				throw new IOException("Connection was reset, "
+						+ message.getCommand().getHeader().getMessageType()
+						+ " request was not replayed.");
+			}
+
+			// send again on the new connection
+		}
+	}
+
+	private KineticMessage writeOnce(KineticMessage message)
+			throws IOException, InterruptedException {
+
+		// recycled completion slot of the calling thread
+		ResponseSlot slot = this.responseSlot.get();
 
 		KineticMessage respond = null;
 
-        Long seq = 0L;
+		this.enter();
+
+		// claim sequence number for this request
+		long seq = 0;
+
+		try {
+			seq = this.outbound.claim();
+		} catch (IOException e) {
+			this.exit();
+			throw e;
+		}
 
 		try {
 
-            synchronized (this) {
+			long deadline = System.nanoTime() + this.requestTimeoutNanos;
 
-                this.client.finalizeHeader(message);
+			slot.reset(seq, deadline);
 
-                seq = Long.valueOf(message.getCommand().getHeader()
-                        .getSequence());
+			// register before the request is written to avoid missing the
+			// response
+			this.ackmap.put(seq, slot);
 
-                this.ackmap.put(seq, lbq);
+			this.timer.schedule(seq, deadline);
 
-                // this.iohandler.write(message);
-                this.doWrite(message);
-            }
+			try {
+				// finalize and publish to the outbound ring
+				this.send(seq, message);
+			} finally {
+				this.exit();
+			}
 
-            if (this.isClosed) {
+			if (this.isClosed) {
 				throw new IOException("Connection is closed.");
 			} else {
-				respond = lbq.poll(this.requestTimeout, TimeUnit.MILLISECONDS);
+				respond = slot.await();
+
+				if (respond == null && this.ackmap.remove(seq) != null) {
+					// deadline reached before the timer expired the request
+					this.timedOut.incrementAndGet();
+				}
 			}
-			
+
 		} finally {
 			this.ackmap.remove(seq);
 		}
 
+		if (respond == ResponseSlot.CLOSED) {
+			throw new IOException("Connection is closed.");
+		}
+
 		return respond;
 	}
 
-    public synchronized void writeAsync(KineticMessage message, Object context)
-			throws IOException,
-			InterruptedException {
+	/**
+	 * Write an asynchronous request. A credit is taken from the async
+	 * in-flight window and returned when the request's callback has been
+	 * delivered.
+	 *
+	 * @param policy
+	 *            policy applied if the in-flight window is full.
+	 *
+	 * @throws AsyncQueueFullException
+	 *             if the window is full and the policy is not
+	 *             {@link AsyncQueuePolicy#BLOCK}.
+	 */
+	public void writeAsync(KineticMessage message, CallbackContext<?> context,
+			AsyncQueuePolicy policy) throws IOException, InterruptedException,
+			AsyncQueueFullException {
+
+		if (this.isClosed) {
+			throw new IOException("Connection is closed.");
+		}
+
+		if (policy == AsyncQueuePolicy.BLOCK) {
+			this.asyncWindow.acquire();
+		} else if (this.asyncWindow.tryAcquire() == false) {
+			throw new AsyncQueueFullException("async queue is full, size="
+					+ this.asyncWindow.getLimit());
+		}
+
+		try {
+			this.enter();
+		} catch (IOException e) {
+			this.asyncWindow.release(0);
+			throw e;
+		} catch (InterruptedException e) {
+			this.asyncWindow.release(0);
+			throw e;
+		}
 
-        this.client.finalizeHeader(message);
+		// claim sequence number for this request
+		long seq = 0;
 
-		Long seq = Long.valueOf(message.getCommand().getHeader()
-				.getSequence());
+		try {
+			seq = this.outbound.claim();
+		} catch (IOException e) {
+			this.exit();
+			this.asyncWindow.release(0);
+			throw e;
+		}
 
-		while (ackmap.size() >= asyncQueuedSize && (isClosed == false)) {
-			this.wait();
+		try {
+			this.resend(seq, message, context);
+		} finally {
+			this.exit();
 		}
+	}
+
+	/**
+	 * Register and send an async request with the claimed sequence number.
+	 */
+	private void resend(long seq, KineticMessage message,
+			CallbackContext<?> context) {
+
+		long now = System.nanoTime();
+
+		context.setSubmitTime(now);
+		context.setDeadline(now + this.requestTimeoutNanos);
 
 		this.ackmap.put(seq, context);
-		
-		this.doWrite(message);
+
+		this.timer.schedule(seq, context.getDeadline());
+
+		boolean sent = false;
+
+		try {
+			this.send(seq, message);
+			sent = true;
+		} finally {
+			if (sent == false) {
+				// no response will be received, return the credit
+				this.asyncDelivered(this.ackmap.remove(seq));
+			}
+		}
 	}
 
-    public synchronized void writeNoAck(KineticMessage message)
-            throws IOException {
+	public void writeNoAck(KineticMessage message) throws IOException {
 
-        this.client.finalizeHeader(message);
+		try {
+			this.enter();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException(e.getMessage());
+		}
 
-        this.doWrite(message);
-    }
+		try {
+			this.send(this.outbound.claim(), message);
+		} finally {
+			this.exit();
+		}
+	}
+
+	/**
+	 * Finalize the message header with the claimed sequence number and
+	 * publish it to the outbound ring. Header finalization (including the
+	 * HMAC calculation) is performed on the caller's thread without holding
+	 * any lock.
+	 *
+	 * @param seq
+	 *            the sequence number claimed from the outbound ring.
+	 * @param message
+	 *            the request message.
+	 */
+	private void send(long seq, KineticMessage message) {
+
+		KineticMessage published = OutboundRing.SKIP;
+
+		try {
+			this.client.finalizeHeader(message, seq);
+			published = message;
+		} finally {
+			// always publish so that the ring does not stall on this sequence
+			this.outbound.publish(seq, published);
+		}
+	}
 
 	@SuppressWarnings("rawtypes")
 	private void invokeCallbackHandler(Object cbContext, KineticMessage response) {
@@ -521,7 +682,17 @@ public class MessageHandler implements ClientMessageService, Runnable {
 		return this.client.getConfiguration();
 	}
 
-	private void doWrite(KineticMessage message) throws IOException {
+	/**
+	 * Write the message to the transport. Invoked by the outbound ring
+	 * drainer only.
+	 */
+	void doWrite(KineticMessage message) throws IOException {
+
+		if (this.isWritable == false) {
+			// connection lost, the request is replayed or failed when
+			// reconnected
+			return;
+		}
 
 		if (logger.isLoggable(Level.FINEST)) {
 			logger.info("writing message: " + message);
@@ -531,6 +702,24 @@ public class MessageHandler implements ClientMessageService, Runnable {
 	}
 
 
+	/**
+	 * Check if the message handler is closed.
+	 *
+	 * @return true if closed.
+	 */
+	public boolean isClosed() {
+		return this.isClosed;
+	}
+
+	/**
+	 * Get number of requests waiting for a response.
+	 *
+	 * @return number of in-flight requests.
+	 */
+	public int getInflightCount() {
+		return this.ackmap.size();
+	}
+
 	/**
 	 * Close the message handler.
 	 */
@@ -538,35 +727,250 @@ public class MessageHandler implements ClientMessageService, Runnable {
 	public void close() {
 
 		this.isClosed = true;
-		this.isRunning = false;
 
-		if (this.myThread != null) {
-			this.myThread.interrupt();
-		}
+		// stop expiring requests
+		this.timer.close();
+
+		// release dispatcher threads
+		this.dispatcher.close();
 
 		// wake up sync callers
 		this.wakeupSyncCallers();
 
-		// wakes up all wait threads for this instance.
-		synchronized (this) {
-			this.notifyAll();
+		// wakes up callers waiting for the async window.
+		this.asyncWindow.close();
+
+		// wakes up callers waiting for a new connection
+		synchronized (this.connectionGate) {
+			this.connectionGate.notifyAll();
+		}
+	}
+
+	/**
+	 * Enter the connection gate before claiming a sequence number. Waits
+	 * while reconnecting.
+	 *
+	 * @throws IOException
+	 *             if the connection is closed or not re-established within
+	 *             the request timeout.
+	 */
+	private void enter() throws IOException, InterruptedException {
+
+		if (this.autoReconnect == false) {
+			return;
 		}
 
+		for (;;) {
+
+			this.entered.incrementAndGet();
+
+			if (this.isConnected) {
+				return;
+			}
+
+			this.entered.decrementAndGet();
+
+			this.awaitConnected();
+		}
+	}
+
+	/**
+	 * Leave the connection gate after the request is published to the
+	 * outbound ring.
+	 */
+	private void exit() {
+		if (this.autoReconnect) {
+			this.entered.decrementAndGet();
+		}
+	}
+
+	private void awaitConnected() throws IOException, InterruptedException {
+
+		long deadline = System.nanoTime() + this.requestTimeoutNanos;
+
+		synchronized (this.connectionGate) {
+
+			while (this.isConnected == false) {
+
+				if (this.isClosed) {
+					throw new IOException("Connection is closed.");
+				}
+
+				long remaining = deadline - System.nanoTime();
+
+				if (remaining <= 0) {
+					throw new IOException(
+							"Connection is not re-established within "
+									+ this.requestTimeout + " ms");
+				}
+
+				TimeUnit.NANOSECONDS.timedWait(this.connectionGate, remaining);
+			}
+		}
+	}
+
+	/**
+	 * Invoked by the io handler when the connection is lost. New requests
+	 * wait at the connection gate. Returns when all requests that already
+	 * passed the gate are published and taken from the outbound ring.
+	 */
+	void connectionLost() {
+
+		this.isConnected = false;
+		this.isWritable = false;
+
+		this.isStatusMessageReceived = false;
+
+		while (this.entered.get() > 0 || this.outbound.isDrained() == false) {
+
+			if (this.isClosed) {
+				return;
+			}
+
+			LockSupport.parkNanos(DRAIN_PARK_NANOS);
+		}
+	}
+
+	/**
+	 * Invoked by the io handler when the connection is re-established.
+	 * In-flight async requests that are safe to repeat are sent again with
+	 * new sequence numbers, others are failed. Sync callers are woken up and
+	 * send or fail their requests. The connection gate is then opened.
+	 */
+	void reconnected() {
+
+		this.isWritable = true;
+
+		for (InflightRequest request : this.removeAll()) {
+
+			if (request.isAsync() == false) {
+				((ResponseSlot) request).complete(-1, ResponseSlot.RECONNECTED);
+				continue;
+			}
+
+			CallbackContext<?> context = (CallbackContext<?>) request;
+
+			if (isReplayable(context.getRequestMessage()) == false) {
+				this.fail(context, "Connection was reset, "
+						+ context.getRequestMessage().getCommand().getHeader()
+								.getMessageType()
+						+ " request was not replayed.");
+				continue;
+			}
+
+			try {
+				this.resend(this.outbound.claim(),
+						context.getRequestMessage(), context);
+			} catch (Exception e) {
+				this.fail(context, e.getMessage());
+			}
+		}
+
+		synchronized (this.connectionGate) {
+			this.isConnected = true;
+			this.connectionGate.notifyAll();
+		}
+	}
+
+	/**
+	 * Invoked by the io handler when the connection could not be
+	 * re-established. In-flight async requests are failed.
+	 */
+	void reconnectFailed() {
+
+		for (InflightRequest request : this.removeAll()) {
+
+			if (request.isAsync()) {
+				this.fail((CallbackContext<?>) request,
+						"Connection is closed, unable to reconnect.");
+			} else {
+				((ResponseSlot) request).complete(-1, ResponseSlot.CLOSED);
+			}
+		}
+	}
+
+	/**
+	 * Return the credit of a removed async request and deliver the error to
+	 * its callback handler.
+	 */
+	private void fail(final CallbackContext<?> context, final String reason) {
+
+		this.asyncDelivered(context);
+
+		this.dispatcher.dispatch(orderKey(context), new Runnable() {
+			@Override
+			public void run() {
+				AsyncKineticException e = new AsyncKineticException(reason);
+
+				e.setRequestMessage(context.getRequestMessage());
+
+				context.getCallbackHandler().onError(e);
+			}
+		});
+	}
+
+	/**
+	 * Check if a request may be sent again after a connection loss without
+	 * changing the outcome: reads, and forced writes outside of a batch.
+	 *
+	 * @param request
+	 *            the request message.
+	 * @return true if the request can be replayed.
+	 */
+	static boolean isReplayable(KineticMessage request) {
+
+		HeaderOrBuilder header = request.getCommand().getHeaderOrBuilder();
+
+		if (header.hasBatchID()) {
+			return false;
+		}
+
+		switch (header.getMessageType()) {
+		case GET:
+		case GETNEXT:
+		case GETPREVIOUS:
+		case GETKEYRANGE:
+		case GETVERSION:
+		case NOOP:
+			return true;
+		case PUT:
+		case DELETE:
+			return request.getCommand().getBodyOrBuilder()
+					.getKeyValueOrBuilder().getForce();
+		default:
+			return false;
+		}
+	}
+
+	/**
+	 * Remove all in-flight requests.
+	 *
+	 * @return the removed in-flight requests.
+	 */
+	private List<InflightRequest> removeAll() {
+
+		List<InflightRequest> removed = new ArrayList<InflightRequest>();
+
+		for (Map.Entry<Long, InflightRequest> entry : this.ackmap.entrySet()) {
+			// skip requests completed concurrently
+			if (this.ackmap.remove(entry.getKey(), entry.getValue())) {
+				removed.add(entry.getValue());
+			}
+		}
+
+		return removed;
 	}
 
-	@SuppressWarnings("unchecked")
 	private void wakeupSyncCallers() {
 
 		// logger.info("waking up sync callers ...");
 
-		for (Long id : this.ackmap.keySet().toArray(new Long[0])) {
-
-			Object obj = this.ackmap.get(id);
+		for (InflightRequest request : this.ackmap.values()) {
 
 			try {
-				if (obj instanceof LinkedBlockingQueue) {
+				if (request.isAsync() == false) {
 					// the connection is closed, unblock callers
-				    ((LinkedBlockingQueue<KineticMessage>) obj).put(new KineticMessage());
+					((ResponseSlot) request).complete(-1, ResponseSlot.CLOSED);
 				}
 			} catch (Exception e) {
 				logger.log(Level.WARNING, e.getMessage(), e);
@@ -574,69 +978,139 @@ public class MessageHandler implements ClientMessageService, Runnable {
 		}
 	}
 
-	private synchronized void asyncDelivered(Long key) {
-		this.ackmap.remove(key);
-		this.notifyAll();
+	/**
+	 * Return the async window credit of a request removed from the in-flight
+	 * map.
+	 */
+	private void asyncDelivered(InflightRequest request) {
+
+		if (request != null && request.isAsync()) {
+			this.asyncWindow.release(System.nanoTime()
+					- ((CallbackContext<?>) request).getSubmitTime());
+		}
 	}
 
 	/**
-	 * put message in queue and start a new thread to dispatch if none is
-	 * started.
+	 * Expire a request that has passed its deadline. The waiting sync caller
+	 * is released with a timeout. An async request returns its window credit
+	 * and its callback handler is invoked with an
+	 * {@link AsyncTimeoutException}.
 	 *
-	 * @param message
-	 *            message to put in the async queue
-	 * @throws InterruptedException
-	 *             if interrupted.
+	 * @param seq
+	 *            request sequence number.
+	 * @param request
+	 *            the expired request.
 	 */
-	private void putAndCheckRunning(KineticMessage message)
-			throws InterruptedException {
+	private void expired(long seq, InflightRequest request) {
 
-		// check if the client is closed already.
-		if (this.isClosed) {
+		if (this.ackmap.remove(seq) == null) {
+			// response received concurrently
 			return;
 		}
 
-		this.asyncQueue.put(message);
+		this.timedOut.incrementAndGet();
+
+		if (request.isAsync() == false) {
+			((ResponseSlot) request).complete(seq, ResponseSlot.TIMED_OUT);
+			return;
+		}
 
-		synchronized (syncObj) {
+		this.asyncDelivered(request);
 
-			// client is still open, check if there is a thread running and
-			// dispatching messages
-			// if not, created one and start it.
-			if (isRunning == false) {
+		if (this.isClosed) {
+			return;
+		}
 
-				// instantiate a new thread
-				this.myThread = new Thread(this);
+		final CallbackContext<?> context = (CallbackContext<?>) request;
 
-				// set identity
-				this.myThread.setName("ClientMessageHandler-"
-						+ client.getConfiguration().getHost() + "-"
-						+ client.getConfiguration().getPort());
+		// invoked on the timer thread shared by all connections, the
+		// callback must not run on it
+		this.dispatcher.dispatchDetached(orderKey(request), new Runnable() {
+			@Override
+			public void run() {
+				AsyncTimeoutException e = new AsyncTimeoutException(
+						"Timeout - unable to receive response message within "
+								+ requestTimeout + " ms");
 
-				// set running flag
-				this.isRunning = true;
+				e.setRequestMessage(context.getRequestMessage());
 
-				// start dispatching messages
-				this.myThread.start();
+				context.getCallbackHandler().onError(e);
 			}
-		}
+		});
 	}
 
 	/**
-	 * check if the thread should exit.
+	 * Dispatch an asynchronous response (or an unsolicited message) to the
+	 * callback dispatcher.
+	 *
+	 * @param request
+	 *            the in-flight request for the message, may be null.
+	 * @param message
+	 *            message to be delivered.
 	 */
-	private void exitRunning() {
+	private void dispatch(InflightRequest request, final KineticMessage message) {
 
+		// check if the client is closed already.
 		if (this.isClosed) {
 			return;
 		}
 
-		synchronized (syncObj) {
-			// only set flag to false if queue is empty
-			if (this.asyncQueue.isEmpty()) {
-				this.isRunning = false;
+		this.dispatcher.dispatch(orderKey(request), new Runnable() {
+			@Override
+			public void run() {
+				doProcessMessage(message);
 			}
+		});
+	}
+
+	/**
+	 * Callbacks for the same entry key are delivered in order.
+	 */
+	private static int orderKey(InflightRequest request) {
+
+		if (request == null || request.isAsync() == false) {
+			return 0;
 		}
+
+		BodyOrBuilder body = ((CallbackContext<?>) request)
+				.getRequestMessage().getCommand().getBodyOrBuilder();
+
+		if (body.hasRange()) {
+			return body.getRangeOrBuilder().getStartKey().hashCode();
+		}
+
+		return body.getKeyValueOrBuilder().getKey().hashCode();
+	}
+
+	/**
+	 * Get async callback dispatch metrics for this connection.
+	 *
+	 * @return async callback dispatch metrics.
+	 */
+	public CallbackMetrics getCallbackMetrics() {
+		return this.dispatcher.getMetrics();
+	}
+
+	/**
+	 * Get the current async in-flight window size for this connection. The
+	 * size changes over time if a latency target is configured.
+	 *
+	 * @return current async in-flight window size.
+	 *
+	 * @see ClientConfiguration#setAsyncLatencyTargetMillis(long)
+	 */
+	public int getAsyncWindowSize() {
+		return this.asyncWindow.getLimit();
+	}
+
+	/**
+	 * Get number of requests expired because no response was received within
+	 * the request timeout.
+	 *
+	 * @return number of timed out requests.
+	 */
+	public long getTimedOutCount() {
+		return this.timedOut.get();
 	}
 
 }
@@ -0,0 +1,201 @@
+/**
+ * Copyright 2013-2015 Seagate Technology LLC.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla
+ * Public License, v. 2.0. If a copy of the MPL was not
+ * distributed with this file, You can obtain one at
+ * https://mozilla.org/MP:/2.0/.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but is provided AS-IS, WITHOUT ANY WARRANTY; including without
+ * the implied warranty of MERCHANTABILITY, NON-INFRINGEMENT or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the Mozilla Public
+ * License for more details.
+ *
+ * See www.openkinetic.org for more project information
+ */
+package com.seagate.kinetic.client.io;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.seagate.kinetic.common.lib.KineticMessage;
+
+/**
+ * Single writer outbound request ring for a client connection.
+ * <p>
+ * Request sequence numbers are handed out atomically by {@link #claim()}. Each
+ * request thread finalizes (and HMACs) its own message without holding any
+ * lock and then publishes it into the ring slot indexed by its sequence
+ * number. Whichever thread wins the work-in-progress counter drains the ring
+ * and writes messages to the transport strictly in sequence order, as
+ * required by the Kinetic protocol.
+ *
+ */
+class OutboundRing {
+
+    private final static Logger logger = Logger.getLogger(OutboundRing.class
+            .getName());
+
+    /**
+     * placeholder published for a claimed sequence that will never be written
+     * (for example, if the message could not be finalized).
+     */
+    static final KineticMessage SKIP = new KineticMessage();
+
+    // park interval when the ring is full
+    private static final long PARK_NANOS = 1000L;
+
+    // ring slots
+    private final AtomicReferenceArray<KineticMessage> slots;
+
+    // index mask
+    private final int mask;
+
+    // next sequence to claim, starts from 1
+    private final AtomicLong claimed = new AtomicLong(1);
+
+    // next sequence to be written to the transport. updated by the drainer only.
+    private volatile long next = 1;
+
+    // drain work in progress counter
+    private final AtomicInteger wip = new AtomicInteger();
+
+    // message handler that owns this ring
+    private final MessageHandler handler;
+
+    /**
+     * Construct a ring with at least the specified capacity.
+     *
+     * @param handler
+     *            message handler used to write drained messages.
+     * @param capacity
+     *            minimum number of in-flight unwritten messages. Rounded up
+     *            to the next power of two.
+     */
+    OutboundRing(MessageHandler handler, int capacity) {
+
+        int size = 1;
+        while (size < capacity) {
+            size <<= 1;
+        }
+
+        this.slots = new AtomicReferenceArray<KineticMessage>(size);
+        this.mask = size - 1;
+        this.handler = handler;
+    }
+
+    /**
+     * Claim the next sequence number. The caller must publish exactly one
+     * message (or {@link #SKIP}) for the claimed sequence.
+     * <p>
+     * Blocks (parks) while the ring is full.
+     *
+     * @return the claimed sequence number.
+     *
+     * @throws IOException
+     *             if the connection is closed while waiting for a free slot.
+     */
+    long claim() throws IOException {
+
+        long seq = this.claimed.getAndIncrement();
+
+        while (seq - this.next > this.mask) {
+
+            if (this.handler.isClosed()) {
+                throw new IOException("Connection is closed.");
+            }
+
+            LockSupport.parkNanos(PARK_NANOS);
+        }
+
+        return seq;
+    }
+
+    /**
+     * Publish the message for the claimed sequence and drain the ring if no
+     * other thread is currently draining it.
+     *
+     * @param seq
+     *            sequence previously obtained from {@link #claim()}.
+     * @param message
+     *            finalized message to be written, or {@link #SKIP}.
+     */
+    void publish(long seq, KineticMessage message) {
+
+        this.slots.set((int) (seq & this.mask), message);
+
+        this.drain();
+    }
+
+    /**
+     * Write all contiguous published messages to the transport. Only one
+     * thread at a time runs the loop.
+     */
+    private void drain() {
+
+        if (this.wip.getAndIncrement() != 0) {
+            return;
+        }
+
+        int missed = 1;
+
+        for (;;) {
+
+            for (;;) {
+
+                int index = (int) (this.next & this.mask);
+
+                KineticMessage message = this.slots.get(index);
+
+                if (message == null) {
+                    break;
+                }
+
+                this.slots.lazySet(index, null);
+
+                // free the slot before writing so that claimers may proceed
+                this.next = this.next + 1;
+
+                if (message != SKIP) {
+                    this.write(message);
+                }
+            }
+
+            missed = this.wip.addAndGet(-missed);
+
+            if (missed == 0) {
+                break;
+            }
+        }
+    }
+
+    private void write(KineticMessage message) {
+
+        if (this.handler.isClosed()) {
+            return;
+        }
+
+        try {
+            this.handler.doWrite(message);
+        } catch (IOException e) {
+            // the connection loss is handled by the io handler
+            logger.log(Level.WARNING, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Check if all claimed sequences have been published and taken from the
+     * ring.
+     *
+     * @return true if no claimed message is waiting to be written.
+     */
+    boolean isDrained() {
+        return this.claimed.get() == this.next;
+    }
+}
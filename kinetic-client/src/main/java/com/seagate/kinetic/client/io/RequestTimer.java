@@ -0,0 +1,252 @@
+/**
+ * Copyright 2013-2015 Seagate Technology LLC.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla
+ * Public License, v. 2.0. If a copy of the MPL was not
+ * distributed with this file, You can obtain one at
+ * https://mozilla.org/MP:/2.0/.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but is provided AS-IS, WITHOUT ANY WARRANTY; including without 
+ * the implied warranty of MERCHANTABILITY, NON-INFRINGEMENT or 
+ * FITNESS FOR A PARTICULAR PURPOSE. See the Mozilla Public 
+ * License for more details.
+ *
+ * See www.openkinetic.org for more project information
+ */
+package com.seagate.kinetic.client.io;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.seagate.kinetic.client.io.provider.nio.NioClientThreadFactory;
+
+/**
+ * Hashed wheel timer that expires in-flight requests of a connection.
+ * <p>
+ * All requests of a connection share the same timeout, so the wheel is sized
+ * such that a request is always scheduled less than one revolution ahead of
+ * the current tick. A bucket does not hold entries, it only records the range
+ * of sequence numbers scheduled to expire at its tick. Scheduling a request
+ * is a min/max update of a bucket, and nothing needs to be cancelled when a
+ * response arrives: on expiry, sequences in the range that are no longer
+ * in-flight are simply skipped.
+ * <p>
+ * Wheels of all connections are advanced by a single shared daemon thread.
+ *
+ */
+class RequestTimer {
+
+    private final static Logger logger = Logger.getLogger(RequestTimer.class
+            .getName());
+
+    /**
+     * Looks up and expires in-flight requests.
+     */
+    interface Target {
+
+        /**
+         * Get the in-flight request for the specified sequence.
+         *
+         * @param seq
+         *            request sequence number.
+         * @return the in-flight request, or null if it is no longer
+         *         in-flight.
+         */
+        InflightRequest getRequest(long seq);
+
+        /**
+         * Invoked when the request has passed its deadline. It is invoked on
+         * the timer thread shared by all connections and must not block.
+         *
+         * @param seq
+         *            request sequence number.
+         * @param request
+         *            the expired request.
+         */
+        void expire(long seq, InflightRequest request);
+    }
+
+    // number of buckets, must be power of two
+    private static final int WHEEL_SIZE = 512;
+
+    // ticks per request timeout, less than the wheel size
+    private static final int TICKS_PER_TIMEOUT = 256;
+
+    // min tick duration
+    private static final long MIN_TICK_NANOS = TimeUnit.MILLISECONDS
+            .toNanos(10);
+
+    // advances the wheels of all connections
+    private static final ScheduledExecutorService ticker = Executors
+            .newSingleThreadScheduledExecutor(new NioClientThreadFactory(
+                    "kinetic.client.timer"));
+
+    private final Bucket[] wheel = new Bucket[WHEEL_SIZE];
+
+    // tick duration
+    private final long tickNanos;
+
+    // wheel start time
+    private final long startTime = System.nanoTime();
+
+    // last expired tick. updated by the ticker thread only.
+    private volatile long tick = 0;
+
+    private final Target target;
+
+    private final ScheduledFuture<?> future;
+
+    /**
+     * Construct and start a wheel for requests with the specified timeout.
+     *
+     * @param timeoutMillis
+     *            request timeout in milli seconds.
+     * @param target
+     *            target to look up and expire requests.
+     */
+    RequestTimer(long timeoutMillis, Target target) {
+
+        this.target = target;
+
+        this.tickNanos = Math.max(MIN_TICK_NANOS,
+                TimeUnit.MILLISECONDS.toNanos(timeoutMillis)
+                        / TICKS_PER_TIMEOUT);
+
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            this.wheel[i] = new Bucket();
+        }
+
+        this.future = ticker.scheduleAtFixedRate(new Runnable() {
+            @Override
+            public void run() {
+                advance();
+            }
+        }, this.tickNanos, this.tickNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Schedule expiry of a request.
+     *
+     * @param seq
+     *            request sequence number.
+     * @param deadline
+     *            time ({@link System#nanoTime()}) the request expires.
+     */
+    void schedule(long seq, long deadline) {
+
+        // round up so that a request never expires early
+        long t = (deadline - this.startTime + this.tickNanos - 1)
+                / this.tickNanos;
+
+        long next = this.tick + 1;
+        if (t < next) {
+            t = next;
+        }
+
+        this.wheel[(int) (t & (WHEEL_SIZE - 1))].add(seq);
+    }
+
+    /**
+     * Stop the wheel. Requests still scheduled are not expired.
+     */
+    void close() {
+        this.future.cancel(false);
+    }
+
+    /**
+     * Expire all ticks up to the current time. Invoked by the ticker thread.
+     */
+    private void advance() {
+
+        long now = System.nanoTime();
+
+        long current = (now - this.startTime) / this.tickNanos;
+
+        try {
+            while (this.tick < current) {
+
+                long t = this.tick + 1;
+
+                // requests rescheduled while expiring go to later ticks
+                this.tick = t;
+
+                this.expire(this.wheel[(int) (t & (WHEEL_SIZE - 1))], now);
+            }
+        } catch (Throwable e) {
+            // keep the wheel running
+            logger.log(Level.WARNING, e.getMessage(), e);
+        }
+    }
+
+    private void expire(Bucket bucket, long now) {
+
+        long lo;
+        long hi;
+
+        synchronized (bucket) {
+
+            if (bucket.isEmpty()) {
+                return;
+            }
+
+            lo = bucket.lo;
+            hi = bucket.hi;
+
+            bucket.clear();
+        }
+
+        for (long seq = lo; seq <= hi; seq++) {
+
+            InflightRequest request = this.target.getRequest(seq);
+
+            if (request == null) {
+                // completed
+                continue;
+            }
+
+            long deadline = request.getDeadline();
+
+            if (deadline - now <= 0) {
+                this.target.expire(seq, request);
+            } else {
+                // in range of this tick but scheduled for a later one
+                this.schedule(seq, deadline);
+            }
+        }
+    }
+
+    /**
+     * Range of sequence numbers that expire at the same tick.
+     */
+    private static final class Bucket {
+
+        private long lo = Long.MAX_VALUE;
+
+        private long hi = Long.MIN_VALUE;
+
+        synchronized void add(long seq) {
+
+            if (seq < this.lo) {
+                this.lo = seq;
+            }
+
+            if (seq > this.hi) {
+                this.hi = seq;
+            }
+        }
+
+        boolean isEmpty() {
+            return this.lo > this.hi;
+        }
+
+        void clear() {
+            this.lo = Long.MAX_VALUE;
+            this.hi = Long.MIN_VALUE;
+        }
+    }
+}
@@ -0,0 +1,186 @@
+/**
+ * Copyright 2013-2015 Seagate Technology LLC.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla
+ * Public License, v. 2.0. If a copy of the MPL was not
+ * distributed with this file, You can obtain one at
+ * https://mozilla.org/MP:/2.0/.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but is provided AS-IS, WITHOUT ANY WARRANTY; including without
+ * the implied warranty of MERCHANTABILITY, NON-INFRINGEMENT or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the Mozilla Public
+ * License for more details.
+ *
+ * See www.openkinetic.org for more project information
+ */
+package com.seagate.kinetic.client.io;
+
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+
+import com.seagate.kinetic.common.lib.KineticMessage;
+
+/**
+ * Completion slot for a synchronous request.
+ * <p>
+ * A caller thread blocks on at most one synchronous request at a time, so each
+ * thread owns one slot per message handler and recycles it for every request.
+ * The waiting thread is parked until the response is delivered, the
+ * connection is closed, or the request times out.
+ *
+ */
+final class ResponseSlot implements InflightRequest {
+
+    /**
+     * delivered to waiting callers when the connection is closed.
+     */
+    static final KineticMessage CLOSED = new KineticMessage();
+
+    /**
+     * delivered to the waiting caller when the request timer expired the
+     * request.
+     */
+    static final KineticMessage TIMED_OUT = new KineticMessage();
+
+    /**
+     * delivered to the waiting caller when the connection was re-established
+     * and the request must be sent again.
+     */
+    static final KineticMessage RECONNECTED = new KineticMessage();
+
+    private static final AtomicReferenceFieldUpdater<ResponseSlot, KineticMessage> RESPONSE = AtomicReferenceFieldUpdater
+            .newUpdater(ResponseSlot.class, KineticMessage.class, "response");
+
+    // thread waiting on this slot
+    private volatile Thread waiter = null;
+
+    // sequence of the request currently waiting on this slot
+    private volatile long sequence = -1;
+
+    // delivered response
+    private volatile KineticMessage response = null;
+
+    // deadline of the request currently waiting on this slot
+    private volatile long deadline = 0;
+
+    /**
+     * Reset the slot for a new request.
+     *
+     * @param seq
+     *            sequence number of the new request.
+     * @param deadline
+     *            time ({@link System#nanoTime()}) the request expires.
+     */
+    void reset(long seq, long deadline) {
+        this.response = null;
+        this.deadline = deadline;
+        this.sequence = seq;
+        this.waiter = Thread.currentThread();
+    }
+
+    /**
+     * Deliver a response to the waiting thread.
+     *
+     * @param seq
+     *            the ack sequence of the response.
+     * @param message
+     *            the response message, {@link #CLOSED}, {@link #TIMED_OUT}
+     *            or {@link #RECONNECTED}.
+     */
+    void complete(long seq, KineticMessage message) {
+
+        if (message != CLOSED && message != RECONNECTED
+                && seq != this.sequence) {
+            // late response for a previous request that has timed out
+            return;
+        }
+
+        this.response = message;
+
+        Thread t = this.waiter;
+        if (t != null) {
+            LockSupport.unpark(t);
+        }
+    }
+
+    /**
+     * Wait for the response of the request registered with
+     * {@link #reset(long, long)}.
+     * <p>
+     * The request is normally expired by the request timer. The deadline is
+     * also checked here so that the caller is released even if the timer is
+     * late.
+     *
+     * @return the response message, {@link #CLOSED} if the connection is
+     *         closed, {@link #RECONNECTED} if the request must be sent again
+     *         on a new connection, or null if timed out.
+     *
+     * @throws InterruptedException
+     *             if the waiting thread is interrupted.
+     */
+    KineticMessage await() throws InterruptedException {
+
+        long seq = this.sequence;
+
+        long deadline = this.deadline;
+
+        try {
+            for (;;) {
+
+                KineticMessage message = this.response;
+
+                if (message == CLOSED || message == RECONNECTED) {
+                    return message;
+                }
+
+                if (message == TIMED_OUT) {
+                    return null;
+                }
+
+                if (message != null) {
+
+                    if (message.getCommand().getHeader().getAckSequence() == seq) {
+                        return message;
+                    }
+
+                    // stale delivery raced with the reset, keep waiting.
+                    // only clear the stale message, the response may have
+                    // been delivered in the meantime.
+                    RESPONSE.compareAndSet(this, message, null);
+                    continue;
+                }
+
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return null;
+                }
+
+                LockSupport.parkNanos(this, remaining);
+
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+            }
+        } finally {
+            this.waiter = null;
+            this.sequence = -1;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isAsync() {
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getDeadline() {
+        return this.deadline;
+    }
+}
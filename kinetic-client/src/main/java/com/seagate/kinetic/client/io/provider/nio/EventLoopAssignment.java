@@ -0,0 +1,113 @@
+/**
+ * Copyright 2013-2015 Seagate Technology LLC.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla
+ * Public License, v. 2.0. If a copy of the MPL was not
+ * distributed with this file, You can obtain one at
+ * https://mozilla.org/MP:/2.0/.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but is provided AS-IS, WITHOUT ANY WARRANTY; including without 
+ * the implied warranty of MERCHANTABILITY, NON-INFRINGEMENT or 
+ * FITNESS FOR A PARTICULAR PURPOSE. See the Mozilla Public 
+ * License for more details.
+ *
+ * See www.openkinetic.org for more project information
+ */
+package com.seagate.kinetic.client.io.provider.nio;
+
+import io.netty.channel.EventLoop;
+
+import kinetic.client.ClientConfiguration;
+import kinetic.client.ClientEventLoopGroup;
+
+import com.seagate.kinetic.client.io.provider.nio.tcp.NioWorkerGroup;
+
+/**
+ * The event loop assigned to a client nio connection.
+ * <p>
+ * The event loop is assigned from the group set in the client configuration,
+ * or a group dedicated to the connection if nio service threads is set, or
+ * the group shared by client instances.
+ *
+ * @see ClientConfiguration#setEventLoopGroup(ClientEventLoopGroup)
+ * @see ClientConfiguration#setNioServiceThreads(int)
+ */
+public class EventLoopAssignment {
+
+    // group the event loop is assigned from
+    private final ClientEventLoopGroup group;
+
+    // assigned event loop
+    private final EventLoop eventLoop;
+
+    // true if the group is dedicated to the connection
+    private final boolean isDedicated;
+
+    private EventLoopAssignment(ClientEventLoopGroup group,
+            boolean isDedicated, int affinity) {
+
+        this.group = group;
+        this.isDedicated = isDedicated;
+
+        try {
+            this.eventLoop = group.acquireEventLoop(affinity);
+        } catch (RuntimeException e) {
+            if (isDedicated) {
+                group.close();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Assign an event loop to a new connection with the specified
+     * configuration.
+     *
+     * @param config
+     *            client configuration.
+     * @return the event loop assignment.
+     * @throws IllegalStateException
+     *             if the configured event loop group is shut down.
+     */
+    public static EventLoopAssignment assign(ClientConfiguration config) {
+
+        int affinity = config.getEventLoopAffinity();
+
+        if (config.getEventLoopGroup() != null) {
+            return new EventLoopAssignment(config.getEventLoopGroup(), false,
+                    affinity);
+        }
+
+        if (config.getNioServiceThreads() > 0) {
+            return new EventLoopAssignment(new ClientEventLoopGroup(
+                    config.getNioServiceThreads(), config.getUseEpoll()),
+                    true, affinity);
+        }
+
+        return new EventLoopAssignment(NioWorkerGroup.getSharedGroup(config
+                .getUseEpoll()), false, affinity);
+    }
+
+    /**
+     * Get the assigned event loop.
+     *
+     * @return the assigned event loop.
+     */
+    public EventLoop getEventLoop() {
+        return this.eventLoop;
+    }
+
+    /**
+     * Release the event loop when the connection is closed. A dedicated group
+     * is shut down.
+     */
+    public void release() {
+
+        this.group.releaseEventLoop(this.eventLoop);
+
+        if (this.isDedicated) {
+            this.group.close();
+        }
+    }
+}
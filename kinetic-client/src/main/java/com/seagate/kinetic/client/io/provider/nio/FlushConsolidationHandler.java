@@ -0,0 +1,177 @@
+/**
+ * Copyright 2013-2015 Seagate Technology LLC.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla
+ * Public License, v. 2.0. If a copy of the MPL was not
+ * distributed with this file, You can obtain one at
+ * https://mozilla.org/MP:/2.0/.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but is provided AS-IS, WITHOUT ANY WARRANTY; including without 
+ * the implied warranty of MERCHANTABILITY, NON-INFRINGEMENT or 
+ * FITNESS FOR A PARTICULAR PURPOSE. See the Mozilla Public 
+ * License for more details.
+ *
+ * See www.openkinetic.org for more project information
+ */
+package com.seagate.kinetic.client.io.provider.nio;
+
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.util.concurrent.Future;
+
+import java.util.concurrent.TimeUnit;
+
+import kinetic.client.ClientConfiguration;
+
+/**
+ * Outbound handler that consolidates flushes of a client channel.
+ * <p>
+ * Each request is written to the channel with a write and flush. This handler
+ * holds back the flushes so that the messages written in a burst are sent to
+ * the socket with one (gathering) write. Pending messages are flushed when
+ * any of the following occurs:
+ * <ul>
+ * <li>the number of pending flushes reaches the batch size.
+ * <li>the flush delay has elapsed since the first pending flush, if a delay
+ * is set.
+ * <li>the event loop has run the tasks queued before the first pending flush,
+ * if no delay is set. For a single request this happens right after it is
+ * written.
+ * <li>the channel is closed, disconnected, becomes unwritable, or the handler
+ * is removed.
+ * </ul>
+ * <p>
+ * All methods are invoked in the channel's event loop.
+ *
+ * @see ClientConfiguration#setFlushBatchSize(int)
+ * @see ClientConfiguration#setFlushDelayMicros(long)
+ */
+public class FlushConsolidationHandler extends ChannelDuplexHandler {
+
+    // max number of pending flushes
+    private final int batchSize;
+
+    // max flush delay in nano seconds, 0 flushes when the event loop is idle
+    private final long delayNanos;
+
+    // number of flushes held back
+    private int pendingFlushes = 0;
+
+    // scheduled flush task, null if none
+    private Future<?> scheduled = null;
+
+    // channel handler context
+    private ChannelHandlerContext ctx = null;
+
+    // flushes pending messages
+    private final Runnable flushTask = new Runnable() {
+        @Override
+        public void run() {
+            scheduled = null;
+
+            if (pendingFlushes > 0) {
+                pendingFlushes = 0;
+                ctx.flush();
+            }
+        }
+    };
+
+    /**
+     * Construct a flush consolidation handler.
+     *
+     * @param batchSize
+     *            max number of flushes held back. Must be greater than 1.
+     * @param delayMicros
+     *            max time in micro seconds a flush is held back. If set to 0,
+     *            pending messages are flushed as soon as the event loop has
+     *            run the tasks queued before the first pending flush.
+     */
+    public FlushConsolidationHandler(int batchSize, long delayMicros) {
+
+        if (batchSize <= 1) {
+            throw new IllegalArgumentException("Invalid batch size: "
+                    + batchSize);
+        }
+
+        if (delayMicros < 0) {
+            throw new IllegalArgumentException("Invalid flush delay: "
+                    + delayMicros);
+        }
+
+        this.batchSize = batchSize;
+        this.delayNanos = TimeUnit.MICROSECONDS.toNanos(delayMicros);
+    }
+
+    @Override
+    public void handlerAdded(ChannelHandlerContext ctx) throws Exception {
+        this.ctx = ctx;
+    }
+
+    @Override
+    public void flush(ChannelHandlerContext ctx) throws Exception {
+
+        if (++pendingFlushes >= batchSize) {
+            flushNow(ctx);
+            return;
+        }
+
+        if (scheduled == null) {
+            if (delayNanos > 0) {
+                scheduled = ctx.executor().schedule(flushTask, delayNanos,
+                        TimeUnit.NANOSECONDS);
+            } else {
+                scheduled = ctx.executor().submit(flushTask);
+            }
+        }
+    }
+
+    @Override
+    public void close(ChannelHandlerContext ctx, ChannelPromise promise)
+            throws Exception {
+        flushIfPending(ctx);
+        ctx.close(promise);
+    }
+
+    @Override
+    public void disconnect(ChannelHandlerContext ctx, ChannelPromise promise)
+            throws Exception {
+        flushIfPending(ctx);
+        ctx.disconnect(promise);
+    }
+
+    @Override
+    public void channelWritabilityChanged(ChannelHandlerContext ctx)
+            throws Exception {
+
+        if (!ctx.channel().isWritable()) {
+            // drain outbound buffer
+            flushIfPending(ctx);
+        }
+
+        ctx.fireChannelWritabilityChanged();
+    }
+
+    @Override
+    public void handlerRemoved(ChannelHandlerContext ctx) throws Exception {
+        flushIfPending(ctx);
+    }
+
+    private void flushIfPending(ChannelHandlerContext ctx) {
+        if (pendingFlushes > 0) {
+            flushNow(ctx);
+        }
+    }
+
+    private void flushNow(ChannelHandlerContext ctx) {
+
+        if (scheduled != null) {
+            scheduled.cancel(false);
+            scheduled = null;
+        }
+
+        pendingFlushes = 0;
+        ctx.flush();
+    }
+}
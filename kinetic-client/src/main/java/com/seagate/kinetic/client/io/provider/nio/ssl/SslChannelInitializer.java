@@ -27,6 +27,9 @@ import java.util.logging.Logger;
 
 import javax.net.ssl.SSLEngine;
 
+import kinetic.client.ClientConfiguration;
+
+import com.seagate.kinetic.client.io.provider.nio.FlushConsolidationHandler;
 import com.seagate.kinetic.client.io.provider.spi.ClientMessageService;
 import com.seagate.kinetic.common.lib.TlsUtil;
 import com.seagate.kinetic.common.protocol.codec.KineticDecoder;
@@ -75,6 +78,13 @@ ChannelInitializer<SocketChannel> {
 		// add ssl handler
 		pipeline.addLast("ssl", new SslHandler(engine));
 
+		// consolidate flushes of pipelined requests
+		ClientConfiguration config = mservice.getConfiguration();
+		if (config.getFlushBatchSize() > 1) {
+			pipeline.addLast("flush", new FlushConsolidationHandler(
+					config.getFlushBatchSize(), config.getFlushDelayMicros()));
+		}
+
 		// decoder
 		pipeline.addLast("decoder", new KineticDecoder());
 		// encoder
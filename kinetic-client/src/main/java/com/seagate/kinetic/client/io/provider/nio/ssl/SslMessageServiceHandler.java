@@ -67,4 +67,14 @@ SimpleChannelInboundHandler<KineticMessage> {
 		this.mservice.close();
 	}
 
+	@Override
+	public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+
+		// close my message service handler
+		this.mservice.close();
+
+		// close connection
+		ctx.close();
+	}
+
 }
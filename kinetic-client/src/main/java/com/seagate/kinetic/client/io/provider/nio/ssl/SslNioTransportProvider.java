@@ -18,8 +18,7 @@ package com.seagate.kinetic.client.io.provider.nio.ssl;
 
 import io.netty.bootstrap.Bootstrap;
 import io.netty.channel.Channel;
-import io.netty.channel.EventLoopGroup;
-import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.channel.ChannelOption;
 
 import java.io.IOException;
 import java.util.logging.Level;
@@ -28,9 +27,10 @@ import java.util.logging.Logger;
 import kinetic.client.ClientConfiguration;
 import kinetic.client.KineticException;
 
-import com.seagate.kinetic.client.io.provider.nio.tcp.NioWorkerGroup;
+import com.seagate.kinetic.client.io.provider.nio.EventLoopAssignment;
 import com.seagate.kinetic.client.io.provider.spi.ClientMessageService;
 import com.seagate.kinetic.client.io.provider.spi.ClientTransportProvider;
+import com.seagate.kinetic.common.lib.EpollUtil;
 import com.seagate.kinetic.common.lib.KineticMessage;
 
 /**
@@ -52,7 +52,8 @@ public class SslNioTransportProvider implements ClientTransportProvider {
 
 	private Bootstrap bootstrap = null;
 
-	private EventLoopGroup workerGroup = null;
+	// event loop assigned to the connection
+	private EventLoopAssignment eventLoop = null;
 
 	private SslChannelInitializer sslChannelInitializer = null;
 
@@ -74,15 +75,28 @@ public class SslNioTransportProvider implements ClientTransportProvider {
 		this.host = this.config.getHost();
 
 		try {
-            workerGroup = NioWorkerGroup.getWorkerGroup();
+			eventLoop = EventLoopAssignment.assign(config);
 
 			sslChannelInitializer = new SslChannelInitializer(this.mservice);
 
 			bootstrap = new Bootstrap();
 
-			bootstrap.group(workerGroup).channel(NioSocketChannel.class)
+			bootstrap.group(eventLoop.getEventLoop())
+			.channel(EpollUtil.getSocketChannelClass(eventLoop.getEventLoop()))
 			.handler(sslChannelInitializer);
 
+			bootstrap.option(ChannelOption.TCP_NODELAY, config.getTcpNoDelay());
+
+			if (config.getSendBufferSize() > 0) {
+				bootstrap.option(ChannelOption.SO_SNDBUF,
+						config.getSendBufferSize());
+			}
+
+			if (config.getReceiveBufferSize() > 0) {
+				bootstrap.option(ChannelOption.SO_RCVBUF,
+						config.getReceiveBufferSize());
+			}
+
 			channel = bootstrap.connect(host, port).sync().channel();
 
 		} catch (Exception e) {
@@ -110,8 +124,12 @@ public class SslNioTransportProvider implements ClientTransportProvider {
 			}
 
 			// release resources
-            // release resources
-            NioWorkerGroup.close();
+			synchronized (this) {
+				if (this.eventLoop != null) {
+					this.eventLoop.release();
+					this.eventLoop = null;
+				}
+			}
 
 		} catch (Exception e) {
 
@@ -27,6 +27,9 @@ import io.netty.channel.socket.SocketChannel;
 
 import java.util.logging.Logger;
 
+import kinetic.client.ClientConfiguration;
+
+import com.seagate.kinetic.client.io.provider.nio.FlushConsolidationHandler;
 import com.seagate.kinetic.client.io.provider.spi.ClientMessageService;
 import com.seagate.kinetic.common.protocol.codec.KineticDecoder;
 import com.seagate.kinetic.common.protocol.codec.KineticEncoder;
@@ -61,6 +64,13 @@ ChannelInitializer<SocketChannel> {
 
 		ChannelPipeline p = ch.pipeline();
 
+		// consolidate flushes of pipelined requests
+		ClientConfiguration config = mservice.getConfiguration();
+		if (config.getFlushBatchSize() > 1) {
+			p.addLast("flush", new FlushConsolidationHandler(
+					config.getFlushBatchSize(), config.getFlushDelayMicros()));
+		}
+
 		// decoder
 		p.addLast("decoder", new KineticDecoder());
 		// encoder
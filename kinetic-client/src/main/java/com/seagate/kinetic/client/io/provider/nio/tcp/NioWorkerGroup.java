@@ -19,29 +19,39 @@ package com.seagate.kinetic.client.io.provider.nio.tcp;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.nio.NioEventLoopGroup;
 
-import java.util.concurrent.ThreadFactory;
+import java.util.logging.Logger;
+
+import kinetic.client.ClientEventLoopGroup;
 
 import com.seagate.kinetic.client.io.provider.nio.NioClientThreadFactory;
 import com.seagate.kinetic.client.io.provider.nio.udt.UdtWorkerGroup;
+import com.seagate.kinetic.common.lib.EpollUtil;
 
 /**
  * 
  * Resource sharing manager for the client nio service.
+ * <p>
+ * The shared groups are used by client instances that are not configured with
+ * an event loop group or a number of nio service threads. They are shut down
+ * when the JVM exits.
  * 
  * @author chiaming
  * 
  */
 public class NioWorkerGroup {
 
-	// worker group
-	private static EventLoopGroup workerGroup = null;
+	private static final Logger logger = Logger.getLogger(NioWorkerGroup.class
+			.getName());
+
+	// shared worker group
+	private static ClientEventLoopGroup workerGroup = null;
 
-	// nio thread factory
-	private static ThreadFactory tfactory = null;
+	// shared native epoll worker group, created when first used
+	private static ClientEventLoopGroup epollWorkerGroup = null;
 
 	static {
-		tfactory = new NioClientThreadFactory("kinetic.client.nio");
-		workerGroup = new NioEventLoopGroup(0, tfactory);
+		workerGroup = new ClientEventLoopGroup(new NioEventLoopGroup(0,
+				new NioClientThreadFactory("kinetic.client.nio")));
 	}
 
 	/**
@@ -50,7 +60,47 @@ public class NioWorkerGroup {
 	 * @return EventLoopGroup worker group for nio.
 	 */
 	public static synchronized EventLoopGroup getWorkerGroup() {
-		return workerGroup;
+		return workerGroup.getEventLoopGroup();
+	}
+
+	/**
+	 * Get worker group for nio service.
+	 * 
+	 * @param useEpoll
+	 *            true to get the native epoll worker group if epoll is
+	 *            available.
+	 * @return EventLoopGroup worker group for nio.
+	 */
+	public static synchronized EventLoopGroup getWorkerGroup(boolean useEpoll) {
+		return getSharedGroup(useEpoll).getEventLoopGroup();
+	}
+
+	/**
+	 * Get the event loop group shared by client instances.
+	 * 
+	 * @param useEpoll
+	 *            true to get the native epoll group if epoll is available.
+	 * @return the shared event loop group.
+	 */
+	public static synchronized ClientEventLoopGroup getSharedGroup(
+			boolean useEpoll) {
+
+		if (!useEpoll) {
+			return workerGroup;
+		}
+
+		if (!EpollUtil.isAvailable()) {
+			logger.warning("native epoll transport is not available, using nio ...");
+			return workerGroup;
+		}
+
+		if (epollWorkerGroup == null) {
+			epollWorkerGroup = new ClientEventLoopGroup(
+					EpollUtil.newEventLoopGroup(0, new NioClientThreadFactory(
+							"kinetic.client.epoll"), true));
+		}
+
+		return epollWorkerGroup;
 	}
 
 	/**
@@ -67,8 +117,20 @@ public class NioWorkerGroup {
 
 		try {
 			// shutdown workers
-			workerGroup.shutdownGracefully();
-			workerGroup.terminationFuture().await(50);
+			EventLoopGroup group = workerGroup.getEventLoopGroup();
+			group.shutdownGracefully();
+			group.terminationFuture().await(50);
+
+			ClientEventLoopGroup epollGroup = null;
+			synchronized (NioWorkerGroup.class) {
+				epollGroup = epollWorkerGroup;
+			}
+
+			if (epollGroup != null) {
+				group = epollGroup.getEventLoopGroup();
+				group.shutdownGracefully();
+				group.terminationFuture().await(50);
+			}
 
 		} catch (Exception e) {
 			e.printStackTrace();
@@ -79,4 +141,3 @@ public class NioWorkerGroup {
 	}
 
 }
-
@@ -18,8 +18,7 @@ package com.seagate.kinetic.client.io.provider.nio.tcp;
 
 import io.netty.bootstrap.Bootstrap;
 import io.netty.channel.Channel;
-import io.netty.channel.EventLoopGroup;
-import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.channel.ChannelOption;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
@@ -29,8 +28,10 @@ import java.util.logging.Logger;
 import kinetic.client.ClientConfiguration;
 import kinetic.client.KineticException;
 
+import com.seagate.kinetic.client.io.provider.nio.EventLoopAssignment;
 import com.seagate.kinetic.client.io.provider.spi.ClientMessageService;
 import com.seagate.kinetic.client.io.provider.spi.ClientTransportProvider;
+import com.seagate.kinetic.common.lib.EpollUtil;
 import com.seagate.kinetic.common.lib.KineticMessage;
 
 /**
@@ -50,8 +51,8 @@ public class TcpNioTransportProvider implements ClientTransportProvider {
 
     private Bootstrap bootstrap = null;
 
-    // private EventLoopGroup bossGroup = null;
-    private EventLoopGroup workerGroup = null;
+    // event loop assigned to the connection
+    private EventLoopAssignment eventLoop = null;
 
     private NioChannelInitializer nioChannelInitializer = null;
 
@@ -83,15 +84,29 @@ public class TcpNioTransportProvider implements ClientTransportProvider {
 
         try {
 
-            workerGroup = NioWorkerGroup.getWorkerGroup();
+            eventLoop = EventLoopAssignment.assign(config);
 
             nioChannelInitializer = new NioChannelInitializer(this.mservice);
 
             bootstrap = new Bootstrap();
 
-            bootstrap.group(workerGroup).channel(NioSocketChannel.class)
+            bootstrap.group(eventLoop.getEventLoop())
+                    .channel(EpollUtil.getSocketChannelClass(eventLoop
+                            .getEventLoop()))
                     .handler(nioChannelInitializer);
 
+            bootstrap.option(ChannelOption.TCP_NODELAY, config.getTcpNoDelay());
+
+            if (config.getSendBufferSize() > 0) {
+                bootstrap.option(ChannelOption.SO_SNDBUF,
+                        config.getSendBufferSize());
+            }
+
+            if (config.getReceiveBufferSize() > 0) {
+                bootstrap.option(ChannelOption.SO_RCVBUF,
+                        config.getReceiveBufferSize());
+            }
+
             if (config.getLocalAddress() == null) {
                 channel = bootstrap.connect(host, port).sync().channel();
             } else {
@@ -140,7 +155,12 @@ public class TcpNioTransportProvider implements ClientTransportProvider {
             }
 
             // release resources
-            NioWorkerGroup.close();
+            synchronized (this) {
+                if (this.eventLoop != null) {
+                    this.eventLoop.release();
+                    this.eventLoop = null;
+                }
+            }
 
         } catch (Exception e) {
 
@@ -18,21 +18,19 @@ package com.seagate.kinetic.client.io.provider.tcp;
 
 import io.netty.handler.codec.CorruptedFrameException;
 
-import java.io.ByteArrayOutputStream;
-import java.io.DataInputStream;
-import java.io.DataOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
 import java.net.InetSocketAddress;
-import java.net.Socket;
 import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import kinetic.client.ClientConfiguration;
 import kinetic.client.KineticException;
 
+import com.google.protobuf.CodedOutputStream;
 import com.google.protobuf.InvalidProtocolBufferException;
 import com.seagate.kinetic.client.io.provider.spi.ClientMessageService;
 import com.seagate.kinetic.client.io.provider.spi.ClientTransportProvider;
@@ -47,6 +45,15 @@ import com.seagate.kinetic.proto.Kinetic.Message.Builder;
  * Tcp transport provider.This class provides TCP transport support for the
  * Kinetic client runtime.
  * <p>
+ * The transport uses a blocking socket channel. Each message is written with
+ * one gathering write of the header and protobuf message (serialized into a
+ * reused buffer) and the value. A dedicated thread reads each frame fully into
+ * reused buffers. There is no event loop or thread hand off on the write
+ * path, which makes this transport a low latency option for applications that
+ * issue requests from a single thread.
+ * <p>
+ * The transport is used when the client is configured with
+ * <code>ClientConfiguration.setUseNio(false)</code> (and SSL is not used).
  *
  * @see com.seagate.kinetic.client.io.provider.nio.tcp.TcpNioTransportProvider
  *
@@ -59,20 +66,33 @@ public class TcpTransportProvider implements ClientTransportProvider, Runnable {
 	private final Logger logger = Logger
 			.getLogger(TcpTransportProvider.class.getName());
 
+	// magic + proto message size + value size
+	private static final int HEADER_SIZE = 9;
+
+	// reused buffers larger than this are not retained
+	private static final int MAX_RETAINED_BUFFER_SIZE = 1024 * 1024;
+
+	// max inbound frame (protobuf message and value) length. a larger
+	// length read from a frame header is treated as a corrupted frame.
+	private static final int MAX_FRAME_LENGTH = 64 * 1024 * 1024;
+
 	// input socket read thread
 	private Thread myThread = null;
 
-	// client socket
-	private Socket socket = null;
+	// client socket channel
+	private SocketChannel channel = null;
 
-	// input stream
-	private InputStream is = null;
+	// reused header and protobuf message write buffer, guarded by this
+	private ByteBuffer writeBuffer = ByteBuffer.allocate(1024);
 
-	// for v2 protocol
-	DataInputStream dis = null;
+	// gathering write buffers, guarded by this
+	private final ByteBuffer[] writeBuffers = new ByteBuffer[2];
 
-	// output stream
-	private OutputStream os = null;
+	// reused header read buffer, used by the reader thread only
+	private final ByteBuffer headerBuffer = ByteBuffer.allocate(HEADER_SIZE);
+
+	// reused protobuf message read buffer, used by the reader thread only
+	private ByteBuffer readBuffer = ByteBuffer.allocate(1024);
 
 	// flag running flag
 	private volatile boolean isRunning = true;
@@ -95,7 +115,7 @@ public class TcpTransportProvider implements ClientTransportProvider, Runnable {
 		this.mservice = mservice;
 
 		/**
-		 * Create socket to server and get I/O streams.
+		 * Create socket channel to server.
 		 *
 		 * @throws KineticException
 		 *             if any I/O or internal exception occurred.
@@ -105,21 +125,36 @@ public class TcpTransportProvider implements ClientTransportProvider, Runnable {
 			SocketAddress address = new InetSocketAddress(config.getHost(),
 					config.getPort());
 
-			socket = new Socket();
+			channel = SocketChannel.open();
+
+			channel.configureBlocking(true);
+
+			channel.socket().setTcpNoDelay(config.getTcpNoDelay());
 
-			socket.connect(address, config.getConnectTimeoutMillis());
+			if (config.getSendBufferSize() > 0) {
+				channel.socket().setSendBufferSize(config.getSendBufferSize());
+			}
 
-			is = socket.getInputStream();
+			if (config.getReceiveBufferSize() > 0) {
+				channel.socket().setReceiveBufferSize(
+						config.getReceiveBufferSize());
+			}
 
-			dis = new DataInputStream(is);
-			
-			os = socket.getOutputStream();
+			if (config.getLocalAddress() != null) {
+				channel.socket().bind(
+						new InetSocketAddress(config.getLocalAddress(), config
+								.getLocalPort()));
+			}
+
+			channel.socket().connect(address, config.getConnectTimeoutMillis());
 
 			this.myThread = new Thread(this);
 
 			this.myThread.setName("IoHandler-" + config.getHost() + "-"
 					+ config.getPort());
 
+			this.myThread.setDaemon(true);
+
 			this.myThread.start();
 
 			logger.info("tcp-non-nio transport initialized ...");
@@ -150,55 +185,45 @@ public class TcpTransportProvider implements ClientTransportProvider, Runnable {
         try {
 
             // get value to write separately
-            byte[] value = km.getValue();
-
-            // write 9 byte header
-            ByteArrayOutputStream baos = new ByteArrayOutputStream(9);
-            DataOutputStream dos = new DataOutputStream(baos);
-
-            // magic
-            dos.writeByte((byte) 'F');
-            // set value to an empty value
-            // message.setValue(ByteString.EMPTY);
+            int valueLen = km.getValueLength();
 
             // build message (without value) to write
             Message msg = message.build();
 
-            // get proto message bytes
-            byte[] protoMessageBytes = msg.toByteArray();
-
-            // write message len
-            dos.writeInt(protoMessageBytes.length);
-
-            // write attached value size, 4 byte
-            int valueLen = 0;
-            if (value != null) {
-                valueLen = value.length;
-            }
-            dos.writeInt(valueLen);
+            int protoMessageLength = msg.getSerializedSize();
 
-            dos.flush();
+            ByteBuffer buffer = getWriteBuffer(HEADER_SIZE + protoMessageLength);
 
-            // 9 byte header
-            byte[] beader = baos.toByteArray();
+            // 1. write 9 byte header: magic, message size and value size
+            buffer.put((byte) 'F');
+            buffer.putInt(protoMessageLength);
+            buffer.putInt(valueLen);
 
-            dos.close();
-            baos.close();
+            // 2. serialize protobuf message into the buffer
+            CodedOutputStream cos = CodedOutputStream.newInstance(
+                    buffer.array(), buffer.arrayOffset() + HEADER_SIZE,
+                    protoMessageLength);
+            msg.writeTo(cos);
+            cos.checkNoSpaceLeft();
 
-            // 1. write header bytes (9 bytes)
-            os.write(beader);
+            buffer.position(HEADER_SIZE + protoMessageLength);
+            buffer.flip();
 
-            // 2. write protobuf message byte[]
-            os.write(protoMessageBytes);
+            // 3. gathering write of header, message and value (if any)
+            writeBuffers[0] = buffer;
+            writeBuffers[1] = valueLen > 0 ? km.getValueBuffer() : null;
 
-            // 3 (optional) write attached value if any
-            if (valueLen > 0) {
-                // write value
-                os.write(value);
+            try {
+                if (valueLen > 0) {
+                    writeFully(writeBuffers);
+                } else {
+                    writeFully(buffer);
+                }
+            } finally {
+                // release reference to the value
+                writeBuffers[1] = null;
             }
 
-            os.flush();
-
         } catch (IOException e) {
             logger.log(Level.WARNING, e.getMessage(), e);
             throw e;
@@ -206,6 +231,37 @@ public class TcpTransportProvider implements ClientTransportProvider, Runnable {
 
     }
 
+    /**
+     * Get the write buffer cleared with at least the specified capacity.
+     */
+    private ByteBuffer getWriteBuffer(int capacity) {
+
+        if (writeBuffer.capacity() >= capacity) {
+            writeBuffer.clear();
+            return writeBuffer;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(capacity);
+
+        if (capacity <= MAX_RETAINED_BUFFER_SIZE) {
+            writeBuffer = buffer;
+        }
+
+        return buffer;
+    }
+
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private void writeFully(ByteBuffer[] buffers) throws IOException {
+        while (buffers[buffers.length - 1].hasRemaining()) {
+            channel.write(buffers);
+        }
+    }
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -215,10 +271,10 @@ public class TcpTransportProvider implements ClientTransportProvider, Runnable {
 		try {
 			this.isRunning = false;
 			this.mservice.close();
-			this.is.close();
-			this.dis.close();
-			this.os.close();
-			this.socket.close();
+
+			if (this.channel != null) {
+				this.channel.close();
+			}
 
 			logger.info("tcp non-nio transport closed ...");
 		} catch (Exception e) {
@@ -233,12 +289,15 @@ public class TcpTransportProvider implements ClientTransportProvider, Runnable {
 
             try {
 
-                Message message = null;
-                
                 KineticMessage km = new KineticMessage();
 
-                // 1. Read magic number.
-                int magicNumber = dis.readByte();
+                // 1. read 9 byte header
+                headerBuffer.clear();
+                readFully(headerBuffer);
+                headerBuffer.flip();
+
+                // magic number
+                int magicNumber = headerBuffer.get();
 
                 if (magicNumber != 'F') {
                     throw new CorruptedFrameException("Invalid magic number: "
@@ -246,48 +305,44 @@ public class TcpTransportProvider implements ClientTransportProvider, Runnable {
                 }
 
                 // 2. protobuf message size
-                int protoMessageLength = dis.readInt();
+                int protoMessageLength = headerBuffer.getInt();
 
                 // 3. attched value size
-                int attachedValueLength = dis.readInt();
+                int attachedValueLength = headerBuffer.getInt();
+
+                if (protoMessageLength < 0
+                        || attachedValueLength < 0
+                        || protoMessageLength > MAX_FRAME_LENGTH
+                                - attachedValueLength) {
+                    throw new CorruptedFrameException("Invalid frame length: "
+                            + protoMessageLength + ", " + attachedValueLength);
+                }
 
                 // 4. read protobuf message
-                byte[] decoded = new byte[protoMessageLength];
-                dis.read(decoded);
-
-                // construct protobuf message
-                Message.Builder builder = Message.newBuilder();
+                ByteBuffer buffer = getReadBuffer(protoMessageLength);
+                readFully(buffer);
 
-                try {
-                    builder.mergeFrom(decoded);
-                } catch (Exception e) {
-                    logger.log(Level.WARNING, e.getMessage(), e);
-
-                    throw new RuntimeException(e);
-                }
+                // construct protobuf message, bytes fields are copied from
+                // the reused buffer
+                Message message = Message.PARSER.parseFrom(buffer.array(),
+                        buffer.arrayOffset(), protoMessageLength);
 
                 // 5. read attched value if any
                 if (attachedValueLength > 0) {
                     // construct byte[]
                     byte[] attachedValue = new byte[attachedValueLength];
-                    // read from buffer
-                    dis.read(attachedValue);
+                    // read from channel
+                    readFully(ByteBuffer.wrap(attachedValue));
                     // set to message
-                    // builder.setValue(ByteString.copyFrom(attachedValue));
                     km.setValue(attachedValue);
                 }
 
-                message = builder.build();
-
                 // set message to kietic message
                 km.setMessage(message);
 
-                // build command
-                Command.Builder commandBuilder = Command.newBuilder();
-
+                // parse command
                 try {
-                    commandBuilder.mergeFrom(message.getCommandBytes());
-                    km.setCommand(commandBuilder.build());
+                    km.setCommand(Command.parseFrom(message.getCommandBytes()));
                 } catch (InvalidProtocolBufferException e) {
                     logger.log(Level.WARNING, e.getMessage(), e);
                 }
@@ -297,8 +352,42 @@ public class TcpTransportProvider implements ClientTransportProvider, Runnable {
                 }
 
                 this.mservice.routeMessage(km);
-            } catch (Exception e) {
-                this.isRunning = false;
+            } catch (Throwable e) {
+                if (this.isRunning) {
+                    // connection lost, release waiting callers
+                    this.isRunning = false;
+                    this.mservice.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the read buffer with the limit set to the specified length.
+     */
+    private ByteBuffer getReadBuffer(int length) {
+
+        if (readBuffer.capacity() < length) {
+
+            ByteBuffer buffer = ByteBuffer.allocate(length);
+
+            if (length > MAX_RETAINED_BUFFER_SIZE) {
+                return buffer;
+            }
+
+            readBuffer = buffer;
+        }
+
+        readBuffer.clear();
+        readBuffer.limit(length);
+
+        return readBuffer;
+    }
+
+    private void readFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("connection closed");
             }
         }
     }
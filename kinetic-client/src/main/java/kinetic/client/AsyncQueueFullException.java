@@ -0,0 +1,50 @@
+/**
+ * Copyright 2013-2015 Seagate Technology LLC.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla
+ * Public License, v. 2.0. If a copy of the MPL was not
+ * distributed with this file, You can obtain one at
+ * https://mozilla.org/MP:/2.0/.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but is provided AS-IS, WITHOUT ANY WARRANTY; including without 
+ * the implied warranty of MERCHANTABILITY, NON-INFRINGEMENT or 
+ * FITNESS FOR A PARTICULAR PURPOSE. See the Mozilla Public 
+ * License for more details.
+ *
+ * See www.openkinetic.org for more project information
+ */
+package kinetic.client;
+
+/**
+ * This exception is thrown (or delivered to the callback handler) when an
+ * asynchronous operation cannot be queued because the number of outstanding
+ * asynchronous operations has reached the queue size.
+ * <p>
+ * No request was sent to the service. The operation may be retried after
+ * outstanding operations complete.
+ * 
+ * @see AsyncQueuePolicy
+ * @see ClientConfiguration#setAsyncQueueSize(int)
+ */
+public class AsyncQueueFullException extends KineticException {
+
+    private static final long serialVersionUID = 4209381926301728411L;
+
+    public AsyncQueueFullException() {
+        ;
+    }
+
+    public AsyncQueueFullException(String message) {
+        super(message);
+    }
+
+    public AsyncQueueFullException(Throwable cause) {
+        super(cause);
+    }
+
+    public AsyncQueueFullException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+}
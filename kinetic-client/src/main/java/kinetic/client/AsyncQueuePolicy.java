@@ -0,0 +1,45 @@
+/**
+ * Copyright 2013-2015 Seagate Technology LLC.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla
+ * Public License, v. 2.0. If a copy of the MPL was not
+ * distributed with this file, You can obtain one at
+ * https://mozilla.org/MP:/2.0/.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but is provided AS-IS, WITHOUT ANY WARRANTY; including without 
+ * the implied warranty of MERCHANTABILITY, NON-INFRINGEMENT or 
+ * FITNESS FOR A PARTICULAR PURPOSE. See the Mozilla Public 
+ * License for more details.
+ *
+ * See www.openkinetic.org for more project information
+ */
+package kinetic.client;
+
+/**
+ * Policy applied to an asynchronous operation when the number of outstanding
+ * asynchronous operations for a client instance has reached the queue size.
+ * 
+ * @see ClientConfiguration#setAsyncQueueSize(int)
+ * @see ClientConfiguration#setAsyncQueuePolicy(AsyncQueuePolicy)
+ */
+public enum AsyncQueuePolicy {
+
+    /**
+     * The calling thread is blocked until an outstanding operation completes.
+     */
+    BLOCK,
+
+    /**
+     * The operation fails immediately with an {@link AsyncQueueFullException}.
+     * No request is sent and the callback handler is not invoked.
+     */
+    FAIL_FAST,
+
+    /**
+     * The operation returns immediately and the callback handler's
+     * {@link CallbackHandler#onError(AsyncKineticException)} is invoked on the
+     * calling thread with an {@link AsyncQueueFullException} as the cause.
+     */
+    REJECT;
+}
@@ -0,0 +1,49 @@
+/**
+ * Copyright 2013-2015 Seagate Technology LLC.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla
+ * Public License, v. 2.0. If a copy of the MPL was not
+ * distributed with this file, You can obtain one at
+ * https://mozilla.org/MP:/2.0/.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but is provided AS-IS, WITHOUT ANY WARRANTY; including without 
+ * the implied warranty of MERCHANTABILITY, NON-INFRINGEMENT or 
+ * FITNESS FOR A PARTICULAR PURPOSE. See the Mozilla Public 
+ * License for more details.
+ *
+ * See www.openkinetic.org for more project information
+ */
+package kinetic.client;
+
+/**
+ * This exception is delivered to the callback handler when no response is
+ * received for an asynchronous operation within the request timeout.
+ * <p>
+ * The operation may or may not have been performed by the service. A
+ * response received after the timeout is discarded.
+ *
+ * @see CallbackHandler#onError(AsyncKineticException)
+ * @see ClientConfiguration#setRequestTimeoutMillis(long)
+ */
+public class AsyncTimeoutException extends AsyncKineticException {
+
+    private static final long serialVersionUID = -3178213582730216429L;
+
+    public AsyncTimeoutException() {
+        ;
+    }
+
+    public AsyncTimeoutException(String message) {
+        super(message);
+    }
+
+    public AsyncTimeoutException(Throwable cause) {
+        super(cause);
+    }
+
+    public AsyncTimeoutException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+}
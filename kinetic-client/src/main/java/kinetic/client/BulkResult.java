@@ -0,0 +1,87 @@
+/**
+ * Copyright 2013-2015 Seagate Technology LLC.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla
+ * Public License, v. 2.0. If a copy of the MPL was not
+ * distributed with this file, You can obtain one at
+ * https://mozilla.org/MP:/2.0/.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but is provided AS-IS, WITHOUT ANY WARRANTY; including without 
+ * the implied warranty of MERCHANTABILITY, NON-INFRINGEMENT or 
+ * FITNESS FOR A PARTICULAR PURPOSE. See the Mozilla Public 
+ * License for more details.
+ *
+ * See www.openkinetic.org for more project information
+ */
+package kinetic.client;
+
+import java.util.List;
+
+/**
+ * Results of a multi-key operation, such as
+ * {@link KineticClient#getAll(List)}.
+ * <p>
+ * Results are indexed in the same order as the keys (or entries) of the
+ * request. Each index holds either a result or the exception raised for that
+ * key.
+ * 
+ * @param <T>
+ *            the result type of each key. It matches the return type of the
+ *            single key synchronous API variation.
+ * 
+ * @see KineticClient#getAll(List)
+ * @see KineticClient#putAll(List)
+ * @see KineticClient#deleteAll(List)
+ */
+public interface BulkResult<T> {
+
+    /**
+     * Get number of results.
+     * 
+     * @return number of results, same as the number of keys in the request.
+     */
+    public int size();
+
+    /**
+     * Get the result at the specified index.
+     * 
+     * @param index
+     *            index of the key in the request.
+     * @return the result, or null if the operation for the key failed.
+     */
+    public T getResult(int index);
+
+    /**
+     * Get the exception at the specified index.
+     * 
+     * @param index
+     *            index of the key in the request.
+     * @return the exception raised for the key, or null if the operation for
+     *         the key succeeded.
+     */
+    public KineticException getException(int index);
+
+    /**
+     * Check if the operation for the key at the specified index succeeded.
+     * 
+     * @param index
+     *            index of the key in the request.
+     * @return true if the operation for the key succeeded.
+     */
+    public boolean isSuccess(int index);
+
+    /**
+     * Get number of keys for which the operation failed.
+     * 
+     * @return number of failed keys.
+     */
+    public int getErrorCount();
+
+    /**
+     * Get all results in request order. Failed keys have a null result.
+     * 
+     * @return all results in request order.
+     */
+    public List<T> getResults();
+}
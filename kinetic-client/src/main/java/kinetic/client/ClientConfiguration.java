@@ -17,6 +17,7 @@
 package kinetic.client;
 
 import java.util.Properties;
+import java.util.concurrent.Executor;
 import java.util.logging.Logger;
 
 import com.seagate.kinetic.proto.Kinetic;
@@ -90,6 +91,43 @@ public class ClientConfiguration extends Properties {
      */
     private int nThreads = 0;
 
+    /**
+     * max number of messages written before the nio channel is flushed. 1
+     * flushes each message.
+     */
+    private int flushBatchSize = 1;
+
+    /**
+     * max time in micro seconds a nio channel flush is held back. 0 flushes
+     * when the event loop is idle.
+     */
+    private long flushDelayMicros = 0;
+
+    /**
+     * flag to use the native (Linux epoll) transport. if the system property
+     * is set, epoll is used if available.
+     */
+    private volatile boolean useEpoll = Boolean.getBoolean("kinetic.io.epoll");
+
+    // socket TCP_NODELAY option
+    private boolean tcpNoDelay = true;
+
+    // socket send buffer size, 0 uses the system default
+    private int sendBufferSize = 0;
+
+    // socket receive buffer size, 0 uses the system default
+    private int receiveBufferSize = 0;
+
+    /**
+     * application supplied nio event loop group.
+     */
+    private transient ClientEventLoopGroup eventLoopGroup = null;
+
+    /**
+     * event loop affinity, -1 assigns the least loaded event loop.
+     */
+    private int eventLoopAffinity = -1;
+
     /**
      * flag to use ssl. if the system property is set, ssl is used.
      */
@@ -122,12 +160,75 @@ public class ClientConfiguration extends Properties {
      */
     private int asyncQueueSize = 10;
 
+    /**
+     * policy applied when the asynchronous queue is full.
+     */
+    private AsyncQueuePolicy asyncQueuePolicy = AsyncQueuePolicy.BLOCK;
+
+    /**
+     * asynchronous operation latency target in milli seconds. 0 disables
+     * adaptive queue sizing.
+     */
+    private long asyncLatencyTarget = 0;
+
+    /**
+     * upper bound of the adaptive asynchronous queue size.
+     */
+    private int asyncMaxQueueSize = 512;
+
     // expected wwn to connect to.
     private String expectedWwn = null;
 
     // connection listener
     private ConnectionListener listener = null;
 
+    /**
+     * reconnect and replay idempotent in-flight operations when the
+     * connection is lost.
+     */
+    private boolean autoReconnect = false;
+
+    /**
+     * delay before the first reconnect attempt in milli seconds, doubled for
+     * each failed attempt.
+     */
+    private long reconnectBackoff = 100;
+
+    /**
+     * upper bound of the delay between reconnect attempts in milli seconds.
+     */
+    private long maxReconnectBackoff = 5000;
+
+    /**
+     * max number of reconnect attempts before the client is closed.
+     */
+    private int maxReconnectAttempts = 10;
+
+    /**
+     * number of serial lanes (threads) used to deliver asynchronous callbacks.
+     */
+    private int asyncCallbackThreads = 1;
+
+    /**
+     * application supplied executor for asynchronous callbacks.
+     */
+    private transient Executor asyncCallbackExecutor = null;
+
+    /**
+     * capacity of the client read cache in bytes, 0 disables the cache.
+     */
+    private long cacheCapacity = 0;
+
+    /**
+     * time to live of cached entries in milli seconds.
+     */
+    private long cacheTtl = 0;
+
+    /**
+     * store large cached values off heap.
+     */
+    private boolean cacheOffHeap = false;
+
     /**
      * Client configuration constructor.
      * 
@@ -309,18 +410,19 @@ public class ClientConfiguration extends Properties {
     /**
      * Set use Java NIO or not.
      * 
+     * <p>
+     * If set to false (and SSL is not used), the client uses a blocking TCP
+     * transport with one reader thread per connection. It avoids the event
+     * loop hand off and may offer lower latency for applications that issue
+     * requests from a single thread.
+     * 
      * @param flag
      *            set to true if use nio. Otherwise, set to false. The default
      *            is set to true if not set.
      * 
      */
     public void setUseNio(boolean flag) {
-
-        // XXX chiaming 07/19/2014: This will be re-enabled when it is
-        // compatible with 3.0.0
-        logger.warning("Method is disabled., Only NIO is supported.");
-
-        // this.useNio = flag;
+        this.useNio = flag;
     }
 
     /**
@@ -440,8 +542,9 @@ public class ClientConfiguration extends Properties {
 
     /**
      * Set asynchronous operation queued size. For asynchronous operations, a
-     * request is blocked when the queued requests reached the count set for
-     * this instance. Default is set to 10.
+     * request is blocked (or handled as set by
+     * {@link #setAsyncQueuePolicy(AsyncQueuePolicy)}) when the queued requests
+     * reached the count set for this instance. Default is set to 10.
      * 
      * @param qsize
      *            the max queued operations to be set for the current kinetic
@@ -462,6 +565,81 @@ public class ClientConfiguration extends Properties {
         return this.asyncQueueSize;
     }
 
+    /**
+     * Set the policy applied to an asynchronous operation when the queued
+     * operations reached the asynchronous queue size. Default is set to
+     * {@link AsyncQueuePolicy#BLOCK}.
+     * 
+     * @param policy
+     *            the policy to be set for the current kinetic client instance.
+     * 
+     * @see #setAsyncQueueSize(int)
+     */
+    public void setAsyncQueuePolicy(AsyncQueuePolicy policy) {
+        this.asyncQueuePolicy = policy;
+    }
+
+    /**
+     * Get the policy applied to an asynchronous operation when the queued
+     * operations reached the asynchronous queue size.
+     * 
+     * @return the asynchronous queue policy.
+     */
+    public AsyncQueuePolicy getAsyncQueuePolicy() {
+        return this.asyncQueuePolicy;
+    }
+
+    /**
+     * Set the asynchronous operation latency target (in milli seconds).
+     * <p>
+     * If set to a value greater than 0, the asynchronous queue size set with
+     * {@link #setAsyncQueueSize(int)} is the initial size. The queue grows
+     * while operations complete within the latency target, up to the size set
+     * with {@link #setAsyncMaxQueueSize(int)}, and shrinks when operations
+     * take longer than the latency target.
+     * <p>
+     * Default is set to 0, the asynchronous queue size is fixed.
+     * 
+     * @param millis
+     *            latency target in milli seconds.
+     */
+    public void setAsyncLatencyTargetMillis(long millis) {
+        this.asyncLatencyTarget = millis;
+    }
+
+    /**
+     * Get the asynchronous operation latency target (in milli seconds).
+     * 
+     * @return the asynchronous operation latency target, 0 if adaptive queue
+     *         sizing is disabled.
+     */
+    public long getAsyncLatencyTargetMillis() {
+        return this.asyncLatencyTarget;
+    }
+
+    /**
+     * Set the max asynchronous queue size when adaptive queue sizing is
+     * enabled. Default is set to 512.
+     * 
+     * @param qsize
+     *            upper bound of the asynchronous queue size.
+     * 
+     * @see #setAsyncLatencyTargetMillis(long)
+     */
+    public void setAsyncMaxQueueSize(int qsize) {
+        this.asyncMaxQueueSize = qsize;
+    }
+
+    /**
+     * Get the max asynchronous queue size when adaptive queue sizing is
+     * enabled.
+     * 
+     * @return upper bound of the asynchronous queue size.
+     */
+    public int getAsyncMaxQueueSize() {
+        return this.asyncMaxQueueSize;
+    }
+
     /**
      * Get Java Nio thread pool exit await timeout - used when connection is
      * closed and Java client runtime library waiting for thread pool to exit.
@@ -485,6 +663,14 @@ public class ClientConfiguration extends Properties {
 
     /**
      * Set number of thread used in kinetic client nio services.
+     * <p>
+     * If set to a value greater than 0 (and no event loop group is set with
+     * {@link #setEventLoopGroup(ClientEventLoopGroup)}), the client instance
+     * uses a dedicated event loop group with the specified number of threads.
+     * The group is shut down when the client is closed.
+     * <p>
+     * Default is set to 0, the client uses the event loop group shared by all
+     * client instances in the JVM.
      * 
      * @param nThreads
      *            number of thread used in kinetic client nio services.
@@ -502,6 +688,205 @@ public class ClientConfiguration extends Properties {
         return this.nThreads;
     }
 
+    /**
+     * Set the max number of messages written to a nio channel before the
+     * channel is flushed.
+     * <p>
+     * If set to a value greater than 1, flushes are consolidated: messages
+     * written in a burst (for example asynchronous requests) are sent to the
+     * socket with one write instead of one write per message. Pending
+     * messages are also flushed when the event loop is idle, or after the
+     * delay set with {@link #setFlushDelayMicros(long)}.
+     * <p>
+     * Default is set to 1, each message is flushed when it is written.
+     * 
+     * @param size
+     *            max number of messages written before the channel is flushed.
+     * 
+     * @see #setFlushDelayMicros(long)
+     */
+    public void setFlushBatchSize(int size) {
+        this.flushBatchSize = size;
+    }
+
+    /**
+     * Get the max number of messages written to a nio channel before the
+     * channel is flushed.
+     * 
+     * @return max number of messages written before the channel is flushed.
+     */
+    public int getFlushBatchSize() {
+        return this.flushBatchSize;
+    }
+
+    /**
+     * Set the max time (in micro seconds) a nio channel flush is held back
+     * when flushes are consolidated.
+     * <p>
+     * Default is set to 0, pending messages are flushed as soon as the event
+     * loop is idle. A small delay (a few micro seconds) lets more concurrent
+     * requests share a write at the cost of added latency.
+     * 
+     * @param micros
+     *            max flush delay in micro seconds.
+     * 
+     * @see #setFlushBatchSize(int)
+     */
+    public void setFlushDelayMicros(long micros) {
+        this.flushDelayMicros = micros;
+    }
+
+    /**
+     * Get the max time (in micro seconds) a nio channel flush is held back.
+     * 
+     * @return max flush delay in micro seconds.
+     */
+    public long getFlushDelayMicros() {
+        return this.flushDelayMicros;
+    }
+
+    /**
+     * Set use the native (Linux epoll) nio transport or not.
+     * <p>
+     * The native transport uses edge-triggered epoll instead of the Java NIO
+     * selector. If it is not available on the platform, Java NIO is used.
+     * <p>
+     * Applications may also define Java System Property
+     * "-Dkinetic.io.epoll=true" to use the native transport by default.
+     * 
+     * @param flag
+     *            set to true to use the native transport if available.
+     * 
+     * @see #setUseNio(boolean)
+     */
+    public void setUseEpoll(boolean flag) {
+        this.useEpoll = flag;
+    }
+
+    /**
+     * Get if the native (Linux epoll) nio transport is used when available.
+     * 
+     * @return true if the native transport is used when available.
+     */
+    public boolean getUseEpoll() {
+        return this.useEpoll;
+    }
+
+    /**
+     * Set the socket TCP_NODELAY option. Default is set to true.
+     * 
+     * @param flag
+     *            true to disable Nagle's algorithm.
+     */
+    public void setTcpNoDelay(boolean flag) {
+        this.tcpNoDelay = flag;
+    }
+
+    /**
+     * Get the socket TCP_NODELAY option.
+     * 
+     * @return true if Nagle's algorithm is disabled.
+     */
+    public boolean getTcpNoDelay() {
+        return this.tcpNoDelay;
+    }
+
+    /**
+     * Set the socket send buffer (SO_SNDBUF) size. Default is set to 0, the
+     * system default is used.
+     * 
+     * @param size
+     *            send buffer size in bytes.
+     */
+    public void setSendBufferSize(int size) {
+        this.sendBufferSize = size;
+    }
+
+    /**
+     * Get the socket send buffer (SO_SNDBUF) size.
+     * 
+     * @return send buffer size in bytes, 0 if the system default is used.
+     */
+    public int getSendBufferSize() {
+        return this.sendBufferSize;
+    }
+
+    /**
+     * Set the socket receive buffer (SO_RCVBUF) size. Default is set to 0,
+     * the system default is used.
+     * 
+     * @param size
+     *            receive buffer size in bytes.
+     */
+    public void setReceiveBufferSize(int size) {
+        this.receiveBufferSize = size;
+    }
+
+    /**
+     * Get the socket receive buffer (SO_RCVBUF) size.
+     * 
+     * @return receive buffer size in bytes, 0 if the system default is used.
+     */
+    public int getReceiveBufferSize() {
+        return this.receiveBufferSize;
+    }
+
+    /**
+     * Set the nio event loop group used by the client instance. The same
+     * group may be set for many client instances (for example a pool of
+     * clients), each connection is assigned one event loop of the group.
+     * <p>
+     * The client holds a reference on the group while it is connected. The
+     * application closes the group with {@link ClientEventLoopGroup#close()}
+     * when it is no longer used to create clients.
+     * <p>
+     * Default is set to null, see {@link #setNioServiceThreads(int)}.
+     * 
+     * @param group
+     *            event loop group used by the client instance.
+     * 
+     * @see #setEventLoopAffinity(int)
+     */
+    public void setEventLoopGroup(ClientEventLoopGroup group) {
+        this.eventLoopGroup = group;
+    }
+
+    /**
+     * Get the nio event loop group used by the client instance.
+     * 
+     * @return the event loop group, null if not set.
+     */
+    public ClientEventLoopGroup getEventLoopGroup() {
+        return this.eventLoopGroup;
+    }
+
+    /**
+     * Set the event loop affinity of the client instance.
+     * <p>
+     * If set to 0 or greater, the connection is assigned the event loop at
+     * index (affinity modulo the number of event loops) of the group.
+     * Clients with the same affinity share an event loop thread.
+     * <p>
+     * Default is set to -1, the connection is assigned the event loop with the
+     * fewest connections.
+     * 
+     * @param affinity
+     *            event loop affinity, -1 for the least loaded event loop.
+     */
+    public void setEventLoopAffinity(int affinity) {
+        this.eventLoopAffinity = affinity;
+    }
+
+    /**
+     * Get the event loop affinity of the client instance.
+     * 
+     * @return the event loop affinity, -1 if the least loaded event loop is
+     *         assigned.
+     */
+    public int getEventLoopAffinity() {
+        return this.eventLoopAffinity;
+    }
+
     /**
      * Get Kinetic protocol version supported by the current API implementation.
      * The protocol version is defined at the kinetic-protocol repository.
@@ -585,4 +970,260 @@ public class ClientConfiguration extends Properties {
         return this.listener;
     }
 
+    /**
+     * Enable or disable automatic reconnect.
+     * <p>
+     * If enabled, the client reconnects to the service when the connection is
+     * lost, with an exponential backoff between attempts. The connection id
+     * hand shake is performed again on the new connection. Operations that are
+     * safe to repeat (GET, GETNEXT, GETPREVIOUS, GETKEYRANGE, GETVERSION, NOOP
+     * and forced PUT or DELETE) in-flight at the time of the connection loss
+     * are sent again on the new connection. All other in-flight operations,
+     * such as versioned PUT or DELETE, fail with an exception because the
+     * client cannot tell if the service has performed them. Operations issued
+     * while reconnecting wait for the new connection, up to the request
+     * timeout.
+     * <p>
+     * The client is closed if the connection cannot be re-established within
+     * the number of attempts set with {@link #setMaxReconnectAttempts(int)}.
+     * <p>
+     * Applies to the TCP and SSL transports. Default is set to false, the
+     * client is closed when the connection is lost.
+     *
+     * @param flag
+     *            true to enable automatic reconnect.
+     *
+     * @see #setReconnectBackoffMillis(long)
+     * @see #setMaxReconnectBackoffMillis(long)
+     */
+    public void setAutoReconnect(boolean flag) {
+        this.autoReconnect = flag;
+    }
+
+    /**
+     * Get the automatic reconnect flag.
+     *
+     * @return true if automatic reconnect is enabled.
+     */
+    public boolean getAutoReconnect() {
+        return this.autoReconnect;
+    }
+
+    /**
+     * Set the delay (in milli seconds) before the first reconnect attempt. The
+     * delay is doubled after each failed attempt, up to the max set with
+     * {@link #setMaxReconnectBackoffMillis(long)}. Default is set to 100.
+     *
+     * @param millis
+     *            initial reconnect delay in milli seconds.
+     *
+     * @see #setAutoReconnect(boolean)
+     */
+    public void setReconnectBackoffMillis(long millis) {
+        this.reconnectBackoff = millis;
+    }
+
+    /**
+     * Get the delay (in milli seconds) before the first reconnect attempt.
+     *
+     * @return initial reconnect delay in milli seconds.
+     */
+    public long getReconnectBackoffMillis() {
+        return this.reconnectBackoff;
+    }
+
+    /**
+     * Set the max delay (in milli seconds) between reconnect attempts. Default
+     * is set to 5000.
+     *
+     * @param millis
+     *            max reconnect delay in milli seconds.
+     *
+     * @see #setAutoReconnect(boolean)
+     */
+    public void setMaxReconnectBackoffMillis(long millis) {
+        this.maxReconnectBackoff = millis;
+    }
+
+    /**
+     * Get the max delay (in milli seconds) between reconnect attempts.
+     *
+     * @return max reconnect delay in milli seconds.
+     */
+    public long getMaxReconnectBackoffMillis() {
+        return this.maxReconnectBackoff;
+    }
+
+    /**
+     * Set the max number of reconnect attempts after a connection loss.
+     * Default is set to 10.
+     *
+     * @param attempts
+     *            max number of reconnect attempts.
+     *
+     * @see #setAutoReconnect(boolean)
+     */
+    public void setMaxReconnectAttempts(int attempts) {
+        this.maxReconnectAttempts = attempts;
+    }
+
+    /**
+     * Get the max number of reconnect attempts after a connection loss.
+     *
+     * @return max number of reconnect attempts.
+     */
+    public int getMaxReconnectAttempts() {
+        return this.maxReconnectAttempts;
+    }
+
+    /**
+     * Set number of threads used to deliver asynchronous operation callbacks
+     * for each client instance.
+     * <p>
+     * Callbacks are spread over the specified number of serial lanes.
+     * Callbacks of operations on the same entry key are always delivered in
+     * the order their responses are received. Callbacks of operations on
+     * different keys may run concurrently. Idle callback threads exit after a
+     * few seconds and are re-created on demand.
+     * <p>
+     * If set to 0, callbacks are invoked directly on the I/O thread that
+     * received the response. Callbacks must then return quickly and must not
+     * invoke synchronous operations on the same client instance.
+     * <p>
+     * Default is set to 1, all callbacks for a client instance are delivered
+     * serially.
+     * 
+     * @param nThreads
+     *            number of threads (lanes) used to deliver callbacks.
+     * 
+     * @see #setAsyncCallbackExecutor(Executor)
+     */
+    public void setAsyncCallbackThreads(int nThreads) {
+        this.asyncCallbackThreads = nThreads;
+    }
+
+    /**
+     * Get number of threads used to deliver asynchronous operation callbacks.
+     * 
+     * @return number of threads used to deliver asynchronous operation
+     *         callbacks.
+     */
+    public int getAsyncCallbackThreads() {
+        return this.asyncCallbackThreads;
+    }
+
+    /**
+     * Set an application supplied executor used to deliver asynchronous
+     * operation callbacks.
+     * <p>
+     * If set, callback lanes are executed by the specified executor instead of
+     * by threads created by the Java client runtime library. Per key ordering
+     * is preserved. The number of lanes is set by
+     * {@link #setAsyncCallbackThreads(int)}, or to the number of available
+     * processors if set to 0.
+     * <p>
+     * The executor is not shut down when the client is closed.
+     * 
+     * @param executor
+     *            executor used to deliver asynchronous callbacks.
+     */
+    public void setAsyncCallbackExecutor(Executor executor) {
+        this.asyncCallbackExecutor = executor;
+    }
+
+    /**
+     * Get the application supplied executor used to deliver asynchronous
+     * operation callbacks.
+     * 
+     * @return the application supplied executor, or null if not set.
+     */
+    public Executor getAsyncCallbackExecutor() {
+        return this.asyncCallbackExecutor;
+    }
+
+    /**
+     * Set the capacity (in bytes) of the client read cache.
+     * <p>
+     * If set to a positive value, {@link KineticClient#get(byte[])} reads
+     * through a bounded cache of entries and their versions. A cached entry is
+     * returned without a round trip within the time to live set with
+     * {@link #setCacheTtlMillis(long)}. After that, its version is revalidated
+     * with a GETVERSION request, and the value is read again only if the
+     * version has changed. Writes (PUT and DELETE) sent by this client
+     * instance invalidate the cached entry of the key, and a successful
+     * synchronous put updates it. A pooled client shares one cache across
+     * its member connections.
+     * <p>
+     * Entries written by other clients may be returned until their time to
+     * live has passed. Values of cached entries are read only.
+     * <p>
+     * Default is set to 0, the cache is disabled.
+     *
+     * @param bytes
+     *            cache capacity in bytes.
+     *
+     * @see #setCacheTtlMillis(long)
+     * @see #setCacheOffHeap(boolean)
+     */
+    public void setCacheCapacityBytes(long bytes) {
+        this.cacheCapacity = bytes;
+    }
+
+    /**
+     * Get the capacity (in bytes) of the client read cache.
+     *
+     * @return cache capacity in bytes, 0 if the cache is disabled.
+     */
+    public long getCacheCapacityBytes() {
+        return this.cacheCapacity;
+    }
+
+    /**
+     * Set the time to live (in milli seconds) of cached entries, within which
+     * a cached entry is returned without revalidation.
+     * <p>
+     * Default is set to 0, cached entries are revalidated on every read.
+     *
+     * @param millis
+     *            time to live of cached entries in milli seconds.
+     *
+     * @see #setCacheCapacityBytes(long)
+     */
+    public void setCacheTtlMillis(long millis) {
+        this.cacheTtl = millis;
+    }
+
+    /**
+     * Get the time to live (in milli seconds) of cached entries.
+     *
+     * @return time to live of cached entries in milli seconds.
+     */
+    public long getCacheTtlMillis() {
+        return this.cacheTtl;
+    }
+
+    /**
+     * Store large cached values (4 KB or more) in direct (off heap) buffers,
+     * so that a large cache does not add to the garbage collected heap.
+     * <p>
+     * Default is set to false.
+     *
+     * @param flag
+     *            true to store large cached values off heap.
+     *
+     * @see #setCacheCapacityBytes(long)
+     */
+    public void setCacheOffHeap(boolean flag) {
+        this.cacheOffHeap = flag;
+    }
+
+    /**
+     * Get the off heap cache flag.
+     *
+     * @return true if large cached values are stored off heap.
+     */
+    public boolean getCacheOffHeap() {
+        return this.cacheOffHeap;
+    }
+
 }
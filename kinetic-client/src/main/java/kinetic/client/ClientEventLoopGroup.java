@@ -0,0 +1,264 @@
+/**
+ * Copyright 2013-2015 Seagate Technology LLC.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla
+ * Public License, v. 2.0. If a copy of the MPL was not
+ * distributed with this file, You can obtain one at
+ * https://mozilla.org/MP:/2.0/.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but is provided AS-IS, WITHOUT ANY WARRANTY; including without 
+ * the implied warranty of MERCHANTABILITY, NON-INFRINGEMENT or 
+ * FITNESS FOR A PARTICULAR PURPOSE. See the Mozilla Public 
+ * License for more details.
+ *
+ * See www.openkinetic.org for more project information
+ */
+package kinetic.client;
+
+import io.netty.channel.EventLoop;
+import io.netty.channel.EventLoopGroup;
+import io.netty.util.concurrent.EventExecutor;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import com.seagate.kinetic.client.io.provider.nio.NioClientThreadFactory;
+import com.seagate.kinetic.common.lib.EpollUtil;
+
+/**
+ * A reference counted group of nio event loops that may be shared by kinetic
+ * client instances.
+ * <p>
+ * Each connection of a client configured with
+ * {@link ClientConfiguration#setEventLoopGroup(ClientEventLoopGroup)} is
+ * assigned one event loop of the group. By default the event loop with the
+ * fewest connections is assigned, so that connections are spread evenly over
+ * the event loops as clients are created and closed. A client may instead be
+ * pinned to an event loop with
+ * {@link ClientConfiguration#setEventLoopAffinity(int)}.
+ * <p>
+ * The group holds one reference for its creator, and one reference for each
+ * connection assigned an event loop. The event loops are shut down when the
+ * creator has called {@link #close()} and all the connections are closed.
+ * 
+ * @see ClientConfiguration#setEventLoopGroup(ClientEventLoopGroup)
+ * @see ClientConfiguration#setEventLoopAffinity(int)
+ */
+public class ClientEventLoopGroup {
+
+    // event loop group
+    private final EventLoopGroup group;
+
+    // event loops in the group
+    private final EventLoop[] loops;
+
+    // number of connections per event loop
+    private final AtomicIntegerArray connections;
+
+    // creator and connections references
+    private final AtomicInteger refCount = new AtomicInteger(1);
+
+    // least loaded search start index, rotated to break ties
+    private final AtomicInteger cursor = new AtomicInteger();
+
+    // creator reference released flag
+    private final AtomicInteger closed = new AtomicInteger();
+
+    /**
+     * Create a group with the specified number of nio event loops.
+     * 
+     * @param nThreads
+     *            number of event loop threads, 0 to use the default (twice
+     *            the number of available processors).
+     */
+    public ClientEventLoopGroup(int nThreads) {
+        this(nThreads, false);
+    }
+
+    /**
+     * Create a group with the specified number of event loops.
+     * 
+     * @param nThreads
+     *            number of event loop threads, 0 to use the default (twice
+     *            the number of available processors).
+     * @param useEpoll
+     *            true to use the native (Linux epoll) transport if available.
+     * 
+     * @see ClientConfiguration#setUseEpoll(boolean)
+     */
+    public ClientEventLoopGroup(int nThreads, boolean useEpoll) {
+        this(EpollUtil.newEventLoopGroup(nThreads, new NioClientThreadFactory(
+                "kinetic.client.group"), useEpoll));
+    }
+
+    /**
+     * Create a group with the event loops of an application supplied event
+     * loop group. The event loop group is shut down when the last reference is
+     * released.
+     * 
+     * @param group
+     *            a nio or epoll event loop group.
+     */
+    public ClientEventLoopGroup(EventLoopGroup group) {
+
+        if (group == null) {
+            throw new NullPointerException("group");
+        }
+
+        this.group = group;
+
+        List<EventLoop> list = new ArrayList<EventLoop>();
+
+        Iterator<EventExecutor> it = group.iterator();
+        while (it.hasNext()) {
+            list.add((EventLoop) it.next());
+        }
+
+        if (list.isEmpty()) {
+            throw new IllegalArgumentException("group has no event loops");
+        }
+
+        this.loops = list.toArray(new EventLoop[list.size()]);
+        this.connections = new AtomicIntegerArray(this.loops.length);
+    }
+
+    /**
+     * Get the underlying event loop group.
+     * 
+     * @return the event loop group.
+     */
+    public EventLoopGroup getEventLoopGroup() {
+        return this.group;
+    }
+
+    /**
+     * Get the number of event loops in the group.
+     * 
+     * @return the number of event loops.
+     */
+    public int getEventLoopCount() {
+        return this.loops.length;
+    }
+
+    /**
+     * Get the number of connections assigned to the event loop at the
+     * specified index.
+     * 
+     * @param index
+     *            event loop index, from 0 to {@link #getEventLoopCount()} - 1.
+     * @return the number of connections assigned to the event loop.
+     */
+    public int getConnectionCount(int index) {
+        return this.connections.get(index);
+    }
+
+    /**
+     * Get the number of references held on the group.
+     * 
+     * @return the number of references, 0 if the group is shut down.
+     */
+    public int getReferenceCount() {
+        return this.refCount.get();
+    }
+
+    /**
+     * Assign an event loop to a new connection. A reference is held on the
+     * group until the event loop is released.
+     * 
+     * @param affinity
+     *            if 0 or greater, the event loop at index (affinity modulo
+     *            the number of event loops) is assigned. Otherwise, the event
+     *            loop with the fewest connections is assigned.
+     * @return the assigned event loop.
+     * @throws IllegalStateException
+     *             if the group is shut down.
+     * 
+     * @see #releaseEventLoop(EventLoop)
+     */
+    public EventLoop acquireEventLoop(int affinity) {
+
+        retain();
+
+        int index = affinity >= 0 ? affinity % loops.length : leastLoaded();
+
+        connections.incrementAndGet(index);
+
+        return loops[index];
+    }
+
+    /**
+     * Release an event loop assigned with {@link #acquireEventLoop(int)} when
+     * its connection is closed.
+     * 
+     * @param loop
+     *            the event loop to release.
+     */
+    public void releaseEventLoop(EventLoop loop) {
+
+        for (int i = 0; i < loops.length; i++) {
+            if (loops[i] == loop) {
+                connections.decrementAndGet(i);
+                release();
+                return;
+            }
+        }
+
+        throw new IllegalArgumentException("event loop is not in this group");
+    }
+
+    /**
+     * Release the creator reference. The event loops are shut down when all
+     * the connections assigned an event loop are closed. Calling this method
+     * more than once has no effect.
+     */
+    public void close() {
+        if (closed.compareAndSet(0, 1)) {
+            release();
+        }
+    }
+
+    private int leastLoaded() {
+
+        int start = (cursor.getAndIncrement() & Integer.MAX_VALUE)
+                % loops.length;
+
+        int index = start;
+        int min = Integer.MAX_VALUE;
+
+        for (int i = 0; i < loops.length; i++) {
+            int j = (start + i) % loops.length;
+            int n = connections.get(j);
+
+            if (n < min) {
+                min = n;
+                index = j;
+            }
+        }
+
+        return index;
+    }
+
+    private void retain() {
+        for (;;) {
+            int n = refCount.get();
+
+            if (n == 0) {
+                throw new IllegalStateException("event loop group is shut down");
+            }
+
+            if (refCount.compareAndSet(n, n + 1)) {
+                return;
+            }
+        }
+    }
+
+    private void release() {
+        if (refCount.decrementAndGet() == 0) {
+            group.shutdownGracefully();
+        }
+    }
+}
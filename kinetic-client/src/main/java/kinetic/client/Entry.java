@@ -16,6 +16,8 @@
  */
 package kinetic.client;
 
+import java.nio.ByteBuffer;
+
 /**
  * 
  * KineticClient Entry entry container.
@@ -24,6 +26,11 @@ package kinetic.client;
  * <p>
  * Kinetic applications use KineticClient API to perform Entry operations. Such
  * as {@link KineticClient#putForced(Entry)} to store an Entry in the Kinetic store.
+ * <p>
+ * The value may be set as a <code>ByteBuffer</code> with
+ * {@link #setValueBuffer(ByteBuffer)}, such as a direct or memory mapped
+ * buffer. Its remaining bytes are written to the connection without being
+ * copied to the Java heap.
  * 
  * @author James Hughes.
  * @author Chiaming Yang
@@ -39,6 +46,9 @@ public class Entry {
 	// value value field
 	private byte[] value = null;
 
+	// value buffer field, takes precedence over value
+	private ByteBuffer valueBuffer = null;
+
 	// metadata
 	private EntryMetadata metadata = null;
 
@@ -110,6 +120,11 @@ public class Entry {
 	 * @return the content of the value field.
 	 */
 	public byte[] getValue() {
+
+		if (this.value == null && this.valueBuffer != null) {
+			this.value = toByteArray(this.valueBuffer);
+		}
+
 		return this.value;
 	}
 
@@ -121,6 +136,41 @@ public class Entry {
 	 */
 	public void setValue(byte[] value) {
 		this.value = value;
+		this.valueBuffer = null;
+	}
+
+	/**
+	 * Get the value field content of the entry as a buffer. The buffer wraps
+	 * the value without copying it, and reading it does not consume the value
+	 * of the entry.
+	 * 
+	 * @return the content of the value field, or null if no value is set.
+	 */
+	public ByteBuffer getValueBuffer() {
+
+		if (this.valueBuffer != null) {
+			return this.valueBuffer.duplicate();
+		}
+
+		return (this.value != null) ? ByteBuffer.wrap(this.value) : null;
+	}
+
+	/**
+	 * Set the content of the value field of the entry to the remaining bytes
+	 * of the specified buffer. The buffer position is not changed.
+	 * <p>
+	 * The buffer is read when the entry is written to the connection. Its
+	 * content must not be modified until the operation completes, that is
+	 * until the synchronous call returns or the asynchronous callback is
+	 * invoked. After that the client holds no reference to the buffer, and
+	 * the application may reuse or free it.
+	 * 
+	 * @param buffer
+	 *            the content of the value field to be set to the entry.
+	 */
+	public void setValueBuffer(ByteBuffer buffer) {
+		this.valueBuffer = (buffer != null) ? buffer.slice() : null;
+		this.value = null;
 	}
 
 	/**
@@ -141,4 +191,22 @@ public class Entry {
 	public void setEntryMetadata(EntryMetadata metadata) {
 		this.metadata = metadata;
 	}
+
+	/**
+	 * Get the remaining bytes of the buffer as a byte[]. The backing array is
+	 * returned if the buffer covers all of it.
+	 */
+	private static byte[] toByteArray(ByteBuffer buffer) {
+
+		if (buffer.hasArray() && buffer.arrayOffset() == 0
+				&& buffer.position() == 0
+				&& buffer.remaining() == buffer.array().length) {
+			return buffer.array();
+		}
+
+		byte[] bytes = new byte[buffer.remaining()];
+		buffer.duplicate().get(bytes);
+
+		return bytes;
+	}
 }
@@ -40,6 +40,9 @@ import kinetic.client.advanced.PersistOption;
  * successfully performed on server if its callback handler's onSuccess() method
  * received an successful CallBackResult.
  * <p>
+ * Each asynchronous operation is also available in a variation that returns
+ * a {@link KineticFuture} instead of taking a callback handler.
+ * <p>
  * Each KineticClient instance supports concurrent operations. Each method in
  * the KineticClient class also supports concurrent operations.
  * <p>
@@ -481,6 +484,141 @@ public interface KineticClient extends GenericKineticClient {
             byte[] endKey, boolean endKeyInclusive, int maxKeys,
             CallbackHandler<List<byte[]>> handler) throws KineticException;
 
+    /**
+     * Get an <code>Iterable</code> of entries in the specified key range, in
+     * key order.
+     * <p>
+     * Keys are read lazily in pages of up to <code>pageSize</code> keys. The
+     * next page is requested while the current page is consumed, and the get
+     * requests for the entries of a page are pipelined over the connection,
+     * so a scan does not wait for one round trip per key.
+     * <p>
+     * The page size must not exceed the max key range count of the device
+     * (see <code>kinetic.admin.Limits#getMaxKeyRangeCount()</code>). An entry
+     * deleted during the scan is skipped. If a request fails during the scan,
+     * the iterator's <code>next()</code> method throws a
+     * <code>NoSuchElementException</code> with the
+     * <code>KineticException</code> as its cause.
+     * 
+     * @param startKey
+     *            the start key in the specified key range.
+     * @param startKeyInclusive
+     *            true if the start key is inclusive.
+     * @param endKey
+     *            the end key in the specified key range.
+     * @param endKeyInclusive
+     *            true if the end key is inclusive.
+     * @param pageSize
+     *            max number of keys read per key range request.
+     * 
+     * @return an <code>Iterable</code> of entries in the key range.
+     * 
+     * @throws KineticException
+     *             if the first page of keys cannot be read.
+     * 
+     * @see #getKeyRange(byte[], boolean, byte[], boolean, int)
+     */
+    public Iterable<Entry> getRange(byte[] startKey, boolean startKeyInclusive,
+            byte[] endKey, boolean endKeyInclusive, int pageSize)
+            throws KineticException;
+
+    /**
+     * Get an <code>Iterable</code> of entries in the specified key range, in
+     * key order, with their metadata (version, tag and algorithm) but without
+     * their values.
+     * <p>
+     * Pages of keys are read and consumed as with
+     * {@link #getRange(byte[], boolean, byte[], boolean, int)}, and metadata
+     * only get requests for the keys are pipelined over the connection, so a
+     * listing of N keys does not wait for N + 1 round trips and no value is
+     * transferred. Keys are read lazily, so the memory used by the iterator is
+     * bounded by the page size, regardless of the number of keys in the range.
+     * <p>
+     * The value of each returned entry is <code>null</code>. An entry deleted
+     * during the scan is skipped. If a request fails during the scan, the
+     * iterator's <code>next()</code> method throws a
+     * <code>NoSuchElementException</code> with the
+     * <code>KineticException</code> as its cause.
+     * 
+     * @param startKey
+     *            the start key in the specified key range.
+     * @param startKeyInclusive
+     *            true if the start key is inclusive.
+     * @param endKey
+     *            the end key in the specified key range.
+     * @param endKeyInclusive
+     *            true if the end key is inclusive.
+     * @param pageSize
+     *            max number of keys read per key range request.
+     * 
+     * @return an <code>Iterable</code> of entries (key and metadata) in the
+     *         key range.
+     * 
+     * @throws KineticException
+     *             if the first page of keys cannot be read.
+     * 
+     * @see #getMetadata(byte[])
+     * @see #getRange(byte[], boolean, byte[], boolean, int)
+     */
+    public Iterable<Entry> getMetadataRange(byte[] startKey,
+            boolean startKeyInclusive, byte[] endKey, boolean endKeyInclusive,
+            int pageSize) throws KineticException;
+
+    /**
+     * Scan all entries in the specified key range with concurrent workers.
+     * <p>
+     * The key space is split into sub-ranges by key value, and
+     * <code>parallelism</code> workers scan the sub-ranges at the same time,
+     * each with a prefetching range scan. Entries are delivered to the
+     * handler from the worker threads; entries of one sub-range are delivered
+     * in key order.
+     * <p>
+     * A failure stops only the sub-range it occurred in. The method returns
+     * when all sub-ranges are complete or failed. If the returned checkpoint
+     * is not complete, the scan can be resumed with
+     * {@link #parallelScan(ScanCheckpoint, int, ScanHandler)}.
+     * 
+     * @param startKey
+     *            the start key (inclusive) of the scan.
+     * @param endKey
+     *            the end key (inclusive) of the scan.
+     * @param parallelism
+     *            number of concurrent workers.
+     * @param handler
+     *            receives the scanned entries.
+     * 
+     * @return the scan checkpoint.
+     * 
+     * @throws KineticException
+     *             if the scan cannot be started.
+     * 
+     * @see #getRange(byte[], boolean, byte[], boolean, int)
+     */
+    public ScanCheckpoint parallelScan(byte[] startKey, byte[] endKey,
+            int parallelism, ScanHandler handler) throws KineticException;
+
+    /**
+     * Resume a parallel scan from the specified checkpoint. Only the
+     * sub-ranges not complete are scanned, each starting after the last
+     * entry delivered for it.
+     * 
+     * @param checkpoint
+     *            checkpoint returned by a previous scan.
+     * @param parallelism
+     *            number of concurrent workers.
+     * @param handler
+     *            receives the scanned entries.
+     * 
+     * @return the updated scan checkpoint.
+     * 
+     * @throws KineticException
+     *             if the scan cannot be resumed.
+     * 
+     * @see #parallelScan(byte[], byte[], int, ScanHandler)
+     */
+    public ScanCheckpoint parallelScan(ScanCheckpoint checkpoint,
+            int parallelism, ScanHandler handler) throws KineticException;
+
     /**
      * Get entry metadata for the specified key.
      * 
@@ -516,6 +654,241 @@ public interface KineticClient extends GenericKineticClient {
     public void getMetadataAsync(byte[] key,
             CallbackHandler<EntryMetadata> handler) throws KineticException;
 
+    /**
+     * Put the specified <code>Entry</code> entry to the persistent store
+     * asynchronously. Replace the version in the store with the new version.
+     * <p>
+     * Errors (including a full asynchronous queue) are reported through the
+     * returned future.
+     * 
+     * @param entry
+     *            the <code>Entry</code> to be put to the persistent store.
+     * 
+     * @param newVersion
+     *            new version for the entry.
+     * 
+     * @return a future for the result of this operation.
+     * 
+     * @see #putAsync(Entry, byte[], CallbackHandler)
+     * @see KineticFuture
+     */
+    public KineticFuture<Entry> putAsync(Entry entry, byte[] newVersion);
+
+    /**
+     * Force to put the specified <code>Entry</code> asynchronously. Overwrite
+     * the entry in the store if existed.
+     * <p>
+     * Errors (including a full asynchronous queue) are reported through the
+     * returned future.
+     * 
+     * @param entry
+     *            the <code>Entry</code> to be put to the persistent store.
+     * 
+     * @return a future for the result of this operation.
+     * 
+     * @see #putForcedAsync(Entry, CallbackHandler)
+     * @see KineticFuture
+     */
+    public KineticFuture<Entry> putForcedAsync(Entry entry);
+
+    /**
+     * Get the <code>Entry</code> associated with the specified key
+     * asynchronously. The future result is null if no entry is found.
+     * <p>
+     * Errors (including a full asynchronous queue) are reported through the
+     * returned future.
+     * 
+     * @param key
+     *            the key used to obtain the entry.
+     * 
+     * @return a future for the result of this operation.
+     * 
+     * @see #getAsync(byte[], CallbackHandler)
+     * @see KineticFuture
+     */
+    public KineticFuture<Entry> getAsync(byte[] key);
+
+    /**
+     * Delete the entry that is associated with the key specified in the
+     * <code>entry</code> asynchronously. The version specified in the entry
+     * metadata must match the one stored in the persistent storage.
+     * <p>
+     * Errors (including a full asynchronous queue) are reported through the
+     * returned future.
+     * 
+     * @param entry
+     *            the entry to be deleted.
+     * 
+     * @return a future for the result of this operation.
+     * 
+     * @see #deleteAsync(Entry, CallbackHandler)
+     * @see KineticFuture
+     */
+    public KineticFuture<Boolean> deleteAsync(Entry entry);
+
+    /**
+     * Force to delete the entry that is associated with the key specified
+     * asynchronously.
+     * <p>
+     * Errors (including a full asynchronous queue) are reported through the
+     * returned future.
+     * 
+     * @param key
+     *            the key of the entry to be deleted.
+     * 
+     * @return a future for the result of this operation.
+     * 
+     * @see #deleteForcedAsync(byte[], CallbackHandler)
+     * @see KineticFuture
+     */
+    public KineticFuture<Boolean> deleteForcedAsync(byte[] key);
+
+    /**
+     * Get the next entry associated with the specified key asynchronously.
+     * <p>
+     * Errors (including a full asynchronous queue) are reported through the
+     * returned future.
+     * 
+     * @param key
+     *            the key used to find the next entry.
+     * 
+     * @return a future for the result of this operation.
+     * 
+     * @see #getNextAsync(byte[], CallbackHandler)
+     * @see KineticFuture
+     */
+    public KineticFuture<Entry> getNextAsync(byte[] key);
+
+    /**
+     * Get the previous entry associated with the specified key asynchronously.
+     * <p>
+     * Errors (including a full asynchronous queue) are reported through the
+     * returned future.
+     * 
+     * @param key
+     *            the key used to find the previous entry.
+     * 
+     * @return a future for the result of this operation.
+     * 
+     * @see #getPreviousAsync(byte[], CallbackHandler)
+     * @see KineticFuture
+     */
+    public KineticFuture<Entry> getPreviousAsync(byte[] key);
+
+    /**
+     * Get a <code>List</code> of keys in the sequence based on the specified
+     * key range asynchronously.
+     * <p>
+     * Errors (including a full asynchronous queue) are reported through the
+     * returned future.
+     * 
+     * @param startKey
+     *            the start key in the specified key range.
+     * 
+     * @param startKeyInclusive
+     *            true if the start key is inclusive.
+     * 
+     * @param endKey
+     *            the end key in the specified key range.
+     * 
+     * @param endKeyInclusive
+     *            true if the end key is inclusive.
+     * 
+     * @param maxKeys
+     *            the maximum number of keys returned.
+     * 
+     * @return a future for the result of this operation.
+     * 
+     * @see #getKeyRangeAsync(byte[], boolean, byte[], boolean, int, CallbackHandler)
+     * @see KineticFuture
+     */
+    public KineticFuture<List<byte[]>> getKeyRangeAsync(byte[] startKey,
+            boolean startKeyInclusive, byte[] endKey, boolean endKeyInclusive,
+            int maxKeys);
+
+    /**
+     * Get the entry metadata asynchronous for the specified key.
+     * <p>
+     * Errors (including a full asynchronous queue) are reported through the
+     * returned future.
+     * 
+     * @param key
+     *            the entry key.
+     * 
+     * @return a future for the result of this operation.
+     * 
+     * @see #getMetadataAsync(byte[], CallbackHandler)
+     * @see KineticFuture
+     */
+    public KineticFuture<EntryMetadata> getMetadataAsync(byte[] key);
+
+    /**
+     * Get the entries associated with the specified keys.
+     * <p>
+     * The get requests are pipelined over the connection, up to the
+     * asynchronous queue size in flight. The call returns when all requests
+     * have completed. The result at each index is the entry for the key at
+     * the same index, or null if no entry is found. A failure for one key does
+     * not affect the other keys.
+     * 
+     * @param keys
+     *            the keys used to obtain the entries.
+     * 
+     * @return the entries (or per key exceptions) in the order of the keys.
+     * 
+     * @throws KineticException
+     *             if any internal error occurred.
+     * 
+     * @see #get(byte[])
+     * @see ClientConfiguration#setAsyncQueueSize(int)
+     */
+    public BulkResult<Entry> getAll(List<byte[]> keys) throws KineticException;
+
+    /**
+     * Force to put the specified entries. Each entry is put as with
+     * {@link #putForced(Entry)}.
+     * <p>
+     * The put requests are pipelined over the connection, up to the
+     * asynchronous queue size in flight. The call returns when all requests
+     * have completed. A failure for one entry does not affect the other
+     * entries.
+     * 
+     * @param entries
+     *            the entries to be put to the persistent store.
+     * 
+     * @return the put results (or per entry exceptions) in the order of the
+     *         entries.
+     * 
+     * @throws KineticException
+     *             if any internal error occurred.
+     * 
+     * @see #putForced(Entry)
+     */
+    public BulkResult<Entry> putAll(List<Entry> entries)
+            throws KineticException;
+
+    /**
+     * Force to delete the entries associated with the specified keys. Each
+     * entry is deleted as with {@link #deleteForced(byte[])}.
+     * <p>
+     * The delete requests are pipelined over the connection, up to the
+     * asynchronous queue size in flight. The call returns when all requests
+     * have completed. A failure for one key does not affect the other keys.
+     * 
+     * @param keys
+     *            the keys of the entries to be deleted.
+     * 
+     * @return the delete results (or per key exceptions) in the order of the
+     *         keys.
+     * 
+     * @throws KineticException
+     *             if any internal error occurred.
+     * 
+     * @see #deleteForced(byte[])
+     */
+    public BulkResult<Boolean> deleteAll(List<byte[]> keys)
+            throws KineticException;
+
     /**
      * Create a new instance of <code>BatchOperation</code> object.
      * <p>
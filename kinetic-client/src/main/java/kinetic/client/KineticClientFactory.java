@@ -17,6 +17,7 @@
 package kinetic.client;
 
 import com.seagate.kinetic.client.internal.DefaultKineticClient;
+import com.seagate.kinetic.client.internal.PooledKineticClient;
 
 /**
  * Kinetic client boot-strap interface. This is the starting point for the
@@ -52,4 +53,27 @@ public class KineticClientFactory {
 			throws KineticException {
 		return new DefaultKineticClient(config);
 	}
+
+	/**
+	 * Construct a new instance of the <code>KineticClient</code> that owns the
+	 * specified number of connections to the server.
+	 * <p>
+	 * Each operation is performed on the connection with the fewest in-flight
+	 * requests. A lost connection is replaced transparently the next time it
+	 * is selected.
+	 * 
+	 * @param config
+	 *            client configuration used for each connection.
+	 * @param connections
+	 *            number of connections to the server.
+	 * @return a new KineticClient instance that is connected to the server.
+	 * 
+	 * @throws KineticException
+	 *             if any internal errors occur.
+	 */
+	public static KineticClient createPooledInstance(
+			ClientConfiguration config, int connections)
+			throws KineticException {
+		return new PooledKineticClient(config, connections);
+	}
 }
@@ -0,0 +1,57 @@
+/**
+ * Copyright 2013-2015 Seagate Technology LLC.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla
+ * Public License, v. 2.0. If a copy of the MPL was not
+ * distributed with this file, You can obtain one at
+ * https://mozilla.org/MP:/2.0/.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but is provided AS-IS, WITHOUT ANY WARRANTY; including without 
+ * the implied warranty of MERCHANTABILITY, NON-INFRINGEMENT or 
+ * FITNESS FOR A PARTICULAR PURPOSE. See the Mozilla Public 
+ * License for more details.
+ *
+ * See www.openkinetic.org for more project information
+ */
+package kinetic.client;
+
+import java.util.concurrent.Future;
+
+/**
+ * The result of a Kinetic asynchronous operation.
+ * <p>
+ * A <code>KineticFuture</code> is returned by the asynchronous operations of
+ * {@link KineticClient} that do not take a {@link CallbackHandler}. The result
+ * may be obtained by blocking on one of the <code>get</code> methods, or by
+ * registering a callback handler with {@link #addCallback(CallbackHandler)}.
+ * <p>
+ * If the operation fails, <code>get</code> throws an
+ * <code>ExecutionException</code> whose cause is the
+ * {@link AsyncKineticException} that would have been delivered to a callback
+ * handler.
+ * <p>
+ * Cancelling a future does not withdraw the request from the service. The
+ * response is discarded when it arrives.
+ * 
+ * @param <T>
+ *            the result type. It matches the return type of the synchronous
+ *            API variation.
+ * 
+ * @see KineticFutures
+ */
+public interface KineticFuture<T> extends Future<T> {
+
+    /**
+     * Register a callback handler to be invoked when the operation completes.
+     * <p>
+     * The handler is invoked on the thread that completes the operation, or
+     * on the calling thread if the operation has completed already. Handlers
+     * must not block. If the future is cancelled, the handler's
+     * <code>onError</code> method is invoked.
+     * 
+     * @param handler
+     *            the callback handler to be invoked.
+     */
+    public void addCallback(CallbackHandler<T> handler);
+}
@@ -0,0 +1,102 @@
+/**
+ * Copyright 2013-2015 Seagate Technology LLC.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla
+ * Public License, v. 2.0. If a copy of the MPL was not
+ * distributed with this file, You can obtain one at
+ * https://mozilla.org/MP:/2.0/.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but is provided AS-IS, WITHOUT ANY WARRANTY; including without 
+ * the implied warranty of MERCHANTABILITY, NON-INFRINGEMENT or 
+ * FITNESS FOR A PARTICULAR PURPOSE. See the Mozilla Public 
+ * License for more details.
+ *
+ * See www.openkinetic.org for more project information
+ */
+package kinetic.client;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.seagate.kinetic.client.internal.DefaultKineticFuture;
+
+/**
+ * Utility methods to compose {@link KineticFuture} instances.
+ * 
+ * @see KineticFuture
+ */
+public final class KineticFutures {
+
+    private KineticFutures() {
+        ;
+    }
+
+    /**
+     * Create a future that completes when all the specified futures have
+     * completed.
+     * <p>
+     * The returned future fails with the exception of the first failed
+     * future, if any. Results of the individual operations are obtained from
+     * the specified futures.
+     * 
+     * @param futures
+     *            the futures to wait for.
+     * @return a future that completes when all the specified futures have
+     *         completed.
+     */
+    public static KineticFuture<Void> allOf(
+            Collection<? extends KineticFuture<?>> futures) {
+
+        final DefaultKineticFuture<Void> all = new DefaultKineticFuture<Void>();
+
+        if (futures.isEmpty()) {
+            all.setResult(null);
+            return all;
+        }
+
+        final AtomicInteger remaining = new AtomicInteger(futures.size());
+
+        final AtomicReference<AsyncKineticException> failure = new AtomicReference<AsyncKineticException>();
+
+        for (KineticFuture<?> future : futures) {
+            listen(future, all, remaining, failure);
+        }
+
+        return all;
+    }
+
+    private static <T> void listen(KineticFuture<T> future,
+            final DefaultKineticFuture<Void> all,
+            final AtomicInteger remaining,
+            final AtomicReference<AsyncKineticException> failure) {
+
+        future.addCallback(new CallbackHandler<T>() {
+
+            @Override
+            public void onSuccess(CallbackResult<T> result) {
+                this.done();
+            }
+
+            @Override
+            public void onError(AsyncKineticException exception) {
+                failure.compareAndSet(null, exception);
+                this.done();
+            }
+
+            private void done() {
+
+                if (remaining.decrementAndGet() != 0) {
+                    return;
+                }
+
+                if (failure.get() == null) {
+                    all.setResult(null);
+                } else {
+                    all.onError(failure.get());
+                }
+            }
+        });
+    }
+}
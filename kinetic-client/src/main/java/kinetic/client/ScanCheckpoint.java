@@ -0,0 +1,84 @@
+/**
+ * Copyright 2013-2015 Seagate Technology LLC.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla
+ * Public License, v. 2.0. If a copy of the MPL was not
+ * distributed with this file, You can obtain one at
+ * https://mozilla.org/MP:/2.0/.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but is provided AS-IS, WITHOUT ANY WARRANTY; including without 
+ * the implied warranty of MERCHANTABILITY, NON-INFRINGEMENT or 
+ * FITNESS FOR A PARTICULAR PURPOSE. See the Mozilla Public 
+ * License for more details.
+ *
+ * See www.openkinetic.org for more project information
+ */
+package kinetic.client;
+
+import java.io.Serializable;
+
+/**
+ * Progress of a parallel scan.
+ * <p>
+ * A checkpoint records, for each sub-range of the scan, the last key
+ * delivered to the {@link ScanHandler} and whether the sub-range is
+ * complete. A scan that did not complete, because of a failure or because the
+ * application was restarted, is resumed from its checkpoint with
+ * {@link KineticClient#parallelScan(ScanCheckpoint, int, ScanHandler)}.
+ * Checkpoints are serializable so they can be persisted by applications.
+ * 
+ * @see KineticClient#parallelScan(byte[], byte[], int, ScanHandler)
+ */
+public interface ScanCheckpoint extends Serializable {
+
+    /**
+     * Get the start key of the scan.
+     * 
+     * @return the start key (inclusive) of the scan.
+     */
+    public byte[] getStartKey();
+
+    /**
+     * Get the end key of the scan.
+     * 
+     * @return the end key (inclusive) of the scan.
+     */
+    public byte[] getEndKey();
+
+    /**
+     * Get number of sub-ranges the scan is split into.
+     * 
+     * @return number of sub-ranges.
+     */
+    public int getRangeCount();
+
+    /**
+     * Get number of sub-ranges completely scanned.
+     * 
+     * @return number of completed sub-ranges.
+     */
+    public int getCompletedRangeCount();
+
+    /**
+     * Get number of entries delivered to the scan handler, including the
+     * runs the scan was resumed from.
+     * 
+     * @return number of scanned entries.
+     */
+    public long getScannedCount();
+
+    /**
+     * Check if all sub-ranges are completely scanned.
+     * 
+     * @return true if the scan is complete.
+     */
+    public boolean isComplete();
+
+    /**
+     * Get the last failure of the most recent scan run.
+     * 
+     * @return the last failure, or null if no sub-range failed.
+     */
+    public KineticException getException();
+}
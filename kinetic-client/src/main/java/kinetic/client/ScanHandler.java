@@ -0,0 +1,43 @@
+/**
+ * Copyright 2013-2015 Seagate Technology LLC.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla
+ * Public License, v. 2.0. If a copy of the MPL was not
+ * distributed with this file, You can obtain one at
+ * https://mozilla.org/MP:/2.0/.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but is provided AS-IS, WITHOUT ANY WARRANTY; including without 
+ * the implied warranty of MERCHANTABILITY, NON-INFRINGEMENT or 
+ * FITNESS FOR A PARTICULAR PURPOSE. See the Mozilla Public 
+ * License for more details.
+ *
+ * See www.openkinetic.org for more project information
+ */
+package kinetic.client;
+
+/**
+ * Receives the entries of a parallel scan.
+ * <p>
+ * Sub-ranges are scanned concurrently, so the handler is invoked from several
+ * threads at the same time and must be thread-safe. Within a sub-range,
+ * entries are delivered in key order.
+ * 
+ * @see KineticClient#parallelScan(byte[], byte[], int, ScanHandler)
+ */
+public interface ScanHandler {
+
+    /**
+     * Process an entry of the scan.
+     * <p>
+     * If this method throws an exception, the scan of the entry's sub-range
+     * stops and the entry is not recorded as scanned in the checkpoint, so it
+     * is delivered again when the scan is resumed.
+     * 
+     * @param entry
+     *            the scanned entry.
+     * @throws KineticException
+     *             to stop the scan of the entry's sub-range.
+     */
+    public void onEntry(Entry entry) throws KineticException;
+}
@@ -0,0 +1,154 @@
+/**
+ * Copyright 2013-2015 Seagate Technology LLC.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla
+ * Public License, v. 2.0. If a copy of the MPL was not
+ * distributed with this file, You can obtain one at
+ * https://mozilla.org/MP:/2.0/.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but is provided AS-IS, WITHOUT ANY WARRANTY; including without 
+ * the implied warranty of MERCHANTABILITY, NON-INFRINGEMENT or 
+ * FITNESS FOR A PARTICULAR PURPOSE. See the Mozilla Public 
+ * License for more details.
+ *
+ * See www.openkinetic.org for more project information
+ */
+package kinetic.client.cluster;
+
+import java.util.Arrays;
+
+/**
+ * Consistent hash ring partitioner with virtual nodes.
+ * <p>
+ * Each shard owns a number of points (virtual nodes) on a 64-bit hash ring.
+ * A key belongs to the shard owning the first point at or after the key hash.
+ * When a shard is added or removed, only the keys of the ring segments it
+ * gains or loses move. More virtual nodes give a more even distribution at
+ * the cost of a larger ring.
+ */
+public class ConsistentHashPartitioner implements Partitioner {
+
+    /**
+     * Default number of virtual nodes per shard.
+     */
+    public static final int DEFAULT_VIRTUAL_NODES = 128;
+
+    private final int virtualNodes;
+
+    // ring built for the most recently used shard count
+    private volatile Ring ring = null;
+
+    /**
+     * Construct a partitioner with {@link #DEFAULT_VIRTUAL_NODES} virtual
+     * nodes per shard.
+     */
+    public ConsistentHashPartitioner() {
+        this(DEFAULT_VIRTUAL_NODES);
+    }
+
+    /**
+     * Construct a partitioner with the specified number of virtual nodes per
+     * shard.
+     * 
+     * @param virtualNodes
+     *            number of virtual nodes per shard.
+     */
+    public ConsistentHashPartitioner(int virtualNodes) {
+
+        if (virtualNodes <= 0) {
+            throw new IllegalArgumentException(
+                    "virtual nodes must be positive: " + virtualNodes);
+        }
+
+        this.virtualNodes = virtualNodes;
+    }
+
+    /**
+     * Get number of virtual nodes per shard.
+     * 
+     * @return number of virtual nodes per shard.
+     */
+    public int getVirtualNodes() {
+        return this.virtualNodes;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int partition(byte[] key, int shards) {
+
+        if (shards <= 0) {
+            throw new IllegalArgumentException("shards must be positive: "
+                    + shards);
+        }
+
+        Ring current = this.ring;
+
+        if (current == null || current.shards != shards) {
+            current = new Ring(shards, this.virtualNodes);
+            this.ring = current;
+        }
+
+        return current.lookup(KeyHash.hash64(key));
+    }
+
+    /**
+     * Immutable ring for a fixed number of shards.
+     */
+    private static final class Ring {
+
+        private final int shards;
+
+        // sorted virtual node positions
+        private final long[] points;
+
+        // owner shard of each position
+        private final int[] owners;
+
+        Ring(int shards, int virtualNodes) {
+
+            this.shards = shards;
+
+            int size = shards * virtualNodes;
+
+            long[] entries = new long[size];
+            long[] sorted = new long[size];
+
+            for (int s = 0; s < shards; s++) {
+                for (int v = 0; v < virtualNodes; v++) {
+                    int i = s * virtualNodes + v;
+                    entries[i] = KeyHash.mix(((long) s << 32) | v);
+                    sorted[i] = entries[i];
+                }
+            }
+
+            Arrays.sort(sorted);
+
+            this.points = sorted;
+            this.owners = new int[size];
+
+            for (int i = 0; i < size; i++) {
+                int pos = Arrays.binarySearch(sorted, entries[i]);
+                this.owners[pos] = i / virtualNodes;
+            }
+        }
+
+        int lookup(long hash) {
+
+            int pos = Arrays.binarySearch(this.points, hash);
+
+            if (pos < 0) {
+                pos = -pos - 1;
+
+                // wrap around the ring
+                if (pos == this.points.length) {
+                    pos = 0;
+                }
+            }
+
+            return this.owners[pos];
+        }
+    }
+}
@@ -0,0 +1,157 @@
+/**
+ * Copyright 2013-2015 Seagate Technology LLC.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla
+ * Public License, v. 2.0. If a copy of the MPL was not
+ * distributed with this file, You can obtain one at
+ * https://mozilla.org/MP:/2.0/.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but is provided AS-IS, WITHOUT ANY WARRANTY; including without 
+ * the implied warranty of MERCHANTABILITY, NON-INFRINGEMENT or 
+ * FITNESS FOR A PARTICULAR PURPOSE. See the Mozilla Public 
+ * License for more details.
+ *
+ * See www.openkinetic.org for more project information
+ */
+package kinetic.client.cluster;
+
+/**
+ * Hedging policy of a {@link KineticReplicaClient}.
+ * <p>
+ * A read is first sent to the primary replica. If no response arrives within
+ * the hedge delay, the read is also sent to the next replica, and the first
+ * successful response is used. The hedge delay is the configured percentile
+ * of recently observed read latencies, bounded by the min and max delay.
+ * Until enough latencies have been observed, the max delay is used.
+ * <p>
+ * With the default 95th percentile, about one read in twenty is hedged, so
+ * the extra load on the replicas stays small while the latency tail caused by
+ * a single slow drive is cut off.
+ *
+ * @see KineticClusterClientFactory#createReplicaInstance(java.util.List,
+ *      HedgePolicy)
+ */
+public class HedgePolicy {
+
+    // latency percentile used as hedge delay
+    private double percentile = 95.0;
+
+    // min hedge delay
+    private long minDelayMillis = 1;
+
+    // max hedge delay
+    private long maxDelayMillis = 1000;
+
+    // number of recent latencies the percentile is computed over
+    private int sampleWindow = 256;
+
+    // max number of hedged requests per read
+    private int maxHedges = 1;
+
+    /**
+     * Default constructor.
+     */
+    public HedgePolicy() {
+        ;
+    }
+
+    /**
+     * Get the latency percentile used as hedge delay.
+     *
+     * @return the latency percentile, default is 95.0.
+     */
+    public double getPercentile() {
+        return percentile;
+    }
+
+    /**
+     * Set the latency percentile used as hedge delay.
+     *
+     * @param percentile
+     *            latency percentile, in the range (0, 100].
+     */
+    public void setPercentile(double percentile) {
+        this.percentile = percentile;
+    }
+
+    /**
+     * Get the min hedge delay.
+     *
+     * @return min hedge delay in milli seconds, default is 1.
+     */
+    public long getMinDelayMillis() {
+        return minDelayMillis;
+    }
+
+    /**
+     * Set the min hedge delay.
+     *
+     * @param minDelayMillis
+     *            min hedge delay in milli seconds.
+     */
+    public void setMinDelayMillis(long minDelayMillis) {
+        this.minDelayMillis = minDelayMillis;
+    }
+
+    /**
+     * Get the max hedge delay. The max delay is also used until enough read
+     * latencies have been observed.
+     *
+     * @return max hedge delay in milli seconds, default is 1000.
+     */
+    public long getMaxDelayMillis() {
+        return maxDelayMillis;
+    }
+
+    /**
+     * Set the max hedge delay.
+     *
+     * @param maxDelayMillis
+     *            max hedge delay in milli seconds.
+     */
+    public void setMaxDelayMillis(long maxDelayMillis) {
+        this.maxDelayMillis = maxDelayMillis;
+    }
+
+    /**
+     * Get the number of recent read latencies the percentile is computed
+     * over.
+     *
+     * @return sample window size, default is 256.
+     */
+    public int getSampleWindow() {
+        return sampleWindow;
+    }
+
+    /**
+     * Set the number of recent read latencies the percentile is computed
+     * over.
+     *
+     * @param sampleWindow
+     *            sample window size.
+     */
+    public void setSampleWindow(int sampleWindow) {
+        this.sampleWindow = sampleWindow;
+    }
+
+    /**
+     * Get the max number of hedged requests per read. Each hedge is sent to
+     * the next replica one hedge delay after the previous request.
+     *
+     * @return max number of hedged requests per read, default is 1.
+     */
+    public int getMaxHedges() {
+        return maxHedges;
+    }
+
+    /**
+     * Set the max number of hedged requests per read.
+     *
+     * @param maxHedges
+     *            max number of hedged requests per read. 0 disables hedging.
+     */
+    public void setMaxHedges(int maxHedges) {
+        this.maxHedges = maxHedges;
+    }
+}
@@ -0,0 +1,52 @@
+/**
+ * Copyright 2013-2015 Seagate Technology LLC.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla
+ * Public License, v. 2.0. If a copy of the MPL was not
+ * distributed with this file, You can obtain one at
+ * https://mozilla.org/MP:/2.0/.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but is provided AS-IS, WITHOUT ANY WARRANTY; including without 
+ * the implied warranty of MERCHANTABILITY, NON-INFRINGEMENT or 
+ * FITNESS FOR A PARTICULAR PURPOSE. See the Mozilla Public 
+ * License for more details.
+ *
+ * See www.openkinetic.org for more project information
+ */
+package kinetic.client.cluster;
+
+/**
+ * Jump consistent hash partitioner (Lamping and Veach).
+ * <p>
+ * Requires no memory and distributes keys evenly. When a shard is appended
+ * to the cluster, only about 1/n of the keys move, all to the new shard.
+ * Shards can only be added or removed at the end of the list.
+ */
+public class JumpHashPartitioner implements Partitioner {
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int partition(byte[] key, int shards) {
+
+        if (shards <= 0) {
+            throw new IllegalArgumentException("shards must be positive: "
+                    + shards);
+        }
+
+        long h = KeyHash.hash64(key);
+
+        long b = -1;
+        long j = 0;
+
+        while (j < shards) {
+            b = j;
+            h = h * 2862933555777941757L + 1;
+            j = (long) ((b + 1) * ((double) (1L << 31) / (double) ((h >>> 33) + 1)));
+        }
+
+        return (int) b;
+    }
+}
@@ -0,0 +1,196 @@
+/**
+ * Copyright 2013-2015 Seagate Technology LLC.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla
+ * Public License, v. 2.0. If a copy of the MPL was not
+ * distributed with this file, You can obtain one at
+ * https://mozilla.org/MP:/2.0/.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but is provided AS-IS, WITHOUT ANY WARRANTY; including without 
+ * the implied warranty of MERCHANTABILITY, NON-INFRINGEMENT or 
+ * FITNESS FOR A PARTICULAR PURPOSE. See the Mozilla Public 
+ * License for more details.
+ *
+ * See www.openkinetic.org for more project information
+ */
+package kinetic.client.cluster;
+
+import java.util.List;
+
+import kinetic.client.BulkResult;
+import kinetic.client.Entry;
+import kinetic.client.EntryMetadata;
+import kinetic.client.KineticClient;
+import kinetic.client.KineticException;
+import kinetic.client.KineticFuture;
+
+/**
+ * Kinetic client that spreads keys across a cluster of drives.
+ * <p>
+ * Each drive (shard) is served by its own connection. Single key operations
+ * are routed to the shard selected by the cluster {@link Partitioner}.
+ * Multi-key operations are pipelined to all involved shards at the same time,
+ * so that aggregate throughput grows with the number of drives.
+ * <p>
+ * Applications must use the same shard list (in the same order) and the same
+ * partitioner for the lifetime of a data set, as the mapping decides where
+ * each entry is stored.
+ * 
+ * @see KineticClusterClientFactory
+ * @see KineticClient
+ */
+public interface KineticClusterClient {
+
+    /**
+     * Get number of shards in the cluster.
+     * 
+     * @return number of shards.
+     */
+    public int getShardCount();
+
+    /**
+     * Get the shard for the specified key.
+     * 
+     * @param key
+     *            entry key.
+     * @return shard index, in the range [0, getShardCount()).
+     */
+    public int getShard(byte[] key);
+
+    /**
+     * Get the client connected to the specified shard.
+     * 
+     * @param shard
+     *            shard index.
+     * @return the client connected to the shard.
+     */
+    public KineticClient getShardClient(int shard);
+
+    /**
+     * Put the specified entry to the shard of its key.
+     * 
+     * @see KineticClient#put(Entry, byte[])
+     */
+    public Entry put(Entry entry, byte[] newVersion) throws KineticException;
+
+    /**
+     * Force to put the specified entry to the shard of its key.
+     * 
+     * @see KineticClient#putForced(Entry)
+     */
+    public Entry putForced(Entry entry) throws KineticException;
+
+    /**
+     * Get the entry associated with the specified key.
+     * 
+     * @see KineticClient#get(byte[])
+     */
+    public Entry get(byte[] key) throws KineticException;
+
+    /**
+     * Get entry metadata for the specified key.
+     * 
+     * @see KineticClient#getMetadata(byte[])
+     */
+    public EntryMetadata getMetadata(byte[] key) throws KineticException;
+
+    /**
+     * Delete the specified entry.
+     * 
+     * @see KineticClient#delete(Entry)
+     */
+    public boolean delete(Entry entry) throws KineticException;
+
+    /**
+     * Force to delete the entry associated with the specified key.
+     * 
+     * @see KineticClient#deleteForced(byte[])
+     */
+    public boolean deleteForced(byte[] key) throws KineticException;
+
+    /**
+     * Force to put the specified entry asynchronously.
+     * 
+     * @see KineticClient#putForcedAsync(Entry)
+     */
+    public KineticFuture<Entry> putForcedAsync(Entry entry);
+
+    /**
+     * Get the entry associated with the specified key asynchronously.
+     * 
+     * @see KineticClient#getAsync(byte[])
+     */
+    public KineticFuture<Entry> getAsync(byte[] key);
+
+    /**
+     * Force to delete the entry associated with the specified key
+     * asynchronously.
+     * 
+     * @see KineticClient#deleteForcedAsync(byte[])
+     */
+    public KineticFuture<Boolean> deleteForcedAsync(byte[] key);
+
+    /**
+     * Get a list of keys in the specified key range across all shards.
+     * <p>
+     * The range request is sent to all shards at the same time. The sorted
+     * key lists returned by the shards are merged in key order (unsigned
+     * lexicographic) and at most <code>maxKeys</code> keys are returned.
+     * 
+     * @param startKey
+     *            the start key in the specified key range.
+     * @param startKeyInclusive
+     *            true if the start key is inclusive.
+     * @param endKey
+     *            the end key in the specified key range.
+     * @param endKeyInclusive
+     *            true if the end key is inclusive.
+     * @param maxKeys
+     *            max number of keys can be returned.
+     * 
+     * @return keys in the range, in key order.
+     * 
+     * @throws KineticException
+     *             if the request failed on any shard.
+     * 
+     * @see KineticClient#getKeyRange(byte[], boolean, byte[], boolean, int)
+     */
+    public List<byte[]> getKeyRange(byte[] startKey, boolean startKeyInclusive,
+            byte[] endKey, boolean endKeyInclusive, int maxKeys)
+            throws KineticException;
+
+    /**
+     * Get the entries associated with the specified keys. Requests are
+     * pipelined to all involved shards at the same time.
+     * 
+     * @see KineticClient#getAll(List)
+     */
+    public BulkResult<Entry> getAll(List<byte[]> keys) throws KineticException;
+
+    /**
+     * Force to put the specified entries. Requests are pipelined to all
+     * involved shards at the same time.
+     * 
+     * @see KineticClient#putAll(List)
+     */
+    public BulkResult<Entry> putAll(List<Entry> entries)
+            throws KineticException;
+
+    /**
+     * Force to delete the entries associated with the specified keys.
+     * Requests are pipelined to all involved shards at the same time.
+     * 
+     * @see KineticClient#deleteAll(List)
+     */
+    public BulkResult<Boolean> deleteAll(List<byte[]> keys)
+            throws KineticException;
+
+    /**
+     * Close the connections to all shards.
+     * 
+     * @throws KineticException
+     *             if any internal error occurred.
+     */
+    public void close() throws KineticException;
+}
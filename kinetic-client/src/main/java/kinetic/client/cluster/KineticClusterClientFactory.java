@@ -0,0 +1,106 @@
+/**
+ * Copyright 2013-2015 Seagate Technology LLC.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla
+ * Public License, v. 2.0. If a copy of the MPL was not
+ * distributed with this file, You can obtain one at
+ * https://mozilla.org/MP:/2.0/.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but is provided AS-IS, WITHOUT ANY WARRANTY; including without 
+ * the implied warranty of MERCHANTABILITY, NON-INFRINGEMENT or 
+ * FITNESS FOR A PARTICULAR PURPOSE. See the Mozilla Public 
+ * License for more details.
+ *
+ * See www.openkinetic.org for more project information
+ */
+package kinetic.client.cluster;
+
+import java.util.List;
+
+import kinetic.client.ClientConfiguration;
+import kinetic.client.KineticException;
+
+import com.seagate.kinetic.client.internal.DefaultKineticClusterClient;
+import com.seagate.kinetic.client.internal.HedgedReplicaClient;
+
+/**
+ * Factory class to create cluster client instances.
+ * 
+ * @see KineticClusterClient
+ * @see KineticReplicaClient
+ */
+public class KineticClusterClientFactory {
+
+    /**
+     * Create a new cluster client that partitions keys with a
+     * {@link ConsistentHashPartitioner}.
+     * 
+     * @param shards
+     *            client configuration of each drive in the cluster.
+     * @return a new cluster client connected to all drives.
+     * 
+     * @throws KineticException
+     *             if any drive cannot be connected.
+     */
+    public static KineticClusterClient createInstance(
+            List<ClientConfiguration> shards) throws KineticException {
+        return createInstance(shards, new ConsistentHashPartitioner());
+    }
+
+    /**
+     * Create a new cluster client that partitions keys with the specified
+     * partitioner.
+     * 
+     * @param shards
+     *            client configuration of each drive in the cluster.
+     * @param partitioner
+     *            maps keys to drives.
+     * @return a new cluster client connected to all drives.
+     * 
+     * @throws KineticException
+     *             if any drive cannot be connected.
+     */
+    public static KineticClusterClient createInstance(
+            List<ClientConfiguration> shards, Partitioner partitioner)
+            throws KineticException {
+        return new DefaultKineticClusterClient(shards, partitioner);
+    }
+
+    /**
+     * Create a new replica client that hedges reads with the default
+     * {@link HedgePolicy}.
+     * 
+     * @param replicas
+     *            client configuration of each replica drive. The first
+     *            replica is the primary.
+     * @return a new replica client connected to all replicas.
+     * 
+     * @throws KineticException
+     *             if any replica cannot be connected.
+     */
+    public static KineticReplicaClient createReplicaInstance(
+            List<ClientConfiguration> replicas) throws KineticException {
+        return createReplicaInstance(replicas, new HedgePolicy());
+    }
+
+    /**
+     * Create a new replica client that hedges reads with the specified
+     * policy.
+     * 
+     * @param replicas
+     *            client configuration of each replica drive. The first
+     *            replica is the primary.
+     * @param policy
+     *            hedging policy.
+     * @return a new replica client connected to all replicas.
+     * 
+     * @throws KineticException
+     *             if any replica cannot be connected.
+     */
+    public static KineticReplicaClient createReplicaInstance(
+            List<ClientConfiguration> replicas, HedgePolicy policy)
+            throws KineticException {
+        return new HedgedReplicaClient(replicas, policy);
+    }
+}
@@ -0,0 +1,97 @@
+/**
+ * Copyright 2013-2015 Seagate Technology LLC.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla
+ * Public License, v. 2.0. If a copy of the MPL was not
+ * distributed with this file, You can obtain one at
+ * https://mozilla.org/MP:/2.0/.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but is provided AS-IS, WITHOUT ANY WARRANTY; including without 
+ * the implied warranty of MERCHANTABILITY, NON-INFRINGEMENT or 
+ * FITNESS FOR A PARTICULAR PURPOSE. See the Mozilla Public 
+ * License for more details.
+ *
+ * See www.openkinetic.org for more project information
+ */
+package kinetic.client.cluster;
+
+import kinetic.client.Entry;
+import kinetic.client.KineticClient;
+import kinetic.client.KineticException;
+import kinetic.client.KineticFuture;
+
+/**
+ * Kinetic client that reads entries stored on a set of replica drives.
+ * <p>
+ * Each replica is served by its own connection. A read is sent to the
+ * primary (first) replica and hedged to the next replica if no response
+ * arrives within the delay of the {@link HedgePolicy}. The first successful
+ * response completes the read, and the other requests are cancelled: their
+ * responses are ignored when they arrive. A replica that fails a read
+ * (for example, with a timeout or a lost connection) causes the read to be
+ * sent to the next replica right away. The read fails only if all replicas
+ * fail.
+ * <p>
+ * Writes are not replicated by this client; applications write each replica
+ * through {@link #getReplicaClient(int)}.
+ *
+ * @see KineticClusterClientFactory#createReplicaInstance(java.util.List,
+ *      HedgePolicy)
+ * @see HedgePolicy
+ */
+public interface KineticReplicaClient {
+
+    /**
+     * Get number of replicas.
+     *
+     * @return number of replicas.
+     */
+    public int getReplicaCount();
+
+    /**
+     * Get the client connected to the specified replica.
+     *
+     * @param replica
+     *            replica index, 0 is the primary.
+     * @return the client connected to the replica.
+     */
+    public KineticClient getReplicaClient(int replica);
+
+    /**
+     * Get the entry of the specified key from the first replica to respond.
+     *
+     * @see KineticClient#get(byte[])
+     */
+    public Entry get(byte[] key) throws KineticException;
+
+    /**
+     * Asynchronously get the entry of the specified key from the first
+     * replica to respond.
+     *
+     * @see KineticClient#getAsync(byte[])
+     */
+    public KineticFuture<Entry> getAsync(byte[] key);
+
+    /**
+     * Get the current hedge delay.
+     *
+     * @return the current hedge delay in milli seconds.
+     */
+    public long getHedgeDelayMillis();
+
+    /**
+     * Get the number of hedged requests sent since this client was created.
+     *
+     * @return number of hedged requests.
+     */
+    public long getHedgeCount();
+
+    /**
+     * Close the connections to all replicas.
+     *
+     * @throws KineticException
+     *             if any internal error occurred.
+     */
+    public void close() throws KineticException;
+}
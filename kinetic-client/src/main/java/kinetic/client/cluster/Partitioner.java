@@ -0,0 +1,42 @@
+/**
+ * Copyright 2013-2015 Seagate Technology LLC.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla
+ * Public License, v. 2.0. If a copy of the MPL was not
+ * distributed with this file, You can obtain one at
+ * https://mozilla.org/MP:/2.0/.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but is provided AS-IS, WITHOUT ANY WARRANTY; including without 
+ * the implied warranty of MERCHANTABILITY, NON-INFRINGEMENT or 
+ * FITNESS FOR A PARTICULAR PURPOSE. See the Mozilla Public 
+ * License for more details.
+ *
+ * See www.openkinetic.org for more project information
+ */
+package kinetic.client.cluster;
+
+/**
+ * Maps a key to one of the shards (drives) of a
+ * {@link KineticClusterClient}.
+ * <p>
+ * Implementations must be deterministic and thread-safe: the same key must
+ * always map to the same shard for a given shard count, since the mapping
+ * decides where an entry is stored.
+ * 
+ * @see ConsistentHashPartitioner
+ * @see JumpHashPartitioner
+ */
+public interface Partitioner {
+
+    /**
+     * Get the shard for the specified key.
+     * 
+     * @param key
+     *            entry key.
+     * @param shards
+     *            number of shards in the cluster.
+     * @return shard index, in the range [0, shards).
+     */
+    public int partition(byte[] key, int shards);
+}
@@ -0,0 +1,34 @@
+/**
+ * Copyright 2013-2015 Seagate Technology LLC.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla
+ * Public License, v. 2.0. If a copy of the MPL was not
+ * distributed with this file, You can obtain one at
+ * https://mozilla.org/MP:/2.0/.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but is provided AS-IS, WITHOUT ANY WARRANTY; including without 
+ * the implied warranty of MERCHANTABILITY, NON-INFRINGEMENT or 
+ * FITNESS FOR A PARTICULAR PURPOSE. See the Mozilla Public 
+ * License for more details.
+ *
+ * See www.openkinetic.org for more project information
+ */
+/**
+ * Kinetic Cluster API.
+ * <p>
+ * A Kinetic application uses the cluster API provided in this package to
+ * spread entries across a set of Kinetic drives.</P>
+ * <p>
+ * The boot-strap API for using the cluster client library is
+ * <code>KineticClusterClientFactory.createInstance(List, Partitioner)</code>.
+ * Applications construct one <code>ClientConfiguration</code> per drive and a
+ * <code>Partitioner</code> (such as <code>ConsistentHashPartitioner</code> or
+ * <code>JumpHashPartitioner</code>) that maps keys to drives.</p>
+ * <p>
+ * Entries stored on several replica drives are read with
+ * <code>KineticClusterClientFactory.createReplicaInstance(List, HedgePolicy)</code>.
+ * Reads are hedged to a second replica when the primary is slow to respond.</p>
+ *
+ */
+package kinetic.client.cluster;
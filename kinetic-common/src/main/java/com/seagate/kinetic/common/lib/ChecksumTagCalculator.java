@@ -0,0 +1,114 @@
+/**
+ * Copyright 2013-2015 Seagate Technology LLC.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla
+ * Public License, v. 2.0. If a copy of the MPL was not
+ * distributed with this file, You can obtain one at
+ * https://mozilla.org/MP:/2.0/.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but is provided AS-IS, WITHOUT ANY WARRANTY; including without 
+ * the implied warranty of MERCHANTABILITY, NON-INFRINGEMENT or 
+ * FITNESS FOR A PARTICULAR PURPOSE. See the Mozilla Public 
+ * License for more details.
+ *
+ * See www.openkinetic.org for more project information
+ */
+package com.seagate.kinetic.common.lib;
+
+import java.nio.ByteBuffer;
+import java.util.zip.Checksum;
+
+import com.google.protobuf.ByteString;
+
+/**
+ * Tag calculation session with a pooled checksum instance.
+ *
+ * @param <T>
+ *            checksum type.
+ */
+abstract class ChecksumTagCalculator<T extends Checksum> implements
+        TagCalculator {
+
+    // scratch size to copy a buffer without a backing array
+    private static final int SCRATCH_SIZE = 4096;
+
+    private final ThreadLocalPool<T> pool;
+
+    private final String algoName;
+
+    // borrowed checksum, null when finished
+    private T checksum;
+
+    ChecksumTagCalculator(ThreadLocalPool<T> pool,
+            String algoName) {
+        this.pool = pool;
+        this.algoName = algoName;
+        this.checksum = pool.borrow();
+    }
+
+    /**
+     * Convert the checksum value to tag bytes.
+     *
+     * @param value
+     *            the checksum value.
+     * @return the tag bytes.
+     */
+    protected abstract byte[] toTag(long value);
+
+    @Override
+    public void update(byte[] b, int off, int len) {
+        checksum().update(b, off, len);
+    }
+
+    @Override
+    public void update(ByteBuffer buffer) {
+
+        Checksum cs = checksum();
+
+        if (buffer.hasArray()) {
+            cs.update(buffer.array(), buffer.arrayOffset() + buffer.position(),
+                    buffer.remaining());
+        } else if (cs instanceof Crc32cChecksum) {
+            ((Crc32cChecksum) cs).update(buffer);
+        } else {
+            ByteBuffer src = buffer.duplicate();
+            byte[] scratch = new byte[Math.min(SCRATCH_SIZE, src.remaining())];
+
+            while (src.hasRemaining()) {
+                int n = Math.min(scratch.length, src.remaining());
+                src.get(scratch, 0, n);
+                cs.update(scratch, 0, n);
+            }
+        }
+    }
+
+    @Override
+    public ByteString finish() {
+
+        T cs = checksum();
+
+        this.checksum = null;
+
+        ByteString tag = ByteString.copyFrom(toTag(cs.getValue()));
+
+        cs.reset();
+        pool.release(cs);
+
+        return tag;
+    }
+
+    @Override
+    public String getAlgoName() {
+        return algoName;
+    }
+
+    private T checksum() {
+
+        if (checksum == null) {
+            throw new IllegalStateException("tag calculation is finished");
+        }
+
+        return checksum;
+    }
+}
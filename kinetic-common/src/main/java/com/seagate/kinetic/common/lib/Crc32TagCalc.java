@@ -19,12 +19,14 @@ package com.seagate.kinetic.common.lib;
 import java.nio.ByteBuffer;
 import java.util.logging.Logger;
 import java.util.zip.CRC32;
-import java.util.zip.Checksum;
 
 import com.google.protobuf.ByteString;
 
 /**
  * Kinetic tag calculation with CRC32 checksum algorithm util.
+ * <p>
+ * The instance is thread safe and lock free, checksum instances are pooled
+ * per thread.
  * 
  * @author chiaming
  *
@@ -37,36 +39,39 @@ public class Crc32TagCalc implements KineticTagCalc {
     // crc32 algo
     private static String myName = "CRC32";
 
-    // crc32 instance
-    private Checksum crc32 = null;
+    // per thread crc32 instance
+    private final ThreadLocalPool<CRC32> pool = new ThreadLocalPool<CRC32>() {
+        @Override
+        protected CRC32 create() {
+            return new CRC32();
+        }
+    };
 
     public Crc32TagCalc() {
 
         logger.info(myName + " checksum isntance instantiated ...");
-
-        crc32 = new CRC32();
     }
 
     @Override
-    public synchronized ByteString calculateTag(byte[] value) {
-
-        try {
-            // do update
-            crc32.update(value, 0, value.length);
+    public ByteString calculateTag(byte[] value) {
 
-            // get checksum value
-            long cval = crc32.getValue();
+        TagCalculator calc = newTagCalculator();
 
-            // convert to byte[]
-            byte[] checkSum = ByteBuffer.allocate(8).putLong(cval).array();
+        calc.update(value, 0, value.length);
 
-            // convert to bytestring and return
-            return ByteString.copyFrom(checkSum);
+        return calc.finish();
+    }
 
-        } finally {
-            // reset crc32 instance
-            crc32.reset();
-        }
+    @Override
+    public TagCalculator newTagCalculator() {
+
+        return new ChecksumTagCalculator<CRC32>(pool, myName) {
+            @Override
+            protected byte[] toTag(long value) {
+                // convert to byte[]
+                return ByteBuffer.allocate(8).putLong(value).array();
+            }
+        };
     }
 
     @Override
@@ -0,0 +1,267 @@
+/**
+ * Copyright 2013-2015 Seagate Technology LLC.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla
+ * Public License, v. 2.0. If a copy of the MPL was not
+ * distributed with this file, You can obtain one at
+ * https://mozilla.org/MP:/2.0/.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but is provided AS-IS, WITHOUT ANY WARRANTY; including without 
+ * the implied warranty of MERCHANTABILITY, NON-INFRINGEMENT or 
+ * FITNESS FOR A PARTICULAR PURPOSE. See the Mozilla Public 
+ * License for more details.
+ *
+ * See www.openkinetic.org for more project information
+ */
+package com.seagate.kinetic.common.lib;
+
+import java.lang.reflect.Constructor;
+import java.nio.ByteBuffer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.Checksum;
+
+/**
+ * CRC32C (Castagnoli) checksum.
+ * <p>
+ * The checksum is calculated with <code>java.util.zip.CRC32C</code> when the
+ * running JVM provides it (Java 9 and later, where it is a hardware assisted
+ * intrinsic). Otherwise a table driven slicing-by-8 implementation is used.
+ * <p>
+ * An instance is incremental: the checksum may be updated with any number of
+ * arrays, array chunks and buffers before the value is read. An instance is
+ * not thread safe, use one instance per thread (see {@link Crc32cTagCalc2}).
+ * <p>
+ * Updating with a {@link ByteBuffer} reads the remaining bytes of the buffer
+ * without changing its position.
+ */
+public final class Crc32cChecksum implements Checksum {
+
+    private final static Logger logger = Logger.getLogger(Crc32cChecksum.class
+            .getName());
+
+    // reflected Castagnoli polynomial
+    private static final int POLY = 0x82F63B78;
+
+    // slicing-by-8 tables
+    private static final int[][] T = new int[8][256];
+
+    // jdk crc32c constructor, null if not available
+    private static final Constructor<?> JDK_CRC32C = getJdkCrc32c();
+
+    // scratch size to copy a buffer without a backing array
+    private static final int SCRATCH_SIZE = 4096;
+
+    static {
+        for (int n = 0; n < 256; n++) {
+            int c = n;
+            for (int k = 0; k < 8; k++) {
+                c = (c & 1) != 0 ? (c >>> 1) ^ POLY : c >>> 1;
+            }
+            T[0][n] = c;
+        }
+
+        for (int n = 0; n < 256; n++) {
+            for (int k = 1; k < 8; k++) {
+                T[k][n] = (T[k - 1][n] >>> 8) ^ T[0][T[k - 1][n] & 0xff];
+            }
+        }
+    }
+
+    // jdk delegate, null if the table driven implementation is used
+    private final Checksum jdk;
+
+    // inverted crc of the table driven implementation
+    private int crc = 0xFFFFFFFF;
+
+    // scratch to read a buffer without a backing array
+    private byte[] scratch = null;
+
+    /**
+     * Construct a new CRC32C checksum.
+     */
+    public Crc32cChecksum() {
+        this.jdk = newJdkCrc32c();
+    }
+
+    /**
+     * Check if the checksum is calculated by the JDK provided
+     * <code>java.util.zip.CRC32C</code>.
+     *
+     * @return true if the JDK implementation is used, false if the table
+     *         driven implementation is used.
+     */
+    public static boolean isJdkCrc32c() {
+        return JDK_CRC32C != null;
+    }
+
+    /**
+     * Calculate the CRC32C checksum of the specified bytes.
+     *
+     * @param bytes
+     *            bytes to calculate the checksum.
+     * @return the checksum value.
+     */
+    public static int calculate(byte[] bytes) {
+        Crc32cChecksum checksum = new Crc32cChecksum();
+        checksum.update(bytes, 0, bytes.length);
+        return (int) checksum.getValue();
+    }
+
+    @Override
+    public void update(int b) {
+
+        if (jdk != null) {
+            jdk.update(b);
+            return;
+        }
+
+        crc = (crc >>> 8) ^ T[0][(crc ^ b) & 0xff];
+    }
+
+    @Override
+    public void update(byte[] b, int off, int len) {
+
+        if (jdk != null) {
+            jdk.update(b, off, len);
+            return;
+        }
+
+        this.crc = update(this.crc, b, off, len);
+    }
+
+    /**
+     * Update the checksum with the specified bytes.
+     *
+     * @param b
+     *            the bytes to update the checksum.
+     */
+    public void update(byte[] b) {
+        update(b, 0, b.length);
+    }
+
+    /**
+     * Update the checksum with the remaining bytes of the specified buffer.
+     * The position of the buffer is not changed.
+     *
+     * @param buffer
+     *            the buffer to update the checksum.
+     */
+    public void update(ByteBuffer buffer) {
+
+        if (buffer.hasArray()) {
+            update(buffer.array(), buffer.arrayOffset() + buffer.position(),
+                    buffer.remaining());
+            return;
+        }
+
+        if (this.scratch == null) {
+            this.scratch = new byte[SCRATCH_SIZE];
+        }
+
+        ByteBuffer src = buffer.duplicate();
+
+        while (src.hasRemaining()) {
+            int n = Math.min(this.scratch.length, src.remaining());
+            src.get(this.scratch, 0, n);
+            update(this.scratch, 0, n);
+        }
+    }
+
+    @Override
+    public long getValue() {
+
+        if (jdk != null) {
+            return jdk.getValue();
+        }
+
+        return (~crc) & 0xFFFFFFFFL;
+    }
+
+    /**
+     * Get the checksum value as 4 bytes in network byte order (big endian).
+     *
+     * @return the 4 byte checksum value.
+     */
+    public byte[] getValueAsBytes() {
+
+        int value = (int) getValue();
+
+        return new byte[] { (byte) (value >>> 24), (byte) (value >>> 16),
+                (byte) (value >>> 8), (byte) value };
+    }
+
+    @Override
+    public void reset() {
+
+        if (jdk != null) {
+            jdk.reset();
+            return;
+        }
+
+        crc = 0xFFFFFFFF;
+    }
+
+    /**
+     * Slicing-by-8 update of the inverted crc.
+     */
+    private static int update(int crc, byte[] b, int off, int len) {
+
+        int end = off + len;
+
+        // eight bytes at a time
+        for (int limit = end - 7; off < limit; off += 8) {
+
+            crc ^= (b[off] & 0xff) | (b[off + 1] & 0xff) << 8
+                    | (b[off + 2] & 0xff) << 16 | (b[off + 3] & 0xff) << 24;
+
+            crc = T[7][crc & 0xff] ^ T[6][(crc >>> 8) & 0xff]
+                    ^ T[5][(crc >>> 16) & 0xff] ^ T[4][crc >>> 24]
+                    ^ T[3][b[off + 4] & 0xff] ^ T[2][b[off + 5] & 0xff]
+                    ^ T[1][b[off + 6] & 0xff] ^ T[0][b[off + 7] & 0xff];
+        }
+
+        // remaining bytes
+        for (; off < end; off++) {
+            crc = (crc >>> 8) ^ T[0][(crc ^ b[off]) & 0xff];
+        }
+
+        return crc;
+    }
+
+    private static Constructor<?> getJdkCrc32c() {
+
+        try {
+            Constructor<?> c = Class.forName("java.util.zip.CRC32C")
+                    .getConstructor();
+
+            // make sure it can be instantiated
+            c.newInstance();
+
+            logger.fine("using java.util.zip.CRC32C");
+
+            return c;
+        } catch (Throwable t) {
+            logger.fine("java.util.zip.CRC32C not available, using table driven CRC32C");
+        }
+
+        return null;
+    }
+
+    private static Checksum newJdkCrc32c() {
+
+        if (JDK_CRC32C == null) {
+            return null;
+        }
+
+        try {
+            return (Checksum) JDK_CRC32C.newInstance();
+        } catch (Exception e) {
+            // should not happen, it is instantiated when class is loaded
+            logger.log(Level.WARNING, e.getMessage(), e);
+        }
+
+        return null;
+    }
+}
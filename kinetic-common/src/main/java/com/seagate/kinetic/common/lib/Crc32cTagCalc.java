@@ -39,6 +39,14 @@ public class Crc32cTagCalc implements KineticTagCalc {
     // crc32c algo
     private static String myName = "CRC32c";
 
+    // per thread checksum for tag calculation sessions
+    private final ThreadLocalPool<Crc32cChecksum> pool = new ThreadLocalPool<Crc32cChecksum>() {
+        @Override
+        protected Crc32cChecksum create() {
+            return new Crc32cChecksum();
+        }
+    };
+
     public Crc32cTagCalc() {
         logger.info(myName + " checksum isntance instantiated ...");
     }
@@ -54,8 +62,6 @@ public class Crc32cTagCalc implements KineticTagCalc {
             // calculate crc32c checksum
             int cval = Snappy.calculateChecksum(bb);
 
-            logger.info("****** cval = " + cval);
-
             // convert to byte[]
             byte[] checkSum = ByteBuffer.allocate(4).putInt(cval).array();
 
@@ -67,9 +73,33 @@ public class Crc32cTagCalc implements KineticTagCalc {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The session calculates the crc32c checksum with {@link Crc32cChecksum}
+     * and masks it the same way as Snappy.
+     */
+    @Override
+    public TagCalculator newTagCalculator() {
+
+        return new ChecksumTagCalculator<Crc32cChecksum>(pool, myName) {
+            @Override
+            protected byte[] toTag(long value) {
+                return Crc32cTagCalc2.toTag(maskChecksum((int) value));
+            }
+        };
+    }
+
     @Override
     public String getAlgoName() {
         return myName;
     }
 
+    /**
+     * Mask the checksum as Snappy does.
+     */
+    private static int maskChecksum(int checksum) {
+        return (checksum >> 15 | checksum << 17) + 0xa282ead8;
+    }
+
 }
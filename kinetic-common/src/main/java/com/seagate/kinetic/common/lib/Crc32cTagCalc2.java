@@ -18,11 +18,13 @@ package com.seagate.kinetic.common.lib;
 
 import java.util.logging.Logger;
 
-import com.google.cloud.Crc32c;
 import com.google.protobuf.ByteString;
 
 /**
  * Kinetic tag calculation with CRC32C checksum algorithm util.
+ * <p>
+ * The instance is thread safe and lock free, {@link Crc32cChecksum} instances
+ * are pooled per thread.
  * 
  * @author chiaming
  *
@@ -35,26 +37,40 @@ public class Crc32cTagCalc2 implements KineticTagCalc {
     // crc32c algo
     private static String myName = "CRC32c";
 
-    private Crc32c crc32c = new Crc32c();
+    // per thread checksum
+    private final ThreadLocalPool<Crc32cChecksum> pool = new ThreadLocalPool<Crc32cChecksum>() {
+        @Override
+        protected Crc32cChecksum create() {
+            return new Crc32cChecksum();
+        }
+    };
 
     public Crc32cTagCalc2() {
-        logger.info(myName + " checksum instance instantiated ...");
+        logger.info(myName + " checksum instance instantiated, jdk crc32c="
+                + Crc32cChecksum.isJdkCrc32c());
     }
 
     @Override
-    public synchronized ByteString calculateTag(byte[] value) {
-
-        try {
-            
-            // calculate crc32c checksum
-            this.crc32c.update(value, 0, value.length);
-            byte[] checkSum = this.crc32c.getValueAsBytes();
-
-            // convert to bytestring and return
-            return ByteString.copyFrom(checkSum);
-        } finally {
-            this.crc32c.reset();
-        }
+    public ByteString calculateTag(byte[] value) {
+
+        TagCalculator calc = newTagCalculator();
+
+        // calculate crc32c checksum
+        calc.update(value, 0, value.length);
+
+        return calc.finish();
+    }
+
+    @Override
+    public TagCalculator newTagCalculator() {
+
+        return new ChecksumTagCalculator<Crc32cChecksum>(pool, myName) {
+            @Override
+            protected byte[] toTag(long value) {
+                // 4 bytes in network byte order
+                return Crc32cTagCalc2.toTag((int) value);
+            }
+        };
     }
 
     @Override
@@ -62,4 +78,12 @@ public class Crc32cTagCalc2 implements KineticTagCalc {
         return myName;
     }
 
+    /**
+     * Convert the crc32c value to its 4 byte tag in network byte order.
+     */
+    static byte[] toTag(int value) {
+        return new byte[] { (byte) (value >>> 24), (byte) (value >>> 16),
+                (byte) (value >>> 8), (byte) value };
+    }
+
 }
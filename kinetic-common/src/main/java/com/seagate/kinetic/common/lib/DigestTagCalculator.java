@@ -0,0 +1,81 @@
+/**
+ * Copyright 2013-2015 Seagate Technology LLC.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla
+ * Public License, v. 2.0. If a copy of the MPL was not
+ * distributed with this file, You can obtain one at
+ * https://mozilla.org/MP:/2.0/.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but is provided AS-IS, WITHOUT ANY WARRANTY; including without 
+ * the implied warranty of MERCHANTABILITY, NON-INFRINGEMENT or 
+ * FITNESS FOR A PARTICULAR PURPOSE. See the Mozilla Public 
+ * License for more details.
+ *
+ * See www.openkinetic.org for more project information
+ */
+package com.seagate.kinetic.common.lib;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+
+import com.google.protobuf.ByteString;
+
+/**
+ * Tag calculation session with a pooled message digest instance.
+ */
+class DigestTagCalculator implements TagCalculator {
+
+    private final ThreadLocalPool<MessageDigest> pool;
+
+    private final String algoName;
+
+    // borrowed digest, null when finished
+    private MessageDigest md;
+
+    DigestTagCalculator(ThreadLocalPool<MessageDigest> pool, String algoName) {
+        this.pool = pool;
+        this.algoName = algoName;
+        this.md = pool.borrow();
+    }
+
+    @Override
+    public void update(byte[] b, int off, int len) {
+        digest().update(b, off, len);
+    }
+
+    @Override
+    public void update(ByteBuffer buffer) {
+        // digest consumes the buffer, update with a duplicate
+        digest().update(buffer.duplicate());
+    }
+
+    @Override
+    public ByteString finish() {
+
+        MessageDigest digest = digest();
+
+        this.md = null;
+
+        // digest() resets the instance for further use
+        ByteString tag = ByteString.copyFrom(digest.digest());
+
+        pool.release(digest);
+
+        return tag;
+    }
+
+    @Override
+    public String getAlgoName() {
+        return algoName;
+    }
+
+    private MessageDigest digest() {
+
+        if (md == null) {
+            throw new IllegalStateException("tag calculation is finished");
+        }
+
+        return md;
+    }
+}
@@ -0,0 +1,159 @@
+/**
+ * Copyright 2013-2015 Seagate Technology LLC.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla
+ * Public License, v. 2.0. If a copy of the MPL was not
+ * distributed with this file, You can obtain one at
+ * https://mozilla.org/MP:/2.0/.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but is provided AS-IS, WITHOUT ANY WARRANTY; including without 
+ * the implied warranty of MERCHANTABILITY, NON-INFRINGEMENT or 
+ * FITNESS FOR A PARTICULAR PURPOSE. See the Mozilla Public 
+ * License for more details.
+ *
+ * See www.openkinetic.org for more project information
+ */
+package com.seagate.kinetic.common.lib;
+
+import io.netty.channel.EventLoop;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.ServerSocketChannel;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 
+ * Native (Linux epoll) transport common utility for the simulator and Java API
+ * implementation.
+ * <p>
+ * The native transport uses edge-triggered epoll and is available on Linux
+ * only. If it is requested but not available, Java NIO is used instead.
+ * 
+ */
+public class EpollUtil {
+
+    // logger
+    private static final Logger logger = Logger.getLogger(EpollUtil.class
+            .getName());
+
+    // native transport availability
+    private static final boolean available = checkAvailable();
+
+    private static boolean checkAvailable() {
+
+        String os = System.getProperty("os.name", "");
+
+        if (!os.toLowerCase().startsWith("linux")) {
+            return false;
+        }
+
+        try {
+            // loads the native library
+            Class.forName("io.netty.channel.epoll.Native", true,
+                    EpollUtil.class.getClassLoader());
+            return true;
+        } catch (Throwable t) {
+            logger.log(Level.FINE, t.getMessage(), t);
+        }
+
+        return false;
+    }
+
+    /**
+     * Check if the native epoll transport is available on this platform.
+     * 
+     * @return true if the native epoll transport is available.
+     */
+    public static boolean isAvailable() {
+        return available;
+    }
+
+    /**
+     * Create a new event loop group.
+     * 
+     * @param nThreads
+     *            number of threads, 0 to use the default.
+     * @param factory
+     *            thread factory.
+     * @param useEpoll
+     *            true to use the native epoll transport if available.
+     * @return an epoll event loop group if epoll is requested and available.
+     *         Otherwise, a nio event loop group.
+     */
+    public static EventLoopGroup newEventLoopGroup(int nThreads,
+            ThreadFactory factory, boolean useEpoll) {
+
+        if (useEpoll) {
+            if (available) {
+                logger.info("using native epoll transport ...");
+                return new EpollEventLoopGroup(nThreads, factory);
+            }
+
+            logger.warning("native epoll transport is not available, using nio ...");
+        }
+
+        return new NioEventLoopGroup(nThreads, factory);
+    }
+
+    /**
+     * Check if the specified group is a native epoll event loop group, or an
+     * event loop of a native epoll event loop group.
+     * 
+     * @param group
+     *            event loop group or event loop.
+     * @return true if the group is an epoll event loop group or event loop.
+     */
+    public static boolean isEpoll(EventLoopGroup group) {
+
+        if (group instanceof EventLoop) {
+            return ((EventLoop) group).parent() instanceof EpollEventLoopGroup;
+        }
+
+        return group instanceof EpollEventLoopGroup;
+    }
+
+    /**
+     * Get the socket channel class compatible with the specified group.
+     * 
+     * @param group
+     *            event loop group the channel is registered with.
+     * @return socket channel class for the group.
+     */
+    public static Class<? extends SocketChannel> getSocketChannelClass(
+            EventLoopGroup group) {
+
+        if (isEpoll(group)) {
+            return EpollSocketChannel.class;
+        }
+
+        return NioSocketChannel.class;
+    }
+
+    /**
+     * Get the server socket channel class compatible with the specified
+     * group.
+     * 
+     * @param group
+     *            event loop group the channel is registered with.
+     * @return server socket channel class for the group.
+     */
+    public static Class<? extends ServerSocketChannel> getServerSocketChannelClass(
+            EventLoopGroup group) {
+
+        if (isEpoll(group)) {
+            return EpollServerSocketChannel.class;
+        }
+
+        return NioServerSocketChannel.class;
+    }
+}
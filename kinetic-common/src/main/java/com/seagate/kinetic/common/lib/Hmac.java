@@ -18,12 +18,13 @@
 package com.seagate.kinetic.common.lib;
 
 import java.io.StringWriter;
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
 import java.security.GeneralSecurityException;
 import java.security.InvalidKeyException;
 import java.security.Key;
 import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import javax.crypto.Mac;
@@ -35,6 +36,12 @@ import com.seagate.kinetic.proto.Kinetic.Message;
 
 /**
  * Hmac common library.
+ * <p>
+ * Mac instances used to calculate HMAC values are cached per thread and per
+ * key, and are reset rather than created for each calculation. Applications
+ * that replace keys (such as when the ACLs are changed) call
+ * {@link #invalidateMacCache()} so that threads release the Mac instances of
+ * keys no longer used.
  *
  * @author Jim Hugues.
  * @author chiaming
@@ -46,6 +53,31 @@ public class Hmac {
 
 	private final static Logger LOG = Logger.getLogger(Hmac.class.getName());
 
+	// max number of cached Mac instances per thread
+	private static final int MAX_CACHED_MAC = 64;
+
+	// cache generation, cached Mac instances of an older generation are
+	// discarded
+	private static final AtomicInteger macCacheGeneration = new AtomicInteger();
+
+	// per thread Mac cache
+	private static final ThreadLocal<MacCache> macCache = new ThreadLocal<MacCache>() {
+		@Override
+		protected MacCache initialValue() {
+			return new MacCache();
+		}
+	};
+
+	/**
+	 * Per thread Mac instances keyed by key.
+	 */
+	@SuppressWarnings("serial")
+	private static class MacCache extends HashMap<Key, Mac> {
+
+		// generation of the cached instances
+		private int generation = macCacheGeneration.get();
+	}
+
 	public static String toString(byte[] b) {
 		final int MAX_LENGTH = 50; // only include up to MAX_LENGTH bytes
 		StringWriter sw = new StringWriter();
@@ -90,9 +122,14 @@ public class Hmac {
 		throw h.new HmacException(status, s);
 	}
 
-	static private byte[] int32(int x) {
-		return ByteBuffer.allocate(4).order(ByteOrder.BIG_ENDIAN).putInt(x)
-				.array();
+	/**
+	 * Update the mac with the big endian 4 byte value of x.
+	 */
+	static private void int32(Mac mac, int x) {
+		mac.update((byte) (x >>> 24));
+		mac.update((byte) (x >>> 16));
+		mac.update((byte) (x >>> 8));
+		mac.update((byte) x);
 	}
 
 	// private byte[] int64(long x) {
@@ -116,7 +153,7 @@ public class Hmac {
 	static void lv(String name, Mac mac, byte[] bytes) {
 		if (bytes.length > 0) {
 			// LOG.fine(name + toString(bytes));
-			mac.update(int32(bytes.length));
+			int32(mac, bytes.length);
 			mac.update(bytes);
 		}
 	}
@@ -128,7 +165,7 @@ public class Hmac {
 //
 //			//Mac mac = getMacInstance (users, user);
 //
-//			Mac mac = getMacInstance (key);
+//			Mac mac = getCachedMac(key);
 //
 //			lv("command", mac, im.getMessage().getCommand().toByteArray());
 //
@@ -156,13 +193,49 @@ public class Hmac {
 
         try {
 
-            Mac mac = getMacInstance (key);
+            Mac mac = getCachedMac(key);
 
             lv("command", mac, bytes);
 
             ByteString result = ByteString.copyFrom(mac.doFinal());
 
-            LOG.fine("Message Hmac :" + toString(result));
+            if (LOG.isLoggable(Level.FINE)) {
+                LOG.fine("Message Hmac :" + toString(result));
+            }
+            return result;
+
+        } catch (GeneralSecurityException e) {
+            oops(e.getMessage());
+        }
+        return null; // should never get here...
+    }
+
+	/**
+	 * Calculate HMAC based on the specified byte string and key. The bytes
+	 * are read in place, no copy of the byte string is made.
+	 * 
+	 * @param bytes byte string for HMAC calculation
+	 * @param key security key used to calculate HMAC
+	 * @return byte string of hmac value
+	 * @throws HmacException 
+	 */
+	public static ByteString calc(ByteString bytes, Key key)
+            throws HmacException {
+
+        try {
+
+            Mac mac = getCachedMac(key);
+
+            if (!bytes.isEmpty()) {
+                int32(mac, bytes.size());
+                mac.update(bytes.asReadOnlyByteBuffer());
+            }
+
+            ByteString result = ByteString.copyFrom(mac.doFinal());
+
+            if (LOG.isLoggable(Level.FINE)) {
+                LOG.fine("Message Hmac :" + toString(result));
+            }
             return result;
 
         } catch (GeneralSecurityException e) {
@@ -179,7 +252,7 @@ public class Hmac {
 
 			// Message.Builder message = (Builder) im.getMessage();
 
-			Mac mac = getMacInstance(key);
+			Mac mac = getCachedMac(key);
 
 			byte[] value = im.getValue();
 			if (value == null) {
@@ -189,7 +262,9 @@ public class Hmac {
 
 			result = ByteString.copyFrom(mac.doFinal());
 
-			LOG.fine("Message Tag Hmac :" + toString(result));
+			if (LOG.isLoggable(Level.FINE)) {
+				LOG.fine("Message Tag Hmac :" + toString(result));
+			}
 
 		} catch (Exception e) {
 			LOG.warning(e.getMessage());
@@ -202,7 +277,7 @@ public class Hmac {
 			throws HmacException {
 
 	    // get commnad bytes
-	    byte[] bytes = km.getMessage().getCommandBytes().toByteArray();
+	    ByteString bytes = km.getMessage().getCommandBytes();
 	    
 	    // get expected hmac value
 	    ByteString expected = km.getMessage().getHmacAuth().getHmac();
@@ -231,6 +306,26 @@ public class Hmac {
             return true;
         }
 
+        LOG.warning("HMAC did not compare");
+        return false;
+    }
+
+	/**
+	 * Check if the HMAC of the specified byte string is equal to the expected
+	 * hmac with the specified key. The bytes are read in place.
+	 * @param bytes
+	 * @param key
+	 * @param expectedHmac
+	 * @return true or false
+	 * @throws HmacException
+	 */
+	public static boolean check(ByteString bytes, Key key,
+	        ByteString expectedHmac) throws HmacException {
+
+        if (calc(bytes, key).equals(expectedHmac)) {
+            return true;
+        }
+
         LOG.warning("HMAC did not compare");
         return false;
     }
@@ -252,4 +347,54 @@ public class Hmac {
 		return mac;
 	}
 
+	/**
+	 * Get the Mac instance of the calling thread for the specified key. The
+	 * instance is created and initialized on first use, and is reset to its
+	 * initialized state before returned.
+	 *
+	 * @param key
+	 *            security key used to calculate HMAC
+	 * @return the initialized Mac instance for the key.
+	 */
+	private static Mac getCachedMac(Key key) throws HmacException,
+			NoSuchAlgorithmException, InvalidKeyException {
+
+		if (key == null) {
+			oops("User not found");
+		}
+
+		MacCache cache = macCache.get();
+
+		int generation = macCacheGeneration.get();
+		if (cache.generation != generation) {
+			cache.clear();
+			cache.generation = generation;
+		}
+
+		Mac mac = cache.get(key);
+
+		if (mac == null) {
+			mac = getMacInstance(key);
+
+			if (cache.size() >= MAX_CACHED_MAC) {
+				cache.clear();
+			}
+
+			cache.put(key, mac);
+		} else {
+			// discard any partial update left by a failed calculation
+			mac.reset();
+		}
+
+		return mac;
+	}
+
+	/**
+	 * Invalidate the Mac instances cached by all threads. Each thread
+	 * discards its cached instances on its next HMAC calculation.
+	 */
+	public static void invalidateMacCache() {
+		macCacheGeneration.incrementAndGet();
+	}
+
 }
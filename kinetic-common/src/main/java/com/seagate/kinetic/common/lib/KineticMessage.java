@@ -16,6 +16,8 @@
  */
 package com.seagate.kinetic.common.lib;
 
+import java.nio.ByteBuffer;
+
 import com.seagate.kinetic.proto.Kinetic.CommandOrBuilder;
 import com.seagate.kinetic.proto.Kinetic.MessageOrBuilder;
 
@@ -23,6 +25,12 @@ import com.seagate.kinetic.proto.Kinetic.MessageOrBuilder;
  * A data container that holds a Kinetic protocol buffer message and an optional
  * byte[] value.
  * <p>
+ * The value may instead be set as a <code>ByteBuffer</code>, such as a direct
+ * or memory mapped buffer. The remaining bytes of the buffer are written to
+ * the transport without being staged in a byte[]. The message holds the
+ * buffer until the message is written; the buffer content must not change
+ * before then.
+ * <p>
  * Please note that instances of this class does not provide synchronization and
  * thus API user must provide synchronization facility for the concurrent
  * operations.
@@ -38,6 +46,9 @@ public class KineticMessage {
 
 	// optional value
 	private byte[] value = null;
+
+	// optional value buffer, takes precedence over value
+	private ByteBuffer valueBuffer = null;
 	
 	// command
 	private CommandOrBuilder command = null;
@@ -87,16 +98,95 @@ public class KineticMessage {
 	 */
 	public void setValue(byte[] value) {
 		this.value = value;
+		this.valueBuffer = null;
 	}
 
 	/**
-	 * Get value from this message instance.
+	 * Get value from this message instance. A value set as a buffer is copied
+	 * to a byte[] on the first call, unless the buffer wraps a whole byte[].
 	 *
 	 * @return value from this message instance.
 	 */
 	public byte[] getValue() {
+
+		if (this.value == null && this.valueBuffer != null) {
+			this.value = toByteArray(this.valueBuffer);
+		}
+
 		return this.value;
 	}
+
+	/**
+	 * Set value to this message instance as the remaining bytes of the
+	 * specified buffer. The buffer position is not changed.
+	 *
+	 * @param buffer
+	 *            value buffer, or null to clear the value.
+	 */
+	public void setValueBuffer(ByteBuffer buffer) {
+		this.valueBuffer = (buffer != null) ? buffer.slice() : null;
+		this.value = null;
+	}
+
+	/**
+	 * Get value from this message instance as a buffer. Reading the returned
+	 * buffer does not consume the value.
+	 *
+	 * @return value buffer, or null if no value is set.
+	 */
+	public ByteBuffer getValueBuffer() {
+
+		if (this.valueBuffer != null) {
+			return this.valueBuffer.duplicate();
+		}
+
+		return (this.value != null) ? ByteBuffer.wrap(this.value) : null;
+	}
+
+	/**
+	 * Get value length of this message instance.
+	 *
+	 * @return number of value bytes, 0 if no value is set.
+	 */
+	public int getValueLength() {
+
+		if (this.valueBuffer != null) {
+			return this.valueBuffer.remaining();
+		}
+
+		return (this.value != null) ? this.value.length : 0;
+	}
+
+	/**
+	 * Check if the value of this message instance is set as a buffer.
+	 *
+	 * @return true if the value is set as a buffer.
+	 */
+	public boolean hasValueBuffer() {
+		return this.valueBuffer != null;
+	}
+
+	/**
+	 * Get the remaining bytes of the buffer as a byte[]. The backing array is
+	 * returned if the buffer covers all of it.
+	 *
+	 * @param buffer
+	 *            the buffer to read.
+	 * @return the remaining bytes of the buffer.
+	 */
+	public static byte[] toByteArray(ByteBuffer buffer) {
+
+		if (buffer.hasArray() && buffer.arrayOffset() == 0
+				&& buffer.position() == 0
+				&& buffer.remaining() == buffer.array().length) {
+			return buffer.array();
+		}
+
+		byte[] bytes = new byte[buffer.remaining()];
+		buffer.duplicate().get(bytes);
+
+		return bytes;
+	}
 	
 	/**
 	 * set command for this message instance
@@ -22,6 +22,14 @@ public interface KineticTagCalc {
 
     public ByteString calculateTag(byte[] value);
 
+    /**
+     * Start a new incremental tag calculation session. The value may then be
+     * tagged in chunks, for example while it is read from a stream.
+     *
+     * @return a new tag calculation session.
+     */
+    public TagCalculator newTagCalculator();
+
     public String getAlgoName();
 
 }
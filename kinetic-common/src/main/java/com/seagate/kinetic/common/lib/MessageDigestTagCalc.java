@@ -18,13 +18,14 @@ package com.seagate.kinetic.common.lib;
 
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
-import java.util.logging.Level;
-import java.util.logging.Logger;
 
 import com.google.protobuf.ByteString;
 
 /**
  * Kinetic tag calculation with Message digest algorithm utils.
+ * <p>
+ * The instance is thread safe and lock free, message digest instances are
+ * pooled per thread.
  * 
  * @author chiaming
  *
@@ -35,13 +36,29 @@ public class MessageDigestTagCalc implements KineticTagCalc {
 
     public static final String SHA2 = "SHA-256";
 
-    private final static Logger logger = Logger.getLogger(MessageDigestTagCalc.class
-            .getName());
-
-    private MessageDigest md = null;
-
     private String algoName = null;
 
+    // per thread message digest
+    private final ThreadLocalPool<MessageDigest> pool = new ThreadLocalPool<MessageDigest>() {
+        @Override
+        protected MessageDigest create() {
+            try {
+                return MessageDigest.getInstance(algoName);
+            } catch (NoSuchAlgorithmException e) {
+                throw new UnsupportedOperationException(
+                        "unsupported algorithm., name = " + algoName, e);
+            }
+        }
+    };
+
+    /**
+     * Create a tag calculator for the specified message digest algorithm.
+     * 
+     * @param algoName
+     *            the message digest algorithm name.
+     * @throws UnsupportedOperationException
+     *             if the algorithm is not supported.
+     */
     public MessageDigestTagCalc(String algoName) {
 
         this.algoName = algoName;
@@ -49,35 +66,32 @@ public class MessageDigestTagCalc implements KineticTagCalc {
     }
 
     @Override
-    public synchronized ByteString calculateTag(byte[] value) {
+    public ByteString calculateTag(byte[] value) {
 
         // init to empty byte if null
         if (value == null) {
             value = new byte[0];
         }
 
-        byte[] digest = null;
-        ByteString tag = null;
+        MessageDigest md = pool.borrow();
 
         try {
-            // calculate
-            digest = md.digest(value);
-            // to byte string
-            tag = ByteString.copyFrom(digest);
+            // calculate, digest resets the instance for further use
+            return ByteString.copyFrom(md.digest(value));
         } finally {
-            // reset for further use
-            md.reset();
+            pool.release(md);
         }
+    }
 
-        return tag;
+    @Override
+    public TagCalculator newTagCalculator() {
+        return new DigestTagCalculator(pool, algoName);
     }
 
     private void init() {
-        try {
-            md = MessageDigest.getInstance(algoName);
-        } catch (NoSuchAlgorithmException e) {
-            logger.log(Level.WARNING, e.getMessage(), e);
-        }
+        // fail fast on unsupported algorithm, pool the calling thread's
+        // instance
+        pool.release(pool.borrow());
     }
 
     @Override
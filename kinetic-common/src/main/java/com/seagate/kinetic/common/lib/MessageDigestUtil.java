@@ -66,6 +66,39 @@ public class MessageDigestUtil {
         return tag;
     }
 
+    /**
+     * Calculate the tag of the remaining bytes of the specified buffer. The
+     * position of the buffer is not changed.
+     * 
+     * @param algo
+     *            tag algorithm.
+     * @param value
+     *            the value buffer.
+     * @return the tag of the value.
+     */
+    public static ByteString calculateTag(Algorithm algo, ByteBuffer value) {
+
+        TagCalculator calc = newTagCalculator(algo);
+
+        calc.update(value);
+
+        return calc.finish();
+    }
+
+    /**
+     * Start a new incremental tag calculation session for the specified
+     * algorithm.
+     * 
+     * @param algo
+     *            tag algorithm.
+     * @return a new tag calculation session.
+     * 
+     * @see KineticTagCalc#newTagCalculator()
+     */
+    public static TagCalculator newTagCalculator(Algorithm algo) {
+        return getInstance(algo).newTagCalculator();
+    }
+
     public static boolean isSupportedForKineticJava(Algorithm algo) {
 
         switch (algo) {
@@ -16,10 +16,10 @@
  */
 package com.seagate.kinetic.common.lib;
 
-import com.google.protobuf.MessageOrBuilder;
 import com.seagate.kinetic.proto.Kinetic.Command;
 import com.seagate.kinetic.proto.Kinetic.CommandOrBuilder;
 import com.seagate.kinetic.proto.Kinetic.Message;
+import com.seagate.kinetic.proto.Kinetic.MessageOrBuilder;
 
 /**
  * Utility to translate the kinetic protocol message into a readable string
@@ -40,11 +40,7 @@ public class ProtocolMessageUtil {
 	 */
 	public static String toString(KineticMessage kineticMessage) {
 
-	    int vLength = 0;
-	    
-	    if (kineticMessage.getValue() != null) {
-	        vLength = kineticMessage.getValue().length;
-	    }
+	    int vLength = kineticMessage.getValueLength();
 	    
 	    Message message = null;
 	    MessageOrBuilder messageOrBuilder = kineticMessage.getMessage();
@@ -88,4 +84,24 @@ public class ProtocolMessageUtil {
 		return printMsg;
 	}
 
+	/**
+	 * Get the serialized size of a kinetic protocol message.
+	 * <p>
+	 * A message builder is sized by protobuf from a partially built message.
+	 * The command bytes are already serialized and are shared, not copied.
+	 * 
+	 * @param messageOrBuilder
+	 *            the protocol message or message builder.
+	 * @return the serialized size in bytes of the message.
+	 */
+	public static int getSerializedSize(MessageOrBuilder messageOrBuilder) {
+
+		if (messageOrBuilder instanceof Message) {
+			return ((Message) messageOrBuilder).getSerializedSize();
+		}
+
+		return ((Message.Builder) messageOrBuilder).buildPartial()
+				.getSerializedSize();
+	}
+
 }
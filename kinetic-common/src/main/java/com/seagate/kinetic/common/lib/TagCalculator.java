@@ -0,0 +1,75 @@
+/**
+ * Copyright 2013-2015 Seagate Technology LLC.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla
+ * Public License, v. 2.0. If a copy of the MPL was not
+ * distributed with this file, You can obtain one at
+ * https://mozilla.org/MP:/2.0/.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but is provided AS-IS, WITHOUT ANY WARRANTY; including without 
+ * the implied warranty of MERCHANTABILITY, NON-INFRINGEMENT or 
+ * FITNESS FOR A PARTICULAR PURPOSE. See the Mozilla Public 
+ * License for more details.
+ *
+ * See www.openkinetic.org for more project information
+ */
+package com.seagate.kinetic.common.lib;
+
+import java.nio.ByteBuffer;
+
+import com.google.protobuf.ByteString;
+
+/**
+ * Incremental tag calculation session.
+ * <p>
+ * A session is obtained from {@link KineticTagCalc#newTagCalculator()}, is
+ * updated with the value in any number of chunks, and is finished once to
+ * get the tag. The tag is the same as the tag calculated by
+ * {@link KineticTagCalc#calculateTag(byte[])} for the whole value.
+ * <p>
+ * A session is not thread safe. The digest or checksum instance used by a
+ * session is pooled per thread and is returned to the pool when the session
+ * is finished.
+ *
+ * @see KineticTagCalc
+ * @see TagInputStream
+ */
+public interface TagCalculator {
+
+    /**
+     * Update the tag with the specified bytes.
+     *
+     * @param b
+     *            the bytes.
+     * @param off
+     *            the start offset in the bytes.
+     * @param len
+     *            the number of bytes to use.
+     */
+    public void update(byte[] b, int off, int len);
+
+    /**
+     * Update the tag with the remaining bytes of the specified buffer. The
+     * position of the buffer is not changed.
+     *
+     * @param buffer
+     *            the buffer.
+     */
+    public void update(ByteBuffer buffer);
+
+    /**
+     * Finish the session and get the tag. The session cannot be used after it
+     * is finished.
+     *
+     * @return the tag of all the bytes the session is updated with.
+     */
+    public ByteString finish();
+
+    /**
+     * Get the algorithm name of the tag.
+     *
+     * @return the algorithm name.
+     */
+    public String getAlgoName();
+}
@@ -0,0 +1,146 @@
+/**
+ * Copyright 2013-2015 Seagate Technology LLC.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla
+ * Public License, v. 2.0. If a copy of the MPL was not
+ * distributed with this file, You can obtain one at
+ * https://mozilla.org/MP:/2.0/.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but is provided AS-IS, WITHOUT ANY WARRANTY; including without 
+ * the implied warranty of MERCHANTABILITY, NON-INFRINGEMENT or 
+ * FITNESS FOR A PARTICULAR PURPOSE. See the Mozilla Public 
+ * License for more details.
+ *
+ * See www.openkinetic.org for more project information
+ */
+package com.seagate.kinetic.common.lib;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.google.protobuf.ByteString;
+
+/**
+ * Input stream that calculates the tag of the bytes read through it.
+ * <p>
+ * The value is tagged in the same pass as it is read, it does not have to be
+ * buffered as a whole first. {@link #finishTag()} returns the tag of the
+ * bytes read since the stream was created or since the previous call, so a
+ * stream that is read in chunks (such as a big object) can be tagged per
+ * chunk.
+ * <p>
+ * Skipped bytes are read and tagged. Mark and reset are not supported.
+ *
+ * @see TagCalculator
+ */
+public class TagInputStream extends FilterInputStream {
+
+    // tag calc used to start sessions
+    private final KineticTagCalc tagCalc;
+
+    // current session
+    private TagCalculator calc;
+
+    // single byte read buffer
+    private final byte[] one = new byte[1];
+
+    /**
+     * Construct a tag input stream.
+     *
+     * @param in
+     *            the underlying input stream.
+     * @param tagCalc
+     *            the tag algorithm.
+     */
+    public TagInputStream(InputStream in, KineticTagCalc tagCalc) {
+        super(in);
+        this.tagCalc = tagCalc;
+        this.calc = tagCalc.newTagCalculator();
+    }
+
+    @Override
+    public int read() throws IOException {
+
+        int b = in.read();
+
+        if (b >= 0) {
+            one[0] = (byte) b;
+            calc.update(one, 0, 1);
+        }
+
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+
+        int n = in.read(b, off, len);
+
+        if (n > 0) {
+            calc.update(b, off, n);
+        }
+
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+
+        byte[] buf = new byte[(int) Math.min(n, 4096)];
+
+        long skipped = 0;
+
+        while (skipped < n) {
+            int len = read(buf, 0, (int) Math.min(buf.length, n - skipped));
+
+            if (len < 0) {
+                break;
+            }
+
+            skipped += len;
+        }
+
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public synchronized void mark(int readlimit) {
+        // not supported
+    }
+
+    @Override
+    public synchronized void reset() throws IOException {
+        throw new IOException("mark/reset not supported");
+    }
+
+    /**
+     * Get the tag of the bytes read since the stream was created or since the
+     * previous call, and start tagging the following bytes.
+     *
+     * @return the tag of the bytes read.
+     */
+    public ByteString finishTag() {
+
+        ByteString tag = calc.finish();
+
+        calc = tagCalc.newTagCalculator();
+
+        return tag;
+    }
+
+    /**
+     * Get the algorithm name of the tag.
+     *
+     * @return the algorithm name.
+     */
+    public String getAlgoName() {
+        return tagCalc.getAlgoName();
+    }
+}
@@ -0,0 +1,73 @@
+/**
+ * Copyright 2013-2015 Seagate Technology LLC.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla
+ * Public License, v. 2.0. If a copy of the MPL was not
+ * distributed with this file, You can obtain one at
+ * https://mozilla.org/MP:/2.0/.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but is provided AS-IS, WITHOUT ANY WARRANTY; including without 
+ * the implied warranty of MERCHANTABILITY, NON-INFRINGEMENT or 
+ * FITNESS FOR A PARTICULAR PURPOSE. See the Mozilla Public 
+ * License for more details.
+ *
+ * See www.openkinetic.org for more project information
+ */
+package com.seagate.kinetic.common.lib;
+
+/**
+ * Per thread pool of one idle instance.
+ * <p>
+ * An instance is borrowed from the calling thread's pool, or is created if
+ * the pool is empty (for example when a thread has more than one tag session
+ * in progress). A released instance is kept if the calling thread's pool is
+ * empty, otherwise it is dropped.
+ *
+ * @param <T>
+ *            pooled instance type.
+ */
+abstract class ThreadLocalPool<T> {
+
+    // idle instance of the calling thread
+    private final ThreadLocal<T> idle = new ThreadLocal<T>();
+
+    /**
+     * Create a new instance.
+     *
+     * @return a new instance.
+     */
+    protected abstract T create();
+
+    /**
+     * Borrow an instance, the instance must be in its initial state when
+     * released.
+     *
+     * @return an instance in its initial state.
+     */
+    T borrow() {
+
+        T t = idle.get();
+
+        if (t == null) {
+            return create();
+        }
+
+        idle.set(null);
+
+        return t;
+    }
+
+    /**
+     * Release an instance in its initial state to the calling thread's pool.
+     *
+     * @param t
+     *            the instance to release.
+     */
+    void release(T t) {
+
+        if (idle.get() == null) {
+            idle.set(t);
+        }
+    }
+}
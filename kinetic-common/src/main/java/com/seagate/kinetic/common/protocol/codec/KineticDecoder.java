@@ -17,6 +17,7 @@
 package com.seagate.kinetic.common.protocol.codec;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.ByteToMessageDecoder;
 import io.netty.handler.codec.CorruptedFrameException;
@@ -64,6 +65,11 @@ public class KineticDecoder extends ByteToMessageDecoder {
 
 	private static boolean printMessage = Boolean.getBoolean("kinetic.io.in");
 
+	// max frame length the inbound buffer is grown to in advance. The
+	// length is read from an unauthenticated header, so larger frames grow
+	// the buffer only as their bytes arrive.
+	private static final int MAX_PRESIZE_LENGTH = 64 * 1024;
+
 	@Override
 	protected void decode(ChannelHandlerContext ctx, ByteBuf in,
 			List<Object> out) {
@@ -91,24 +97,46 @@ public class KineticDecoder extends ByteToMessageDecoder {
 		// 3. attched value size
 		int attachedValueLength = in.readInt();
 
+		if (protoMessageLength < 0 || attachedValueLength < 0
+				|| protoMessageLength > Integer.MAX_VALUE - attachedValueLength) {
+			in.resetReaderIndex();
+			throw new CorruptedFrameException("Invalid frame length: "
+					+ protoMessageLength + ", " + attachedValueLength);
+		}
+
+		int frameLength = protoMessageLength + attachedValueLength;
+
 		// wait until whole message is available
-		if (in.readableBytes() < (protoMessageLength + attachedValueLength)) {
+		if (in.readableBytes() < frameLength) {
+
+			// grow the cumulation buffer once for a small frame, instead
+			// of copying it on each doubling while the frame arrives. A
+			// derived buffer (such as a slice passed by a previous handler)
+			// cannot be grown and is left as is.
+			if (frameLength <= MAX_PRESIZE_LENGTH && in.unwrap() == null) {
+				in.ensureWritable(frameLength - in.readableBytes(), false);
+			}
+
 			in.resetReaderIndex();
 			return;
 		}
 
-		// 4. read protobuf message
-		byte[] decoded = new byte[protoMessageLength];
-		in.readBytes(decoded);
-
 		// kinetic message
 		KineticMessage km = new KineticMessage();
 
-		// construct protobuf message
+		// 4. parse protobuf message in place
 		Message.Builder mbuilder = Message.newBuilder();
 
 		try {
-			mbuilder.mergeFrom(decoded);
+			if (in.hasArray()) {
+				mbuilder.mergeFrom(in.array(),
+						in.arrayOffset() + in.readerIndex(), protoMessageLength);
+			} else {
+				mbuilder.mergeFrom(new ByteBufInputStream(in.slice(
+						in.readerIndex(), protoMessageLength)));
+			}
+
+			in.skipBytes(protoMessageLength);
 		} catch (Exception e) {
 			in.resetReaderIndex();
 
@@ -119,7 +147,8 @@ public class KineticDecoder extends ByteToMessageDecoder {
 
 		// 5. read attched value if any
 		if (attachedValueLength > 0) {
-			// construct byte[]
+			// construct byte[], the single copy of the value from the
+			// inbound buffer
 			byte[] attachedValue = new byte[attachedValueLength];
 			// read from buffer
 			in.readBytes(attachedValue);
@@ -135,12 +164,9 @@ public class KineticDecoder extends ByteToMessageDecoder {
 		// get command bytes
 		ByteString commandBytes = message.getCommandBytes();
 		
-		// build command
-		Command.Builder commandBuilder = Command.newBuilder();
-		
+		// parse command
 		try {
-            commandBuilder.mergeFrom(commandBytes);
-            km.setCommand(commandBuilder.build());
+            km.setCommand(Command.parseFrom(commandBytes));
         } catch (InvalidProtocolBufferException e) {
            logger.log(Level.WARNING, e.getMessage(), e);
         }
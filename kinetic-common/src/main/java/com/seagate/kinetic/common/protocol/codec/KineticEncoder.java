@@ -17,12 +17,16 @@
 package com.seagate.kinetic.common.protocol.codec;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelHandlerContext;
-import io.netty.handler.codec.MessageToByteEncoder;
+import io.netty.handler.codec.MessageToMessageEncoder;
 
+import java.nio.ByteBuffer;
+import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import com.google.protobuf.CodedOutputStream;
 import com.seagate.kinetic.common.lib.KineticMessage;
 import com.seagate.kinetic.common.lib.ProtocolMessageUtil;
 
@@ -44,6 +48,12 @@ import com.seagate.kinetic.proto.Kinetic.Message.Builder;
  * <li>5. write value byte[] if any
  * </ul>
  * <p>
+ * The header and protobuf message are serialized directly into one buffer
+ * sized for them. The value is not copied: it is wrapped and added as a
+ * second component of a composite buffer, which the transport writes with a
+ * gathering write. A value set as a direct buffer is written from its native
+ * memory.
+ * <p>
  *
  * To log/print the encoded message, set the "kinetic.io.out" Java System
  * property to true.
@@ -55,54 +65,60 @@ import com.seagate.kinetic.proto.Kinetic.Message.Builder;
  *
  * @author chiaming
  */
-public class KineticEncoder extends MessageToByteEncoder<KineticMessage> {
+public class KineticEncoder extends MessageToMessageEncoder<KineticMessage> {
 
 	private final Logger logger = Logger.getLogger(KineticEncoder.class
 			.getName());
 
 	private static boolean printMessage = Boolean.getBoolean("kinetic.io.out");
 
+	// magic + proto message size + value size
+	private static final int HEADER_SIZE = 9;
+
 	@Override
 	protected void encode(ChannelHandlerContext ctx, KineticMessage km,
-			ByteBuf out) throws Exception {
+			List<Object> out) throws Exception {
+
+		ByteBuf header = null;
 
 		try {
-	
+
 			// get value to write separately
-			// byte[] value = builder.getValue().toByteArray();
-			byte[] value = km.getValue();
+			int valueLength = km.getValueLength();
 
-			// 1. write magic number
-			out.writeByte((byte) 'F');
-			
 			//get message
 			Message.Builder messageBuilder = (Builder) km.getMessage();
-			
+
 			// build message
 			Message msg = messageBuilder.build();
 
-			// get proto message bytes
-			byte[] protoMessageBytes = msg.toByteArray();
+			int protoMessageLength = msg.getSerializedSize();
+
+			header = ctx.alloc().heapBuffer(HEADER_SIZE + protoMessageLength);
+
+			// 1. write magic number
+			header.writeByte((byte) 'F');
 
 			// 2. write protobuf message message size, 4 byte
-			out.writeInt(protoMessageBytes.length);
+			header.writeInt(protoMessageLength);
 
 			// 3. write attached value size, 4 byte
-			if (value != null) {
-				out.writeInt(value.length);
-			} else {
-				out.writeInt(0);
-			}
+			header.writeInt(valueLength);
 
-			// 4. write protobuf message byte[]
-			out.writeBytes(protoMessageBytes);
+			// 4. serialize protobuf message into the buffer
+			writeMessage(msg, protoMessageLength, header);
 
-			// 5 (optional) write attached value if any
-			if (value != null && value.length > 0) {
-				// write value
-				out.writeBytes(value);
+			// 5 (optional) add attached value if any
+			if (valueLength > 0) {
+				out.add(Unpooled.wrappedBuffer(header,
+						toByteBuf(km.getValueBuffer())));
+			} else {
+				out.add(header);
 			}
 
+			// owned by the output list
+			header = null;
+
 			// log message out
 			if (printMessage) {
 
@@ -114,9 +130,49 @@ public class KineticEncoder extends MessageToByteEncoder<KineticMessage> {
 			}
 
 		} catch (Exception e) {
+
+			if (header != null && header.refCnt() > 0) {
+				header.release();
+			}
+
 			logger.log(Level.WARNING, e.getMessage(), e);
 			throw e;
 		}
 	}
 
+	/**
+	 * Serialize the message into the writable bytes of the buffer.
+	 */
+	private static void writeMessage(Message msg, int length, ByteBuf buf)
+			throws Exception {
+
+		if (buf.hasArray()) {
+
+			int offset = buf.arrayOffset() + buf.writerIndex();
+
+			CodedOutputStream cos = CodedOutputStream.newInstance(buf.array(),
+					offset, length);
+
+			msg.writeTo(cos);
+			cos.checkNoSpaceLeft();
+
+			buf.writerIndex(buf.writerIndex() + length);
+		} else {
+			buf.writeBytes(msg.toByteArray());
+		}
+	}
+
+	/**
+	 * Wrap the value buffer without copying. A read-only heap buffer exposes
+	 * neither its array nor native memory and is not handled by the Netty
+	 * SSL handler, so it is copied instead.
+	 */
+	private static ByteBuf toByteBuf(ByteBuffer value) {
+
+		if (value.isReadOnly() && !value.isDirect()) {
+			return Unpooled.copiedBuffer(value);
+		}
+
+		return Unpooled.wrappedBuffer(value);
+	}
 }
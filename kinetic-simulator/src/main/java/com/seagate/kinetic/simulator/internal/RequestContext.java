@@ -276,18 +276,15 @@ public class RequestContext {
     private void finalizeResponseMessage() {
 
         try {
-            // get command byte stirng
+            // get command byte stirng, the only serialization of the command
             ByteString commandByteString = commandBuilder.build()
                     .toByteString();
 
-            // get command byte[]
-            byte[] commandByte = commandByteString.toByteArray();
-
             // require Hmac calculation ?
             if (request.getMessage().getAuthType() == AuthType.HMACAUTH) {
 
-                // calculate hmac
-                ByteString hmac = Hmac.calc(commandByte, key);
+                // calculate hmac over the byte string in place
+                ByteString hmac = Hmac.calc(commandByteString, key);
 
                 // set identity
                 messageBuilder.getHmacAuthBuilder().setIdentity(userId);
@@ -29,7 +29,9 @@ import java.util.logging.Logger;
 
 import kinetic.simulator.SimulatorConfiguration;
 
+import com.seagate.kinetic.common.lib.Hmac;
 import com.seagate.kinetic.common.lib.KineticMessage;
+import com.seagate.kinetic.common.lib.ProtocolMessageUtil;
 import com.seagate.kinetic.heartbeat.message.ByteCounter;
 import com.seagate.kinetic.heartbeat.message.OperationCounter;
 import com.seagate.kinetic.proto.Kinetic.Command;
@@ -40,6 +42,7 @@ import com.seagate.kinetic.proto.Kinetic.Command.Security.ACL;
 import com.seagate.kinetic.proto.Kinetic.Command.Status.StatusCode;
 import com.seagate.kinetic.proto.Kinetic.Local;
 import com.seagate.kinetic.proto.Kinetic.Message;
+import com.seagate.kinetic.proto.Kinetic.MessageOrBuilder;
 import com.seagate.kinetic.proto.Kinetic.Message.AuthType;
 import com.seagate.kinetic.simulator.heartbeat.Heartbeat;
 import com.seagate.kinetic.simulator.internal.handler.CommandManager;
@@ -324,8 +327,18 @@ public class SimulatorEngine implements MessageService {
         this.aclmap = aclmap;
     }
 
+    /**
+     * Set the hmac key map. This is called when the ACLs are loaded or
+     * changed (see {@link SecurityHandler}), the cached Mac instances of the
+     * previous keys are invalidated.
+     *
+     * @param hmacKeyMap
+     *            the user id to hmac key map.
+     */
     public void setHmacKeyMap(Map<Long, Key> hmacKeyMap) {
         this.hmacKeyMap = hmacKeyMap;
+
+        Hmac.invalidateMacCache();
     }
 
     public Map<Long, Key> getHmacKeyMap() {
@@ -500,9 +513,10 @@ public class SimulatorEngine implements MessageService {
 
         try {
 
-            Message request = (Message) kmreq.getMessage();
+            MessageOrBuilder request = kmreq.getMessage();
 
-            Message response = ((Message.Builder) kmresp.getMessage()).build();
+            // response builder is sized without being validated
+            MessageOrBuilder response = kmresp.getMessage();
 
             MessageType mtype = kmreq.getCommand().getHeader().getMessageType();
 
@@ -511,19 +525,15 @@ public class SimulatorEngine implements MessageService {
             int outCount = 0;
 
             if (request != null) {
-                inCount = request.getSerializedSize();
+                inCount = ProtocolMessageUtil.getSerializedSize(request);
                 // add in-bound value byte count
-                if (kmreq.getValue() != null) {
-                    inCount = inCount + kmreq.getValue().length;
-                }
+                inCount = inCount + kmreq.getValueLength();
             }
 
             if (response != null) {
-                outCount = response.getSerializedSize();
+                outCount = ProtocolMessageUtil.getSerializedSize(response);
                 // add out-bound value byte count
-                if (kmresp.getValue() != null) {
-                    outCount = outCount + kmresp.getValue().length;
-                }
+                outCount = outCount + kmresp.getValueLength();
             }
 
             switch (mtype) {
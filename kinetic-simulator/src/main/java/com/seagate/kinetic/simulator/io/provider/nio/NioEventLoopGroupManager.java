@@ -17,13 +17,14 @@
 package com.seagate.kinetic.simulator.io.provider.nio;
 
 import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
 
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import kinetic.simulator.SimulatorConfiguration;
 
+import com.seagate.kinetic.common.lib.EpollUtil;
+
 /**
  * 
  * Nio Event Loop Group management class.
@@ -72,10 +73,12 @@ public class NioEventLoopGroupManager {
 		logger.info("Nio event loop threads = " + nBossThreads);
 
 		// construct boss group
-		bossGroup = new NioEventLoopGroup(nBossThreads, bossTreadFactory);
+		bossGroup = EpollUtil.newEventLoopGroup(nBossThreads,
+				bossTreadFactory, config.getUseEpoll());
 
 		// construct worker group
-		workerGroup = new NioEventLoopGroup(nWorkerThreads, workerThreadFactory);
+		workerGroup = EpollUtil.newEventLoopGroup(nWorkerThreads,
+				workerThreadFactory, config.getUseEpoll());
 	}
 
 	/**
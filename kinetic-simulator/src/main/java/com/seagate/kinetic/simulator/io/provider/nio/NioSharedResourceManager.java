@@ -22,6 +22,8 @@ import io.netty.channel.nio.NioEventLoopGroup;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import com.seagate.kinetic.common.lib.EpollUtil;
+
 /**
  * 
  * Nio Event Loop Group management class.
@@ -38,6 +40,10 @@ public class NioSharedResourceManager {
 	private static EventLoopGroup bossGroup = null;
 	private static EventLoopGroup workerGroup = null;
 
+	// native epoll groups, created when first used
+	private static EventLoopGroup epollBossGroup = null;
+	private static EventLoopGroup epollWorkerGroup = null;
+
 	private static boolean isClosed = false;
 
 	// threads for boss
@@ -79,6 +85,62 @@ public class NioSharedResourceManager {
 		return workerGroup;
 	}
 
+	/**
+	 * Get boss group
+	 * 
+	 * @param useEpoll
+	 *            true to get the native epoll group if epoll is available.
+	 * @return boss group
+	 */
+	public static EventLoopGroup getBossGroup(boolean useEpoll) {
+
+		if (useEpoll && initEpollGroups()) {
+			return epollBossGroup;
+		}
+
+		return bossGroup;
+	}
+
+	/**
+	 * Get worker group.
+	 * 
+	 * @param useEpoll
+	 *            true to get the native epoll group if epoll is available.
+	 * @return worker group.
+	 * 
+	 */
+	public static EventLoopGroup getWorkerGroup(boolean useEpoll) {
+
+		if (useEpoll && initEpollGroups()) {
+			return epollWorkerGroup;
+		}
+
+		return workerGroup;
+	}
+
+	/**
+	 * Create the native epoll groups if not created yet.
+	 * 
+	 * @return true if epoll groups are available.
+	 */
+	private static synchronized boolean initEpollGroups() {
+
+		if (!EpollUtil.isAvailable()) {
+			logger.warning("native epoll transport is not available, using nio ...");
+			return false;
+		}
+
+		if (epollBossGroup == null) {
+			epollBossGroup = EpollUtil.newEventLoopGroup(0,
+					new NioThreadFactory("Simulator-epoll-boss", true), true);
+
+			epollWorkerGroup = EpollUtil.newEventLoopGroup(0,
+					new NioThreadFactory("Simulator-epoll-worker", true), true);
+		}
+
+		return true;
+	}
+
 	/**
 	 * Close boss and worker groups. This shuts down the Nio Services.
 	 * 
@@ -98,6 +160,14 @@ public class NioSharedResourceManager {
 			bossGroup.terminationFuture().await(awaitTimeout);
 			workerGroup.terminationFuture().await(awaitTimeout);
 
+			if (epollBossGroup != null) {
+				epollBossGroup.shutdownGracefully();
+				epollWorkerGroup.shutdownGracefully();
+
+				epollBossGroup.terminationFuture().await(awaitTimeout);
+				epollWorkerGroup.terminationFuture().await(awaitTimeout);
+			}
+
 		} catch (Exception e) {
 			logger.log(Level.WARNING, e.getMessage(), e);
 		}
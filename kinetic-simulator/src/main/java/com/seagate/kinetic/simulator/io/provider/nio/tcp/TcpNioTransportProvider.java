@@ -18,8 +18,8 @@ package com.seagate.kinetic.simulator.io.provider.nio.tcp;
 
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
 
 import java.io.IOException;
 import java.util.logging.Level;
@@ -27,6 +27,7 @@ import java.util.logging.Logger;
 
 import kinetic.simulator.SimulatorConfiguration;
 
+import com.seagate.kinetic.common.lib.EpollUtil;
 import com.seagate.kinetic.simulator.io.provider.nio.NioSharedResourceManager;
 import com.seagate.kinetic.simulator.io.provider.spi.MessageService;
 import com.seagate.kinetic.simulator.io.provider.spi.TransportProvider;
@@ -59,12 +60,16 @@ public class TcpNioTransportProvider implements TransportProvider, Runnable {
 
 	public void doInit() throws InterruptedException {
 
-		this.port = this.service.getServiceConfiguration().getPort();
+		SimulatorConfiguration config = this.service.getServiceConfiguration();
+
+		this.port = config.getPort();
 
 		if (SimulatorConfiguration.getNioResourceSharing()) {
 			// resource sharing within the same JVM
-			bossGroup = NioSharedResourceManager.getBossGroup();
-			workerGroup = NioSharedResourceManager.getWorkerGroup();
+			bossGroup = NioSharedResourceManager.getBossGroup(config
+					.getUseEpoll());
+			workerGroup = NioSharedResourceManager.getWorkerGroup(config
+					.getUseEpoll());
 		} else {
 			// resource usage independent per instance
 			bossGroup = this.service.getNioEventLoopGroupManager()
@@ -79,9 +84,28 @@ public class TcpNioTransportProvider implements TransportProvider, Runnable {
 		bootstrap = new ServerBootstrap();
 
 		bootstrap.group(bossGroup, workerGroup)
-		.channel(NioServerSocketChannel.class)
+		.channel(EpollUtil.getServerSocketChannelClass(bossGroup))
 		.childHandler(msChannelInitializer);
 
+		// reuse address (the java nio default), so the port can be re-bound
+		// while connections of a previous instance are in TIME_WAIT
+		bootstrap.option(ChannelOption.SO_REUSEADDR, true);
+
+		bootstrap.childOption(ChannelOption.TCP_NODELAY, config.getTcpNoDelay());
+
+		if (config.getSendBufferSize() > 0) {
+			bootstrap.childOption(ChannelOption.SO_SNDBUF,
+					config.getSendBufferSize());
+		}
+
+		if (config.getReceiveBufferSize() > 0) {
+			// accepted sockets inherit the listening socket receive buffer
+			bootstrap.option(ChannelOption.SO_RCVBUF,
+					config.getReceiveBufferSize());
+			bootstrap.childOption(ChannelOption.SO_RCVBUF,
+					config.getReceiveBufferSize());
+		}
+
 		logger.info("Kinetic nio service binding on port =" + port);
 
 		channelFuture = bootstrap.bind(port).sync();
@@ -251,12 +251,9 @@ public class IoHandler implements Runnable {
 					break;
 				}
 				
-				// build command
-                Command.Builder commandBuilder = Command.newBuilder();
-
+				// parse command
                 try {
-                    commandBuilder.mergeFrom(request.getCommandBytes());
-                    km.setCommand(commandBuilder.build());
+                    km.setCommand(Command.parseFrom(request.getCommandBytes()));
                 } catch (InvalidProtocolBufferException e) {
                     logger.log(Level.WARNING, e.getMessage(), e);
                 }
@@ -115,6 +115,27 @@ public class SimulatorConfiguration extends Properties {
     private int nioEventLoopWorkerThreads = Integer
             .parseInt(DEFAULT_NIO_EVENT_LOOP_THREADS);
 
+    /**
+     * flag to use the native (Linux epoll) transport. if the system property
+     * is set, epoll is used if available.
+     */
+    private volatile boolean useEpoll = Boolean.getBoolean("kinetic.io.epoll");
+
+    /**
+     * accepted socket TCP_NODELAY option.
+     */
+    private boolean tcpNoDelay = true;
+
+    /**
+     * socket send buffer size, 0 uses the system default.
+     */
+    private int sendBufferSize = 0;
+
+    /**
+     * socket receive buffer size, 0 uses the system default.
+     */
+    private int receiveBufferSize = 0;
+
     /**
      * flag to indicate if memory store is used for the simulator
      */
@@ -523,6 +544,90 @@ public class SimulatorConfiguration extends Properties {
         return this.nioEventLoopWorkerThreads;
     }
 
+    /**
+     * Set use the native (Linux epoll) nio transport or not.
+     * <p>
+     * The native transport uses edge-triggered epoll instead of the Java NIO
+     * selector. If it is not available on the platform, Java NIO is used.
+     * <p>
+     * Applications may also define Java System Property
+     * "-Dkinetic.io.epoll=true" to use the native transport by default.
+     * 
+     * @param flag
+     *            set to true to use the native transport if available.
+     */
+    public void setUseEpoll(boolean flag) {
+        this.useEpoll = flag;
+    }
+
+    /**
+     * Get if the native (Linux epoll) nio transport is used when available.
+     * 
+     * @return true if the native transport is used when available.
+     */
+    public boolean getUseEpoll() {
+        return this.useEpoll;
+    }
+
+    /**
+     * Set the TCP_NODELAY option of accepted sockets. Default is set to true.
+     * 
+     * @param flag
+     *            true to disable Nagle's algorithm.
+     */
+    public void setTcpNoDelay(boolean flag) {
+        this.tcpNoDelay = flag;
+    }
+
+    /**
+     * Get the TCP_NODELAY option of accepted sockets.
+     * 
+     * @return true if Nagle's algorithm is disabled.
+     */
+    public boolean getTcpNoDelay() {
+        return this.tcpNoDelay;
+    }
+
+    /**
+     * Set the socket send buffer (SO_SNDBUF) size of accepted sockets.
+     * Default is set to 0, the system default is used.
+     * 
+     * @param size
+     *            send buffer size in bytes.
+     */
+    public void setSendBufferSize(int size) {
+        this.sendBufferSize = size;
+    }
+
+    /**
+     * Get the socket send buffer (SO_SNDBUF) size of accepted sockets.
+     * 
+     * @return send buffer size in bytes, 0 if the system default is used.
+     */
+    public int getSendBufferSize() {
+        return this.sendBufferSize;
+    }
+
+    /**
+     * Set the socket receive buffer (SO_RCVBUF) size of accepted sockets.
+     * Default is set to 0, the system default is used.
+     * 
+     * @param size
+     *            receive buffer size in bytes.
+     */
+    public void setReceiveBufferSize(int size) {
+        this.receiveBufferSize = size;
+    }
+
+    /**
+     * Get the socket receive buffer (SO_RCVBUF) size of accepted sockets.
+     * 
+     * @return receive buffer size in bytes, 0 if the system default is used.
+     */
+    public int getReceiveBufferSize() {
+        return this.receiveBufferSize;
+    }
+
     /**
      * Set to true to instruct the simulator to use memory store.
      * <p>
@@ -0,0 +1,194 @@
+/**
+ * Copyright 2013-2015 Seagate Technology LLC.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla
+ * Public License, v. 2.0. If a copy of the MPL was not
+ * distributed with this file, You can obtain one at
+ * https://mozilla.org/MP:/2.0/.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but is provided AS-IS, WITHOUT ANY WARRANTY; including without 
+ * the implied warranty of MERCHANTABILITY, NON-INFRINGEMENT or 
+ * FITNESS FOR A PARTICULAR PURPOSE. See the Mozilla Public 
+ * License for more details.
+ *
+ * See www.openkinetic.org for more project information
+ */
+package com.seagate.kinetic;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import kinetic.client.ClientConfiguration;
+
+/**
+ * TCP proxy between a test client and the service under test.
+ * <p>
+ * Bytes are forwarded unchanged in both directions. Tests may drop all
+ * further responses to simulate lost responses, or reset all connections to
+ * simulate a connection loss.
+ */
+public class ConnectionProxy implements Runnable {
+
+    private final ServerSocket server;
+
+    private final String host;
+
+    private final int port;
+
+    private final List<Socket> sockets = new CopyOnWriteArrayList<Socket>();
+
+    private volatile boolean dropping = false;
+
+    /**
+     * Start a proxy to the service of the specified client configuration.
+     *
+     * @param target
+     *            configuration with the host and port of the service.
+     * @throws IOException
+     *             if unable to listen on a local port.
+     */
+    public ConnectionProxy(ClientConfiguration target) throws IOException {
+
+        this.host = target.getHost();
+        this.port = target.getPort();
+
+        this.server = new ServerSocket(0, 50,
+                InetAddress.getByName("127.0.0.1"));
+
+        start(this);
+    }
+
+    /**
+     * Get the local port clients connect to.
+     *
+     * @return the local port of the proxy.
+     */
+    public int getPort() {
+        return this.server.getLocalPort();
+    }
+
+    /**
+     * Drop (do not forward) responses from the service.
+     *
+     * @param flag
+     *            true to drop responses.
+     */
+    public void setDropResponses(boolean flag) {
+        this.dropping = flag;
+    }
+
+    /**
+     * Close all proxied connections. New connections are still accepted.
+     */
+    public void reset() {
+        for (Socket socket : this.sockets) {
+            this.sockets.remove(socket);
+            close(socket);
+        }
+    }
+
+    /**
+     * Stop the proxy and close all proxied connections.
+     */
+    public void close() {
+
+        try {
+            this.server.close();
+        } catch (IOException e) {
+            ;
+        }
+
+        this.reset();
+    }
+
+    @Override
+    public void run() {
+        try {
+            for (;;) {
+                Socket client = this.server.accept();
+
+                Socket service = null;
+
+                try {
+                    service = new Socket(this.host, this.port);
+                } catch (IOException e) {
+                    close(client);
+                    continue;
+                }
+
+                this.sockets.add(client);
+                this.sockets.add(service);
+
+                start(new Pump(client, service, false));
+                start(new Pump(service, client, true));
+            }
+        } catch (IOException e) {
+            // closed
+            ;
+        }
+    }
+
+    private static void close(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            ;
+        }
+    }
+
+    private static void start(Runnable task) {
+        Thread t = new Thread(task, "connection-proxy");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    private final class Pump implements Runnable {
+
+        private final Socket from;
+
+        private final Socket to;
+
+        private final boolean isResponse;
+
+        Pump(Socket from, Socket to, boolean isResponse) {
+            this.from = from;
+            this.to = to;
+            this.isResponse = isResponse;
+        }
+
+        @Override
+        public void run() {
+
+            byte[] buffer = new byte[64 * 1024];
+
+            try {
+                InputStream in = this.from.getInputStream();
+                OutputStream out = this.to.getOutputStream();
+
+                int n = 0;
+                while ((n = in.read(buffer)) >= 0) {
+                    if (this.isResponse && dropping) {
+                        continue;
+                    }
+
+                    out.write(buffer, 0, n);
+                    out.flush();
+                }
+            } catch (IOException e) {
+                // closed
+                ;
+            } finally {
+                // close both sides of the proxied connection
+                close(this.from);
+                close(this.to);
+            }
+        }
+    }
+}
@@ -155,6 +155,21 @@ public class IntegrationTestCase {
         return clientConfiguration;
     }
 
+    /**
+     * Get a Kinetic client configuration with default setting, connected with
+     * the transport (ssl, nio and port) of the specified test client.
+     * <p>
+     */
+    protected ClientConfiguration getClientConfig(String clientName) {
+        ClientConfiguration base = kineticClientConfigutations.get(clientName);
+
+        ClientConfiguration clientConfiguration = getClientConfig();
+        clientConfiguration.setUseSsl(base.getUseSsl());
+        clientConfiguration.setUseNio(base.getUseNio());
+        clientConfiguration.setPort(base.getPort());
+        return clientConfiguration;
+    }
+
     /**
      * Get a Kinetic client configuration with setting userId and key flexible.
      * <p>
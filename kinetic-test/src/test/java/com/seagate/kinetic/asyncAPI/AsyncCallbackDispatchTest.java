@@ -0,0 +1,237 @@
+/**
+ * Copyright 2013-2015 Seagate Technology LLC.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla
+ * Public License, v. 2.0. If a copy of the MPL was not
+ * distributed with this file, You can obtain one at
+ * https://mozilla.org/MP:/2.0/.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but is provided AS-IS, WITHOUT ANY WARRANTY; including without
+ * the implied warranty of MERCHANTABILITY, NON-INFRINGEMENT or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the Mozilla Public
+ * License for more details.
+ *
+ * See www.openkinetic.org for more project information
+ */
+package com.seagate.kinetic.asyncAPI;
+
+import static com.seagate.kinetic.KineticTestHelpers.buildSuccessOnlyCallbackHandler;
+import static com.seagate.kinetic.KineticTestHelpers.int32;
+import static com.seagate.kinetic.KineticTestHelpers.toByteArray;
+import static com.seagate.kinetic.KineticTestHelpers.waitForLatch;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.logging.Logger;
+
+import kinetic.client.CallbackResult;
+import kinetic.client.ClientConfiguration;
+import kinetic.client.Entry;
+import kinetic.client.EntryMetadata;
+import kinetic.client.KineticClient;
+import kinetic.client.KineticClientFactory;
+
+import org.testng.annotations.Test;
+
+import com.seagate.kinetic.IntegrationTestCase;
+import com.seagate.kinetic.IntegrationTestLoggerFactory;
+import com.seagate.kinetic.KineticTestHelpers.SuccessAsyncHandler;
+import com.seagate.kinetic.client.internal.DefaultKineticClient;
+import com.seagate.kinetic.client.io.CallbackMetrics;
+
+/**
+ * Asynchronous callback dispatch test.
+ * <p>
+ * Verifies callback delivery in the inline, pooled and application executor
+ * dispatch modes.
+ *
+ * @see ClientConfiguration#setAsyncCallbackThreads(int)
+ * @see ClientConfiguration#setAsyncCallbackExecutor(java.util.concurrent.Executor)
+ */
+@Test(groups = { "simulator", "drive" })
+public class AsyncCallbackDispatchTest extends IntegrationTestCase {
+    private static final Logger logger = IntegrationTestLoggerFactory
+            .getLogger(AsyncCallbackDispatchTest.class.getName());
+
+    private static final int COUNT = 100;
+
+    /**
+     * Test callbacks for the same key are delivered in order when callbacks
+     * are spread over multiple dispatch threads.
+     * <p>
+     */
+    @Test(dataProvider = "transportProtocolOptions")
+    public void testPooledCallbacksInKeyOrder(String clientName)
+            throws Exception {
+
+        ClientConfiguration config = getClientConfig(clientName);
+        config.setAsyncCallbackThreads(4);
+
+        KineticClient client = KineticClientFactory.createInstance(config);
+
+        try {
+            final List<Integer> order = Collections
+                    .synchronizedList(new ArrayList<Integer>());
+
+            final CountDownLatch latch = new CountDownLatch(COUNT);
+
+            byte[] key = toByteArray("dispatch-order-key");
+
+            for (int i = 0; i < COUNT; i++) {
+                Entry entry = new Entry(key, int32(i), new EntryMetadata());
+
+                client.putForcedAsync(entry,
+                        buildSuccessOnlyCallbackHandler(new SuccessAsyncHandler<Entry>() {
+                            @Override
+                            public void onSuccess(CallbackResult<Entry> result) {
+                                order.add(ByteBuffer.wrap(
+                                        result.getResult().getValue()).getInt());
+                                latch.countDown();
+                            }
+                        }));
+            }
+
+            waitForLatch(latch, 10);
+
+            for (int i = 0; i < COUNT; i++) {
+                assertEquals(i, order.get(i).intValue());
+            }
+
+            client.deleteForced(key);
+
+            CallbackMetrics metrics = ((DefaultKineticClient) client)
+                    .getCallbackMetrics();
+
+            assertTrue(metrics.getCompletedCount() >= COUNT);
+
+            logger.info(this.testEndInfo());
+        } finally {
+            client.close();
+        }
+    }
+
+    /**
+     * Test callbacks are run by the application supplied executor.
+     * <p>
+     */
+    @Test(dataProvider = "transportProtocolOptions")
+    public void testCallbacksOnApplicationExecutor(String clientName)
+            throws Exception {
+
+        final String prefix = "app-callback-";
+
+        ExecutorService executor = Executors.newFixedThreadPool(2,
+                new ThreadFactory() {
+                    @Override
+                    public Thread newThread(Runnable r) {
+                        Thread t = new Thread(r, prefix + r.hashCode());
+                        t.setDaemon(true);
+                        return t;
+                    }
+                });
+
+        ClientConfiguration config = getClientConfig(clientName);
+        config.setAsyncCallbackExecutor(executor);
+
+        KineticClient client = KineticClientFactory.createInstance(config);
+
+        try {
+            final List<String> threads = Collections
+                    .synchronizedList(new ArrayList<String>());
+
+            final CountDownLatch latch = new CountDownLatch(COUNT);
+
+            for (int i = 0; i < COUNT; i++) {
+                Entry entry = new Entry(toByteArray("dispatch-exec-key" + i),
+                        int32(i), new EntryMetadata());
+
+                client.putForcedAsync(entry,
+                        buildSuccessOnlyCallbackHandler(new SuccessAsyncHandler<Entry>() {
+                            @Override
+                            public void onSuccess(CallbackResult<Entry> result) {
+                                threads.add(Thread.currentThread().getName());
+                                latch.countDown();
+                            }
+                        }));
+            }
+
+            waitForLatch(latch, 10);
+
+            for (String name : threads) {
+                assertTrue(name, name.startsWith(prefix));
+            }
+
+            for (int i = 0; i < COUNT; i++) {
+                client.deleteForced(toByteArray("dispatch-exec-key" + i));
+            }
+
+            logger.info(this.testEndInfo());
+        } finally {
+            client.close();
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Test callbacks are invoked on the I/O thread when callback threads is
+     * set to 0.
+     * <p>
+     */
+    @Test(dataProvider = "transportProtocolOptions")
+    public void testInlineCallbacks(String clientName) throws Exception {
+
+        ClientConfiguration config = getClientConfig(clientName);
+        config.setAsyncCallbackThreads(0);
+
+        KineticClient client = KineticClientFactory.createInstance(config);
+
+        try {
+            final List<String> threads = Collections
+                    .synchronizedList(new ArrayList<String>());
+
+            final CountDownLatch latch = new CountDownLatch(COUNT);
+
+            byte[] key = toByteArray("dispatch-inline-key");
+
+            for (int i = 0; i < COUNT; i++) {
+                client.getAsync(key,
+                        buildSuccessOnlyCallbackHandler(new SuccessAsyncHandler<Entry>() {
+                            @Override
+                            public void onSuccess(CallbackResult<Entry> result) {
+                                threads.add(Thread.currentThread().getName());
+                                latch.countDown();
+                            }
+                        }));
+            }
+
+            waitForLatch(latch, 10);
+
+            for (String name : threads) {
+                assertTrue(name, name.startsWith("ClientMessageHandler") == false);
+            }
+
+            // completion is recorded after the callback returns
+            CallbackMetrics metrics = ((DefaultKineticClient) client)
+                    .getCallbackMetrics();
+
+            for (int i = 0; i < 50 && metrics.getCompletedCount() < COUNT; i++) {
+                Thread.sleep(100);
+            }
+
+            assertEquals(COUNT, metrics.getCompletedCount());
+
+            logger.info(this.testEndInfo());
+        } finally {
+            client.close();
+        }
+    }
+}
@@ -0,0 +1,256 @@
+/**
+ * Copyright 2013-2015 Seagate Technology LLC.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla
+ * Public License, v. 2.0. If a copy of the MPL was not
+ * distributed with this file, You can obtain one at
+ * https://mozilla.org/MP:/2.0/.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but is provided AS-IS, WITHOUT ANY WARRANTY; including without
+ * the implied warranty of MERCHANTABILITY, NON-INFRINGEMENT or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the Mozilla Public
+ * License for more details.
+ *
+ * See www.openkinetic.org for more project information
+ */
+package com.seagate.kinetic.asyncAPI;
+
+import static com.seagate.kinetic.KineticTestHelpers.buildSuccessOnlyCallbackHandler;
+import static com.seagate.kinetic.KineticTestHelpers.int32;
+import static com.seagate.kinetic.KineticTestHelpers.toByteArray;
+import static com.seagate.kinetic.KineticTestHelpers.waitForLatch;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+import static org.testng.AssertJUnit.fail;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Logger;
+
+import kinetic.client.AsyncKineticException;
+import kinetic.client.AsyncQueueFullException;
+import kinetic.client.AsyncQueuePolicy;
+import kinetic.client.CallbackHandler;
+import kinetic.client.CallbackResult;
+import kinetic.client.ClientConfiguration;
+import kinetic.client.Entry;
+import kinetic.client.EntryMetadata;
+import kinetic.client.KineticClient;
+import kinetic.client.KineticClientFactory;
+
+import org.testng.annotations.Test;
+
+import com.seagate.kinetic.IntegrationTestCase;
+import com.seagate.kinetic.IntegrationTestLoggerFactory;
+import com.seagate.kinetic.KineticTestHelpers.SuccessAsyncHandler;
+import com.seagate.kinetic.client.internal.DefaultKineticClient;
+
+/**
+ * Asynchronous queue (in-flight window) policy test.
+ * <p>
+ *
+ * @see ClientConfiguration#setAsyncQueuePolicy(AsyncQueuePolicy)
+ * @see ClientConfiguration#setAsyncLatencyTargetMillis(long)
+ */
+@Test(groups = { "simulator", "drive" })
+public class AsyncQueuePolicyTest extends IntegrationTestCase {
+    private static final Logger logger = IntegrationTestLoggerFactory
+            .getLogger(AsyncQueuePolicyTest.class.getName());
+
+    /**
+     * Test an async operation fails immediately with AsyncQueueFullException
+     * when the queue is full and the policy is FAIL_FAST.
+     * <p>
+     */
+    @Test(dataProvider = "transportProtocolOptions")
+    public void testFailFastWhenQueueFull(String clientName) throws Exception {
+
+        ClientConfiguration config = getClientConfig(clientName);
+        config.setAsyncQueueSize(1);
+        config.setAsyncQueuePolicy(AsyncQueuePolicy.FAIL_FAST);
+
+        KineticClient client = KineticClientFactory.createInstance(config);
+
+        CountDownLatch release = new CountDownLatch(1);
+
+        try {
+            byte[] key = toByteArray("queue-policy-key");
+
+            // hold the only credit in a blocked callback
+            holdCredit(client, key, release);
+
+            try {
+                client.putForcedAsync(new Entry(key, int32(1),
+                        new EntryMetadata()), noopHandler());
+                fail("should have thrown AsyncQueueFullException");
+            } catch (AsyncQueueFullException e) {
+                // expected
+            }
+
+            release.countDown();
+
+            // retry succeeds once the credit is returned
+            putWithRetry(client, new Entry(key, int32(2), new EntryMetadata()));
+
+            client.deleteForced(key);
+
+            logger.info(this.testEndInfo());
+        } finally {
+            release.countDown();
+            client.close();
+        }
+    }
+
+    /**
+     * Test an async operation is rejected through its callback handler when
+     * the queue is full and the policy is REJECT.
+     * <p>
+     */
+    @Test(dataProvider = "transportProtocolOptions")
+    public void testRejectWhenQueueFull(String clientName) throws Exception {
+
+        ClientConfiguration config = getClientConfig(clientName);
+        config.setAsyncQueueSize(1);
+        config.setAsyncQueuePolicy(AsyncQueuePolicy.REJECT);
+
+        KineticClient client = KineticClientFactory.createInstance(config);
+
+        CountDownLatch release = new CountDownLatch(1);
+
+        try {
+            byte[] key = toByteArray("queue-policy-key");
+
+            holdCredit(client, key, release);
+
+            final AtomicReference<AsyncKineticException> rejected = new AtomicReference<AsyncKineticException>();
+
+            final Thread caller = Thread.currentThread();
+
+            client.putForcedAsync(new Entry(key, int32(1), new EntryMetadata()),
+                    new CallbackHandler<Entry>() {
+                        @Override
+                        public void onSuccess(CallbackResult<Entry> result) {
+                            fail("should have been rejected");
+                        }
+
+                        @Override
+                        public void onError(AsyncKineticException exception) {
+                            assertEquals(caller, Thread.currentThread());
+                            rejected.set(exception);
+                        }
+                    });
+
+            assertTrue(rejected.get() != null);
+            assertTrue(rejected.get().getCause() instanceof AsyncQueueFullException);
+
+            release.countDown();
+
+            client.deleteForced(key);
+
+            logger.info(this.testEndInfo());
+        } finally {
+            release.countDown();
+            client.close();
+        }
+    }
+
+    /**
+     * Test the async window grows when operations complete within the latency
+     * target and callers are held back by the window.
+     * <p>
+     */
+    @Test(dataProvider = "transportProtocolOptions")
+    public void testWindowGrowsWithinLatencyTarget(String clientName)
+            throws Exception {
+
+        ClientConfiguration config = getClientConfig(clientName);
+        config.setAsyncQueueSize(2);
+        config.setAsyncLatencyTargetMillis(10000);
+        config.setAsyncMaxQueueSize(16);
+
+        KineticClient client = KineticClientFactory.createInstance(config);
+
+        try {
+            int count = 2000;
+
+            final CountDownLatch latch = new CountDownLatch(count);
+
+            byte[] key = toByteArray("queue-policy-key");
+
+            for (int i = 0; i < count; i++) {
+                client.getAsync(key,
+                        buildSuccessOnlyCallbackHandler(new SuccessAsyncHandler<Entry>() {
+                            @Override
+                            public void onSuccess(CallbackResult<Entry> result) {
+                                latch.countDown();
+                            }
+                        }));
+            }
+
+            waitForLatch(latch, 30);
+
+            int size = ((DefaultKineticClient) client).getAsyncWindowSize();
+
+            assertTrue("window size=" + size, size > 2 && size <= 16);
+
+            logger.info(this.testEndInfo());
+        } finally {
+            client.close();
+        }
+    }
+
+    private void holdCredit(KineticClient client, byte[] key,
+            final CountDownLatch release) throws Exception {
+
+        final CountDownLatch entered = new CountDownLatch(1);
+
+        client.putForcedAsync(new Entry(key, int32(0), new EntryMetadata()),
+                buildSuccessOnlyCallbackHandler(new SuccessAsyncHandler<Entry>() {
+                    @Override
+                    public void onSuccess(CallbackResult<Entry> result) {
+                        entered.countDown();
+                        try {
+                            release.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                }));
+
+        waitForLatch(entered);
+    }
+
+    private void putWithRetry(KineticClient client, Entry entry)
+            throws Exception {
+
+        final CountDownLatch done = new CountDownLatch(1);
+
+        for (int i = 0; i < 100; i++) {
+            try {
+                client.putForcedAsync(entry,
+                        buildSuccessOnlyCallbackHandler(new SuccessAsyncHandler<Entry>() {
+                            @Override
+                            public void onSuccess(CallbackResult<Entry> result) {
+                                done.countDown();
+                            }
+                        }));
+
+                waitForLatch(done);
+                return;
+            } catch (AsyncQueueFullException e) {
+                Thread.sleep(50);
+            }
+        }
+
+        fail("async queue is still full");
+    }
+
+    private CallbackHandler<Entry> noopHandler() {
+        return buildSuccessOnlyCallbackHandler(new SuccessAsyncHandler<Entry>() {
+            @Override
+            public void onSuccess(CallbackResult<Entry> result) {
+            }
+        });
+    }
+}
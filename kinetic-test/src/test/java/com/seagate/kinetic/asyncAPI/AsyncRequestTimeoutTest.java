@@ -0,0 +1,308 @@
+/**
+ * Copyright 2013-2015 Seagate Technology LLC.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla
+ * Public License, v. 2.0. If a copy of the MPL was not
+ * distributed with this file, You can obtain one at
+ * https://mozilla.org/MP:/2.0/.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but is provided AS-IS, WITHOUT ANY WARRANTY; including without 
+ * the implied warranty of MERCHANTABILITY, NON-INFRINGEMENT or 
+ * FITNESS FOR A PARTICULAR PURPOSE. See the Mozilla Public 
+ * License for more details.
+ *
+ * See www.openkinetic.org for more project information
+ */
+package com.seagate.kinetic.asyncAPI;
+
+import static com.seagate.kinetic.KineticTestHelpers.buildSuccessOnlyCallbackHandler;
+import static com.seagate.kinetic.KineticTestHelpers.int32;
+import static com.seagate.kinetic.KineticTestHelpers.toByteArray;
+import static com.seagate.kinetic.KineticTestHelpers.waitForLatch;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+import static org.testng.AssertJUnit.fail;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Logger;
+
+import kinetic.client.AsyncKineticException;
+import kinetic.client.AsyncQueuePolicy;
+import kinetic.client.AsyncTimeoutException;
+import kinetic.client.CallbackHandler;
+import kinetic.client.CallbackResult;
+import kinetic.client.ClientConfiguration;
+import kinetic.client.Entry;
+import kinetic.client.EntryMetadata;
+import kinetic.client.KineticClient;
+import kinetic.client.KineticClientFactory;
+import kinetic.client.KineticException;
+
+import org.testng.annotations.Test;
+
+import com.seagate.kinetic.ConnectionProxy;
+import com.seagate.kinetic.IntegrationTestCase;
+import com.seagate.kinetic.IntegrationTestLoggerFactory;
+import com.seagate.kinetic.KineticTestHelpers.SuccessAsyncHandler;
+import com.seagate.kinetic.client.internal.DefaultKineticClient;
+
+/**
+ * Request timeout test.
+ * <p>
+ * Responses are dropped by a connection proxy between the client and the service to
+ * verify that in-flight requests are expired by the request timer.
+ *
+ * @see ClientConfiguration#setRequestTimeoutMillis(long)
+ * @see AsyncTimeoutException
+ */
+@Test(groups = { "simulator", "drive" })
+public class AsyncRequestTimeoutTest extends IntegrationTestCase {
+    private static final Logger logger = IntegrationTestLoggerFactory
+            .getLogger(AsyncRequestTimeoutTest.class.getName());
+
+    private static final long TIMEOUT_MILLIS = 1000;
+
+    /**
+     * Test an async operation without response is delivered to its callback
+     * handler as an AsyncTimeoutException and returns its queue credit.
+     * <p>
+     */
+    @Test(dataProvider = "transportProtocolOptions")
+    public void testAsyncRequestTimesOut(String clientName) throws Exception {
+
+        ConnectionProxy proxy = new ConnectionProxy(
+                kineticClientConfigutations.get(clientName));
+
+        ClientConfiguration config = createTimeoutConfig(clientName, proxy);
+        config.setAsyncQueueSize(1);
+        config.setAsyncQueuePolicy(AsyncQueuePolicy.FAIL_FAST);
+
+        KineticClient client = KineticClientFactory.createInstance(config);
+
+        try {
+            proxy.setDropResponses(true);
+
+            byte[] key = toByteArray("timeout-key");
+
+            for (int i = 0; i < 2; i++) {
+
+                // fails with AsyncQueueFullException unless the credit of the
+                // previous request was returned
+                AsyncKineticException e = putAndWaitForError(client,
+                        new Entry(key, int32(i), new EntryMetadata()));
+
+                assertTrue(e instanceof AsyncTimeoutException);
+                assertTrue(e.getRequestMessage() != null);
+            }
+
+            assertEquals(2, ((DefaultKineticClient) client).getTimedOutCount());
+
+            logger.info(this.testEndInfo());
+        } finally {
+            client.close();
+            proxy.close();
+        }
+    }
+
+    /**
+     * Test a sync operation without response fails after the request
+     * timeout.
+     * <p>
+     */
+    @Test(dataProvider = "transportProtocolOptions")
+    public void testSyncRequestTimesOut(String clientName) throws Exception {
+
+        ConnectionProxy proxy = new ConnectionProxy(
+                kineticClientConfigutations.get(clientName));
+
+        ClientConfiguration config = createTimeoutConfig(clientName, proxy);
+
+        KineticClient client = KineticClientFactory.createInstance(config);
+
+        try {
+            proxy.setDropResponses(true);
+
+            long start = System.currentTimeMillis();
+
+            try {
+                client.get(toByteArray("timeout-key"));
+                fail("should have timed out");
+            } catch (KineticException e) {
+                // expected
+            }
+
+            long elapsed = System.currentTimeMillis() - start;
+
+            assertTrue("elapsed=" + elapsed, elapsed >= TIMEOUT_MILLIS
+                    && elapsed < 5 * TIMEOUT_MILLIS);
+
+            assertEquals(1, ((DefaultKineticClient) client).getTimedOutCount());
+
+            logger.info(this.testEndInfo());
+        } finally {
+            client.close();
+            proxy.close();
+        }
+    }
+
+    /**
+     * Test operations completed within the request timeout are not expired.
+     * <p>
+     */
+    @Test(dataProvider = "transportProtocolOptions")
+    public void testNoTimeoutWithinDeadline(String clientName)
+            throws Exception {
+
+        ClientConfiguration config = getClientConfig(clientName);
+        config.setRequestTimeoutMillis(2000);
+
+        KineticClient client = KineticClientFactory.createInstance(config);
+
+        try {
+            int count = 500;
+
+            final CountDownLatch latch = new CountDownLatch(count);
+
+            byte[] key = toByteArray("timeout-key");
+
+            for (int i = 0; i < count; i++) {
+                client.putForcedAsync(new Entry(key, int32(i),
+                        new EntryMetadata()),
+                        buildSuccessOnlyCallbackHandler(new SuccessAsyncHandler<Entry>() {
+                            @Override
+                            public void onSuccess(CallbackResult<Entry> result) {
+                                latch.countDown();
+                            }
+                        }));
+            }
+
+            waitForLatch(latch, 30);
+
+            // wait past the deadline of all requests
+            Thread.sleep(2500);
+
+            assertEquals(0, ((DefaultKineticClient) client).getTimedOutCount());
+
+            client.deleteForced(key);
+
+            logger.info(this.testEndInfo());
+        } finally {
+            client.close();
+        }
+    }
+
+    /**
+     * Test a timeout callback that blocks on one client does not delay
+     * request timeouts of another client. Timeout callbacks of clients that
+     * invoke callbacks inline are not run on the shared timer thread.
+     * <p>
+     */
+    @Test(dataProvider = "transportProtocolOptions")
+    public void testBlockingTimeoutCallbackDoesNotDelayOtherClients(
+            String clientName) throws Exception {
+
+        ConnectionProxy proxy1 = new ConnectionProxy(
+                kineticClientConfigutations.get(clientName));
+        ConnectionProxy proxy2 = new ConnectionProxy(
+                kineticClientConfigutations.get(clientName));
+
+        // callbacks are invoked inline
+        ClientConfiguration config1 = createTimeoutConfig(clientName, proxy1);
+        config1.setAsyncCallbackThreads(0);
+
+        ClientConfiguration config2 = createTimeoutConfig(clientName, proxy2);
+        config2.setAsyncCallbackThreads(0);
+
+        KineticClient client1 = KineticClientFactory.createInstance(config1);
+        KineticClient client2 = KineticClientFactory.createInstance(config2);
+
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        try {
+            proxy1.setDropResponses(true);
+            proxy2.setDropResponses(true);
+
+            byte[] key = toByteArray("timeout-key");
+
+            client1.putForcedAsync(new Entry(key, int32(1),
+                    new EntryMetadata()), new CallbackHandler<Entry>() {
+                @Override
+                public void onSuccess(CallbackResult<Entry> result) {
+                    ;
+                }
+
+                @Override
+                public void onError(AsyncKineticException exception) {
+                    blocked.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        ;
+                    }
+                }
+            });
+
+            waitForLatch(blocked, (int) (TIMEOUT_MILLIS / 1000) + 5);
+
+            // expired while the callback of the first client is blocked
+            long start = System.currentTimeMillis();
+
+            AsyncKineticException e = putAndWaitForError(client2, new Entry(
+                    key, int32(2), new EntryMetadata()));
+
+            long elapsed = System.currentTimeMillis() - start;
+
+            assertTrue(e instanceof AsyncTimeoutException);
+            assertTrue("elapsed=" + elapsed, elapsed < 5 * TIMEOUT_MILLIS);
+
+            logger.info(this.testEndInfo());
+        } finally {
+            release.countDown();
+            client1.close();
+            client2.close();
+            proxy1.close();
+            proxy2.close();
+        }
+    }
+
+    private ClientConfiguration createTimeoutConfig(String clientName,
+            ConnectionProxy proxy) {
+
+        ClientConfiguration config = getClientConfig(clientName);
+        config.setHost("127.0.0.1");
+        config.setPort(proxy.getPort());
+        config.setRequestTimeoutMillis(TIMEOUT_MILLIS);
+
+        return config;
+    }
+
+    private AsyncKineticException putAndWaitForError(KineticClient client,
+            Entry entry) throws Exception {
+
+        final CountDownLatch done = new CountDownLatch(1);
+
+        final AtomicReference<AsyncKineticException> error = new AtomicReference<AsyncKineticException>();
+
+        client.putForcedAsync(entry, new CallbackHandler<Entry>() {
+            @Override
+            public void onSuccess(CallbackResult<Entry> result) {
+                done.countDown();
+            }
+
+            @Override
+            public void onError(AsyncKineticException exception) {
+                error.set(exception);
+                done.countDown();
+            }
+        });
+
+        waitForLatch(done, (int) (TIMEOUT_MILLIS / 1000) + 5);
+
+        assertTrue("response was not dropped", error.get() != null);
+
+        return error.get();
+    }
+}
@@ -0,0 +1,127 @@
+/**
+ * Copyright 2013-2015 Seagate Technology LLC.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla
+ * Public License, v. 2.0. If a copy of the MPL was not
+ * distributed with this file, You can obtain one at
+ * https://mozilla.org/MP:/2.0/.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but is provided AS-IS, WITHOUT ANY WARRANTY; including without 
+ * the implied warranty of MERCHANTABILITY, NON-INFRINGEMENT or 
+ * FITNESS FOR A PARTICULAR PURPOSE. See the Mozilla Public 
+ * License for more details.
+ *
+ * See www.openkinetic.org for more project information
+ */
+package com.seagate.kinetic.asyncAPI;
+
+import static com.seagate.kinetic.KineticTestHelpers.buildSuccessOnlyCallbackHandler;
+import static com.seagate.kinetic.KineticTestHelpers.int32;
+import static com.seagate.kinetic.KineticTestHelpers.toByteArray;
+import static com.seagate.kinetic.KineticTestHelpers.waitForLatch;
+import static org.testng.AssertJUnit.assertTrue;
+import static org.testng.internal.junit.ArrayAsserts.assertArrayEquals;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.logging.Logger;
+
+import kinetic.client.CallbackResult;
+import kinetic.client.ClientConfiguration;
+import kinetic.client.Entry;
+import kinetic.client.EntryMetadata;
+import kinetic.client.KineticClient;
+import kinetic.client.KineticClientFactory;
+
+import org.testng.annotations.Test;
+
+import com.seagate.kinetic.IntegrationTestCase;
+import com.seagate.kinetic.IntegrationTestLoggerFactory;
+import com.seagate.kinetic.KineticTestHelpers.SuccessAsyncHandler;
+
+/**
+ * Nio client flush consolidation test.
+ * <p>
+ * Verifies pipelined and single requests complete when flushes are
+ * consolidated.
+ *
+ * @see ClientConfiguration#setFlushBatchSize(int)
+ * @see ClientConfiguration#setFlushDelayMicros(long)
+ */
+@Test(groups = { "simulator", "drive" })
+public class FlushConsolidationTest extends IntegrationTestCase {
+    private static final Logger logger = IntegrationTestLoggerFactory
+            .getLogger(FlushConsolidationTest.class.getName());
+
+    private static final int COUNT = 200;
+
+    /**
+     * Test a burst of async puts completes when pending messages are flushed
+     * when the event loop is idle.
+     * <p>
+     */
+    @Test(dataProvider = "transportProtocolOptions")
+    public void testBurstFlushedWhenIdle(String clientName) throws Exception {
+
+        ClientConfiguration config = getClientConfig(clientName);
+        config.setFlushBatchSize(16);
+
+        runBurst(config, "flush-idle-");
+
+        logger.info(this.testEndInfo());
+    }
+
+    /**
+     * Test a burst of async puts and single synchronous requests complete
+     * when pending messages are flushed after a delay.
+     * <p>
+     */
+    @Test(dataProvider = "transportProtocolOptions")
+    public void testBurstFlushedAfterDelay(String clientName)
+            throws Exception {
+
+        ClientConfiguration config = getClientConfig(clientName);
+        config.setFlushBatchSize(16);
+        config.setFlushDelayMicros(50);
+
+        runBurst(config, "flush-delay-");
+
+        logger.info(this.testEndInfo());
+    }
+
+    private void runBurst(ClientConfiguration config, String prefix)
+            throws Exception {
+
+        KineticClient client = KineticClientFactory.createInstance(config);
+
+        try {
+            final CountDownLatch latch = new CountDownLatch(COUNT);
+
+            for (int i = 0; i < COUNT; i++) {
+                Entry entry = new Entry(toByteArray(prefix + i), int32(i),
+                        new EntryMetadata());
+
+                client.putForcedAsync(entry,
+                        buildSuccessOnlyCallbackHandler(new SuccessAsyncHandler<Entry>() {
+                            @Override
+                            public void onSuccess(CallbackResult<Entry> result) {
+                                latch.countDown();
+                            }
+                        }));
+            }
+
+            waitForLatch(latch, 10);
+
+            for (int i = 0; i < COUNT; i++) {
+                byte[] key = toByteArray(prefix + i);
+
+                Entry entry = client.get(key);
+                assertArrayEquals(int32(i), entry.getValue());
+
+                assertTrue(client.deleteForced(key));
+            }
+        } finally {
+            client.close();
+        }
+    }
+}
@@ -0,0 +1,264 @@
+/**
+ * Copyright 2013-2015 Seagate Technology LLC.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla
+ * Public License, v. 2.0. If a copy of the MPL was not
+ * distributed with this file, You can obtain one at
+ * https://mozilla.org/MP:/2.0/.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but is provided AS-IS, WITHOUT ANY WARRANTY; including without
+ * the implied warranty of MERCHANTABILITY, NON-INFRINGEMENT or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the Mozilla Public
+ * License for more details.
+ *
+ * See www.openkinetic.org for more project information
+ */
+package com.seagate.kinetic.asyncAPI;
+
+import static com.seagate.kinetic.KineticTestHelpers.int32;
+import static com.seagate.kinetic.KineticTestHelpers.toByteArray;
+import static com.seagate.kinetic.KineticTestHelpers.waitForLatch;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+import static org.testng.AssertJUnit.fail;
+import static org.testng.internal.junit.ArrayAsserts.assertArrayEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import kinetic.client.AsyncKineticException;
+import kinetic.client.CallbackHandler;
+import kinetic.client.CallbackResult;
+import kinetic.client.Entry;
+import kinetic.client.EntryMetadata;
+import kinetic.client.KineticFuture;
+import kinetic.client.KineticFutures;
+
+import org.testng.annotations.Test;
+
+import com.seagate.kinetic.IntegrationTestCase;
+import com.seagate.kinetic.IntegrationTestLoggerFactory;
+
+/**
+ * Kinetic Client future based asynchronous API test.
+ * <p>
+ *
+ * @see KineticFuture
+ * @see KineticFutures
+ */
+@Test(groups = { "simulator", "drive" })
+public class KineticFutureAPITest extends IntegrationTestCase {
+    private static final Logger logger = IntegrationTestLoggerFactory
+            .getLogger(KineticFutureAPITest.class.getName());
+
+    private static final int COUNT = 100;
+
+    /**
+     * Test put, get and delete futures composed with allOf.
+     * <p>
+     */
+    @Test(dataProvider = "transportProtocolOptions")
+    public void testFuturePutGetDelete(String clientName) throws Exception {
+
+        List<KineticFuture<Entry>> puts = new ArrayList<KineticFuture<Entry>>();
+
+        for (int i = 0; i < COUNT; i++) {
+            Entry entry = new Entry(toByteArray("future-key" + i),
+                    toByteArray("future-value" + i), new EntryMetadata());
+            puts.add(getClient(clientName).putForcedAsync(entry));
+        }
+
+        assertNull(KineticFutures.allOf(puts).get(10, TimeUnit.SECONDS));
+
+        List<KineticFuture<Entry>> gets = new ArrayList<KineticFuture<Entry>>();
+
+        for (int i = 0; i < COUNT; i++) {
+            gets.add(getClient(clientName).getAsync(
+                    toByteArray("future-key" + i)));
+        }
+
+        for (int i = 0; i < COUNT; i++) {
+            assertArrayEquals(toByteArray("future-value" + i),
+                    gets.get(i).get(10, TimeUnit.SECONDS).getValue());
+        }
+
+        List<KineticFuture<Boolean>> deletes = new ArrayList<KineticFuture<Boolean>>();
+
+        for (int i = 0; i < COUNT; i++) {
+            deletes.add(getClient(clientName).deleteForcedAsync(
+                    toByteArray("future-key" + i)));
+        }
+
+        KineticFutures.allOf(deletes).get(10, TimeUnit.SECONDS);
+
+        for (KineticFuture<Boolean> delete : deletes) {
+            assertTrue(delete.get());
+        }
+
+        assertNull(getClient(clientName).getAsync(toByteArray("future-key0"))
+                .get(10, TimeUnit.SECONDS));
+
+        logger.info(this.testEndInfo());
+    }
+
+    /**
+     * Test a failed operation is reported by the future and by allOf.
+     * <p>
+     */
+    @Test(dataProvider = "transportProtocolOptions")
+    public void testFutureFailure(String clientName) throws Exception {
+
+        byte[] key = toByteArray("future-failure-key");
+
+        Entry entry = new Entry(key, toByteArray("value"), new EntryMetadata());
+        entry.getEntryMetadata().setVersion(int32(1));
+
+        getClient(clientName).putForcedAsync(entry).get();
+
+        // wrong db version
+        Entry update = new Entry(key, toByteArray("value2"),
+                new EntryMetadata());
+        update.getEntryMetadata().setVersion(int32(7));
+
+        KineticFuture<Entry> failed = getClient(clientName).putAsync(update,
+                int32(2));
+
+        List<KineticFuture<Entry>> futures = new ArrayList<KineticFuture<Entry>>();
+        futures.add(getClient(clientName).getAsync(key));
+        futures.add(failed);
+
+        try {
+            KineticFutures.allOf(futures).get(10, TimeUnit.SECONDS);
+            fail("allOf should have failed");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof AsyncKineticException);
+        }
+
+        try {
+            failed.get();
+            fail("put should have failed");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof AsyncKineticException);
+        }
+
+        assertTrue(getClient(clientName).deleteForcedAsync(key).get());
+
+        logger.info(this.testEndInfo());
+    }
+
+    /**
+     * Test callback handlers registered before and after completion are
+     * invoked.
+     * <p>
+     */
+    @Test(dataProvider = "transportProtocolOptions")
+    public void testFutureAddCallback(String clientName) throws Exception {
+
+        byte[] key = toByteArray("future-callback-key");
+
+        Entry entry = new Entry(key, toByteArray("value"), new EntryMetadata());
+
+        KineticFuture<Entry> put = getClient(clientName).putForcedAsync(entry);
+
+        final CountDownLatch latch = new CountDownLatch(2);
+
+        CallbackHandler<Entry> handler = new CallbackHandler<Entry>() {
+            @Override
+            public void onSuccess(CallbackResult<Entry> result) {
+                latch.countDown();
+            }
+
+            @Override
+            public void onError(AsyncKineticException exception) {
+                fail("async exception: " + exception);
+            }
+        };
+
+        put.addCallback(handler);
+
+        put.get();
+
+        put.addCallback(handler);
+
+        waitForLatch(latch);
+
+        KineticFuture<EntryMetadata> metadata = getClient(clientName)
+                .getMetadataAsync(key);
+
+        assertTrue(metadata.get() != null);
+
+        assertTrue(getClient(clientName).deleteForcedAsync(key).get());
+
+        logger.info(this.testEndInfo());
+    }
+
+    /**
+     * Test getKeyRange future.
+     * <p>
+     */
+    @Test(dataProvider = "transportProtocolOptions")
+    public void testFutureGetKeyRange(String clientName) throws Exception {
+
+        List<KineticFuture<Entry>> puts = new ArrayList<KineticFuture<Entry>>();
+
+        for (int i = 0; i < 10; i++) {
+            puts.add(getClient(clientName).putForcedAsync(
+                    new Entry(toByteArray("future-range" + i),
+                            toByteArray("v"), new EntryMetadata())));
+        }
+
+        KineticFutures.allOf(puts).get();
+
+        List<byte[]> keys = getClient(clientName).getKeyRangeAsync(
+                toByteArray("future-range0"), true,
+                toByteArray("future-range9"), true, 100).get();
+
+        assertEquals(10, keys.size());
+
+        for (int i = 0; i < 10; i++) {
+            assertArrayEquals(toByteArray("future-range" + i), keys.get(i));
+            getClient(clientName).deleteForced(keys.get(i));
+        }
+
+        logger.info(this.testEndInfo());
+    }
+
+    /**
+     * Test a cancelled future.
+     * <p>
+     */
+    @Test(dataProvider = "transportProtocolOptions")
+    public void testFutureCancel(String clientName) throws Exception {
+
+        KineticFuture<Entry> get = getClient(clientName).getAsync(
+                toByteArray("future-cancel-key"));
+
+        boolean cancelled = get.cancel(false);
+
+        assertTrue(get.isDone());
+        assertEquals(cancelled, get.isCancelled());
+
+        if (cancelled) {
+            try {
+                get.get();
+                fail("should have thrown CancellationException");
+            } catch (CancellationException e) {
+                // expected
+            }
+        } else {
+            assertNull(get.get());
+        }
+
+        assertFalse(get.cancel(false));
+
+        logger.info(this.testEndInfo());
+    }
+}
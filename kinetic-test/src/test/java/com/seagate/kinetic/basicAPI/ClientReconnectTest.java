@@ -0,0 +1,292 @@
+/**
+ * Copyright 2013-2015 Seagate Technology LLC.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla
+ * Public License, v. 2.0. If a copy of the MPL was not
+ * distributed with this file, You can obtain one at
+ * https://mozilla.org/MP:/2.0/.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but is provided AS-IS, WITHOUT ANY WARRANTY; including without 
+ * the implied warranty of MERCHANTABILITY, NON-INFRINGEMENT or 
+ * FITNESS FOR A PARTICULAR PURPOSE. See the Mozilla Public 
+ * License for more details.
+ *
+ * See www.openkinetic.org for more project information
+ */
+package com.seagate.kinetic.basicAPI;
+
+import static com.seagate.kinetic.KineticTestHelpers.toByteArray;
+import static com.seagate.kinetic.KineticTestHelpers.waitForLatch;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+import static org.testng.AssertJUnit.fail;
+import static org.testng.internal.junit.ArrayAsserts.assertArrayEquals;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Logger;
+
+import kinetic.client.AsyncKineticException;
+import kinetic.client.CallbackHandler;
+import kinetic.client.CallbackResult;
+import kinetic.client.ClientConfiguration;
+import kinetic.client.Entry;
+import kinetic.client.EntryMetadata;
+import kinetic.client.KineticClient;
+import kinetic.client.KineticClientFactory;
+import kinetic.client.KineticException;
+
+import org.testng.annotations.Test;
+
+import com.seagate.kinetic.ConnectionProxy;
+import com.seagate.kinetic.IntegrationTestCase;
+import com.seagate.kinetic.IntegrationTestLoggerFactory;
+import com.seagate.kinetic.client.internal.DefaultKineticClient;
+
+/**
+ * Automatic reconnect test.
+ * <p>
+ * Connections are reset by a connection proxy between the client and the
+ * service while requests are in-flight.
+ *
+ * @see ClientConfiguration#setAutoReconnect(boolean)
+ */
+@Test(groups = { "simulator", "drive" })
+public class ClientReconnectTest extends IntegrationTestCase {
+    private static final Logger logger = IntegrationTestLoggerFactory
+            .getLogger(ClientReconnectTest.class.getName());
+
+    /**
+     * Test in-flight reads are replayed on the new connection.
+     * <p>
+     */
+    @Test(dataProvider = "transportProtocolOptions")
+    public void testInflightReadsReplayed(String clientName) throws Exception {
+
+        ConnectionProxy proxy = new ConnectionProxy(
+                kineticClientConfigutations.get(clientName));
+
+        final KineticClient client = KineticClientFactory
+                .createInstance(createConfig(clientName, proxy));
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            final byte[] key = toByteArray("reconnect-key");
+            byte[] value = toByteArray("reconnect-value");
+
+            client.putForced(new Entry(key, value, new EntryMetadata()));
+
+            proxy.setDropResponses(true);
+
+            Future<Entry> syncGet = executor.submit(new Callable<Entry>() {
+                @Override
+                public Entry call() throws Exception {
+                    return client.get(key);
+                }
+            });
+
+            Result<Entry> asyncGet = new Result<Entry>();
+            client.getAsync(key, asyncGet);
+
+            // let both requests reach the service
+            Thread.sleep(200);
+
+            proxy.setDropResponses(false);
+            proxy.reset();
+
+            assertArrayEquals(value, syncGet.get(10, TimeUnit.SECONDS)
+                    .getValue());
+
+            assertArrayEquals(value, asyncGet.await().getValue());
+
+            assertEquals(1, ((DefaultKineticClient) client).getReconnectCount());
+
+            // new requests use the new connection
+            assertTrue(client.deleteForced(key));
+
+            logger.info(this.testEndInfo());
+        } finally {
+            executor.shutdownNow();
+            client.close();
+            proxy.close();
+        }
+    }
+
+    /**
+     * Test in-flight versioned writes fail after a connection reset.
+     * <p>
+     */
+    @Test(dataProvider = "transportProtocolOptions")
+    public void testInflightVersionedWritesFail(String clientName)
+            throws Exception {
+
+        ConnectionProxy proxy = new ConnectionProxy(
+                kineticClientConfigutations.get(clientName));
+
+        final KineticClient client = KineticClientFactory
+                .createInstance(createConfig(clientName, proxy));
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            final byte[] key = toByteArray("reconnect-key");
+            final byte[] version = toByteArray("0");
+
+            client.deleteForced(key);
+            client.put(new Entry(key, toByteArray("v0")), version);
+
+            proxy.setDropResponses(true);
+
+            Future<Entry> syncPut = executor.submit(new Callable<Entry>() {
+                @Override
+                public Entry call() throws Exception {
+                    Entry entry = new Entry(key, toByteArray("v1"));
+                    entry.getEntryMetadata().setVersion(version);
+                    return client.put(entry, toByteArray("1"));
+                }
+            });
+
+            Entry entry = new Entry(key, toByteArray("v2"));
+            entry.getEntryMetadata().setVersion(version);
+
+            Result<Entry> asyncPut = new Result<Entry>();
+            client.putAsync(entry, toByteArray("2"), asyncPut);
+
+            Thread.sleep(200);
+
+            proxy.setDropResponses(false);
+            proxy.reset();
+
+            try {
+                syncPut.get(10, TimeUnit.SECONDS);
+                fail("versioned put should have failed");
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof KineticException);
+            }
+
+            try {
+                asyncPut.await();
+                fail("versioned put should have failed");
+            } catch (AsyncKineticException e) {
+                assertTrue(e.getMessage(),
+                        e.getMessage().contains("not replayed"));
+            }
+
+            assertTrue(client.deleteForced(key));
+
+            logger.info(this.testEndInfo());
+        } finally {
+            executor.shutdownNow();
+            client.close();
+            proxy.close();
+        }
+    }
+
+    /**
+     * Test in-flight requests fail and the client is closed if the service
+     * cannot be reached.
+     * <p>
+     */
+    @Test(dataProvider = "transportProtocolOptions")
+    public void testReconnectGivesUp(String clientName) throws Exception {
+
+        ConnectionProxy proxy = new ConnectionProxy(
+                kineticClientConfigutations.get(clientName));
+
+        ClientConfiguration config = createConfig(clientName, proxy);
+        config.setMaxReconnectAttempts(2);
+
+        KineticClient client = KineticClientFactory.createInstance(config);
+
+        try {
+            byte[] key = toByteArray("reconnect-key");
+
+            proxy.setDropResponses(true);
+
+            Result<Entry> asyncGet = new Result<Entry>();
+            client.getAsync(key, asyncGet);
+
+            Thread.sleep(200);
+
+            // stop accepting connections
+            proxy.close();
+
+            try {
+                asyncGet.await();
+                fail("get should have failed");
+            } catch (AsyncKineticException e) {
+                // expected
+            }
+
+            try {
+                client.get(key);
+                fail("client should be closed");
+            } catch (KineticException e) {
+                // expected
+            }
+
+            assertEquals(0, ((DefaultKineticClient) client).getReconnectCount());
+
+            logger.info(this.testEndInfo());
+        } finally {
+            client.close();
+        }
+    }
+
+    private ClientConfiguration createConfig(String clientName,
+            ConnectionProxy proxy) throws KineticException {
+
+        ClientConfiguration config = getClientConfig(clientName);
+        config.setHost("127.0.0.1");
+        config.setPort(proxy.getPort());
+        config.setAutoReconnect(true);
+        config.setReconnectBackoffMillis(50);
+
+        // bounds each reconnect attempt to an unreachable service
+        config.setConnectTimeoutMillis(1000);
+
+        return config;
+    }
+
+    /**
+     * Callback handler that waits for the result.
+     */
+    private static final class Result<T> implements CallbackHandler<T> {
+
+        private final CountDownLatch done = new CountDownLatch(1);
+
+        private final AtomicReference<Object> result = new AtomicReference<Object>();
+
+        @Override
+        public void onSuccess(CallbackResult<T> result) {
+            this.result.set(result.getResult());
+            this.done.countDown();
+        }
+
+        @Override
+        public void onError(AsyncKineticException exception) {
+            this.result.set(exception);
+            this.done.countDown();
+        }
+
+        @SuppressWarnings("unchecked")
+        T await() throws Exception {
+
+            waitForLatch(this.done, 10);
+
+            if (this.result.get() instanceof AsyncKineticException) {
+                throw (AsyncKineticException) this.result.get();
+            }
+
+            return (T) this.result.get();
+        }
+    }
+}
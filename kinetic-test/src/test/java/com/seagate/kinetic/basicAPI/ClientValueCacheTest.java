@@ -0,0 +1,365 @@
+/**
+ * Copyright 2013-2015 Seagate Technology LLC.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla
+ * Public License, v. 2.0. If a copy of the MPL was not
+ * distributed with this file, You can obtain one at
+ * https://mozilla.org/MP:/2.0/.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but is provided AS-IS, WITHOUT ANY WARRANTY; including without 
+ * the implied warranty of MERCHANTABILITY, NON-INFRINGEMENT or 
+ * FITNESS FOR A PARTICULAR PURPOSE. See the Mozilla Public 
+ * License for more details.
+ *
+ * See www.openkinetic.org for more project information
+ */
+package com.seagate.kinetic.basicAPI;
+
+import static com.seagate.kinetic.KineticTestHelpers.int32;
+import static com.seagate.kinetic.KineticTestHelpers.toByteArray;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+import static org.testng.internal.junit.ArrayAsserts.assertArrayEquals;
+
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import kinetic.client.ClientConfiguration;
+import kinetic.client.Entry;
+import kinetic.client.EntryMetadata;
+import kinetic.client.KineticClient;
+import kinetic.client.KineticClientFactory;
+import kinetic.client.KineticException;
+
+import org.testng.annotations.Test;
+
+import com.seagate.kinetic.IntegrationTestCase;
+import com.seagate.kinetic.IntegrationTestLoggerFactory;
+import com.seagate.kinetic.client.cache.CacheMetrics;
+import com.seagate.kinetic.client.internal.DefaultKineticClient;
+import com.seagate.kinetic.client.internal.MessageFactory;
+import com.seagate.kinetic.client.internal.PooledKineticClient;
+import com.seagate.kinetic.common.lib.KineticMessage;
+import com.seagate.kinetic.proto.Kinetic.Command;
+
+/**
+ * Client read cache test.
+ * <p>
+ * Entries are written by a second, uncached client to simulate writes by
+ * other clients.
+ *
+ * @see ClientConfiguration#setCacheCapacityBytes(long)
+ * @see CacheMetrics
+ */
+@Test(groups = { "simulator", "drive" })
+public class ClientValueCacheTest extends IntegrationTestCase {
+    private static final Logger logger = IntegrationTestLoggerFactory
+            .getLogger(ClientValueCacheTest.class.getName());
+
+    /**
+     * Test reads within the time to live are served from the cache, even if
+     * the entry was overwritten by another client.
+     * <p>
+     */
+    @Test(dataProvider = "transportProtocolOptions")
+    public void testReadsWithinTtlAreHits(String clientName) throws Exception {
+
+        KineticClient client = createClient(clientName, 1 << 20, 60000, false);
+        KineticClient other = getClient(clientName);
+
+        try {
+            byte[] key = toByteArray("cache-key");
+
+            other.putForced(new Entry(key, toByteArray("value-1"),
+                    new EntryMetadata(int32(1), null, null)));
+
+            for (int i = 0; i < 10; i++) {
+                assertArrayEquals(toByteArray("value-1"), client.get(key)
+                        .getValue());
+            }
+
+            other.putForced(new Entry(key, toByteArray("value-2"),
+                    new EntryMetadata(int32(2), null, null)));
+
+            // not revalidated within the ttl
+            assertArrayEquals(toByteArray("value-1"), client.get(key)
+                    .getValue());
+
+            CacheMetrics metrics = metrics(client);
+            assertEquals(1, metrics.getMissCount());
+            assertEquals(10, metrics.getHitCount());
+            assertEquals(0, metrics.getRevalidatedCount());
+            assertEquals(1, metrics.getEntryCount());
+
+            other.deleteForced(key);
+
+            logger.info(this.testEndInfo());
+        } finally {
+            client.close();
+        }
+    }
+
+    /**
+     * Test cached entries are revalidated with their version when the time to
+     * live is 0.
+     * <p>
+     */
+    @Test(dataProvider = "transportProtocolOptions")
+    public void testReadsAreRevalidated(String clientName) throws Exception {
+
+        KineticClient client = createClient(clientName, 1 << 20, 0, false);
+        KineticClient other = getClient(clientName);
+
+        try {
+            byte[] key = toByteArray("cache-key");
+
+            other.putForced(new Entry(key, toByteArray("value-1"),
+                    new EntryMetadata(int32(1), null, null)));
+
+            assertArrayEquals(toByteArray("value-1"), client.get(key)
+                    .getValue());
+            assertArrayEquals(toByteArray("value-1"), client.get(key)
+                    .getValue());
+
+            CacheMetrics metrics = metrics(client);
+            assertEquals(1, metrics.getMissCount());
+            assertEquals(1, metrics.getRevalidatedCount());
+
+            other.putForced(new Entry(key, toByteArray("value-2"),
+                    new EntryMetadata(int32(2), null, null)));
+
+            Entry entry = client.get(key);
+            assertArrayEquals(toByteArray("value-2"), entry.getValue());
+            assertArrayEquals(int32(2), entry.getEntryMetadata().getVersion());
+            assertEquals(2, metrics.getMissCount());
+
+            other.deleteForced(key);
+
+            assertNull(client.get(key));
+            assertEquals(0, metrics.getEntryCount());
+
+            logger.info(this.testEndInfo());
+        } finally {
+            client.close();
+        }
+    }
+
+    /**
+     * Test writes of the client update or invalidate its cached entries.
+     * <p>
+     */
+    @Test(dataProvider = "transportProtocolOptions")
+    public void testOwnWritesUpdateCache(String clientName) throws Exception {
+
+        KineticClient client = createClient(clientName, 1 << 20, 60000, false);
+
+        try {
+            byte[] key = toByteArray("cache-key");
+
+            // cached by the put
+            client.putForced(new Entry(key, toByteArray("value-1"),
+                    new EntryMetadata(int32(1), null, null)));
+
+            Entry entry = client.get(key);
+            assertArrayEquals(toByteArray("value-1"), entry.getValue());
+
+            CacheMetrics metrics = metrics(client);
+            assertEquals(0, metrics.getMissCount());
+            assertEquals(1, metrics.getHitCount());
+
+            // versioned put
+            client.put(entry, int32(2));
+
+            entry = client.get(key);
+            assertArrayEquals(int32(2), entry.getEntryMetadata().getVersion());
+            assertEquals(0, metrics.getMissCount());
+
+            // async put invalidates
+            client.putForcedAsync(
+                    new Entry(key, toByteArray("value-3"), new EntryMetadata(
+                            int32(3), null, null))).get(10, TimeUnit.SECONDS);
+
+            assertArrayEquals(toByteArray("value-3"), client.get(key)
+                    .getValue());
+            assertEquals(1, metrics.getMissCount());
+
+            client.deleteForced(key);
+
+            assertNull(client.get(key));
+            assertEquals(2, metrics.getMissCount());
+            assertTrue(metrics.getInvalidationCount() >= 2);
+
+            logger.info(this.testEndInfo());
+        } finally {
+            client.close();
+        }
+    }
+
+    /**
+     * Test the cache stays within its capacity, and a frequently read entry
+     * is not evicted by a scan.
+     * <p>
+     */
+    @Test(dataProvider = "transportProtocolOptions")
+    public void testScanDoesNotEvictFrequentEntry(String clientName)
+            throws Exception {
+
+        long capacity = 64 * 1024;
+
+        KineticClient client = createClient(clientName, capacity, 60000, false);
+
+        try {
+            byte[] value = new byte[1024];
+
+            byte[] hot = toByteArray("cache-hot");
+            client.putForced(new Entry(hot, value, new EntryMetadata(int32(1),
+                    null, null)));
+
+            // promoted to the protected segment
+            client.get(hot);
+
+            int count = 200;
+
+            for (int i = 0; i < count; i++) {
+                byte[] key = toByteArray("cache-scan" + i);
+                client.putForced(new Entry(key, value, new EntryMetadata(
+                        int32(1), null, null)));
+            }
+
+            CacheMetrics metrics = metrics(client);
+
+            assertTrue(metrics.getEvictionCount() > 0);
+            assertTrue(metrics.getSizeBytes() <= capacity);
+
+            long misses = metrics.getMissCount();
+
+            client.get(hot);
+
+            assertEquals(misses, metrics.getMissCount());
+
+            client.deleteForced(hot);
+            for (int i = 0; i < count; i++) {
+                client.deleteForced(toByteArray("cache-scan" + i));
+            }
+
+            logger.info(this.testEndInfo());
+        } finally {
+            client.close();
+        }
+    }
+
+    /**
+     * Test large values are cached off heap.
+     * <p>
+     */
+    @Test(dataProvider = "transportProtocolOptions")
+    public void testOffHeapValues(String clientName) throws Exception {
+
+        KineticClient client = createClient(clientName, 8 << 20, 60000, true);
+        KineticClient other = getClient(clientName);
+
+        try {
+            byte[] key = toByteArray("cache-key");
+
+            byte[] value = new byte[16 * 1024];
+            for (int i = 0; i < value.length; i++) {
+                value[i] = (byte) i;
+            }
+
+            other.putForced(new Entry(key, value, new EntryMetadata(int32(1),
+                    null, null)));
+
+            assertArrayEquals(value, client.get(key).getValue());
+
+            Entry entry = client.get(key);
+            assertTrue(entry.getValueBuffer().isDirect());
+            assertArrayEquals(value, entry.getValue());
+
+            assertEquals(1, metrics(client).getHitCount());
+
+            other.deleteForced(key);
+
+            logger.info(this.testEndInfo());
+        } finally {
+            client.close();
+        }
+    }
+
+    /**
+     * Test a pooled client shares one cache across its member connections, so
+     * a value written on one member is read on the others.
+     * <p>
+     * Entry operations are sent on the member of their key. The values are
+     * written with generic requests, which are spread over the members.
+     */
+    @Test(dataProvider = "transportProtocolOptions")
+    public void testPooledClientSharesCache(String clientName)
+            throws Exception {
+
+        PooledKineticClient client = (PooledKineticClient) KineticClientFactory
+                .createPooledInstance(
+                        createConfig(clientName, 1 << 20, 60000, false), 4);
+
+        try {
+            byte[] key = toByteArray("cache-key");
+
+            client.deleteForced(key);
+
+            for (int i = 0; i < 16; i++) {
+
+                byte[] value = toByteArray("value-" + i);
+
+                KineticMessage request = MessageFactory
+                        .createPutRequestMessage(new Entry(key, value), int32(i));
+
+                ((Command.Builder) request.getCommand()).getBodyBuilder()
+                        .getKeyValueBuilder().setForce(true);
+
+                // sent on the least loaded member
+                client.request(request);
+
+                for (int j = 0; j < 4; j++) {
+                    Entry entry = client.get(key);
+                    assertArrayEquals(value, entry.getValue());
+                    assertArrayEquals(int32(i), entry.getEntryMetadata()
+                            .getVersion());
+                }
+            }
+
+            CacheMetrics metrics = client.getCacheMetrics();
+            assertTrue(metrics.getHitCount() > 0);
+            assertEquals(1, metrics.getEntryCount());
+
+            client.deleteForced(key);
+
+            assertNull(client.get(key));
+
+            logger.info(this.testEndInfo());
+        } finally {
+            client.close();
+        }
+    }
+
+    private static CacheMetrics metrics(KineticClient client) {
+        return ((DefaultKineticClient) client).getCacheMetrics();
+    }
+
+    private KineticClient createClient(String clientName, long capacity,
+            long ttlMillis, boolean offHeap) throws KineticException {
+        return KineticClientFactory.createInstance(createConfig(clientName,
+                capacity, ttlMillis, offHeap));
+    }
+
+    private ClientConfiguration createConfig(String clientName,
+            long capacity, long ttlMillis, boolean offHeap) {
+
+        ClientConfiguration config = getClientConfig(clientName);
+        config.setCacheCapacityBytes(capacity);
+        config.setCacheTtlMillis(ttlMillis);
+        config.setCacheOffHeap(offHeap);
+
+        return config;
+    }
+}
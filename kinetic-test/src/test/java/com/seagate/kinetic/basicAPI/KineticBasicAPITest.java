@@ -736,6 +736,56 @@ public class KineticBasicAPITest extends IntegrationTestCase {
         logger.info(this.testEndInfo());
     }
 
+    /**
+     * Test putForced API with the value set as a direct or read-only buffer,
+     * and get API returning the value as a buffer.
+     * <p>
+     *
+     * @throws KineticException
+     *             if any internal error occurred.
+     */
+    @Test(dataProvider = "transportProtocolOptions")
+    public void testPutForced_ValueBuffer(String clientName)
+            throws KineticException {
+
+        byte[] key = toByteArray("value-buffer-key");
+
+        byte[] value = new byte[256 * 1024];
+        for (int i = 0; i < value.length; i++) {
+            value[i] = (byte) i;
+        }
+
+        // direct buffer with a position, only the remaining bytes are put
+        ByteBuffer buffer = ByteBuffer.allocateDirect(value.length + 16);
+        buffer.put(new byte[16]).put(value).flip();
+        buffer.position(16);
+
+        Entry entry = new Entry(key, null, new EntryMetadata());
+        entry.setValueBuffer(buffer);
+
+        getClient(clientName).putForced(entry);
+
+        // the buffer is not consumed
+        assertEquals(16, buffer.position());
+
+        Entry entryGet = getClient(clientName).get(key);
+        assertArrayEquals(value, entryGet.getValue());
+
+        ByteBuffer getBuffer = entryGet.getValueBuffer();
+        assertEquals(value.length, getBuffer.remaining());
+        assertEquals(ByteBuffer.wrap(value), getBuffer);
+
+        // read-only heap buffer
+        entry.setValueBuffer(ByteBuffer.wrap(value).asReadOnlyBuffer());
+        getClient(clientName).putForced(entry);
+
+        assertArrayEquals(value, getClient(clientName).get(key).getValue());
+
+        assertTrue(getClient(clientName).deleteForced(key));
+
+        logger.info(this.testEndInfo());
+    }
+
     /**
      * Test deleteForced API result with a serial entries. The entries have
      * already existed in simulator/drive. The test result should be true.
@@ -0,0 +1,164 @@
+/**
+ * Copyright 2013-2015 Seagate Technology LLC.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla
+ * Public License, v. 2.0. If a copy of the MPL was not
+ * distributed with this file, You can obtain one at
+ * https://mozilla.org/MP:/2.0/.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but is provided AS-IS, WITHOUT ANY WARRANTY; including without
+ * the implied warranty of MERCHANTABILITY, NON-INFRINGEMENT or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the Mozilla Public
+ * License for more details.
+ *
+ * See www.openkinetic.org for more project information
+ */
+package com.seagate.kinetic.basicAPI;
+
+import static com.seagate.kinetic.KineticTestHelpers.toByteArray;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+import static org.testng.internal.junit.ArrayAsserts.assertArrayEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+import kinetic.client.BulkResult;
+import kinetic.client.Entry;
+import kinetic.client.EntryMetadata;
+import kinetic.client.KineticException;
+
+import org.testng.annotations.Test;
+
+import com.seagate.kinetic.IntegrationTestCase;
+import com.seagate.kinetic.IntegrationTestLoggerFactory;
+
+/**
+ * Kinetic Client multi-key API test.
+ * <p>
+ * Multi-key API include:
+ * <p>
+ * getAll(List&lt;byte[]&gt; keys)
+ * <p>
+ * putAll(List&lt;Entry&gt; entries)
+ * <p>
+ * deleteAll(List&lt;byte[]&gt; keys)
+ * <p>
+ *
+ * @see kinetic.client.KineticClient
+ */
+@Test(groups = { "simulator", "drive" })
+public class KineticMultiKeyAPITest extends IntegrationTestCase {
+    private static final Logger logger = IntegrationTestLoggerFactory
+            .getLogger(KineticMultiKeyAPITest.class.getName());
+
+    private static final int COUNT = 500;
+
+    /**
+     * Test putAll, getAll and deleteAll return results in request order.
+     * <p>
+     *
+     * @throws KineticException
+     *             if any internal error occurred.
+     */
+    @Test(dataProvider = "transportProtocolOptions")
+    public void testPutGetDeleteAll(String clientName) throws KineticException {
+
+        List<Entry> entries = new ArrayList<Entry>();
+        List<byte[]> keys = new ArrayList<byte[]>();
+
+        for (int i = 0; i < COUNT; i++) {
+            byte[] key = toByteArray("multi-key" + i);
+            keys.add(key);
+            entries.add(new Entry(key, toByteArray("multi-value" + i),
+                    new EntryMetadata()));
+        }
+
+        BulkResult<Entry> puts = getClient(clientName).putAll(entries);
+
+        assertEquals(COUNT, puts.size());
+        assertEquals(0, puts.getErrorCount());
+
+        // keys in reverse order plus one missing key
+        List<byte[]> getKeys = new ArrayList<byte[]>();
+        for (int i = COUNT - 1; i >= 0; i--) {
+            getKeys.add(keys.get(i));
+        }
+        getKeys.add(toByteArray("multi-key-missing"));
+
+        BulkResult<Entry> gets = getClient(clientName).getAll(getKeys);
+
+        assertEquals(COUNT + 1, gets.size());
+        assertEquals(0, gets.getErrorCount());
+
+        for (int i = 0; i < COUNT; i++) {
+            Entry entry = gets.getResult(i);
+            assertArrayEquals(getKeys.get(i), entry.getKey());
+            assertArrayEquals(toByteArray("multi-value" + (COUNT - 1 - i)),
+                    entry.getValue());
+        }
+
+        assertTrue(gets.isSuccess(COUNT));
+        assertNull(gets.getResult(COUNT));
+
+        BulkResult<Boolean> deletes = getClient(clientName).deleteAll(keys);
+
+        assertEquals(0, deletes.getErrorCount());
+
+        for (Boolean deleted : deletes.getResults()) {
+            assertTrue(deleted);
+        }
+
+        for (Entry entry : getClient(clientName).getAll(keys).getResults()) {
+            assertNull(entry);
+        }
+
+        logger.info(this.testEndInfo());
+    }
+
+    /**
+     * Test a failure for one entry is reported at its index and does not
+     * affect the other entries.
+     * <p>
+     *
+     * @throws KineticException
+     *             if any internal error occurred.
+     */
+    @Test(dataProvider = "transportProtocolOptions")
+    public void testPutAllPerKeyError(String clientName)
+            throws KineticException {
+
+        List<Entry> entries = new ArrayList<Entry>();
+
+        entries.add(new Entry(toByteArray("multi-error-key0"),
+                toByteArray("value"), new EntryMetadata()));
+
+        // key exceeds max key size
+        entries.add(new Entry(new byte[4097], toByteArray("value"),
+                new EntryMetadata()));
+
+        entries.add(new Entry(toByteArray("multi-error-key2"),
+                toByteArray("value"), new EntryMetadata()));
+
+        BulkResult<Entry> puts = getClient(clientName).putAll(entries);
+
+        assertEquals(1, puts.getErrorCount());
+        assertTrue(puts.isSuccess(0));
+        assertFalse(puts.isSuccess(1));
+        assertTrue(puts.getException(1) != null);
+        assertNull(puts.getResult(1));
+        assertTrue(puts.isSuccess(2));
+
+        List<byte[]> keys = new ArrayList<byte[]>();
+        keys.add(toByteArray("multi-error-key0"));
+        keys.add(toByteArray("multi-error-key2"));
+
+        assertEquals(0, getClient(clientName).deleteAll(keys).getErrorCount());
+
+        logger.info(this.testEndInfo());
+    }
+}
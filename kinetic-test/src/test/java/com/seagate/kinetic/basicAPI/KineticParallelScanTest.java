@@ -0,0 +1,176 @@
+/**
+ * Copyright 2013-2015 Seagate Technology LLC.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla
+ * Public License, v. 2.0. If a copy of the MPL was not
+ * distributed with this file, You can obtain one at
+ * https://mozilla.org/MP:/2.0/.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but is provided AS-IS, WITHOUT ANY WARRANTY; including without 
+ * the implied warranty of MERCHANTABILITY, NON-INFRINGEMENT or 
+ * FITNESS FOR A PARTICULAR PURPOSE. See the Mozilla Public 
+ * License for more details.
+ *
+ * See www.openkinetic.org for more project information
+ */
+package com.seagate.kinetic.basicAPI;
+
+import static com.seagate.kinetic.KineticTestHelpers.toByteArray;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertNotNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+import kinetic.client.Entry;
+import kinetic.client.EntryMetadata;
+import kinetic.client.KineticException;
+import kinetic.client.ScanCheckpoint;
+import kinetic.client.ScanHandler;
+
+import org.testng.annotations.Test;
+
+import com.seagate.kinetic.IntegrationTestCase;
+import com.seagate.kinetic.IntegrationTestLoggerFactory;
+
+/**
+ * Kinetic Client parallel scan API test.
+ * <p>
+ * Parallel scan API include:
+ * <p>
+ * parallelScan(byte[] startKey, byte[] endKey, int parallelism, ScanHandler
+ * handler)
+ * <p>
+ * parallelScan(ScanCheckpoint checkpoint, int parallelism, ScanHandler
+ * handler)
+ * <p>
+ *
+ * @see kinetic.client.KineticClient
+ */
+@Test(groups = { "simulator", "drive" })
+public class KineticParallelScanTest extends IntegrationTestCase {
+    private static final Logger logger = IntegrationTestLoggerFactory
+            .getLogger(KineticParallelScanTest.class.getName());
+
+    private static final int COUNT = 450;
+
+    private List<byte[]> putEntries(String clientName) throws KineticException {
+
+        List<Entry> entries = new ArrayList<Entry>();
+        List<byte[]> keys = new ArrayList<byte[]>();
+
+        for (int i = 0; i < COUNT; i++) {
+            byte[] key = toByteArray(String.format("pscan-key%05d", i));
+            keys.add(key);
+            entries.add(new Entry(key, key, new EntryMetadata()));
+        }
+
+        assertEquals(0, getClient(clientName).putAll(entries).getErrorCount());
+
+        return keys;
+    }
+
+    /**
+     * Handler that counts deliveries per key.
+     */
+    private static class CountingHandler implements ScanHandler {
+
+        final ConcurrentHashMap<String, AtomicInteger> counts = new ConcurrentHashMap<String, AtomicInteger>();
+
+        @Override
+        public void onEntry(Entry entry) throws KineticException {
+
+            String key = new String(entry.getKey());
+
+            counts.putIfAbsent(key, new AtomicInteger());
+            counts.get(key).incrementAndGet();
+        }
+    }
+
+    /**
+     * Test every entry in the range is delivered exactly once.
+     * <p>
+     *
+     * @throws KineticException
+     *             if any internal error occurred.
+     */
+    @Test(dataProvider = "transportProtocolOptions")
+    public void testParallelScan(String clientName) throws KineticException {
+
+        List<byte[]> keys = putEntries(clientName);
+
+        CountingHandler handler = new CountingHandler();
+
+        ScanCheckpoint checkpoint = getClient(clientName).parallelScan(
+                keys.get(0), keys.get(COUNT - 1), 4, handler);
+
+        assertTrue(checkpoint.isComplete());
+        assertTrue(checkpoint.getRangeCount() > 1);
+        assertEquals(COUNT, checkpoint.getScannedCount());
+        assertEquals(COUNT, handler.counts.size());
+
+        for (AtomicInteger count : handler.counts.values()) {
+            assertEquals(1, count.get());
+        }
+
+        assertEquals(0, getClient(clientName).deleteAll(keys).getErrorCount());
+
+        logger.info(this.testEndInfo());
+    }
+
+    /**
+     * Test a failed scan is resumed from its checkpoint without delivering
+     * scanned entries again.
+     * <p>
+     *
+     * @throws KineticException
+     *             if any internal error occurred.
+     */
+    @Test(dataProvider = "transportProtocolOptions")
+    public void testParallelScanResume(String clientName)
+            throws KineticException {
+
+        List<byte[]> keys = putEntries(clientName);
+
+        final String failKey = new String(keys.get(COUNT / 2));
+
+        final CountingHandler handler = new CountingHandler();
+
+        ScanCheckpoint checkpoint = getClient(clientName).parallelScan(
+                keys.get(0), keys.get(COUNT - 1), 4, new ScanHandler() {
+                    @Override
+                    public void onEntry(Entry entry) throws KineticException {
+                        if (failKey.equals(new String(entry.getKey()))) {
+                            throw new KineticException("scan failure");
+                        }
+                        handler.onEntry(entry);
+                    }
+                });
+
+        assertFalse(checkpoint.isComplete());
+        assertNotNull(checkpoint.getException());
+        assertTrue(checkpoint.getScannedCount() < COUNT);
+
+        checkpoint = getClient(clientName).parallelScan(checkpoint, 2,
+                handler);
+
+        assertTrue(checkpoint.isComplete());
+        assertEquals(null, checkpoint.getException());
+        assertEquals(COUNT, checkpoint.getScannedCount());
+        assertEquals(COUNT, handler.counts.size());
+
+        for (AtomicInteger count : handler.counts.values()) {
+            assertEquals(1, count.get());
+        }
+
+        assertEquals(0, getClient(clientName).deleteAll(keys).getErrorCount());
+
+        logger.info(this.testEndInfo());
+    }
+}
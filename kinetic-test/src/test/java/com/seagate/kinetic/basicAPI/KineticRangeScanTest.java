@@ -0,0 +1,208 @@
+/**
+ * Copyright 2013-2015 Seagate Technology LLC.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla
+ * Public License, v. 2.0. If a copy of the MPL was not
+ * distributed with this file, You can obtain one at
+ * https://mozilla.org/MP:/2.0/.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but is provided AS-IS, WITHOUT ANY WARRANTY; including without 
+ * the implied warranty of MERCHANTABILITY, NON-INFRINGEMENT or 
+ * FITNESS FOR A PARTICULAR PURPOSE. See the Mozilla Public 
+ * License for more details.
+ *
+ * See www.openkinetic.org for more project information
+ */
+package com.seagate.kinetic.basicAPI;
+
+import static com.seagate.kinetic.KineticTestHelpers.int32;
+import static com.seagate.kinetic.KineticTestHelpers.toByteArray;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.fail;
+import static org.testng.internal.junit.ArrayAsserts.assertArrayEquals;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.logging.Logger;
+
+import kinetic.client.Entry;
+import kinetic.client.EntryMetadata;
+import kinetic.client.KineticException;
+
+import org.testng.annotations.Test;
+
+import com.seagate.kinetic.IntegrationTestCase;
+import com.seagate.kinetic.IntegrationTestLoggerFactory;
+
+/**
+ * Kinetic Client range scan API test.
+ * <p>
+ * Range scan API include:
+ * <p>
+ * getRange(byte[] startKey, boolean startKeyInclusive, byte[] endKey, boolean
+ * endKeyInclusive, int pageSize)
+ * <p>
+ * getMetadataRange(byte[] startKey, boolean startKeyInclusive, byte[] endKey,
+ * boolean endKeyInclusive, int pageSize)
+ * <p>
+ *
+ * @see kinetic.client.KineticClient
+ */
+@Test(groups = { "simulator", "drive" })
+public class KineticRangeScanTest extends IntegrationTestCase {
+    private static final Logger logger = IntegrationTestLoggerFactory
+            .getLogger(KineticRangeScanTest.class.getName());
+
+    private static final int COUNT = 450;
+
+    private List<byte[]> putEntries(String clientName) throws KineticException {
+
+        List<Entry> entries = new ArrayList<Entry>();
+        List<byte[]> keys = new ArrayList<byte[]>();
+
+        for (int i = 0; i < COUNT; i++) {
+            // zero padded so key order matches index order
+            byte[] key = toByteArray(String.format("scan-key%05d", i));
+            keys.add(key);
+            entries.add(new Entry(key, toByteArray("scan-value" + i),
+                    new EntryMetadata()));
+        }
+
+        assertEquals(0, getClient(clientName).putAll(entries).getErrorCount());
+
+        return keys;
+    }
+
+    /**
+     * Test a range scan spanning several pages returns all entries in key
+     * order.
+     * <p>
+     *
+     * @throws KineticException
+     *             if any internal error occurred.
+     */
+    @Test(dataProvider = "transportProtocolOptions")
+    public void testRangeScanAcrossPages(String clientName)
+            throws KineticException {
+
+        List<byte[]> keys = putEntries(clientName);
+
+        Iterator<Entry> it = getClient(clientName).getRange(keys.get(0),
+                true, keys.get(COUNT - 1), true, 100).iterator();
+
+        for (int i = 0; i < COUNT; i++) {
+            Entry entry = it.next();
+            assertArrayEquals(keys.get(i), entry.getKey());
+            assertArrayEquals(toByteArray("scan-value" + i), entry.getValue());
+        }
+
+        assertFalse(it.hasNext());
+
+        // exclusive bounds, page size divides the range
+        it = getClient(clientName).getRange(keys.get(49), false,
+                keys.get(250), false, 50).iterator();
+
+        int count = 0;
+        while (it.hasNext()) {
+            assertArrayEquals(keys.get(50 + count), it.next().getKey());
+            count++;
+        }
+
+        assertEquals(200, count);
+
+        assertEquals(0, getClient(clientName).deleteAll(keys).getErrorCount());
+
+        assertFalse(getClient(clientName)
+                .getRange(keys.get(0), true, keys.get(COUNT - 1), true, 100)
+                .iterator().hasNext());
+
+        logger.info(this.testEndInfo());
+    }
+
+    /**
+     * Test a metadata range scan spanning several pages returns the metadata
+     * of all entries in key order, without values, and skips entries deleted
+     * during the scan.
+     * <p>
+     *
+     * @throws KineticException
+     *             if any internal error occurred.
+     */
+    @Test(dataProvider = "transportProtocolOptions")
+    public void testMetadataRangeScanAcrossPages(String clientName)
+            throws KineticException {
+
+        List<Entry> entries = new ArrayList<Entry>();
+        List<byte[]> keys = new ArrayList<byte[]>();
+
+        for (int i = 0; i < COUNT; i++) {
+            byte[] key = toByteArray(String.format("scan-key%05d", i));
+            keys.add(key);
+            entries.add(new Entry(key, toByteArray("scan-value" + i),
+                    new EntryMetadata(int32(i), toByteArray("scan-tag" + i),
+                            null)));
+        }
+
+        assertEquals(0, getClient(clientName).putAll(entries).getErrorCount());
+
+        Iterator<Entry> it = getClient(clientName).getMetadataRange(
+                keys.get(0), true, keys.get(COUNT - 1), true, 100).iterator();
+
+        // listed in the first page, not requested yet
+        for (int i = 50; i < 60; i++) {
+            getClient(clientName).deleteForced(keys.get(i));
+        }
+
+        int count = 0;
+
+        for (int i = 0; i < COUNT; i++) {
+
+            if (i >= 50 && i < 60) {
+                continue;
+            }
+
+            Entry entry = it.next();
+            assertArrayEquals(keys.get(i), entry.getKey());
+            assertNull(entry.getValue());
+            assertArrayEquals(int32(i), entry.getEntryMetadata().getVersion());
+            assertArrayEquals(toByteArray("scan-tag" + i), entry
+                    .getEntryMetadata().getTag());
+
+            count++;
+        }
+
+        assertFalse(it.hasNext());
+        assertEquals(COUNT - 10, count);
+
+        assertEquals(0, getClient(clientName).deleteAll(keys).getErrorCount());
+
+        assertFalse(getClient(clientName)
+                .getMetadataRange(keys.get(0), true, keys.get(COUNT - 1),
+                        true, 100).iterator().hasNext());
+
+        logger.info(this.testEndInfo());
+    }
+
+    /**
+     * Test a page size larger than the device max key range count is
+     * rejected.
+     * <p>
+     */
+    @Test(dataProvider = "transportProtocolOptions")
+    public void testRangeScanPageSizeTooLarge(String clientName) {
+
+        try {
+            getClient(clientName).getRange(toByteArray("scan-key"), true,
+                    toByteArray("scan-key~"), true, 100000);
+            fail("page size larger than the max key range count is accepted");
+        } catch (KineticException e) {
+            // expected
+        }
+
+        logger.info(this.testEndInfo());
+    }
+}
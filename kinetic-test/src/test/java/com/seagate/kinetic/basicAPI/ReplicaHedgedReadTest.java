@@ -0,0 +1,267 @@
+/**
+ * Copyright 2013-2015 Seagate Technology LLC.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla
+ * Public License, v. 2.0. If a copy of the MPL was not
+ * distributed with this file, You can obtain one at
+ * https://mozilla.org/MP:/2.0/.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but is provided AS-IS, WITHOUT ANY WARRANTY; including without 
+ * the implied warranty of MERCHANTABILITY, NON-INFRINGEMENT or 
+ * FITNESS FOR A PARTICULAR PURPOSE. See the Mozilla Public 
+ * License for more details.
+ *
+ * See www.openkinetic.org for more project information
+ */
+package com.seagate.kinetic.basicAPI;
+
+import static com.seagate.kinetic.KineticTestHelpers.toByteArray;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+import static org.testng.AssertJUnit.fail;
+import static org.testng.internal.junit.ArrayAsserts.assertArrayEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import kinetic.client.AsyncTimeoutException;
+import kinetic.client.ClientConfiguration;
+import kinetic.client.Entry;
+import kinetic.client.EntryMetadata;
+import kinetic.client.KineticException;
+import kinetic.client.KineticFuture;
+import kinetic.client.cluster.HedgePolicy;
+import kinetic.client.cluster.KineticClusterClientFactory;
+import kinetic.client.cluster.KineticReplicaClient;
+
+import org.testng.annotations.Test;
+
+import com.seagate.kinetic.ConnectionProxy;
+import com.seagate.kinetic.IntegrationTestCase;
+import com.seagate.kinetic.IntegrationTestLoggerFactory;
+
+/**
+ * Hedged replica read test.
+ * <p>
+ * Both replicas are connections to the same service, the primary through a
+ * connection proxy. Responses to the primary are dropped by the proxy to
+ * simulate a slow drive.
+ *
+ * @see KineticReplicaClient
+ * @see HedgePolicy
+ */
+@Test(groups = { "simulator", "drive" })
+public class ReplicaHedgedReadTest extends IntegrationTestCase {
+    private static final Logger logger = IntegrationTestLoggerFactory
+            .getLogger(ReplicaHedgedReadTest.class.getName());
+
+    private static final long MAX_DELAY_MILLIS = 100;
+
+    /**
+     * Test a read is hedged to the second replica when the primary does not
+     * respond, and completes long before the request timeout.
+     * <p>
+     */
+    @Test(dataProvider = "transportProtocolOptions")
+    public void testReadHedgedToSecondReplica(String clientName)
+            throws Exception {
+
+        ConnectionProxy proxy = new ConnectionProxy(
+                kineticClientConfigutations.get(clientName));
+
+        List<ClientConfiguration> replicas = new ArrayList<ClientConfiguration>();
+        replicas.add(createConfig(clientName, proxy, 10000));
+        replicas.add(createConfig(clientName, null, 10000));
+
+        KineticReplicaClient client = KineticClusterClientFactory
+                .createReplicaInstance(replicas, createPolicy(1));
+
+        try {
+            byte[] key = toByteArray("hedge-key");
+            byte[] value = toByteArray("hedge-value");
+
+            client.getReplicaClient(1).putForced(
+                    new Entry(key, value, new EntryMetadata()));
+
+            proxy.setDropResponses(true);
+
+            long start = System.currentTimeMillis();
+
+            KineticFuture<Entry> future = client.getAsync(key);
+            assertArrayEquals(value, future.get(5, TimeUnit.SECONDS)
+                    .getValue());
+
+            assertArrayEquals(value, client.get(key).getValue());
+
+            long elapsed = System.currentTimeMillis() - start;
+
+            assertTrue("elapsed=" + elapsed, elapsed < 5000);
+            assertEquals(2, client.getHedgeCount());
+
+            client.getReplicaClient(1).deleteForced(key);
+
+            logger.info(this.testEndInfo());
+        } finally {
+            client.close();
+            proxy.close();
+        }
+    }
+
+    /**
+     * Test the hedge delay follows the read latency percentile, so that only
+     * few reads are hedged when all replicas respond.
+     * <p>
+     */
+    @Test(dataProvider = "transportProtocolOptions")
+    public void testFewReadsHedgedWhenPrimaryResponds(String clientName)
+            throws Exception {
+
+        List<ClientConfiguration> replicas = new ArrayList<ClientConfiguration>();
+        replicas.add(createConfig(clientName, null, 10000));
+        replicas.add(createConfig(clientName, null, 10000));
+
+        KineticReplicaClient client = KineticClusterClientFactory
+                .createReplicaInstance(replicas, createPolicy(1));
+
+        try {
+            byte[] key = toByteArray("hedge-key");
+            byte[] value = toByteArray("hedge-value");
+
+            client.getReplicaClient(0).putForced(
+                    new Entry(key, value, new EntryMetadata()));
+
+            int count = 500;
+
+            for (int i = 0; i < count; i++) {
+                assertArrayEquals(value, client.get(key).getValue());
+            }
+
+            assertTrue("delay=" + client.getHedgeDelayMillis(),
+                    client.getHedgeDelayMillis() <= MAX_DELAY_MILLIS);
+
+            assertTrue("hedges=" + client.getHedgeCount(),
+                    client.getHedgeCount() < count / 2);
+
+            client.getReplicaClient(0).deleteForced(key);
+
+            logger.info(this.testEndInfo());
+        } finally {
+            client.close();
+        }
+    }
+
+    /**
+     * Test a read fails over to the second replica when the primary fails,
+     * without hedging.
+     * <p>
+     */
+    @Test(dataProvider = "transportProtocolOptions")
+    public void testReadFailsOverToSecondReplica(String clientName)
+            throws Exception {
+
+        ConnectionProxy proxy = new ConnectionProxy(
+                kineticClientConfigutations.get(clientName));
+
+        List<ClientConfiguration> replicas = new ArrayList<ClientConfiguration>();
+        replicas.add(createConfig(clientName, proxy, 500));
+        replicas.add(createConfig(clientName, null, 10000));
+
+        KineticReplicaClient client = KineticClusterClientFactory
+                .createReplicaInstance(replicas, createPolicy(0));
+
+        try {
+            byte[] key = toByteArray("hedge-key");
+            byte[] value = toByteArray("hedge-value");
+
+            client.getReplicaClient(1).putForced(
+                    new Entry(key, value, new EntryMetadata()));
+
+            proxy.setDropResponses(true);
+
+            assertArrayEquals(value, client.get(key).getValue());
+
+            assertEquals(0, client.getHedgeCount());
+
+            client.getReplicaClient(1).deleteForced(key);
+
+            logger.info(this.testEndInfo());
+        } finally {
+            client.close();
+            proxy.close();
+        }
+    }
+
+    /**
+     * Test a read fails when all replicas fail.
+     * <p>
+     */
+    @Test(dataProvider = "transportProtocolOptions")
+    public void testReadFailsWhenAllReplicasFail(String clientName)
+            throws Exception {
+
+        ConnectionProxy primary = new ConnectionProxy(
+                kineticClientConfigutations.get(clientName));
+        ConnectionProxy secondary = new ConnectionProxy(
+                kineticClientConfigutations.get(clientName));
+
+        List<ClientConfiguration> replicas = new ArrayList<ClientConfiguration>();
+        replicas.add(createConfig(clientName, primary, 500));
+        replicas.add(createConfig(clientName, secondary, 500));
+
+        KineticReplicaClient client = KineticClusterClientFactory
+                .createReplicaInstance(replicas, createPolicy(1));
+
+        try {
+            primary.setDropResponses(true);
+            secondary.setDropResponses(true);
+
+            try {
+                client.getAsync(toByteArray("hedge-key")).get(10,
+                        TimeUnit.SECONDS);
+                fail("should have failed");
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof AsyncTimeoutException);
+            }
+
+            try {
+                client.get(toByteArray("hedge-key"));
+                fail("should have failed");
+            } catch (KineticException e) {
+                // expected
+            }
+
+            logger.info(this.testEndInfo());
+        } finally {
+            client.close();
+            primary.close();
+            secondary.close();
+        }
+    }
+
+    private HedgePolicy createPolicy(int maxHedges) {
+
+        HedgePolicy policy = new HedgePolicy();
+        policy.setMaxDelayMillis(MAX_DELAY_MILLIS);
+        policy.setMaxHedges(maxHedges);
+
+        return policy;
+    }
+
+    private ClientConfiguration createConfig(String clientName,
+            ConnectionProxy proxy, long timeoutMillis) throws KineticException {
+
+        ClientConfiguration config = getClientConfig(clientName);
+        config.setRequestTimeoutMillis(timeoutMillis);
+
+        if (proxy != null) {
+            config.setHost("127.0.0.1");
+            config.setPort(proxy.getPort());
+        }
+
+        return config;
+    }
+}
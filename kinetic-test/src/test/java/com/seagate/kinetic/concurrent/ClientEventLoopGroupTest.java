@@ -0,0 +1,219 @@
+/**
+ * Copyright 2013-2015 Seagate Technology LLC.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla
+ * Public License, v. 2.0. If a copy of the MPL was not
+ * distributed with this file, You can obtain one at
+ * https://mozilla.org/MP:/2.0/.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but is provided AS-IS, WITHOUT ANY WARRANTY; including without 
+ * the implied warranty of MERCHANTABILITY, NON-INFRINGEMENT or 
+ * FITNESS FOR A PARTICULAR PURPOSE. See the Mozilla Public 
+ * License for more details.
+ *
+ * See www.openkinetic.org for more project information
+ */
+package com.seagate.kinetic.concurrent;
+
+import static com.seagate.kinetic.KineticTestHelpers.toByteArray;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+import static org.testng.AssertJUnit.fail;
+import static org.testng.internal.junit.ArrayAsserts.assertArrayEquals;
+import io.netty.channel.EventLoop;
+import io.netty.channel.nio.NioEventLoopGroup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+import kinetic.client.ClientConfiguration;
+import kinetic.client.ClientEventLoopGroup;
+import kinetic.client.Entry;
+import kinetic.client.EntryMetadata;
+import kinetic.client.KineticClient;
+import kinetic.client.KineticClientFactory;
+import kinetic.client.KineticException;
+
+import org.testng.annotations.Test;
+
+import com.seagate.kinetic.IntegrationTestCase;
+import com.seagate.kinetic.IntegrationTestLoggerFactory;
+
+/**
+ * Client event loop group test.
+ * <p>
+ * Verifies event loop assignment and reference counted shutdown of an event
+ * loop group shared by client instances.
+ *
+ * @see ClientConfiguration#setEventLoopGroup(ClientEventLoopGroup)
+ * @see ClientConfiguration#setEventLoopAffinity(int)
+ * @see ClientConfiguration#setNioServiceThreads(int)
+ */
+@Test(groups = { "simulator", "drive" })
+public class ClientEventLoopGroupTest extends IntegrationTestCase {
+    private static final Logger logger = IntegrationTestLoggerFactory
+            .getLogger(ClientEventLoopGroupTest.class.getName());
+
+    /**
+     * Test connections are spread evenly over the event loops of a shared
+     * group, and the group is shut down when the creator and all clients
+     * released it.
+     * <p>
+     */
+    @Test(dataProvider = "transportProtocolOptions")
+    public void testSharedGroupSpreadsConnections(String clientName)
+            throws Exception {
+
+        ClientEventLoopGroup group = new ClientEventLoopGroup(2);
+
+        ClientConfiguration config = getClientConfig(clientName);
+        config.setEventLoopGroup(group);
+
+        boolean usesGroup = usesEventLoopGroup(config);
+
+        List<KineticClient> clients = new ArrayList<KineticClient>();
+
+        try {
+            for (int i = 0; i < 4; i++) {
+                clients.add(KineticClientFactory.createInstance(config));
+            }
+
+            if (usesGroup) {
+                assertEquals(2, group.getConnectionCount(0));
+                assertEquals(2, group.getConnectionCount(1));
+                assertEquals(5, group.getReferenceCount());
+            }
+
+            for (int i = 0; i < clients.size(); i++) {
+                putGetDelete(clients.get(i), "shared-group-" + i);
+            }
+        } finally {
+            for (KineticClient client : clients) {
+                client.close();
+            }
+        }
+
+        if (usesGroup) {
+            assertEquals(0, group.getConnectionCount(0));
+            assertEquals(0, group.getConnectionCount(1));
+            assertEquals(1, group.getReferenceCount());
+        }
+
+        group.close();
+
+        assertEquals(0, group.getReferenceCount());
+        assertTrue(group.getEventLoopGroup().isShuttingDown());
+
+        logger.info(this.testEndInfo());
+    }
+
+    /**
+     * Test clients with the same affinity are assigned the same event loop.
+     * <p>
+     */
+    @Test(dataProvider = "transportProtocolOptions")
+    public void testEventLoopAffinity(String clientName) throws Exception {
+
+        ClientEventLoopGroup group = new ClientEventLoopGroup(2);
+
+        ClientConfiguration config = getClientConfig(clientName);
+        config.setEventLoopGroup(group);
+        config.setEventLoopAffinity(3);
+
+        List<KineticClient> clients = new ArrayList<KineticClient>();
+
+        try {
+            for (int i = 0; i < 3; i++) {
+                clients.add(KineticClientFactory.createInstance(config));
+            }
+
+            if (usesEventLoopGroup(config)) {
+                assertEquals(0, group.getConnectionCount(0));
+                assertEquals(3, group.getConnectionCount(1));
+            }
+
+            putGetDelete(clients.get(0), "affinity-key");
+        } finally {
+            for (KineticClient client : clients) {
+                client.close();
+            }
+
+            group.close();
+        }
+
+        logger.info(this.testEndInfo());
+    }
+
+    /**
+     * Test a client with dedicated nio service threads.
+     * <p>
+     */
+    @Test(dataProvider = "transportProtocolOptions")
+    public void testDedicatedServiceThreads(String clientName)
+            throws Exception {
+
+        ClientConfiguration config = getClientConfig(clientName);
+        config.setNioServiceThreads(1);
+
+        KineticClient client = KineticClientFactory.createInstance(config);
+
+        try {
+            putGetDelete(client, "dedicated-key");
+        } finally {
+            client.close();
+        }
+
+        logger.info(this.testEndInfo());
+    }
+
+    /**
+     * Test an application supplied group is not used after it is shut down.
+     * <p>
+     */
+    @Test
+    public void testAcquireAfterClose() {
+
+        ClientEventLoopGroup group = new ClientEventLoopGroup(
+                new NioEventLoopGroup(3));
+
+        assertEquals(3, group.getEventLoopCount());
+
+        EventLoop loop = group.acquireEventLoop(-1);
+
+        group.close();
+
+        // still referenced by the connection
+        assertTrue(!group.getEventLoopGroup().isShuttingDown());
+
+        group.releaseEventLoop(loop);
+
+        assertTrue(group.getEventLoopGroup().isShuttingDown());
+
+        try {
+            group.acquireEventLoop(-1);
+            fail("should have thrown IllegalStateException");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
+
+    private static void putGetDelete(KineticClient client, String name)
+            throws KineticException {
+
+        byte[] key = toByteArray(name);
+        byte[] value = toByteArray("value-" + name);
+
+        client.putForced(new Entry(key, value, new EntryMetadata()));
+
+        assertArrayEquals(value, client.get(key).getValue());
+
+        assertTrue(client.deleteForced(key));
+    }
+
+    private static boolean usesEventLoopGroup(ClientConfiguration config) {
+        // the blocking tcp transport does not use event loops
+        return config.getUseNio() || config.getUseSsl();
+    }
+}
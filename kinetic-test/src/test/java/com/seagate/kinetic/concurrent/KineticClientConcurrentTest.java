@@ -24,7 +24,11 @@ import org.testng.Assert;
 import static com.seagate.kinetic.KineticTestHelpers.toByteArray;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -184,6 +188,66 @@ public class KineticClientConcurrentTest extends IntegrationTestCase {
 		logger.info(this.testEndInfo());
 	}
 	
+	/**
+	 * 
+	 * Concurrent threads share one client instance. Each thread puts and gets
+	 * its own entries so that many requests are in flight on the same
+	 * connection.
+	 * 
+	 * @throws KineticException
+	 *             if any kinetic internal error occurred.
+	 * @throws InterruptedException
+	 *             if any interrupt error occurred.
+	 */
+	@Test(dataProvider = "transportProtocolOptions")
+	public void sharedClientConcurrentTest(String clientName)
+			throws InterruptedException, KineticException {
+		final int threads = 64;
+		final int opsEachThread = 20;
+		final CountDownLatch latch = new CountDownLatch(threads);
+		final List<String> failures = Collections
+				.synchronizedList(new ArrayList<String>());
+		final KineticClient sharedClient = KineticClientFactory
+				.createInstance(kineticClientConfigutations.get(clientName));
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+
+		for (int i = 0; i < threads; i++) {
+			final int threadId = i;
+			pool.execute(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						for (int j = 0; j < opsEachThread; j++) {
+							byte[] key = toByteArray("shared-" + threadId + "-"
+									+ j);
+							byte[] value = toByteArray("value-" + threadId
+									+ "-" + j);
+							sharedClient.putForced(new Entry(key, value));
+							Entry entry = sharedClient.get(key);
+							if (entry == null
+									|| !Arrays.equals(value, entry.getValue())) {
+								failures.add(new String(key));
+							}
+							sharedClient.deleteForced(key);
+						}
+					} catch (KineticException e) {
+						failures.add(e.getMessage());
+					} finally {
+						latch.countDown();
+					}
+				}
+			});
+		}
+
+		latch.await();
+		pool.shutdown();
+		sharedClient.close();
+
+		assertTrue(failures.toString(), failures.isEmpty());
+
+		logger.info(this.testEndInfo());
+	}
+
     private void cleanData(int dataCount, KineticClient client)
             throws KineticException {
 	    KVGenerator kvGenerator = new KVGenerator();
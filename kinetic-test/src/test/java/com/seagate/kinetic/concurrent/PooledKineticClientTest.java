@@ -0,0 +1,280 @@
+/**
+ * Copyright 2013-2015 Seagate Technology LLC.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla
+ * Public License, v. 2.0. If a copy of the MPL was not
+ * distributed with this file, You can obtain one at
+ * https://mozilla.org/MP:/2.0/.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but is provided AS-IS, WITHOUT ANY WARRANTY; including without
+ * the implied warranty of MERCHANTABILITY, NON-INFRINGEMENT or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the Mozilla Public
+ * License for more details.
+ *
+ * See www.openkinetic.org for more project information
+ */
+package com.seagate.kinetic.concurrent;
+
+import static com.seagate.kinetic.KineticTestHelpers.toByteArray;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+import static org.testng.internal.junit.ArrayAsserts.assertArrayEquals;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import kinetic.client.AsyncKineticException;
+import kinetic.client.CallbackHandler;
+import kinetic.client.CallbackResult;
+import kinetic.client.ClientConfiguration;
+import kinetic.client.Entry;
+import kinetic.client.EntryMetadata;
+import kinetic.client.KineticClient;
+import kinetic.client.KineticClientFactory;
+import kinetic.client.KineticException;
+
+import org.testng.annotations.Test;
+
+import com.seagate.kinetic.ConnectionProxy;
+import com.seagate.kinetic.IntegrationTestCase;
+import com.seagate.kinetic.IntegrationTestLoggerFactory;
+
+/**
+ * Pooled (multi-connection) Kinetic client test.
+ * <p>
+ *
+ * @see KineticClientFactory#createPooledInstance(ClientConfiguration, int)
+ */
+@Test(groups = { "simulator", "drive" })
+public class PooledKineticClientTest extends IntegrationTestCase {
+    private static final Logger logger = IntegrationTestLoggerFactory
+            .getLogger(PooledKineticClientTest.class.getName());
+
+    private static final int CONNECTIONS = 4;
+
+    /**
+     * Test concurrent threads sharing one pooled client.
+     * <p>
+     */
+    @Test(dataProvider = "transportProtocolOptions")
+    public void testPooledClientConcurrentOps(String clientName)
+            throws Exception {
+
+        final KineticClient client = KineticClientFactory
+                .createPooledInstance(
+                        kineticClientConfigutations.get(clientName),
+                        CONNECTIONS);
+
+        try {
+            int nthreads = 16;
+            final int ops = 100;
+
+            final List<Throwable> failures = Collections
+                    .synchronizedList(new ArrayList<Throwable>());
+
+            final CountDownLatch done = new CountDownLatch(nthreads);
+
+            for (int t = 0; t < nthreads; t++) {
+
+                final int id = t;
+
+                new Thread() {
+                    @Override
+                    public void run() {
+                        try {
+                            for (int i = 0; i < ops; i++) {
+                                byte[] key = toByteArray("pool-" + id + "-" + i);
+                                byte[] value = toByteArray("value-" + i);
+
+                                client.putForced(new Entry(key, value,
+                                        new EntryMetadata()));
+
+                                assertArrayEquals(value, client.get(key)
+                                        .getValue());
+
+                                assertTrue(client.deleteForced(key));
+                            }
+                        } catch (Throwable e) {
+                            failures.add(e);
+                        } finally {
+                            done.countDown();
+                        }
+                    }
+                }.start();
+            }
+
+            assertTrue(done.await(60, TimeUnit.SECONDS));
+            assertEquals(failures.toString(), 0, failures.size());
+
+            List<Entry> entries = new ArrayList<Entry>();
+            List<byte[]> keys = new ArrayList<byte[]>();
+
+            for (int i = 0; i < 200; i++) {
+                byte[] key = toByteArray("pool-bulk-" + i);
+                keys.add(key);
+                entries.add(new Entry(key, key, new EntryMetadata()));
+            }
+
+            assertEquals(0, client.putAll(entries).getErrorCount());
+
+            List<Entry> results = client.getAll(keys).getResults();
+
+            for (int i = 0; i < keys.size(); i++) {
+                assertArrayEquals(keys.get(i), results.get(i).getValue());
+            }
+
+            assertEquals(0, client.deleteAll(keys).getErrorCount());
+
+            logger.info(this.testEndInfo());
+        } finally {
+            client.close();
+        }
+    }
+
+    /**
+     * Test async writes to the same key are performed, and their callbacks
+     * delivered, in the order they are submitted.
+     * <p>
+     */
+    @Test(dataProvider = "transportProtocolOptions")
+    public void testPooledClientKeyOrder(String clientName) throws Exception {
+
+        KineticClient client = KineticClientFactory.createPooledInstance(
+                kineticClientConfigutations.get(clientName), CONNECTIONS);
+
+        try {
+            byte[] key = toByteArray("pool-order");
+
+            int count = 200;
+
+            final List<Integer> completed = Collections
+                    .synchronizedList(new ArrayList<Integer>());
+
+            final List<Throwable> failures = Collections
+                    .synchronizedList(new ArrayList<Throwable>());
+
+            final CountDownLatch done = new CountDownLatch(count);
+
+            for (int i = 0; i < count; i++) {
+
+                final int seq = i;
+
+                client.putForcedAsync(new Entry(key, toByteArray("value-" + i),
+                        new EntryMetadata()), new CallbackHandler<Entry>() {
+                    @Override
+                    public void onSuccess(CallbackResult<Entry> result) {
+                        completed.add(seq);
+                        done.countDown();
+                    }
+
+                    @Override
+                    public void onError(AsyncKineticException exception) {
+                        failures.add(exception);
+                        done.countDown();
+                    }
+                });
+            }
+
+            assertTrue(done.await(60, TimeUnit.SECONDS));
+            assertEquals(failures.toString(), 0, failures.size());
+
+            for (int i = 0; i < count; i++) {
+                assertEquals(i, completed.get(i).intValue());
+            }
+
+            assertArrayEquals(toByteArray("value-" + (count - 1)), client
+                    .get(key).getValue());
+
+            assertTrue(client.deleteForced(key));
+
+            logger.info(this.testEndInfo());
+        } finally {
+            client.close();
+        }
+    }
+
+    /**
+     * Test lost member connections are replaced in the background. An
+     * operation does not wait for a new connection.
+     * <p>
+     */
+    @Test(dataProvider = "transportProtocolOptions")
+    public void testPooledClientReconnectInBackground(String clientName)
+            throws Exception {
+
+        ConnectionProxy proxy = new ConnectionProxy(
+                kineticClientConfigutations.get(clientName));
+
+        ClientConfiguration config = getClientConfig(clientName);
+        config.setHost("127.0.0.1");
+        config.setPort(proxy.getPort());
+        config.setRequestTimeoutMillis(2000);
+
+        KineticClient client = KineticClientFactory.createPooledInstance(
+                config, 2);
+
+        try {
+            byte[] key = toByteArray("pool-reconnect");
+            byte[] value = toByteArray("value");
+
+            client.putForced(new Entry(key, value, new EntryMetadata()));
+
+            // new connections hang in the connection id hand shake
+            proxy.setDropResponses(true);
+            proxy.reset();
+
+            long deadline = System.nanoTime()
+                    + TimeUnit.SECONDS.toNanos(10);
+
+            boolean failed = false;
+
+            while (failed == false && System.nanoTime() - deadline < 0) {
+
+                long start = System.nanoTime();
+
+                try {
+                    client.noop();
+                    Thread.sleep(10);
+                } catch (KineticException e) {
+                    failed = true;
+                }
+
+                // not blocked by a reconnect in progress
+                assertTrue(System.nanoTime() - start < TimeUnit.SECONDS
+                        .toNanos(3));
+            }
+
+            assertTrue(failed);
+
+            // lost connections are replaced once the service responds
+            proxy.setDropResponses(false);
+            proxy.reset();
+
+            Entry entry = null;
+
+            deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+
+            while (entry == null && System.nanoTime() - deadline < 0) {
+                try {
+                    entry = client.get(key);
+                } catch (KineticException e) {
+                    Thread.sleep(100);
+                }
+            }
+
+            assertArrayEquals(value, entry.getValue());
+
+            assertTrue(client.deleteForced(key));
+
+            logger.info(this.testEndInfo());
+        } finally {
+            client.close();
+            proxy.close();
+        }
+    }
+}
@@ -0,0 +1,154 @@
+/**
+ * Copyright 2013-2015 Seagate Technology LLC.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla
+ * Public License, v. 2.0. If a copy of the MPL was not
+ * distributed with this file, You can obtain one at
+ * https://mozilla.org/MP:/2.0/.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but is provided AS-IS, WITHOUT ANY WARRANTY; including without 
+ * the implied warranty of MERCHANTABILITY, NON-INFRINGEMENT or 
+ * FITNESS FOR A PARTICULAR PURPOSE. See the Mozilla Public 
+ * License for more details.
+ *
+ * See www.openkinetic.org for more project information
+ */
+package com.seagate.kinetic.performance;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.embedded.EmbeddedChannel;
+
+import java.lang.management.ManagementFactory;
+import java.security.Key;
+
+import javax.crypto.spec.SecretKeySpec;
+
+import com.google.protobuf.ByteString;
+import com.seagate.kinetic.common.lib.Hmac;
+import com.seagate.kinetic.common.lib.KineticMessage;
+import com.seagate.kinetic.common.protocol.codec.KineticDecoder;
+import com.seagate.kinetic.common.protocol.codec.KineticEncoder;
+import com.seagate.kinetic.proto.Kinetic.Command;
+import com.seagate.kinetic.proto.Kinetic.Command.MessageType;
+import com.seagate.kinetic.proto.Kinetic.Message;
+import com.seagate.kinetic.proto.Kinetic.Message.AuthType;
+
+/**
+ *
+ * Command serialization round trip benchmark.
+ * <p>
+ * Each operation builds a GET command, serializes it once and calculates its
+ * HMAC the same way the client finalizes a request, encodes and decodes the
+ * message with the Netty codec, and checks the HMAC of the decoded message the
+ * same way the simulator does. No network or simulator is involved.
+ * <p>
+ * Reports the average latency and the number of bytes allocated by the
+ * calling thread per round trip.
+ * <p>
+ * Usage: CommandRoundTripPerf [Operation_Count] [Repeat_Count] [Key_Size]
+ *
+ */
+public class CommandRoundTripPerf {
+
+    private static final int WARM_UP_COUNT = 50000;
+    private static int OPERATE_COUNT = 500000;
+    private static int REPEAT_COUNT = 5;
+    private static int KEY_SIZE = 32;
+
+    private static final Key KEY = new SecretKeySpec(
+            ByteString.copyFromUtf8("asdfasdf").toByteArray(), "HmacSHA1");
+
+    public static void main(String[] args) throws Exception {
+
+        if (args.length == 3) {
+            OPERATE_COUNT = Integer.parseInt(args[0]);
+            REPEAT_COUNT = Integer.parseInt(args[1]);
+            KEY_SIZE = Integer.parseInt(args[2]);
+        }
+
+        ByteString key = ByteString.copyFrom(new byte[KEY_SIZE]);
+
+        EmbeddedChannel encoder = new EmbeddedChannel(new KineticEncoder());
+        EmbeddedChannel decoder = new EmbeddedChannel(new KineticDecoder());
+
+        try {
+            // warm up
+            for (int i = 0; i < WARM_UP_COUNT; i++) {
+                roundTrip(encoder, decoder, key, i);
+            }
+
+            for (int r = 0; r < REPEAT_COUNT; r++) {
+                runOnce(encoder, decoder, key, r);
+            }
+        } finally {
+            encoder.finish();
+            decoder.finish();
+        }
+    }
+
+    private static void runOnce(EmbeddedChannel encoder,
+            EmbeddedChannel decoder, ByteString key, int run)
+            throws Exception {
+
+        com.sun.management.ThreadMXBean mxbean = (com.sun.management.ThreadMXBean) ManagementFactory
+                .getThreadMXBean();
+
+        long tid = Thread.currentThread().getId();
+
+        long allocStart = mxbean.getThreadAllocatedBytes(tid);
+        long timeStart = System.nanoTime();
+
+        for (int i = 0; i < OPERATE_COUNT; i++) {
+            roundTrip(encoder, decoder, key, i);
+        }
+
+        long timeEnd = System.nanoTime();
+        long allocEnd = mxbean.getThreadAllocatedBytes(tid);
+
+        System.out.println("run=" + run + ", ops=" + OPERATE_COUNT
+                + ", avg latency(ns)="
+                + ((timeEnd - timeStart) / OPERATE_COUNT) + ", bytes/op="
+                + ((allocEnd - allocStart) / OPERATE_COUNT));
+    }
+
+    private static void roundTrip(EmbeddedChannel encoder,
+            EmbeddedChannel decoder, ByteString key, long sequence)
+            throws Exception {
+
+        // request as finalized by the client
+        Command.Builder commandBuilder = Command.newBuilder();
+        commandBuilder.getHeaderBuilder().setMessageType(MessageType.GET)
+                .setClusterVersion(0).setConnectionID(1234)
+                .setSequence(sequence);
+        commandBuilder.getBodyBuilder().getKeyValueBuilder().setKey(key);
+
+        ByteString commandBytes = commandBuilder.build().toByteString();
+
+        Message.Builder messageBuilder = Message.newBuilder();
+        messageBuilder.setAuthType(AuthType.HMACAUTH);
+        messageBuilder.getHmacAuthBuilder().setIdentity(1)
+                .setHmac(Hmac.calc(commandBytes, KEY));
+        messageBuilder.setCommandBytes(commandBytes);
+
+        KineticMessage request = new KineticMessage();
+        request.setMessage(messageBuilder);
+        request.setCommand(commandBuilder);
+
+        // wire
+        encoder.writeOutbound(request);
+
+        ByteBuf frame;
+        while ((frame = (ByteBuf) encoder.readOutbound()) != null) {
+            decoder.writeInbound(frame);
+        }
+
+        // request as received by the simulator
+        KineticMessage received = (KineticMessage) decoder.readInbound();
+
+        if (!Hmac.check(received, KEY)
+                || received.getCommand().getHeader().getSequence() != sequence) {
+            throw new IllegalStateException("round trip mismatch");
+        }
+    }
+}
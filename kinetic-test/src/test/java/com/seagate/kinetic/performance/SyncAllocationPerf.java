@@ -0,0 +1,126 @@
+/**
+ * Copyright 2013-2015 Seagate Technology LLC.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla
+ * Public License, v. 2.0. If a copy of the MPL was not
+ * distributed with this file, You can obtain one at
+ * https://mozilla.org/MP:/2.0/.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but is provided AS-IS, WITHOUT ANY WARRANTY; including without
+ * the implied warranty of MERCHANTABILITY, NON-INFRINGEMENT or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the Mozilla Public
+ * License for more details.
+ *
+ * See www.openkinetic.org for more project information
+ */
+package com.seagate.kinetic.performance;
+
+import java.lang.management.ManagementFactory;
+
+import kinetic.client.ClientConfiguration;
+import kinetic.client.Entry;
+import kinetic.client.KineticClient;
+import kinetic.client.KineticClientFactory;
+import kinetic.simulator.KineticSimulator;
+import kinetic.simulator.SimulatorConfiguration;
+
+/**
+ *
+ * Synchronous small GET allocation benchmark.
+ * <p>
+ * Starts an in-process memory store simulator and reports the number of bytes
+ * allocated by the calling thread, and by the whole JVM, per synchronous get
+ * operation.
+ * <p>
+ * Usage: SyncAllocationPerf [Operation_Count] [Repeat_Count] [Port]
+ *
+ */
+public class SyncAllocationPerf {
+
+    private static final int WARM_UP_COUNT = 20000;
+    private static int OPERATE_COUNT = 100000;
+    private static int REPEAT_COUNT = 5;
+    private static int PORT = 9016;
+
+    public static void main(String[] args) throws Exception {
+
+        if (args.length == 3) {
+            OPERATE_COUNT = Integer.parseInt(args[0]);
+            REPEAT_COUNT = Integer.parseInt(args[1]);
+            PORT = Integer.parseInt(args[2]);
+        }
+
+        SimulatorConfiguration sconfig = new SimulatorConfiguration();
+        sconfig.setPort(PORT);
+        sconfig.setSslPort(PORT + 1);
+        sconfig.setUseMemoryStore(true);
+        KineticSimulator simulator = new KineticSimulator(sconfig);
+
+        ClientConfiguration cconfig = new ClientConfiguration();
+        cconfig.setPort(PORT);
+        KineticClient client = KineticClientFactory.createInstance(cconfig);
+
+        byte[] key = "allocation-perf-key".getBytes();
+        client.putForced(new Entry(key, new byte[64]));
+
+        try {
+            // warm up
+            for (int i = 0; i < WARM_UP_COUNT; i++) {
+                client.get(key);
+            }
+
+            for (int r = 0; r < REPEAT_COUNT; r++) {
+                runOnce(client, key, r);
+            }
+        } finally {
+            client.deleteForced(key);
+            client.close();
+            simulator.close();
+        }
+    }
+
+    private static void runOnce(KineticClient client, byte[] key, int run)
+            throws Exception {
+
+        com.sun.management.ThreadMXBean mxbean = (com.sun.management.ThreadMXBean) ManagementFactory
+                .getThreadMXBean();
+
+        long tid = Thread.currentThread().getId();
+
+        long threadStart = mxbean.getThreadAllocatedBytes(tid);
+        long jvmStart = totalAllocatedBytes(mxbean);
+        long timeStart = System.nanoTime();
+
+        for (int i = 0; i < OPERATE_COUNT; i++) {
+            client.get(key);
+        }
+
+        long timeEnd = System.nanoTime();
+        long threadEnd = mxbean.getThreadAllocatedBytes(tid);
+        long jvmEnd = totalAllocatedBytes(mxbean);
+
+        System.out.println("run=" + run + ", ops=" + OPERATE_COUNT
+                + ", avg latency(us)="
+                + ((timeEnd - timeStart) / 1000.0 / OPERATE_COUNT)
+                + ", caller bytes/op="
+                + ((threadEnd - threadStart) / OPERATE_COUNT)
+                + ", jvm bytes/op=" + ((jvmEnd - jvmStart) / OPERATE_COUNT));
+    }
+
+    private static long totalAllocatedBytes(
+            com.sun.management.ThreadMXBean mxbean) {
+
+        long[] ids = mxbean.getAllThreadIds();
+        long[] bytes = mxbean.getThreadAllocatedBytes(ids);
+
+        long total = 0;
+        for (long b : bytes) {
+            if (b > 0) {
+                total += b;
+            }
+        }
+
+        return total;
+    }
+}
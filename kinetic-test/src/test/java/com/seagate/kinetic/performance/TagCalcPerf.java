@@ -0,0 +1,115 @@
+/**
+ * Copyright 2013-2015 Seagate Technology LLC.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla
+ * Public License, v. 2.0. If a copy of the MPL was not
+ * distributed with this file, You can obtain one at
+ * https://mozilla.org/MP:/2.0/.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but is provided AS-IS, WITHOUT ANY WARRANTY; including without 
+ * the implied warranty of MERCHANTABILITY, NON-INFRINGEMENT or 
+ * FITNESS FOR A PARTICULAR PURPOSE. See the Mozilla Public 
+ * License for more details.
+ *
+ * See www.openkinetic.org for more project information
+ */
+package com.seagate.kinetic.performance;
+
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+
+import com.seagate.kinetic.common.lib.Crc32TagCalc;
+import com.seagate.kinetic.common.lib.Crc32cChecksum;
+import com.seagate.kinetic.common.lib.Crc32cTagCalc;
+import com.seagate.kinetic.common.lib.Crc32cTagCalc2;
+import com.seagate.kinetic.common.lib.KineticTagCalc;
+import com.seagate.kinetic.common.lib.MessageDigestTagCalc;
+
+/**
+ *
+ * Tag calculation benchmark.
+ * <p>
+ * Compares the throughput of the KineticTagCalc implementations (SHA1, SHA2,
+ * CRC32, CRC32C with Snappy and CRC32C) for a value size, with one shared
+ * instance used by the specified number of threads.
+ * <p>
+ * Usage: TagCalcPerf [Value_Size] [Operation_Count] [Thread_Count]
+ *
+ */
+public class TagCalcPerf {
+
+    private static int VALUE_SIZE = 4096;
+    private static int OPERATE_COUNT = 200000;
+    private static int THREAD_COUNT = 1;
+
+    public static void main(String[] args) throws Exception {
+
+        if (args.length == 3) {
+            VALUE_SIZE = Integer.parseInt(args[0]);
+            OPERATE_COUNT = Integer.parseInt(args[1]);
+            THREAD_COUNT = Integer.parseInt(args[2]);
+        }
+
+        byte[] value = new byte[VALUE_SIZE];
+        new Random(0).nextBytes(value);
+
+        System.out.println("value size=" + VALUE_SIZE + ", ops/thread="
+                + OPERATE_COUNT + ", threads=" + THREAD_COUNT
+                + ", jdk crc32c=" + Crc32cChecksum.isJdkCrc32c());
+
+        KineticTagCalc[] tagCalcs = new KineticTagCalc[] {
+                new MessageDigestTagCalc("SHA-1"),
+                new MessageDigestTagCalc("SHA-256"), new Crc32TagCalc(),
+                new Crc32cTagCalc(), new Crc32cTagCalc2() };
+
+        for (KineticTagCalc tagCalc : tagCalcs) {
+
+            // warm up
+            run(tagCalc, value, OPERATE_COUNT / 10, THREAD_COUNT);
+
+            long nanos = run(tagCalc, value, OPERATE_COUNT, THREAD_COUNT);
+
+            long ops = (long) OPERATE_COUNT * THREAD_COUNT;
+
+            System.out.println(tagCalc.getClass().getSimpleName() + "("
+                    + tagCalc.getAlgoName() + "): avg latency(ns)="
+                    + (nanos * THREAD_COUNT / ops) + ", MB/s="
+                    + (long) (ops * (double) VALUE_SIZE * 1000000000L
+                            / nanos / (1024 * 1024)));
+        }
+    }
+
+    private static long run(final KineticTagCalc tagCalc,
+            final byte[] value, final int count, int nthreads)
+            throws InterruptedException {
+
+        final CountDownLatch start = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(nthreads);
+
+        for (int t = 0; t < nthreads; t++) {
+            new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+
+                        for (int i = 0; i < count; i++) {
+                            tagCalc.calculateTag(value);
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        done.countDown();
+                    }
+                }
+            }.start();
+        }
+
+        long startTime = System.nanoTime();
+        start.countDown();
+        done.await();
+
+        return System.nanoTime() - startTime;
+    }
+}
@@ -0,0 +1,248 @@
+/**
+ * Copyright 2013-2015 Seagate Technology LLC.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla
+ * Public License, v. 2.0. If a copy of the MPL was not
+ * distributed with this file, You can obtain one at
+ * https://mozilla.org/MP:/2.0/.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but is provided AS-IS, WITHOUT ANY WARRANTY; including without 
+ * the implied warranty of MERCHANTABILITY, NON-INFRINGEMENT or 
+ * FITNESS FOR A PARTICULAR PURPOSE. See the Mozilla Public 
+ * License for more details.
+ *
+ * See www.openkinetic.org for more project information
+ */
+package com.seagate.kinetic.simulator.client.cluster;
+
+import static com.seagate.kinetic.KineticTestHelpers.toByteArray;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+import static org.testng.internal.junit.ArrayAsserts.assertArrayEquals;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Logger;
+
+import kinetic.client.BulkResult;
+import kinetic.client.ClientConfiguration;
+import kinetic.client.Entry;
+import kinetic.client.EntryMetadata;
+import kinetic.client.cluster.ConsistentHashPartitioner;
+import kinetic.client.cluster.JumpHashPartitioner;
+import kinetic.client.cluster.KineticClusterClient;
+import kinetic.client.cluster.KineticClusterClientFactory;
+import kinetic.client.cluster.Partitioner;
+import kinetic.simulator.SimulatorConfiguration;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.seagate.kinetic.SimulatorTestTarget;
+import com.seagate.kinetic.client.internal.DefaultKineticClusterClient;
+
+/**
+ * Kinetic cluster client test.
+ * <p>
+ * Starts one simulator per shard.
+ *
+ * @see KineticClusterClient
+ */
+@Test(groups = { "simulator" })
+public class KineticClusterClientTest {
+
+    Logger logger = Logger.getLogger(KineticClusterClientTest.class.getName());
+
+    private final int max = 3;
+    private final int portbase = 18223;
+    private final int sslPortbase = 18543;
+
+    private final SimulatorTestTarget[] servers = new SimulatorTestTarget[max];
+
+    private final List<ClientConfiguration> cconfigs = new ArrayList<ClientConfiguration>();
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+
+        cconfigs.clear();
+
+        for (int i = 0; i < max; i++) {
+
+            int myport = portbase + i;
+
+            SimulatorConfiguration sconfig = new SimulatorConfiguration();
+            sconfig.setPort(myport);
+            sconfig.setSslPort(sslPortbase + i);
+            sconfig.put(SimulatorConfiguration.PERSIST_HOME, "instance_"
+                    + myport);
+
+            servers[i] = new SimulatorTestTarget(true, sconfig);
+
+            ClientConfiguration config = new ClientConfiguration();
+            config.setPort(myport);
+
+            cconfigs.add(config);
+        }
+    }
+
+    @Test
+    public void testPartitionersAreBalanced() {
+
+        Partitioner[] partitioners = { new ConsistentHashPartitioner(),
+                new JumpHashPartitioner() };
+
+        int keys = 30000;
+        int shards = 10;
+
+        for (Partitioner partitioner : partitioners) {
+
+            int[] counts = new int[shards];
+
+            for (int i = 0; i < keys; i++) {
+                byte[] key = toByteArray("balance-key" + i);
+
+                int shard = partitioner.partition(key, shards);
+                assertEquals(shard, partitioner.partition(key, shards));
+
+                counts[shard]++;
+            }
+
+            for (int count : counts) {
+                String msg = partitioner.getClass().getSimpleName() + ": "
+                        + count;
+                assertTrue(msg, count > keys / shards * 0.7);
+                assertTrue(msg, count < keys / shards * 1.3);
+            }
+        }
+    }
+
+    @Test
+    public void testPartitionersMoveFewKeysOnResize() {
+
+        Partitioner[] partitioners = { new ConsistentHashPartitioner(),
+                new JumpHashPartitioner() };
+
+        int keys = 10000;
+
+        for (Partitioner partitioner : partitioners) {
+
+            int moved = 0;
+
+            for (int i = 0; i < keys; i++) {
+                byte[] key = toByteArray("resize-key" + i);
+
+                int before = partitioner.partition(key, 4);
+                int after = partitioner.partition(key, 5);
+
+                if (before != after) {
+                    // keys only move to the new shard
+                    assertEquals(4, after);
+                    moved++;
+                }
+            }
+
+            // about 1/5 of the keys are expected to move
+            assertTrue(partitioner.getClass().getSimpleName() + ": " + moved,
+                    moved < keys * 0.3);
+        }
+    }
+
+    @Test
+    public void testClusterOperations() throws Exception {
+
+        KineticClusterClient client = KineticClusterClientFactory
+                .createInstance(cconfigs);
+
+        try {
+            assertEquals(max, client.getShardCount());
+
+            // max key range count of the simulator
+            int count = 200;
+
+            List<Entry> entries = new ArrayList<Entry>();
+            List<byte[]> keys = new ArrayList<byte[]>();
+
+            for (int i = 0; i < count; i++) {
+                byte[] key = toByteArray("cluster-key" + i);
+                keys.add(key);
+                entries.add(new Entry(key, toByteArray("cluster-value" + i),
+                        new EntryMetadata()));
+            }
+
+            assertEquals(0, client.putAll(entries).getErrorCount());
+
+            // each entry is stored on its shard only
+            int[] counts = new int[max];
+            for (byte[] key : keys) {
+                int shard = client.getShard(key);
+                counts[shard]++;
+
+                assertArrayEquals(key, client.getShardClient(shard).get(key)
+                        .getKey());
+                assertNull(client.getShardClient((shard + 1) % max).get(key));
+            }
+
+            for (int c : counts) {
+                assertTrue(c > 0);
+            }
+
+            BulkResult<Entry> gets = client.getAll(keys);
+            for (int i = 0; i < count; i++) {
+                assertArrayEquals(toByteArray("cluster-value" + i), gets
+                        .getResult(i).getValue());
+            }
+
+            List<byte[]> sorted = new ArrayList<byte[]>(keys);
+            Collections.sort(sorted, DefaultKineticClusterClient.KEY_ORDER);
+
+            // merged range across all shards
+            List<byte[]> range = client.getKeyRange(toByteArray("cluster-"),
+                    true, toByteArray("cluster-key~"), true, count);
+
+            assertEquals(count, range.size());
+            for (int i = 0; i < count; i++) {
+                assertArrayEquals(sorted.get(i), range.get(i));
+            }
+
+            // limited range returns the first keys of the cluster
+            range = client.getKeyRange(sorted.get(10), false,
+                    sorted.get(count - 1), true, 50);
+
+            assertEquals(50, range.size());
+            for (int i = 0; i < 50; i++) {
+                assertArrayEquals(sorted.get(11 + i), range.get(i));
+            }
+
+            byte[] key = keys.get(0);
+            assertArrayEquals(toByteArray("cluster-value0"), client.get(key)
+                    .getValue());
+            assertTrue(client.deleteForced(key));
+            assertNull(client.get(key));
+
+            assertEquals(0, client.deleteAll(keys).getErrorCount());
+
+            assertEquals(
+                    0,
+                    client.getKeyRange(toByteArray("cluster-"), true,
+                            toByteArray("cluster-key~"), true, count).size());
+
+            logger.info("cluster client test passed");
+        } finally {
+            client.close();
+        }
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+
+        for (int i = 0; i < max; i++) {
+            if (servers[i] != null) {
+                servers[i].shutdown();
+            }
+        }
+    }
+}
@@ -0,0 +1,143 @@
+/**
+ * Copyright 2013-2015 Seagate Technology LLC.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla
+ * Public License, v. 2.0. If a copy of the MPL was not
+ * distributed with this file, You can obtain one at
+ * https://mozilla.org/MP:/2.0/.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but is provided AS-IS, WITHOUT ANY WARRANTY; including without 
+ * the implied warranty of MERCHANTABILITY, NON-INFRINGEMENT or 
+ * FITNESS FOR A PARTICULAR PURPOSE. See the Mozilla Public 
+ * License for more details.
+ *
+ * See www.openkinetic.org for more project information
+ */
+package com.seagate.kinetic.simulator.client.internal;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+import static org.testng.internal.junit.ArrayAsserts.assertArrayEquals;
+
+import java.util.logging.Logger;
+
+import kinetic.client.ClientConfiguration;
+import kinetic.client.Entry;
+import kinetic.client.KineticClient;
+import kinetic.client.KineticClientFactory;
+import kinetic.simulator.KineticSimulator;
+import kinetic.simulator.SimulatorConfiguration;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.seagate.kinetic.client.io.provider.nio.tcp.NioWorkerGroup;
+import com.seagate.kinetic.common.lib.EpollUtil;
+
+/**
+ * Native (epoll) transport test.
+ * <p>
+ * Runs a simulator with the native transport and socket options set, and
+ * verifies native, nio and ssl clients. If the native transport is not
+ * available, both sides fall back to nio.
+ *
+ * @see ClientConfiguration#setUseEpoll(boolean)
+ * @see SimulatorConfiguration#setUseEpoll(boolean)
+ */
+@Test(groups = { "simulator" })
+public class EpollTransportTest {
+
+    Logger logger = Logger.getLogger(EpollTransportTest.class.getName());
+
+    private final int port = 18223;
+    private final int sslPort = 18543;
+
+    private KineticSimulator server = null;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+
+        SimulatorConfiguration sconfig = new SimulatorConfiguration();
+        sconfig.setPort(port);
+        sconfig.setSslPort(sslPort);
+        sconfig.setUseMemoryStore(true);
+        sconfig.setUseEpoll(true);
+        sconfig.setSendBufferSize(256 * 1024);
+        sconfig.setReceiveBufferSize(256 * 1024);
+
+        server = new KineticSimulator(sconfig);
+
+        logger.info("server started, port=" + port + ", epoll available="
+                + EpollUtil.isAvailable());
+    }
+
+    @Test
+    public void testWorkerGroupFallback() {
+
+        assertEquals(EpollUtil.isAvailable(),
+                EpollUtil.isEpoll(NioWorkerGroup.getWorkerGroup(true)));
+
+        assertTrue(!EpollUtil.isEpoll(NioWorkerGroup.getWorkerGroup(false)));
+    }
+
+    @Test
+    public void testEpollClient() throws Exception {
+
+        ClientConfiguration config = new ClientConfiguration();
+        config.setPort(port);
+        config.setUseEpoll(true);
+        config.setSendBufferSize(256 * 1024);
+        config.setReceiveBufferSize(256 * 1024);
+
+        putGetDelete(config, "epoll-key");
+    }
+
+    @Test
+    public void testNioClient() throws Exception {
+
+        ClientConfiguration config = new ClientConfiguration();
+        config.setPort(port);
+        config.setUseEpoll(false);
+
+        putGetDelete(config, "nio-key");
+    }
+
+    @Test
+    public void testEpollSslClient() throws Exception {
+
+        ClientConfiguration config = new ClientConfiguration();
+        config.setPort(sslPort);
+        config.setUseSsl(true);
+        config.setUseEpoll(true);
+
+        putGetDelete(config, "epoll-ssl-key");
+    }
+
+    private void putGetDelete(ClientConfiguration config, String name)
+            throws Exception {
+
+        KineticClient client = KineticClientFactory.createInstance(config);
+
+        try {
+            byte[] key = name.getBytes("UTF8");
+            byte[] value = new byte[64 * 1024];
+            value[0] = 1;
+            value[value.length - 1] = 2;
+
+            client.putForced(new Entry(key, value));
+
+            assertArrayEquals(value, client.get(key).getValue());
+
+            assertTrue(client.deleteForced(key));
+        } finally {
+            client.close();
+        }
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        server.close();
+    }
+}
@@ -0,0 +1,127 @@
+/**
+ * Copyright 2013-2015 Seagate Technology LLC.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla
+ * Public License, v. 2.0. If a copy of the MPL was not
+ * distributed with this file, You can obtain one at
+ * https://mozilla.org/MP:/2.0/.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but is provided AS-IS, WITHOUT ANY WARRANTY; including without 
+ * the implied warranty of MERCHANTABILITY, NON-INFRINGEMENT or 
+ * FITNESS FOR A PARTICULAR PURPOSE. See the Mozilla Public 
+ * License for more details.
+ *
+ * See www.openkinetic.org for more project information
+ */
+package com.seagate.kinetic.simulator.client.internal;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+import io.netty.channel.embedded.EmbeddedChannel;
+
+import org.testng.annotations.Test;
+
+import com.seagate.kinetic.client.io.provider.nio.FlushConsolidationHandler;
+
+/**
+ *
+ * Flush consolidation handler test verifies when pending messages are flushed.
+ * <p>
+ *
+ */
+@Test(groups = { "simulator" })
+public class FlushConsolidationHandlerTest {
+
+    /**
+     * Test pending messages are flushed when the batch size is reached.
+     */
+    @Test
+    public void testFlushOnBatchSize() {
+
+        EmbeddedChannel ch = new EmbeddedChannel(new FlushConsolidationHandler(
+                3, 0));
+
+        writeAndFlush(ch, "1");
+        writeAndFlush(ch, "2");
+
+        assertTrue(ch.outboundMessages().isEmpty());
+
+        writeAndFlush(ch, "3");
+
+        assertEquals(3, ch.outboundMessages().size());
+        assertEquals("1", ch.readOutbound());
+
+        // the flush task has nothing left to flush
+        ch.runPendingTasks();
+        assertEquals(2, ch.outboundMessages().size());
+
+        ch.finish();
+    }
+
+    /**
+     * Test pending messages are flushed once the event loop has run the
+     * queued tasks.
+     */
+    @Test
+    public void testFlushWhenIdle() {
+
+        EmbeddedChannel ch = new EmbeddedChannel(new FlushConsolidationHandler(
+                16, 0));
+
+        writeAndFlush(ch, "1");
+        writeAndFlush(ch, "2");
+
+        assertTrue(ch.outboundMessages().isEmpty());
+
+        ch.runPendingTasks();
+
+        assertEquals(2, ch.outboundMessages().size());
+
+        ch.finish();
+    }
+
+    /**
+     * Test pending messages are flushed when the channel is closed.
+     */
+    @Test
+    public void testFlushOnClose() {
+
+        EmbeddedChannel ch = new EmbeddedChannel(new FlushConsolidationHandler(
+                16, 0));
+
+        writeAndFlush(ch, "1");
+
+        assertTrue(ch.outboundMessages().isEmpty());
+
+        ch.close();
+
+        assertEquals(1, ch.outboundMessages().size());
+    }
+
+    /**
+     * Test invalid batch size and delay are rejected.
+     */
+    @Test
+    public void testInvalidArguments() {
+
+        try {
+            new FlushConsolidationHandler(1, 0);
+            assertTrue(false);
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+
+        try {
+            new FlushConsolidationHandler(2, -1);
+            assertTrue(false);
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    private static void writeAndFlush(EmbeddedChannel ch, Object msg) {
+        ch.write(msg);
+        ch.flush();
+    }
+}
@@ -0,0 +1,324 @@
+/**
+ * Copyright 2013-2015 Seagate Technology LLC.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla
+ * Public License, v. 2.0. If a copy of the MPL was not
+ * distributed with this file, You can obtain one at
+ * https://mozilla.org/MP:/2.0/.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but is provided AS-IS, WITHOUT ANY WARRANTY; including without 
+ * the implied warranty of MERCHANTABILITY, NON-INFRINGEMENT or 
+ * FITNESS FOR A PARTICULAR PURPOSE. See the Mozilla Public 
+ * License for more details.
+ *
+ * See www.openkinetic.org for more project information
+ */
+package com.seagate.kinetic.simulator.client.internal;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+import static org.testng.AssertJUnit.fail;
+import static org.testng.internal.junit.ArrayAsserts.assertArrayEquals;
+
+import java.io.DataOutputStream;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.logging.Logger;
+
+import kinetic.client.AsyncKineticException;
+import kinetic.client.CallbackHandler;
+import kinetic.client.CallbackResult;
+import kinetic.client.ClientConfiguration;
+import kinetic.client.Entry;
+import kinetic.client.KineticClient;
+import kinetic.client.KineticClientFactory;
+import kinetic.client.KineticException;
+import kinetic.simulator.KineticSimulator;
+import kinetic.simulator.SimulatorConfiguration;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.seagate.kinetic.proto.Kinetic.Command;
+import com.seagate.kinetic.proto.Kinetic.Message;
+import com.seagate.kinetic.proto.Kinetic.Message.AuthType;
+
+/**
+ * Blocking (non-nio) tcp transport test.
+ * <p>
+ * Runs put/get/delete over the blocking transport against a simulator with
+ * small socket buffers so that reads and gathering writes complete in parts,
+ * and verifies that malformed or truncated frames from a raw socket server
+ * close the connection and fail pending requests instead of hanging.
+ *
+ * @see ClientConfiguration#setUseNio(boolean)
+ */
+@Test(groups = { "simulator", "drive" })
+public class TcpTransportTest {
+
+    Logger logger = Logger.getLogger(TcpTransportTest.class.getName());
+
+    private final int port = 18224;
+
+    // request timeout, a failed frame must release callers well before it
+    private static final long TIMEOUT = 20000;
+
+    private KineticSimulator server = null;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+
+        SimulatorConfiguration sconfig = new SimulatorConfiguration();
+        sconfig.setPort(port);
+        sconfig.setSslPort(port + 1);
+        sconfig.setUseMemoryStore(true);
+        sconfig.setSendBufferSize(8 * 1024);
+        sconfig.setReceiveBufferSize(8 * 1024);
+
+        server = new KineticSimulator(sconfig);
+    }
+
+    @Test
+    public void testPutGetDelete() throws Exception {
+
+        KineticClient client = KineticClientFactory
+                .createInstance(createConfig(port));
+
+        try {
+            for (int size : new int[] { 0, 1, 8 * 1024, 1024 * 1024 }) {
+
+                byte[] key = ("tcp-key-" + size).getBytes("UTF8");
+                byte[] value = new byte[size];
+                for (int i = 0; i < size; i++) {
+                    value[i] = (byte) i;
+                }
+
+                client.putForced(new Entry(key, value));
+
+                Entry entry = client.get(key);
+                assertArrayEquals(key, entry.getKey());
+                assertEquals(size, entry.getValue().length);
+                assertArrayEquals(value, entry.getValue());
+
+                assertTrue(client.deleteForced(key));
+                assertNull(client.get(key));
+            }
+        } finally {
+            client.close();
+        }
+    }
+
+    @Test
+    public void testAsyncLargeValues() throws Exception {
+
+        KineticClient client = KineticClientFactory
+                .createInstance(createConfig(port));
+
+        final int count = 16;
+        final byte[] value = new byte[256 * 1024];
+        value[0] = 1;
+        value[value.length - 1] = 2;
+
+        try {
+            final Object lock = new Object();
+            final int[] done = new int[2];
+
+            for (int i = 0; i < count; i++) {
+                client.putForcedAsync(new Entry(("tcp-async-" + i)
+                        .getBytes("UTF8"), value),
+                        new CallbackHandler<Entry>() {
+
+                            @Override
+                            public void onSuccess(CallbackResult<Entry> result) {
+                                complete(lock, done, 0);
+                            }
+
+                            @Override
+                            public void onError(
+                                    AsyncKineticException exception) {
+                                complete(lock, done, 1);
+                            }
+                        });
+            }
+
+            synchronized (lock) {
+                long deadline = System.currentTimeMillis() + TIMEOUT;
+                while (done[0] + done[1] < count
+                        && System.currentTimeMillis() < deadline) {
+                    lock.wait(100);
+                }
+            }
+
+            assertEquals(count, done[0]);
+
+            for (int i = 0; i < count; i++) {
+                assertArrayEquals(value,
+                        client.get(("tcp-async-" + i).getBytes("UTF8"))
+                                .getValue());
+            }
+        } finally {
+            client.close();
+        }
+    }
+
+    @Test
+    public void testBadMagic() throws Exception {
+        byte[] frame = { 'G', 0, 0, 0, 1, 0, 0, 0, 0, 0 };
+        assertRequestFails(frame, false);
+    }
+
+    @Test
+    public void testNegativeLength() throws Exception {
+        assertRequestFails(header(-1, 0), false);
+    }
+
+    @Test
+    public void testOversizedProtoLength() throws Exception {
+        assertRequestFails(header(Integer.MAX_VALUE, 0), false);
+    }
+
+    @Test
+    public void testOversizedValueLength() throws Exception {
+        assertRequestFails(header(16, Integer.MAX_VALUE), false);
+    }
+
+    @Test
+    public void testTruncatedHeader() throws Exception {
+        byte[] frame = { 'F', 0, 0 };
+        assertRequestFails(frame, true);
+    }
+
+    @Test
+    public void testTruncatedFrame() throws Exception {
+        byte[] header = header(1024, 1024);
+        byte[] frame = new byte[header.length + 100];
+        System.arraycopy(header, 0, frame, 0, header.length);
+        assertRequestFails(frame, true);
+    }
+
+    private static void complete(Object lock, int[] done, int index) {
+        synchronized (lock) {
+            done[index]++;
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Start a raw socket server that completes the handshake, waits for the
+     * first request and answers it with the specified bytes. Verifies the
+     * pending request fails well before the request timeout.
+     */
+    private void assertRequestFails(final byte[] frame,
+            final boolean closeAfterWrite) throws Exception {
+
+        final ServerSocket ss = new ServerSocket(0, 1,
+                InetAddress.getByName("localhost"));
+
+        Thread t = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    Socket s = ss.accept();
+                    DataOutputStream out = new DataOutputStream(
+                            s.getOutputStream());
+
+                    writeHandshake(out);
+
+                    // wait for the request
+                    InputStream in = s.getInputStream();
+                    if (in.read() < 0) {
+                        return;
+                    }
+
+                    out.write(frame);
+                    out.flush();
+
+                    if (closeAfterWrite) {
+                        s.close();
+                    } else {
+                        // the client is expected to close the connection
+                        while (in.read(new byte[1024]) >= 0) {
+                            ;
+                        }
+                        s.close();
+                    }
+                } catch (Exception e) {
+                    logger.info("fake server stopped: " + e.getMessage());
+                }
+            }
+        };
+
+        t.setDaemon(true);
+        t.start();
+
+        KineticClient client = KineticClientFactory
+                .createInstance(createConfig(ss.getLocalPort()));
+
+        long start = System.currentTimeMillis();
+
+        try {
+            client.get("tcp-bad-frame".getBytes("UTF8"));
+            fail("request should fail on a bad frame");
+        } catch (KineticException e) {
+            // expected
+        } finally {
+            client.close();
+            ss.close();
+        }
+
+        long elapsed = System.currentTimeMillis() - start;
+
+        assertTrue("request failed after " + elapsed + " ms",
+                elapsed < TIMEOUT / 2);
+
+        t.join(TIMEOUT);
+    }
+
+    private static byte[] header(int protoLength, int valueLength) {
+        return new byte[] { 'F', (byte) (protoLength >>> 24),
+                (byte) (protoLength >>> 16), (byte) (protoLength >>> 8),
+                (byte) protoLength, (byte) (valueLength >>> 24),
+                (byte) (valueLength >>> 16), (byte) (valueLength >>> 8),
+                (byte) valueLength };
+    }
+
+    private static void writeHandshake(DataOutputStream out) throws Exception {
+
+        Command.Builder command = Command.newBuilder();
+        command.getHeaderBuilder().setConnectionID(1);
+
+        byte[] message = Message.newBuilder()
+                .setAuthType(AuthType.UNSOLICITEDSTATUS)
+                .setCommandBytes(command.build().toByteString()).build()
+                .toByteArray();
+
+        out.write('F');
+        out.writeInt(message.length);
+        out.writeInt(0);
+        out.write(message);
+        out.flush();
+    }
+
+    private static ClientConfiguration createConfig(int port) {
+
+        ClientConfiguration config = new ClientConfiguration();
+        config.setHost("localhost");
+        config.setPort(port);
+        config.setUseNio(false);
+        config.setRequestTimeoutMillis(TIMEOUT);
+        config.setSendBufferSize(8 * 1024);
+        config.setReceiveBufferSize(8 * 1024);
+
+        return config;
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        server.close();
+    }
+}
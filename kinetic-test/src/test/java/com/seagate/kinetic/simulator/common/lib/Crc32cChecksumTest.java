@@ -0,0 +1,163 @@
+/**
+ * Copyright 2013-2015 Seagate Technology LLC.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla
+ * Public License, v. 2.0. If a copy of the MPL was not
+ * distributed with this file, You can obtain one at
+ * https://mozilla.org/MP:/2.0/.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but is provided AS-IS, WITHOUT ANY WARRANTY; including without 
+ * the implied warranty of MERCHANTABILITY, NON-INFRINGEMENT or 
+ * FITNESS FOR A PARTICULAR PURPOSE. See the Mozilla Public 
+ * License for more details.
+ *
+ * See www.openkinetic.org for more project information
+ */
+package com.seagate.kinetic.simulator.common.lib;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.annotations.Test;
+
+import com.google.cloud.Crc32c;
+import com.google.protobuf.ByteString;
+import com.seagate.kinetic.common.lib.Crc32cChecksum;
+import com.seagate.kinetic.common.lib.Crc32cTagCalc2;
+import com.seagate.kinetic.common.lib.KineticTagCalc;
+
+/**
+ *
+ * CRC32C checksum test verify the checksum value and the tag calculation.
+ * <p>
+ *
+ */
+@Test(groups = { "simulator" })
+public class Crc32cChecksumTest {
+
+    private final Random random = new Random(0);
+
+    @Test
+    public void testKnownValue() {
+
+        // CRC32C check value
+        assertEquals(0xE3069283, Crc32cChecksum.calculate("123456789"
+                .getBytes()));
+
+        assertEquals(0, Crc32cChecksum.calculate(new byte[0]));
+    }
+
+    @Test
+    public void testSameAsReference() {
+
+        for (int len = 0; len < 100; len++) {
+            byte[] bytes = randomBytes(len);
+            assertEquals(reference(bytes), Crc32cChecksum.calculate(bytes));
+        }
+
+        byte[] bytes = randomBytes(1024 * 1024 + 3);
+        assertEquals(reference(bytes), Crc32cChecksum.calculate(bytes));
+    }
+
+    @Test
+    public void testIncremental() {
+
+        byte[] bytes = randomBytes(100000);
+        int expected = reference(bytes);
+
+        // array chunks of varying size
+        Crc32cChecksum checksum = new Crc32cChecksum();
+        int off = 0;
+        while (off < bytes.length) {
+            int len = Math.min(bytes.length - off, random.nextInt(5000));
+            checksum.update(bytes, off, len);
+            off += len;
+        }
+        assertEquals(expected, (int) checksum.getValue());
+
+        // single bytes
+        checksum.reset();
+        for (byte b : bytes) {
+            checksum.update(b);
+        }
+        assertEquals(expected, (int) checksum.getValue());
+
+        // heap buffer with an offset and a direct buffer
+        ByteBuffer heap = ByteBuffer.allocate(bytes.length + 10);
+        heap.position(10);
+        ByteBuffer slice = heap.slice();
+        slice.put(bytes).flip();
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+        direct.put(bytes).flip();
+
+        for (ByteBuffer buffer : new ByteBuffer[] { slice, direct }) {
+            checksum.reset();
+            checksum.update(buffer);
+            assertEquals(expected, (int) checksum.getValue());
+
+            // position is not changed
+            assertEquals(0, buffer.position());
+        }
+    }
+
+    @Test
+    public void testTagCalc() throws InterruptedException {
+
+        final KineticTagCalc tagCalc = new Crc32cTagCalc2();
+
+        final byte[] bytes = randomBytes(8192);
+
+        Crc32c crc32c = new Crc32c();
+        crc32c.update(bytes, 0, bytes.length);
+        final ByteString expected = ByteString.copyFrom(crc32c
+                .getValueAsBytes());
+
+        assertEquals(expected, tagCalc.calculateTag(bytes));
+        assertEquals(expected, tagCalc.calculateTag(bytes));
+
+        // concurrent calculation with one instance
+        int nthreads = 8;
+        final CountDownLatch done = new CountDownLatch(nthreads);
+        final AtomicInteger mismatch = new AtomicInteger();
+
+        for (int t = 0; t < nthreads; t++) {
+            new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        for (int i = 0; i < 1000; i++) {
+                            if (!expected.equals(tagCalc.calculateTag(bytes))) {
+                                mismatch.incrementAndGet();
+                            }
+                        }
+                    } finally {
+                        done.countDown();
+                    }
+                }
+            }.start();
+        }
+
+        done.await();
+        assertEquals(0, mismatch.get());
+        assertTrue(expected.equals(tagCalc.calculateTag(bytes)));
+    }
+
+    private byte[] randomBytes(int len) {
+        byte[] bytes = new byte[len];
+        random.nextBytes(bytes);
+        return bytes;
+    }
+
+    private static int reference(byte[] bytes) {
+        Crc32c crc32c = new Crc32c();
+        crc32c.update(bytes, 0, bytes.length);
+        return (int) crc32c.getValue();
+    }
+}
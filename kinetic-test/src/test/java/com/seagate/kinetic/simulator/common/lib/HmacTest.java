@@ -428,4 +428,59 @@ public class HmacTest {
         assertTrue(Arrays.equals(hmacWithTag.toByteArray(),
                 hmacWithTag1.toByteArray()));
     }
+
+    @Test
+    public void testCalcByteString() throws HmacException {
+
+        byte[] bytes = "kinetic-command-bytes".getBytes();
+
+        // byte string variant is calculated in place and equals byte[]
+        assertTrue(Hmac.calc(ByteString.copyFrom(bytes), key).equals(
+                Hmac.calc(bytes, key)));
+
+        assertTrue(Hmac.calc(ByteString.EMPTY, key).equals(
+                Hmac.calc(new byte[0], key)));
+
+        // a sub string only covers its own bytes
+        ByteString sub = ByteString.copyFrom(bytes).substring(8, 15);
+        assertTrue(Hmac.calc(sub, key).equals(
+                Hmac.calc(sub.toByteArray(), key)));
+
+        ByteString expected = Hmac.calc(bytes, key);
+        assertTrue(Hmac.check(ByteString.copyFrom(bytes), key, expected));
+        assertFalse(Hmac.check(ByteString.copyFrom(bytes), key1, expected));
+    }
+
+    @Test
+    public void testCachedMacReuse() throws Exception {
+
+        byte[] bytes = "kinetic-command-bytes".getBytes();
+
+        // expected values calculated with new Mac instances
+        javax.crypto.Mac mac = Hmac.getMacInstance(key);
+        mac.update(new byte[] { 0, 0, 0, (byte) bytes.length });
+        ByteString expected = ByteString.copyFrom(mac.doFinal(bytes));
+
+        javax.crypto.Mac mac1 = Hmac.getMacInstance(key1);
+        mac1.update(new byte[] { 0, 0, 0, (byte) bytes.length });
+        ByteString expected1 = ByteString.copyFrom(mac1.doFinal(bytes));
+
+        // cached instances are reused per key and reset between calculations
+        for (int i = 0; i < 3; i++) {
+            Assert.assertEquals(Hmac.calc(bytes, key), expected);
+            Assert.assertEquals(Hmac.calc(bytes, key1), expected1);
+            Assert.assertEquals(Hmac.calc(ByteString.copyFrom(bytes), key),
+                    expected);
+        }
+
+        // an equal key shares the cached instance
+        Key copy = new SecretKeySpec(ByteString.copyFromUtf8(DEMO_KEY)
+                .toByteArray(), "HmacSHA1");
+        Assert.assertEquals(Hmac.calc(bytes, copy), expected);
+
+        Hmac.invalidateMacCache();
+
+        Assert.assertEquals(Hmac.calc(bytes, key), expected);
+        Assert.assertEquals(Hmac.calc(bytes, key1), expected1);
+    }
 }
@@ -0,0 +1,121 @@
+/**
+ * Copyright 2013-2015 Seagate Technology LLC.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla
+ * Public License, v. 2.0. If a copy of the MPL was not
+ * distributed with this file, You can obtain one at
+ * https://mozilla.org/MP:/2.0/.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but is provided AS-IS, WITHOUT ANY WARRANTY; including without 
+ * the implied warranty of MERCHANTABILITY, NON-INFRINGEMENT or 
+ * FITNESS FOR A PARTICULAR PURPOSE. See the Mozilla Public 
+ * License for more details.
+ *
+ * See www.openkinetic.org for more project information
+ */
+package com.seagate.kinetic.simulator.common.lib;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+import static org.testng.internal.junit.ArrayAsserts.assertArrayEquals;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+
+import org.testng.annotations.Test;
+
+import com.google.protobuf.ByteString;
+import com.seagate.kinetic.common.lib.KineticMessage;
+import com.seagate.kinetic.common.protocol.codec.KineticDecoder;
+import com.seagate.kinetic.proto.Kinetic.Command;
+import com.seagate.kinetic.proto.Kinetic.Command.MessageType;
+import com.seagate.kinetic.proto.Kinetic.Message;
+
+/**
+ *
+ * Kinetic decoder test verifies frames are decoded as their bytes arrive, and
+ * the inbound buffer is not grown to the length announced by a frame header
+ * in advance.
+ * <p>
+ *
+ */
+@Test(groups = { "simulator" })
+public class KineticDecoderTest {
+
+    /**
+     * Test a header announcing a large frame does not grow the inbound
+     * buffer before the frame bytes arrive.
+     */
+    @Test
+    public void testLargeFrameHeaderIsNotPresized() {
+
+        TestDecoder decoder = new TestDecoder();
+        EmbeddedChannel ch = new EmbeddedChannel(decoder);
+
+        ByteBuf header = Unpooled.buffer(9);
+        header.writeByte('F');
+        header.writeInt(16 * 1024 * 1024);
+        header.writeInt(0);
+
+        ch.writeInbound(header);
+
+        assertNull(ch.readInbound());
+        assertTrue(decoder.getCapacity() <= 64 * 1024);
+
+        ch.finish();
+    }
+
+    /**
+     * Test a frame that arrives in parts is decoded once it is complete.
+     */
+    @Test
+    public void testFrameInParts() {
+
+        Command.Builder cb = Command.newBuilder();
+        cb.getHeaderBuilder().setMessageType(MessageType.PUT)
+                .setSequence(1);
+
+        byte[] proto = Message.newBuilder()
+                .setCommandBytes(cb.build().toByteString()).build()
+                .toByteArray();
+
+        byte[] value = new byte[1000];
+        for (int i = 0; i < value.length; i++) {
+            value[i] = (byte) i;
+        }
+
+        ByteBuf frame = Unpooled.buffer();
+        frame.writeByte('F');
+        frame.writeInt(proto.length);
+        frame.writeInt(value.length);
+        frame.writeBytes(proto);
+        frame.writeBytes(value);
+
+        EmbeddedChannel ch = new EmbeddedChannel(new KineticDecoder());
+
+        ch.writeInbound(frame.readSlice(20).retain());
+        assertNull(ch.readInbound());
+
+        ch.writeInbound(frame);
+
+        KineticMessage km = (KineticMessage) ch.readInbound();
+
+        assertEquals(MessageType.PUT, km.getCommand().getHeader()
+                .getMessageType());
+        assertEquals(ByteString.copyFrom(proto),
+                ((Message) km.getMessage()).toByteString());
+        assertArrayEquals(value, km.getValue());
+
+        ch.finish();
+    }
+
+    private static class TestDecoder extends KineticDecoder {
+
+        int getCapacity() {
+            ByteBuf buffer = this.internalBuffer();
+            return buffer.capacity();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/**
+ * Copyright 2013-2015 Seagate Technology LLC.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla
+ * Public License, v. 2.0. If a copy of the MPL was not
+ * distributed with this file, You can obtain one at
+ * https://mozilla.org/MP:/2.0/.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but is provided AS-IS, WITHOUT ANY WARRANTY; including without 
+ * the implied warranty of MERCHANTABILITY, NON-INFRINGEMENT or 
+ * FITNESS FOR A PARTICULAR PURPOSE. See the Mozilla Public 
+ * License for more details.
+ *
+ * See www.openkinetic.org for more project information
+ */
+package com.seagate.kinetic.simulator.common.lib;
+
+import static org.testng.AssertJUnit.assertEquals;
+
+import org.testng.annotations.Test;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.UnknownFieldSet;
+import com.seagate.kinetic.common.lib.ProtocolMessageUtil;
+import com.seagate.kinetic.proto.Kinetic.Command;
+import com.seagate.kinetic.proto.Kinetic.Command.MessageType;
+import com.seagate.kinetic.proto.Kinetic.Message;
+import com.seagate.kinetic.proto.Kinetic.Message.AuthType;
+
+/**
+ *
+ * Protocol message util test verify a message builder is sized the same as
+ * the built message.
+ * <p>
+ *
+ */
+@Test(groups = { "simulator" })
+public class ProtocolMessageUtilTest {
+
+    @Test
+    public void testSerializedSizeOfBuilder() {
+
+        Message.Builder mb = Message.newBuilder();
+
+        assertSize(mb);
+
+        Command.Builder cb = Command.newBuilder();
+        cb.getHeaderBuilder().setMessageType(MessageType.GET)
+                .setSequence(Long.MAX_VALUE).setConnectionID(1234);
+        cb.getBodyBuilder().getKeyValueBuilder()
+                .setKey(ByteString.copyFrom(new byte[300]));
+
+        mb.setCommandBytes(cb.build().toByteString());
+
+        assertSize(mb);
+
+        for (AuthType authType : AuthType.values()) {
+
+            mb.clearHmacAuth().clearPinAuth().setAuthType(authType);
+
+            if (authType == AuthType.HMACAUTH) {
+                mb.getHmacAuthBuilder().setIdentity(1)
+                        .setHmac(ByteString.copyFrom(new byte[20]));
+            } else if (authType == AuthType.PINAUTH) {
+                mb.getPinAuthBuilder().setPin(ByteString.copyFromUtf8("pin"));
+            }
+
+            assertSize(mb);
+        }
+
+        // unknown fields
+        mb.setUnknownFields(UnknownFieldSet
+                .newBuilder()
+                .addField(
+                        100,
+                        UnknownFieldSet.Field.newBuilder().addVarint(42)
+                                .addLengthDelimited(
+                                        ByteString.copyFromUtf8("unknown"))
+                                .build()).build());
+
+        assertSize(mb);
+
+        // built message
+        assertEquals(mb.build().getSerializedSize(),
+                ProtocolMessageUtil.getSerializedSize(mb.build()));
+    }
+
+    private static void assertSize(Message.Builder mb) {
+        assertEquals(mb.getAuthType().name(), mb.build().getSerializedSize(),
+                ProtocolMessageUtil.getSerializedSize(mb));
+    }
+}
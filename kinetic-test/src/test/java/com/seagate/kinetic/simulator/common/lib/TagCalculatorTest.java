@@ -0,0 +1,189 @@
+/**
+ * Copyright 2013-2015 Seagate Technology LLC.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla
+ * Public License, v. 2.0. If a copy of the MPL was not
+ * distributed with this file, You can obtain one at
+ * https://mozilla.org/MP:/2.0/.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but is provided AS-IS, WITHOUT ANY WARRANTY; including without 
+ * the implied warranty of MERCHANTABILITY, NON-INFRINGEMENT or 
+ * FITNESS FOR A PARTICULAR PURPOSE. See the Mozilla Public 
+ * License for more details.
+ *
+ * See www.openkinetic.org for more project information
+ */
+package com.seagate.kinetic.simulator.common.lib;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.fail;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.testng.annotations.Test;
+
+import com.google.protobuf.ByteString;
+import com.seagate.kinetic.common.lib.Crc32cTagCalc;
+import com.seagate.kinetic.common.lib.KineticTagCalc;
+import com.seagate.kinetic.common.lib.MessageDigestTagCalc;
+import com.seagate.kinetic.common.lib.MessageDigestUtil;
+import com.seagate.kinetic.common.lib.TagCalculator;
+import com.seagate.kinetic.common.lib.TagInputStream;
+import com.seagate.kinetic.proto.Kinetic.Command.Algorithm;
+
+/**
+ *
+ * Incremental tag calculation test verify a value tagged in chunks has the
+ * same tag as the value tagged as a whole.
+ * <p>
+ *
+ */
+@Test(groups = { "simulator" })
+public class TagCalculatorTest {
+
+    private static final Algorithm[] ALGORITHMS = new Algorithm[] {
+            Algorithm.SHA1, Algorithm.SHA2, Algorithm.CRC32, Algorithm.CRC32C };
+
+    private final Random random = new Random(0);
+
+    @Test
+    public void testIncrementalTag() {
+
+        byte[] value = randomBytes(100000);
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(value.length);
+        direct.put(value).flip();
+
+        for (Algorithm algo : ALGORITHMS) {
+
+            KineticTagCalc tagCalc = MessageDigestUtil.getInstance(algo);
+
+            ByteString expected = tagCalc.calculateTag(value);
+
+            // array chunks and buffers
+            TagCalculator calc = tagCalc.newTagCalculator();
+            calc.update(value, 0, 1000);
+            calc.update(ByteBuffer.wrap(value, 1000, 30000));
+            direct.position(31000);
+            calc.update(direct);
+            assertEquals(algo.name(), expected, calc.finish());
+
+            // buffer position is not changed
+            assertEquals(31000, direct.position());
+            direct.position(0);
+
+            assertEquals(algo.name(), expected,
+                    MessageDigestUtil.calculateTag(algo, direct));
+            assertEquals(0, direct.position());
+
+            // empty value
+            assertEquals(algo.name(), tagCalc.calculateTag(new byte[0]),
+                    tagCalc.newTagCalculator().finish());
+        }
+    }
+
+    @Test
+    public void testConcurrentSessionsInThread() {
+
+        byte[] value1 = randomBytes(5000);
+        byte[] value2 = randomBytes(7000);
+
+        for (Algorithm algo : ALGORITHMS) {
+
+            KineticTagCalc tagCalc = MessageDigestUtil.getInstance(algo);
+
+            TagCalculator calc1 = tagCalc.newTagCalculator();
+            TagCalculator calc2 = tagCalc.newTagCalculator();
+
+            // interleaved updates
+            calc1.update(value1, 0, 2500);
+            calc2.update(value2, 0, 3500);
+            calc1.update(value1, 2500, 2500);
+            calc2.update(value2, 3500, 3500);
+
+            assertEquals(algo.name(), tagCalc.calculateTag(value2),
+                    calc2.finish());
+            assertEquals(algo.name(), tagCalc.calculateTag(value1),
+                    calc1.finish());
+
+            try {
+                calc1.finish();
+                fail("finished session is used");
+            } catch (IllegalStateException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testSnappyCrc32cSession() {
+
+        KineticTagCalc tagCalc = new Crc32cTagCalc();
+
+        for (int len : new int[] { 0, 1, 7, 8, 9, 4096, 65537 }) {
+            byte[] value = randomBytes(len);
+
+            TagCalculator calc = tagCalc.newTagCalculator();
+            calc.update(value, 0, len);
+
+            assertEquals(tagCalc.calculateTag(value), calc.finish());
+        }
+    }
+
+    @Test
+    public void testTagInputStream() throws Exception {
+
+        byte[] value = randomBytes(10000);
+
+        for (Algorithm algo : ALGORITHMS) {
+
+            KineticTagCalc tagCalc = MessageDigestUtil.getInstance(algo);
+
+            TagInputStream tis = new TagInputStream(new ByteArrayInputStream(
+                    value), tagCalc);
+
+            // first chunk, single byte read then array reads
+            byte[] chunk = new byte[4000];
+            chunk[0] = (byte) tis.read();
+            int off = 1;
+            while (off < chunk.length) {
+                off += tis.read(chunk, off, chunk.length - off);
+            }
+
+            assertEquals(algo.name(),
+                    tagCalc.calculateTag(Arrays.copyOfRange(value, 0, 4000)),
+                    tis.finishTag());
+
+            // second chunk, skipped bytes are tagged
+            assertEquals(1000, tis.skip(1000));
+            while (tis.read(chunk) > 0) {
+                ;
+            }
+
+            assertEquals(algo.name(), tagCalc.calculateTag(Arrays
+                    .copyOfRange(value, 4000, value.length)), tis.finishTag());
+
+            tis.close();
+        }
+    }
+
+    @Test
+    public void testUnsupportedDigestAlgorithm() {
+        try {
+            new MessageDigestTagCalc("NO-SUCH-DIGEST");
+            fail("unsupported algorithm is accepted");
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+    }
+
+    private byte[] randomBytes(int len) {
+        byte[] bytes = new byte[len];
+        random.nextBytes(bytes);
+        return bytes;
+    }
+}